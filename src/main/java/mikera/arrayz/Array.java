@@ -23,6 +23,7 @@ import mikera.vectorz.impl.StridedElementIterator;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
 import mikera.vectorz.util.IntArrays;
+import mikera.vectorz.util.Parallel;
 import mikera.vectorz.util.VectorzException;
 
 /**
@@ -207,6 +208,7 @@ public final class Array extends BaseShapedArray implements IStridedArray, IDens
 
 	@Override
 	public double elementSum() {
+		if (Parallel.useParallel(data.length)) return Parallel.elementSum(data, 0, data.length);
 		return DoubleArrays.elementSum(data);
 	}
 	
@@ -222,6 +224,7 @@ public final class Array extends BaseShapedArray implements IStridedArray, IDens
 
 	@Override
 	public double elementSquaredSum() {
+		if (Parallel.useParallel(data.length)) return Parallel.elementSquaredSum(data, 0, data.length);
 		return DoubleArrays.elementSquaredSum(data);
 	}
 
@@ -272,13 +275,17 @@ public final class Array extends BaseShapedArray implements IStridedArray, IDens
 
 	@Override
 	public void applyOp(Op op) {
+		if (Parallel.useParallel(data.length)) {
+			Parallel.applyOp(op, data, 0, data.length);
+			return;
+		}
 		op.applyTo(data);
 	}
 
 	@Override
 	public void applyOp(IOperator op) {
 		if (op instanceof Op) {
-			((Op) op).applyTo(data);
+			applyOp((Op) op);
 		} else {
 			for (int i = 0; i < data.length; i++) {
 				data[i] = op.apply(data[i]);
@@ -321,6 +328,10 @@ public final class Array extends BaseShapedArray implements IStridedArray, IDens
 
 	@Override
 	public void multiply(double factor) {
+		if (Parallel.useParallel(data.length)) {
+			Parallel.multiply(data, 0, data.length, factor);
+			return;
+		}
 		DoubleArrays.multiply(data, 0, data.length, factor);
 	}
 
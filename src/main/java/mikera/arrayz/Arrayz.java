@@ -9,6 +9,7 @@ import java.util.Random;
 
 import mikera.arrayz.impl.SliceArray;
 import mikera.arrayz.impl.ZeroArray;
+import mikera.arrayz.io.EdnFormat;
 import mikera.matrixx.Matrix;
 import mikera.matrixx.Matrixx;
 import mikera.matrixx.impl.StridedMatrix;
@@ -26,9 +27,6 @@ import mikera.vectorz.impl.ZeroVector;
 import mikera.vectorz.util.ErrorMessages;
 import mikera.vectorz.util.IntArrays;
 import mikera.vectorz.util.VectorzException;
-import us.bpsm.edn.parser.Parseable;
-import us.bpsm.edn.parser.Parser;
-import us.bpsm.edn.parser.Parsers;
 
 /**
  * Static function class for array operations
@@ -182,10 +180,15 @@ public class Arrayz {
 		}
 	}
 	
+	/**
+	 * Load an array from a Reader. Input should be in edn format. Numeric arrays are streamed directly 
+	 * into dense storage, other edn data is converted via the general edn parser.
+	 * 
+	 * @param reader
+	 * @return
+	 */
 	public static INDArray load(Reader reader) {
-		Parseable pbr=Parsers.newParseable(reader);
-		Parser p = Parsers.newParser(Parsers.defaultConfiguration());
-		return Arrayz.create(p.nextValue(pbr));
+		return EdnFormat.read(reader);
 	}
 	
 	/**
@@ -13,6 +13,7 @@ import mikera.vectorz.AVector;
 import mikera.vectorz.IOperator;
 import mikera.vectorz.Op;
 import mikera.vectorz.Vector;
+import mikera.vectorz.util.Summation;
 
 /**
  * Interface for general multi-dimensional arrays of doubles
@@ -348,6 +349,11 @@ public interface INDArray extends Cloneable, Serializable {
 	 */
 	public double elementSum();
 	
+	/**
+	 * Returns the sum of all elements in this array, using the given summation algorithm.
+	 */
+	public double elementSum(Summation mode);
+	
 	/**
 	 * Returns the maximum element value in this array. Throws an error if there are no elements.
 	 */
@@ -363,6 +369,11 @@ public interface INDArray extends Cloneable, Serializable {
 	 */
 	public double elementSquaredSum();
 	
+	/**
+	 * Returns the sum of squared elements in this array, using the given summation algorithm.
+	 */
+	public double elementSquaredSum(Summation mode);
+	
 	/**
 	 * Returns an iterator over all elements in this array, in row-major order
 	 */
@@ -0,0 +1,453 @@
+package mikera.arrayz.algo;
+
+import java.util.Arrays;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.algo.FFT;
+import mikera.matrixx.algo.Multiplications;
+import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Static functions for N-dimensional convolution and correlation of arrays.
+ *
+ * Arrays use a (batch x channel x spatial...) layout, e.g. [N, C, H, W] for 2D images. Kernels
+ * use an (outputChannel x inputChannel x spatial...) layout, e.g. [O, C, KH, KW]. The result has
+ * shape [N, O, spatial...].
+ *
+ * Correlation is computed by unrolling input patches into a matrix (im2col) and performing a
+ * single blocked matrix multiply per batch element. For large kernels with unit stride and
+ * dilation, an FFT based algorithm is used instead.
+ *
+ * @author Mike
+ */
+public class Convolutions {
+	// minimum number of spatial kernel elements for which the FFT algorithm is used
+	static final int FFT_KERNEL_THRESHOLD=64;
+
+	/**
+	 * Computes the correlation of an input array with a kernel, with unit stride and dilation
+	 * and no padding.
+	 *
+	 * This is the operation commonly called "convolution" in neural networks.
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param kernel Kernel array of shape [O, C, kernel...]
+	 * @return
+	 */
+	public static INDArray correlate(INDArray input, INDArray kernel) {
+		int sdims=spatialDimensions(input, kernel);
+		return correlate(input,kernel,filled(sdims,1),filled(sdims,0),filled(sdims,1));
+	}
+
+	/**
+	 * Computes the correlation of an input array with a kernel.
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param kernel Kernel array of shape [O, C, kernel...]
+	 * @param stride Stride for each spatial dimension
+	 * @param padding Zero padding added to both sides of each spatial dimension
+	 * @param dilation Dilation of the kernel in each spatial dimension
+	 * @return
+	 */
+	public static INDArray correlate(INDArray input, INDArray kernel, int[] stride, int[] padding, int[] dilation) {
+		int sdims=spatialDimensions(input, kernel);
+		checkParameters(sdims,stride,padding,dilation);
+		int[] kshape=kernel.getShape();
+		long kernelElements=IntArrays.arrayProduct(kshape, 2, kshape.length);
+		if ((kernelElements>=FFT_KERNEL_THRESHOLD)&&isUnit(stride)&&isUnit(dilation)) {
+			return correlateFFT(input,kernel,padding);
+		}
+		return correlateIm2col(input,kernel,stride,padding,dilation,false);
+	}
+
+	/**
+	 * Computes the convolution of an input array with a kernel, with unit stride and dilation
+	 * and no padding.
+	 *
+	 * Convolution is equivalent to correlation with a kernel flipped in all spatial dimensions.
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param kernel Kernel array of shape [O, C, kernel...]
+	 * @return
+	 */
+	public static INDArray convolve(INDArray input, INDArray kernel) {
+		int sdims=spatialDimensions(input, kernel);
+		return convolve(input,kernel,filled(sdims,1),filled(sdims,0),filled(sdims,1));
+	}
+
+	/**
+	 * Computes the convolution of an input array with a kernel.
+	 *
+	 * Convolution is equivalent to correlation with a kernel flipped in all spatial dimensions.
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param kernel Kernel array of shape [O, C, kernel...]
+	 * @param stride Stride for each spatial dimension
+	 * @param padding Zero padding added to both sides of each spatial dimension
+	 * @param dilation Dilation of the kernel in each spatial dimension
+	 * @return
+	 */
+	public static INDArray convolve(INDArray input, INDArray kernel, int[] stride, int[] padding, int[] dilation) {
+		int sdims=spatialDimensions(input, kernel);
+		checkParameters(sdims,stride,padding,dilation);
+		int[] kshape=kernel.getShape();
+		long kernelElements=IntArrays.arrayProduct(kshape, 2, kshape.length);
+		if ((kernelElements>=FFT_KERNEL_THRESHOLD)&&isUnit(stride)&&isUnit(dilation)) {
+			return correlateFFT(input,flip(kernel),padding);
+		}
+		return correlateIm2col(input,kernel,stride,padding,dilation,true);
+	}
+
+	/**
+	 * Computes correlation by unrolling input patches into a matrix and multiplying by the kernel matrix
+	 */
+	static INDArray correlateIm2col(INDArray input, INDArray kernel, int[] stride, int[] padding, int[] dilation, boolean flipKernel) {
+		int[] ishape=input.getShape();
+		int[] kshape=kernel.getShape();
+		int sdims=ishape.length-2;
+		int n=ishape[0];
+		int c=ishape[1];
+		int o=kshape[0];
+		int[] spatial=Arrays.copyOfRange(ishape, 2, ishape.length);
+		int[] kspatial=Arrays.copyOfRange(kshape, 2, kshape.length);
+		int[] oshape=outputShape(spatial,kspatial,stride,padding,dilation);
+		int kp=(int)IntArrays.arrayProduct(kspatial);
+		int p=(int)IntArrays.arrayProduct(oshape);
+		int inputSize=(int)IntArrays.arrayProduct(spatial);
+
+		double[] kdata=kernel.toDoubleArray();
+		if (flipKernel) {
+			// reversing each spatial block flips the kernel in all spatial dimensions
+			for (int i=0; i<o*c; i++) {
+				reverse(kdata,i*kp,kp);
+			}
+		}
+		Matrix kmatrix=Matrix.wrap(o, c*kp, kdata);
+
+		double[] idata=denseData(input);
+		int ioffset=denseOffset(input);
+		int[] istrides=IntArrays.calcStrides(spatial);
+		int[][] koffsets=kernelOffsets(kspatial,dilation);
+
+		// each row holds the unrolled patch for one output position
+		Matrix cols=Matrix.create(p, c*kp);
+		double[] cdata=cols.data;
+		double[] result=new double[n*o*p];
+		int[] pos=new int[sdims];
+		int[] base=new int[sdims];
+
+		for (int b=0; b<n; b++) {
+			Arrays.fill(pos, 0);
+			for (int j=0; j<p; j++) {
+				for (int d=0; d<sdims; d++) {
+					base[d]=pos[d]*stride[d]-padding[d];
+				}
+				int rowOffset=j*c*kp;
+				for (int k=0; k<kp; k++) {
+					int ix=0;
+					for (int d=0; d<sdims; d++) {
+						int x=base[d]+koffsets[d][k];
+						if ((x<0)||(x>=spatial[d])) {
+							ix=-1;
+							break;
+						}
+						ix+=x*istrides[d];
+					}
+					if (ix<0) {
+						for (int ci=0; ci<c; ci++) {
+							cdata[rowOffset+ci*kp+k]=0.0;
+						}
+					} else {
+						int srcOffset=ioffset+(b*c)*inputSize+ix;
+						for (int ci=0; ci<c; ci++) {
+							cdata[rowOffset+ci*kp+k]=idata[srcOffset+ci*inputSize];
+						}
+					}
+				}
+				increment(pos,oshape);
+			}
+			Matrix r=Multiplications.multiply(kmatrix, cols.getTranspose());
+			System.arraycopy(r.data, 0, result, b*o*p, o*p);
+		}
+		return Array.wrap(result, resultShape(n,o,oshape));
+	}
+
+	/**
+	 * Computes the correlation of an input array with a kernel using the FFT, with unit stride
+	 * and dilation. Efficient for large kernels.
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param kernel Kernel array of shape [O, C, kernel...]
+	 * @param padding Zero padding added to both sides of each spatial dimension
+	 * @return
+	 */
+	public static INDArray correlateFFT(INDArray input, INDArray kernel, int[] padding) {
+		int sdims=spatialDimensions(input, kernel);
+		checkParameters(sdims,filled(sdims,1),padding,filled(sdims,1));
+		int[] ishape=input.getShape();
+		int[] kshape=kernel.getShape();
+		int n=ishape[0];
+		int c=ishape[1];
+		int o=kshape[0];
+		int[] spatial=Arrays.copyOfRange(ishape, 2, ishape.length);
+		int[] kspatial=Arrays.copyOfRange(kshape, 2, kshape.length);
+		int[] oshape=outputShape(spatial,kspatial,filled(sdims,1),padding,filled(sdims,1));
+		int p=(int)IntArrays.arrayProduct(oshape);
+		int inputSize=(int)IntArrays.arrayProduct(spatial);
+		int kp=(int)IntArrays.arrayProduct(kspatial);
+
+		// transform size along each dimension must cover the padded input to avoid wrap-around
+		int[] fshape=new int[sdims];
+		for (int d=0; d<sdims; d++) {
+			fshape[d]=FFT.nextPow2(spatial[d]+2*padding[d]);
+		}
+		int fsize=(int)IntArrays.arrayProduct(fshape);
+		int[] fstrides=IntArrays.calcStrides(fshape);
+		FFT[] ffts=new FFT[sdims];
+		for (int d=0; d<sdims; d++) {
+			ffts[d]=new FFT(fshape[d]);
+		}
+
+		// transformed kernels, conjugated for correlation
+		double[] kdata=kernel.toDoubleArray();
+		int[] kstrides=IntArrays.calcStrides(kspatial);
+		double[][] ktrans=new double[o*c][];
+		for (int i=0; i<o*c; i++) {
+			double[] buf=new double[2*fsize];
+			scatter(kdata,i*kp,kspatial,kstrides,new int[sdims],buf,fstrides);
+			transform(buf,fshape,fstrides,ffts,false);
+			for (int j=1; j<2*fsize; j+=2) {
+				buf[j]=-buf[j];
+			}
+			ktrans[i]=buf;
+		}
+
+		double[] idata=denseData(input);
+		int ioffset=denseOffset(input);
+		int[] istrides=IntArrays.calcStrides(spatial);
+		int[] ostrides=IntArrays.calcStrides(oshape);
+		double[] result=new double[n*o*p];
+		double[][] itrans=new double[c][];
+		for (int ci=0; ci<c; ci++) {
+			itrans[ci]=new double[2*fsize];
+		}
+		double[] acc=new double[2*fsize];
+
+		for (int b=0; b<n; b++) {
+			for (int ci=0; ci<c; ci++) {
+				double[] buf=itrans[ci];
+				Arrays.fill(buf, 0.0);
+				scatter(idata,ioffset+(b*c+ci)*inputSize,spatial,istrides,padding,buf,fstrides);
+				transform(buf,fshape,fstrides,ffts,false);
+			}
+			for (int oi=0; oi<o; oi++) {
+				Arrays.fill(acc, 0.0);
+				for (int ci=0; ci<c; ci++) {
+					double[] x=itrans[ci];
+					double[] w=ktrans[oi*c+ci];
+					for (int j=0; j<2*fsize; j+=2) {
+						double xr=x[j], xi=x[j+1];
+						double wr=w[j], wi=w[j+1];
+						acc[j]+=xr*wr-xi*wi;
+						acc[j+1]+=xr*wi+xi*wr;
+					}
+				}
+				transform(acc,fshape,fstrides,ffts,true);
+				gather(acc,fstrides,oshape,ostrides,result,(b*o+oi)*p);
+			}
+		}
+		return Array.wrap(result, resultShape(n,o,oshape));
+	}
+
+	// ==============================================
+	// FFT helpers
+
+	/**
+	 * Performs an in-place multi-dimensional complex FFT on interleaved complex data,
+	 * by applying 1D transforms along each dimension in turn
+	 */
+	private static void transform(double[] data, int[] fshape, int[] fstrides, FFT[] ffts, boolean inverse) {
+		int sdims=fshape.length;
+		int total=data.length/2;
+		for (int d=0; d<sdims; d++) {
+			int len=fshape[d];
+			if (len==1) continue;
+			int stride=fstrides[d];
+			double[] line=new double[2*len];
+			for (int start=0; start<total; start++) {
+				// only process each line once, from its first element
+				if (((start/stride)%len)!=0) continue;
+				for (int i=0; i<len; i++) {
+					int ix=2*(start+i*stride);
+					line[2*i]=data[ix];
+					line[2*i+1]=data[ix+1];
+				}
+				if (inverse) {
+					ffts[d].complexInverse(line, true);
+				} else {
+					ffts[d].complexForward(line);
+				}
+				for (int i=0; i<len; i++) {
+					int ix=2*(start+i*stride);
+					data[ix]=line[2*i];
+					data[ix+1]=line[2*i+1];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies real source data with the given shape into the real parts of a complex buffer,
+	 * shifted by the given offsets in each dimension
+	 */
+	private static void scatter(double[] src, int srcOffset, int[] shape, int[] strides, int[] shift, double[] buf, int[] fstrides) {
+		int sdims=shape.length;
+		int size=(int)IntArrays.arrayProduct(shape);
+		int[] pos=new int[sdims];
+		for (int i=0; i<size; i++) {
+			int ix=0;
+			int six=0;
+			for (int d=0; d<sdims; d++) {
+				ix+=(pos[d]+shift[d])*fstrides[d];
+				six+=pos[d]*strides[d];
+			}
+			buf[2*ix]=src[srcOffset+six];
+			increment(pos,shape);
+		}
+	}
+
+	/**
+	 * Copies the real parts of the leading region of a complex buffer into a dense destination
+	 */
+	private static void gather(double[] buf, int[] fstrides, int[] oshape, int[] ostrides, double[] dest, int destOffset) {
+		int sdims=oshape.length;
+		int size=(int)IntArrays.arrayProduct(oshape);
+		int[] pos=new int[sdims];
+		for (int i=0; i<size; i++) {
+			int ix=0;
+			for (int d=0; d<sdims; d++) {
+				ix+=pos[d]*fstrides[d];
+			}
+			dest[destOffset+i]=buf[2*ix];
+			increment(pos,oshape);
+		}
+	}
+
+	// ==============================================
+	// Shape helpers
+
+	static int spatialDimensions(INDArray input, INDArray kernel) {
+		int dims=input.dimensionality();
+		if (dims<3) throw new IllegalArgumentException("Input must have shape [batch, channels, spatial...] but was: "+Arrays.toString(input.getShape()));
+		if (kernel.dimensionality()!=dims) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(input, kernel));
+		if (kernel.getShape(1)!=input.getShape(1)) {
+			throw new IllegalArgumentException("Kernel input channels "+kernel.getShape(1)+" do not match input channels "+input.getShape(1));
+		}
+		return dims-2;
+	}
+
+	static void checkParameters(int sdims, int[] stride, int[] padding, int[] dilation) {
+		if ((stride.length!=sdims)||(padding.length!=sdims)||(dilation.length!=sdims)) {
+			throw new IllegalArgumentException("Stride, padding and dilation must be specified for each of the "+sdims+" spatial dimensions");
+		}
+		for (int d=0; d<sdims; d++) {
+			if ((stride[d]<1)||(dilation[d]<1)||(padding[d]<0)) {
+				throw new IllegalArgumentException("Invalid stride, padding or dilation for dimension "+d);
+			}
+		}
+	}
+
+	/**
+	 * Computes the spatial shape of the output of a windowed operation
+	 */
+	static int[] outputShape(int[] spatial, int[] window, int[] stride, int[] padding, int[] dilation) {
+		int sdims=spatial.length;
+		int[] result=new int[sdims];
+		for (int d=0; d<sdims; d++) {
+			int extent=dilation[d]*(window[d]-1)+1;
+			int size=(spatial[d]+2*padding[d]-extent)/stride[d]+1;
+			if ((size<1)||(spatial[d]+2*padding[d]<extent)) {
+				throw new IllegalArgumentException("Window of size "+extent+" does not fit in dimension "+d+" of size "+spatial[d]);
+			}
+			result[d]=size;
+		}
+		return result;
+	}
+
+	static int[] resultShape(int n, int c, int[] spatial) {
+		int[] shape=new int[spatial.length+2];
+		shape[0]=n;
+		shape[1]=c;
+		System.arraycopy(spatial, 0, shape, 2, spatial.length);
+		return shape;
+	}
+
+	/**
+	 * Computes the spatial offsets of each element of a window in each dimension, indexed by
+	 * [dimension][window element] with window elements in row-major order
+	 */
+	static int[][] kernelOffsets(int[] window, int[] dilation) {
+		int sdims=window.length;
+		int kp=(int)IntArrays.arrayProduct(window);
+		int[][] offsets=new int[sdims][kp];
+		int[] pos=new int[sdims];
+		for (int k=0; k<kp; k++) {
+			for (int d=0; d<sdims; d++) {
+				offsets[d][k]=pos[d]*dilation[d];
+			}
+			increment(pos,window);
+		}
+		return offsets;
+	}
+
+	/**
+	 * Increments a row-major position within the given shape
+	 */
+	static void increment(int[] pos, int[] shape) {
+		for (int d=pos.length-1; d>=0; d--) {
+			if (++pos[d]<shape[d]) return;
+			pos[d]=0;
+		}
+	}
+
+	static double[] denseData(INDArray a) {
+		if (a instanceof IDenseArray) return ((IDenseArray)a).getArray();
+		return a.toDoubleArray();
+	}
+
+	static int denseOffset(INDArray a) {
+		if (a instanceof IDenseArray) return ((IDenseArray)a).getArrayOffset();
+		return 0;
+	}
+
+	static int[] filled(int n, int value) {
+		int[] result=new int[n];
+		Arrays.fill(result, value);
+		return result;
+	}
+
+	private static boolean isUnit(int[] xs) {
+		for (int x:xs) {
+			if (x!=1) return false;
+		}
+		return true;
+	}
+
+	private static void reverse(double[] data, int offset, int length) {
+		for (int i=0, j=length-1; i<j; i++, j--) {
+			double t=data[offset+i];
+			data[offset+i]=data[offset+j];
+			data[offset+j]=t;
+		}
+	}
+
+	private static INDArray flip(INDArray kernel) {
+		int[] kshape=kernel.getShape();
+		int blocks=kshape[0]*kshape[1];
+		int kp=(int)IntArrays.arrayProduct(kshape, 2, kshape.length);
+		double[] kdata=kernel.toDoubleArray();
+		for (int i=0; i<blocks; i++) {
+			reverse(kdata,i*kp,kp);
+		}
+		return Array.wrap(kdata, kshape);
+	}
+}
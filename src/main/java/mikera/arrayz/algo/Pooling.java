@@ -0,0 +1,127 @@
+package mikera.arrayz.algo;
+
+import java.util.Arrays;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.INDArray;
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Static functions for N-dimensional max and average pooling of arrays.
+ *
+ * Arrays use a (batch x channel x spatial...) layout, e.g. [N, C, H, W] for 2D images. Pooling
+ * is applied independently to each channel, so the result has shape [N, C, spatial...].
+ *
+ * Padded positions are ignored: they never contribute to a maximum, and are excluded from the
+ * element count of an average.
+ *
+ * @author Mike
+ */
+public class Pooling {
+
+	/**
+	 * Computes max pooling with a stride equal to the window size and no padding
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param window Window size for each spatial dimension
+	 * @return
+	 */
+	public static INDArray maxPool(INDArray input, int[] window) {
+		return maxPool(input,window,window,Convolutions.filled(window.length,0));
+	}
+
+	/**
+	 * Computes max pooling
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param window Window size for each spatial dimension
+	 * @param stride Stride for each spatial dimension
+	 * @param padding Padding added to both sides of each spatial dimension
+	 * @return
+	 */
+	public static INDArray maxPool(INDArray input, int[] window, int[] stride, int[] padding) {
+		return pool(input,window,stride,padding,true);
+	}
+
+	/**
+	 * Computes average pooling with a stride equal to the window size and no padding
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param window Window size for each spatial dimension
+	 * @return
+	 */
+	public static INDArray averagePool(INDArray input, int[] window) {
+		return averagePool(input,window,window,Convolutions.filled(window.length,0));
+	}
+
+	/**
+	 * Computes average pooling
+	 * @param input Input array of shape [N, C, spatial...]
+	 * @param window Window size for each spatial dimension
+	 * @param stride Stride for each spatial dimension
+	 * @param padding Padding added to both sides of each spatial dimension
+	 * @return
+	 */
+	public static INDArray averagePool(INDArray input, int[] window, int[] stride, int[] padding) {
+		return pool(input,window,stride,padding,false);
+	}
+
+	private static INDArray pool(INDArray input, int[] window, int[] stride, int[] padding, boolean max) {
+		int[] ishape=input.getShape();
+		int sdims=ishape.length-2;
+		if (sdims<1) throw new IllegalArgumentException("Input must have shape [batch, channels, spatial...] but was: "+Arrays.toString(ishape));
+		if (window.length!=sdims) throw new IllegalArgumentException("Window must be specified for each of the "+sdims+" spatial dimensions");
+		int[] dilation=Convolutions.filled(sdims,1);
+		Convolutions.checkParameters(sdims, stride, padding, dilation);
+		for (int d=0; d<sdims; d++) {
+			if (padding[d]>=window[d]) throw new IllegalArgumentException("Padding must be smaller than window size in dimension "+d);
+		}
+
+		int n=ishape[0];
+		int c=ishape[1];
+		int[] spatial=Arrays.copyOfRange(ishape, 2, ishape.length);
+		int[] oshape=Convolutions.outputShape(spatial,window,stride,padding,dilation);
+		int p=(int)IntArrays.arrayProduct(oshape);
+		int inputSize=(int)IntArrays.arrayProduct(spatial);
+		int kp=(int)IntArrays.arrayProduct(window);
+		int[] istrides=IntArrays.calcStrides(spatial);
+		int[][] koffsets=Convolutions.kernelOffsets(window, dilation);
+
+		double[] idata=Convolutions.denseData(input);
+		int ioffset=Convolutions.denseOffset(input);
+		double[] result=new double[n*c*p];
+		int[] pos=new int[sdims];
+		int[] base=new int[sdims];
+
+		for (int plane=0; plane<n*c; plane++) {
+			int planeOffset=ioffset+plane*inputSize;
+			Arrays.fill(pos, 0);
+			for (int j=0; j<p; j++) {
+				for (int d=0; d<sdims; d++) {
+					base[d]=pos[d]*stride[d]-padding[d];
+				}
+				double acc=max?Double.NEGATIVE_INFINITY:0.0;
+				int count=0;
+				for (int k=0; k<kp; k++) {
+					int ix=0;
+					for (int d=0; d<sdims; d++) {
+						int x=base[d]+koffsets[d][k];
+						if ((x<0)||(x>=spatial[d])) {
+							ix=-1;
+							break;
+						}
+						ix+=x*istrides[d];
+					}
+					if (ix<0) continue;
+					double v=idata[planeOffset+ix];
+					if (max) {
+						if (v>acc) acc=v;
+					} else {
+						acc+=v;
+					}
+					count++;
+				}
+				result[plane*p+j]=max?acc:(acc/count);
+				Convolutions.increment(pos,oshape);
+			}
+		}
+		return Array.wrap(result, Convolutions.resultShape(n,c,oshape));
+	}
+}
@@ -0,0 +1,200 @@
+package mikera.arrayz.expr;
+
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Op;
+import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Abstract base class for lazy elementwise array expressions.
+ *
+ * An expression is a tree of array operands, scalar constants and Ops that is only computed
+ * when evaluated. Evaluation is fused: the whole tree is computed block by block in a single
+ * pass over the elements, so no full-size intermediate arrays are created.
+ *
+ * Elements are visited in row-major order, so operands may be any INDArray of the same shape.
+ *
+ * @author Mike
+ */
+public abstract class AExpression {
+	/**
+	 * Number of elements computed per block. Chosen so that a few blocks fit comfortably in L1 cache.
+	 */
+	static final int BLOCK_SIZE=512;
+
+	/**
+	 * Returns the shape of the result of this expression
+	 */
+	public abstract int[] getShape();
+
+	public int dimensionality() {
+		return getShape().length;
+	}
+
+	public long elementCount() {
+		return IntArrays.arrayProduct(getShape());
+	}
+
+	/**
+	 * Computes a block of elements of this expression into the destination array.
+	 *
+	 * length is at most BLOCK_SIZE. The temp array may be used as scratch space
+	 * from tempOffset onwards, up to tempBlocks() blocks.
+	 */
+	abstract void evaluate(int offset, int length, double[] dest, int destOffset, double[] temp, int tempOffset);
+
+	/**
+	 * Returns the number of scratch blocks needed to evaluate this expression
+	 */
+	abstract int tempBlocks();
+
+	/**
+	 * Returns true if this expression may read from the given array region,
+	 * i.e. if writing the result directly into the region would be unsafe.
+	 */
+	abstract boolean isAliased(double[] data, int offset);
+
+	/**
+	 * Returns true if this expression may read elements of the given array other than the
+	 * element in the same position being written, in which case even blockwise evaluation into
+	 * the array would be unsafe.
+	 */
+	abstract boolean isOffsetAliased(double[] data, int offset);
+
+	// ==============================================
+	// Expression construction
+
+	public AExpression add(AExpression b) {
+		return BinaryExpression.create(BinaryExpression.ADD, this, b);
+	}
+
+	public AExpression add(INDArray b) {
+		return add(Expressions.wrap(b));
+	}
+
+	public AExpression add(double b) {
+		return add(Expressions.constant(b));
+	}
+
+	public AExpression sub(AExpression b) {
+		return BinaryExpression.create(BinaryExpression.SUB, this, b);
+	}
+
+	public AExpression sub(INDArray b) {
+		return sub(Expressions.wrap(b));
+	}
+
+	public AExpression sub(double b) {
+		return sub(Expressions.constant(b));
+	}
+
+	public AExpression multiply(AExpression b) {
+		return BinaryExpression.create(BinaryExpression.MULTIPLY, this, b);
+	}
+
+	public AExpression multiply(INDArray b) {
+		return multiply(Expressions.wrap(b));
+	}
+
+	public AExpression multiply(double b) {
+		return multiply(Expressions.constant(b));
+	}
+
+	public AExpression divide(AExpression b) {
+		return BinaryExpression.create(BinaryExpression.DIVIDE, this, b);
+	}
+
+	public AExpression divide(INDArray b) {
+		return divide(Expressions.wrap(b));
+	}
+
+	public AExpression divide(double b) {
+		return divide(Expressions.constant(b));
+	}
+
+	public AExpression applyOp(Op op) {
+		return OpExpression.create(op, this);
+	}
+
+	// ==============================================
+	// Evaluation
+
+	/**
+	 * Evaluates this expression into a new dense array
+	 * @return
+	 */
+	public INDArray evaluate() {
+		INDArray result=Arrayz.newArray(getShape());
+		evaluateInto(result);
+		return result;
+	}
+
+	/**
+	 * Evaluates this expression into the given destination array, which must have the same shape
+	 * as this expression.
+	 *
+	 * The destination may safely be one of the operands of the expression. If the destination is a
+	 * non-dense view, it must not overlap any operand other than element for element.
+	 * @param dest
+	 */
+	public void evaluateInto(INDArray dest) {
+		int[] shape=getShape();
+		if (!IntArrays.equals(shape, dest.getShape())) {
+			throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(shape, dest.getShape()));
+		}
+		int n=(int)elementCount();
+		double[] temp=new double[(tempBlocks()+1)*BLOCK_SIZE];
+
+		if ((dest instanceof IDenseArray)&&dest.isFullyMutable()) {
+			IDenseArray da=(IDenseArray)dest;
+			double[] data=da.getArray();
+			int doff=da.getArrayOffset();
+			if (!isAliased(data,doff)) {
+				// fast path: compute directly into the destination storage
+				for (int i=0; i<n; i+=BLOCK_SIZE) {
+					int len=Math.min(BLOCK_SIZE, n-i);
+					evaluate(i,len,data,doff+i,temp,0);
+				}
+				return;
+			} else if (isOffsetAliased(data,doff)) {
+				// destination overlaps operands in an unsafe way, so compute fully before writing
+				double[] result=new double[n];
+				evaluateInto(result,0,n,temp);
+				System.arraycopy(result, 0, data, doff, n);
+				return;
+			}
+		}
+
+		// compute each block into scratch space, then copy to destination
+		AVector dv=dest.asVector();
+		int bufferOffset=tempBlocks()*BLOCK_SIZE;
+		for (int i=0; i<n; i+=BLOCK_SIZE) {
+			int len=Math.min(BLOCK_SIZE, n-i);
+			evaluate(i,len,temp,bufferOffset,temp,0);
+			dv.setRange(i, temp, bufferOffset, len);
+		}
+	}
+
+	/**
+	 * Evaluates this expression into a double[] array, in row-major order.
+	 *
+	 * The destination region must not overlap any of the operands.
+	 * @param dest
+	 * @param destOffset
+	 */
+	public void evaluateInto(double[] dest, int destOffset) {
+		int n=(int)elementCount();
+		double[] temp=new double[tempBlocks()*BLOCK_SIZE];
+		evaluateInto(dest,destOffset,n,temp);
+	}
+
+	private void evaluateInto(double[] dest, int destOffset, int n, double[] temp) {
+		for (int i=0; i<n; i+=BLOCK_SIZE) {
+			int len=Math.min(BLOCK_SIZE, n-i);
+			evaluate(i,len,dest,destOffset+i,temp,0);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package mikera.arrayz.expr;
+
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.vectorz.AVector;
+
+/**
+ * Leaf expression referring to an array operand.
+ *
+ * Operands with dense double[] storage are read directly from their backing array, other
+ * operands are read via their row-major vector view.
+ *
+ * @author Mike
+ */
+final class ArrayExpression extends AExpression {
+	final INDArray source;
+	final int[] shape;
+
+	// dense storage, or null if the source is not densely packed
+	final double[] data;
+	final int dataOffset;
+
+	private final AVector vector;
+	private final boolean sparse;
+
+	ArrayExpression(INDArray source) {
+		this.source=source;
+		this.shape=source.getShape();
+		if (source instanceof IDenseArray) {
+			IDenseArray da=(IDenseArray)source;
+			data=da.getArray();
+			dataOffset=da.getArrayOffset();
+			vector=null;
+			sparse=false;
+		} else {
+			data=null;
+			dataOffset=0;
+			vector=source.asVector();
+			sparse=vector.isSparse();
+		}
+	}
+
+	boolean isDense() {
+		return data!=null;
+	}
+
+	@Override
+	public int[] getShape() {
+		return shape;
+	}
+
+	@Override
+	void evaluate(int offset, int length, double[] dest, int destOffset, double[] temp, int tempOffset) {
+		if (data!=null) {
+			System.arraycopy(data, dataOffset+offset, dest, destOffset, length);
+		} else if (sparse) {
+			// sparse bulk copies scan all non-zeros, so use element lookups for each block
+			for (int i=0; i<length; i++) {
+				dest[destOffset+i]=vector.unsafeGet(offset+i);
+			}
+		} else {
+			vector.copyTo(offset, dest, destOffset, length);
+		}
+	}
+
+	@Override
+	int tempBlocks() {
+		return 0;
+	}
+
+	@Override
+	boolean isAliased(double[] d, int offset) {
+		if (data!=null) return data==d;
+		// views may share storage we cannot detect
+		return source.isView();
+	}
+
+	@Override
+	boolean isOffsetAliased(double[] d, int offset) {
+		if (data!=null) return (data==d)&&(dataOffset!=offset);
+		return source.isView();
+	}
+}
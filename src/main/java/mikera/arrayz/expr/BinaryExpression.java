@@ -0,0 +1,112 @@
+package mikera.arrayz.expr;
+
+import mikera.vectorz.util.DoubleArrays;
+import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.IntArrays;
+import mikera.vectorz.util.VectorzException;
+
+/**
+ * Expression combining two operand expressions elementwise with an arithmetic operator
+ *
+ * @author Mike
+ */
+final class BinaryExpression extends AExpression {
+	static final int ADD=0;
+	static final int SUB=1;
+	static final int MULTIPLY=2;
+	static final int DIVIDE=3;
+
+	private final int operator;
+	private final AExpression left;
+	private final AExpression right;
+	private final int[] shape;
+
+	private BinaryExpression(int operator, AExpression left, AExpression right, int[] shape) {
+		this.operator=operator;
+		this.left=left;
+		this.right=right;
+		this.shape=shape;
+	}
+
+	static BinaryExpression create(int operator, AExpression left, AExpression right) {
+		int[] shape;
+		if (left instanceof ConstantExpression) {
+			shape=right.getShape();
+		} else if (right instanceof ConstantExpression) {
+			shape=left.getShape();
+		} else {
+			shape=left.getShape();
+			if (!IntArrays.equals(shape, right.getShape())) {
+				throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(shape, right.getShape()));
+			}
+		}
+		return new BinaryExpression(operator,left,right,shape);
+	}
+
+	@Override
+	public int[] getShape() {
+		return shape;
+	}
+
+	@Override
+	void evaluate(int offset, int length, double[] dest, int destOffset, double[] temp, int tempOffset) {
+		left.evaluate(offset, length, dest, destOffset, temp, tempOffset);
+		if (right instanceof ConstantExpression) {
+			combine(((ConstantExpression)right).value,dest,destOffset,length);
+			return;
+		}
+
+		double[] src;
+		int srcOffset;
+		if ((right instanceof ArrayExpression)&&((ArrayExpression)right).isDense()) {
+			// read dense operands directly from storage
+			ArrayExpression a=(ArrayExpression)right;
+			src=a.data;
+			srcOffset=a.dataOffset+offset;
+		} else {
+			right.evaluate(offset, length, temp, tempOffset, temp, tempOffset+BLOCK_SIZE);
+			src=temp;
+			srcOffset=tempOffset;
+		}
+		combine(src,srcOffset,dest,destOffset,length);
+	}
+
+	private void combine(double value, double[] dest, int destOffset, int length) {
+		switch (operator) {
+			case ADD: DoubleArrays.add(dest, destOffset, length, value); return;
+			case SUB: DoubleArrays.sub(dest, destOffset, length, value); return;
+			case MULTIPLY: DoubleArrays.multiply(dest, destOffset, length, value); return;
+			case DIVIDE: DoubleArrays.divide(dest, destOffset, length, value); return;
+			default: throw new VectorzException(ErrorMessages.impossible());
+		}
+	}
+
+	private void combine(double[] src, int srcOffset, double[] dest, int destOffset, int length) {
+		switch (operator) {
+			case ADD: DoubleArrays.add(src, srcOffset, dest, destOffset, length); return;
+			case SUB: DoubleArrays.sub(src, srcOffset, dest, destOffset, length); return;
+			case MULTIPLY: DoubleArrays.arraymultiply(src, srcOffset, dest, destOffset, length); return;
+			case DIVIDE: DoubleArrays.arraydivide(src, srcOffset, dest, destOffset, length); return;
+			default: throw new VectorzException(ErrorMessages.impossible());
+		}
+	}
+
+	@Override
+	int tempBlocks() {
+		int rightBlocks=0;
+		if (!(right instanceof ConstantExpression)&&!((right instanceof ArrayExpression)&&((ArrayExpression)right).isDense())) {
+			rightBlocks=1+right.tempBlocks();
+		}
+		return Math.max(left.tempBlocks(), rightBlocks);
+	}
+
+	@Override
+	boolean isAliased(double[] data, int offset) {
+		return left.isAliased(data, offset)||right.isAliased(data, offset);
+	}
+
+	@Override
+	boolean isOffsetAliased(double[] data, int offset) {
+		return left.isOffsetAliased(data, offset)||right.isOffsetAliased(data, offset);
+	}
+}
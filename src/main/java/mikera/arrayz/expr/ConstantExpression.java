@@ -0,0 +1,43 @@
+package mikera.arrayz.expr;
+
+import java.util.Arrays;
+
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Leaf expression representing a scalar constant, broadcast to the shape of the other operand
+ *
+ * @author Mike
+ */
+final class ConstantExpression extends AExpression {
+	final double value;
+
+	ConstantExpression(double value) {
+		this.value=value;
+	}
+
+	@Override
+	public int[] getShape() {
+		return IntArrays.EMPTY_INT_ARRAY;
+	}
+
+	@Override
+	void evaluate(int offset, int length, double[] dest, int destOffset, double[] temp, int tempOffset) {
+		Arrays.fill(dest, destOffset, destOffset+length, value);
+	}
+
+	@Override
+	int tempBlocks() {
+		return 0;
+	}
+
+	@Override
+	boolean isAliased(double[] data, int offset) {
+		return false;
+	}
+
+	@Override
+	boolean isOffsetAliased(double[] data, int offset) {
+		return false;
+	}
+}
@@ -0,0 +1,55 @@
+package mikera.arrayz.expr;
+
+import mikera.arrayz.INDArray;
+import mikera.vectorz.Op;
+
+/**
+ * Static function class for building lazy array expressions.
+ *
+ * Example usage, computing tanh((a+b)*c) in a single pass with no intermediate arrays:
+ *
+ *   Expressions.wrap(a).add(b).multiply(c).applyOp(Ops.TANH).evaluateInto(dest);
+ *
+ * @author Mike
+ */
+public class Expressions {
+
+	/**
+	 * Creates an expression referring to the given array. The array is not copied, so
+	 * changes to the array before evaluation will be reflected in the result.
+	 * @param a
+	 * @return
+	 */
+	public static AExpression wrap(INDArray a) {
+		return new ArrayExpression(a);
+	}
+
+	/**
+	 * Creates a constant scalar expression, which is broadcast to the shape of other operands
+	 * @param value
+	 * @return
+	 */
+	public static AExpression constant(double value) {
+		return new ConstantExpression(value);
+	}
+
+	public static AExpression add(INDArray a, INDArray b) {
+		return wrap(a).add(b);
+	}
+
+	public static AExpression sub(INDArray a, INDArray b) {
+		return wrap(a).sub(b);
+	}
+
+	public static AExpression multiply(INDArray a, INDArray b) {
+		return wrap(a).multiply(b);
+	}
+
+	public static AExpression divide(INDArray a, INDArray b) {
+		return wrap(a).divide(b);
+	}
+
+	public static AExpression applyOp(Op op, INDArray a) {
+		return wrap(a).applyOp(op);
+	}
+}
@@ -0,0 +1,55 @@
+package mikera.arrayz.expr;
+
+import mikera.vectorz.Op;
+
+/**
+ * Expression applying a unary Op elementwise to an operand expression.
+ *
+ * The Op is applied in bulk to each computed block using Op.applyTo(double[], int, int),
+ * so specialised array kernels of the Op are used.
+ *
+ * @author Mike
+ */
+final class OpExpression extends AExpression {
+	private final Op op;
+	private final AExpression operand;
+
+	private OpExpression(Op op, AExpression operand) {
+		this.op=op;
+		this.operand=operand;
+	}
+
+	static AExpression create(Op op, AExpression operand) {
+		if ((operand instanceof ConstantExpression)&&!op.isStochastic()) {
+			// fold constants immediately
+			return new ConstantExpression(op.apply(((ConstantExpression)operand).value));
+		}
+		return new OpExpression(op,operand);
+	}
+
+	@Override
+	public int[] getShape() {
+		return operand.getShape();
+	}
+
+	@Override
+	void evaluate(int offset, int length, double[] dest, int destOffset, double[] temp, int tempOffset) {
+		operand.evaluate(offset, length, dest, destOffset, temp, tempOffset);
+		op.applyTo(dest, destOffset, length);
+	}
+
+	@Override
+	int tempBlocks() {
+		return operand.tempBlocks();
+	}
+
+	@Override
+	boolean isAliased(double[] data, int offset) {
+		return operand.isAliased(data, offset);
+	}
+
+	@Override
+	boolean isOffsetAliased(double[] data, int offset) {
+		return operand.isOffsetAliased(data, offset);
+	}
+}
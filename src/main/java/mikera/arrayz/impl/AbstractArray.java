@@ -30,6 +30,7 @@ import mikera.vectorz.impl.SingleDoubleIterator;
 import mikera.vectorz.util.ErrorMessages;
 import mikera.vectorz.util.IntArrays;
 import mikera.vectorz.util.LongArrays;
+import mikera.vectorz.util.Summation;
 /**
  * Abstract base class for INDArray implementations
  * 
@@ -770,6 +771,26 @@ public abstract class AbstractArray<T> implements INDArray, Iterable<T> {
 		return result;
 	}
 	
+	@Override
+	public double elementSum(Summation mode) {
+		if (mode==Summation.NAIVE) return elementSum();
+		if (this instanceof IDenseArray) {
+			IDenseArray d=(IDenseArray)this;
+			return mode.sum(d.getArray(), d.getArrayOffset(), (int)elementCount());
+		}
+		if ((this instanceof ISparse)&&(dimensionality()>0)) {
+			// reduce slice by slice rather than densifying the whole array
+			int n=sliceCount();
+			double[] partials=new double[n];
+			for (int i=0; i<n; i++) {
+				partials[i]=slice(i).elementSum(mode);
+			}
+			return mode.sum(partials, 0, n);
+		}
+		double[] data=toDoubleArray();
+		return mode.sum(data, 0, data.length);
+	}
+	
 	@Override
 	public double elementProduct() {
 		if (dimensionality()==0) {
@@ -837,6 +858,26 @@ public abstract class AbstractArray<T> implements INDArray, Iterable<T> {
 		}
 		return result;
 	}
+	
+	@Override
+	public double elementSquaredSum(Summation mode) {
+		if (mode==Summation.NAIVE) return elementSquaredSum();
+		if (this instanceof IDenseArray) {
+			IDenseArray d=(IDenseArray)this;
+			return mode.squaredSum(d.getArray(), d.getArrayOffset(), (int)elementCount());
+		}
+		if ((this instanceof ISparse)&&(dimensionality()>0)) {
+			// reduce slice by slice rather than densifying the whole array
+			int n=sliceCount();
+			double[] partials=new double[n];
+			for (int i=0; i<n; i++) {
+				partials[i]=slice(i).elementSquaredSum(mode);
+			}
+			return mode.sum(partials, 0, n);
+		}
+		double[] data=toDoubleArray();
+		return mode.squaredSum(data, 0, data.length);
+	}
 
 
 	@Override
@@ -0,0 +1,314 @@
+package mikera.arrayz.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.indexz.Index;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.impl.SparseColumnMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Scalar;
+import mikera.vectorz.impl.ASparseIndexedVector;
+import mikera.vectorz.impl.SparseIndexedVector;
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Compact, versioned binary format for arrays.
+ *
+ * Layout (all values little-endian):
+ *
+ *   magic     4 bytes "VZBA"
+ *   version   1 byte
+ *   type      1 byte type tag, one of the TYPE_ constants
+ *   flags     1 byte, FLAG_SPARSE set for sparse types
+ *   reserved  1 byte
+ *   dims      int
+ *   shape     int[dims]
+ *   strides   int[dims], element strides of the dense payload layout
+ *   payload   type specific:
+ *     TYPE_DENSE:                 long storage length, double[storage length]
+ *     TYPE_SPARSE_VECTOR:         int n, int[n] sorted indices, double[n] values
+ *     TYPE_SPARSE_ROW_MATRIX:     for each row, as for a sparse vector
+ *     TYPE_SPARSE_COLUMN_MATRIX:  for each column, as for a sparse vector
+ *
+ * Data is transferred in bulk via NIO buffers, with no per-element boxing. Dense arrays are read back as
+ * Vector, Matrix or Array instances according to their dimensionality. Sparse indexed vectors and sparse
+ * row / column matrices keep their sparse type. Dense payloads are stored contiguously so that
+ * large files can also be memory-mapped in place with MappedArrays.
+ *
+ * @author Mike
+ */
+public class BinaryFormat {
+	public static final byte VERSION=1;
+
+	public static final byte TYPE_DENSE=1;
+	public static final byte TYPE_SPARSE_VECTOR=2;
+	public static final byte TYPE_SPARSE_ROW_MATRIX=3;
+	public static final byte TYPE_SPARSE_COLUMN_MATRIX=4;
+
+	public static final byte FLAG_SPARSE=1;
+
+	private static final byte[] MAGIC={'V','Z','B','A'};
+
+	static final int BUFFER_SIZE=65536;
+
+	// ==============================================
+	// Writing
+
+	/**
+	 * Writes an array to an output stream in binary format. Does not close the stream.
+	 * @param a
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void write(INDArray a, OutputStream out) throws IOException {
+		write(a,Channels.newChannel(out));
+		out.flush();
+	}
+
+	/**
+	 * Writes an array to a channel in binary format. Does not close the channel.
+	 * @param a
+	 * @param channel
+	 * @throws IOException
+	 */
+	public static void write(INDArray a, WritableByteChannel channel) throws IOException {
+		BinaryWriter w=new BinaryWriter(channel);
+		if (a instanceof ASparseIndexedVector) {
+			writeHeader(w,TYPE_SPARSE_VECTOR,a);
+			writeSparseLine(w,(AVector)a);
+		} else if (a instanceof SparseRowMatrix) {
+			SparseRowMatrix m=(SparseRowMatrix)a;
+			writeHeader(w,TYPE_SPARSE_ROW_MATRIX,a);
+			int rc=m.rowCount();
+			for (int i=0; i<rc; i++) {
+				writeSparseLine(w,m.getRow(i));
+			}
+		} else if (a instanceof SparseColumnMatrix) {
+			SparseColumnMatrix m=(SparseColumnMatrix)a;
+			writeHeader(w,TYPE_SPARSE_COLUMN_MATRIX,a);
+			int cc=m.columnCount();
+			for (int i=0; i<cc; i++) {
+				writeSparseLine(w,m.getColumn(i));
+			}
+		} else {
+			writeHeader(w,TYPE_DENSE,a);
+			w.putLong(a.elementCount());
+			writeDenseElements(w,a);
+		}
+		w.flush();
+	}
+
+	private static void writeHeader(BinaryWriter w, byte type, INDArray a) throws IOException {
+		for (byte b: MAGIC) {
+			w.putByte(b);
+		}
+		w.putByte(VERSION);
+		w.putByte(type);
+		w.putByte((type==TYPE_DENSE)?0:FLAG_SPARSE);
+		w.putByte((byte)0);
+		int[] shape=a.getShape();
+		w.putInt(shape.length);
+		w.putInts(shape,0,shape.length);
+		int[] strides=IntArrays.calcStrides(shape);
+		w.putInts(strides,0,strides.length);
+	}
+
+	/**
+	 * Writes all elements of an array in row-major order
+	 */
+	private static void writeDenseElements(BinaryWriter w, INDArray a) throws IOException {
+		if (a instanceof IDenseArray) {
+			IDenseArray da=(IDenseArray)a;
+			w.putDoubles(da.getArray(), da.getArrayOffset(), (int)a.elementCount());
+		} else if (a.isSparse()) {
+			double[] data=a.toDoubleArray();
+			w.putDoubles(data, 0, data.length);
+		} else if (a instanceof AVector) {
+			AVector v=(AVector)a;
+			int n=v.length();
+			double[] buf=new double[Math.min(n, BUFFER_SIZE/8)];
+			for (int i=0; i<n; i+=buf.length) {
+				int len=Math.min(buf.length, n-i);
+				v.copyTo(i, buf, 0, len);
+				w.putDoubles(buf, 0, len);
+			}
+		} else if (a instanceof AMatrix) {
+			AMatrix m=(AMatrix)a;
+			int rc=m.rowCount();
+			double[] buf=new double[m.columnCount()];
+			for (int i=0; i<rc; i++) {
+				m.copyRowTo(i, buf, 0);
+				w.putDoubles(buf, 0, buf.length);
+			}
+		} else if (a.dimensionality()==0) {
+			w.putDoubles(new double[] {a.get()}, 0, 1);
+		} else {
+			int sc=a.sliceCount();
+			for (int i=0; i<sc; i++) {
+				writeDenseElements(w,a.slice(i));
+			}
+		}
+	}
+
+	private static void writeSparseLine(BinaryWriter w, AVector v) throws IOException {
+		if (v instanceof ASparseIndexedVector) {
+			ASparseIndexedVector sv=(ASparseIndexedVector)v;
+			Index index=sv.nonSparseIndexes();
+			int n=index.length();
+			w.putInt(n);
+			w.putInts(index.data, 0, n);
+			double[] vals=new double[n];
+			sv.nonSparseValues().getElements(vals, 0);
+			w.putDoubles(vals, 0, n);
+		} else {
+			int[] ixs=v.nonZeroIndices();
+			int n=ixs.length;
+			double[] vals=new double[n];
+			for (int i=0; i<n; i++) {
+				vals[i]=v.unsafeGet(ixs[i]);
+			}
+			w.putInt(n);
+			w.putInts(ixs, 0, n);
+			w.putDoubles(vals, 0, n);
+		}
+	}
+
+	// ==============================================
+	// Reading
+
+	/**
+	 * Reads an array in binary format from an input stream. Reads exactly the bytes of one array,
+	 * and does not close the stream.
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static INDArray read(InputStream in) throws IOException {
+		return read(Channels.newChannel(in));
+	}
+
+	/**
+	 * Reads an array in binary format from a channel. Reads exactly the bytes of one array,
+	 * and does not close the channel.
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static INDArray read(ReadableByteChannel channel) throws IOException {
+		BinaryReader r=new BinaryReader(channel);
+		Header h=readHeader(r);
+		int[] shape=h.shape;
+		int dims=shape.length;
+
+		switch (h.type) {
+			case TYPE_DENSE: return readDense(r,shape,h.strides);
+			case TYPE_SPARSE_VECTOR:
+				checkDimensions(dims,1);
+				return readSparseLine(r,shape[0],false);
+			case TYPE_SPARSE_ROW_MATRIX: {
+				checkDimensions(dims,2);
+				int rc=shape[0], cc=shape[1];
+				AVector[] rows=new AVector[rc];
+				for (int i=0; i<rc; i++) {
+					rows[i]=readSparseLine(r,cc,true);
+				}
+				return SparseRowMatrix.wrap(rows, rc, cc);
+			}
+			case TYPE_SPARSE_COLUMN_MATRIX: {
+				checkDimensions(dims,2);
+				int rc=shape[0], cc=shape[1];
+				AVector[] cols=new AVector[cc];
+				for (int i=0; i<cc; i++) {
+					cols[i]=readSparseLine(r,rc,true);
+				}
+				return SparseColumnMatrix.wrap(cols, rc, cc);
+			}
+			default: throw new IOException("Unrecognised binary array type: "+h.type);
+		}
+	}
+
+	/**
+	 * Array header, as read from the start of a binary array
+	 */
+	static final class Header {
+		final byte type;
+		final int[] shape;
+		final int[] strides;
+
+		Header(byte type, int[] shape, int[] strides) {
+			this.type=type;
+			this.shape=shape;
+			this.strides=strides;
+		}
+	}
+
+	static Header readHeader(BinaryReader r) throws IOException {
+		for (byte b: MAGIC) {
+			if (r.getByte()!=b) throw new IOException("Not a binary array: invalid header");
+		}
+		byte version=r.getByte();
+		if (version!=VERSION) throw new IOException("Unsupported binary array version: "+version);
+		byte type=r.getByte();
+		r.getByte(); // flags, implied by type in this version
+		r.getByte(); // reserved
+		int dims=r.getInt();
+		if (dims<0) throw new IOException("Invalid dimensionality: "+dims);
+		int[] shape=new int[dims];
+		r.getInts(shape, 0, dims);
+		int[] strides=new int[dims];
+		r.getInts(strides, 0, dims);
+		for (int i=0; i<dims; i++) {
+			if (shape[i]<0) throw new IOException("Invalid shape in dimension "+i+": "+shape[i]);
+		}
+		return new Header(type,shape,strides);
+	}
+
+	private static void checkDimensions(int dims, int expected) throws IOException {
+		if (dims!=expected) throw new IOException("Invalid dimensionality for sparse type: "+dims);
+	}
+
+	private static INDArray readDense(BinaryReader r, int[] shape, int[] strides) throws IOException {
+		long len=r.getLong();
+		if (len<0) throw new IOException("Invalid storage length: "+len);
+		if (len>Integer.MAX_VALUE) throw new IOException("Dense array too large to read into memory, use MappedArrays instead: "+len+" elements");
+		int n=(int)len;
+		double[] data=new double[n];
+		r.getDoubles(data, 0, n);
+		if (shape.length==0) {
+			if (n<1) throw new IOException("Missing scalar value");
+			return Scalar.create(data[0]);
+		}
+		if (Arrayz.isPackedStrides(shape, strides)&&(n==IntArrays.arrayProduct(shape))) {
+			return Arrayz.wrap(data, shape);
+		}
+		return Arrayz.wrapStrided(data, 0, shape, strides);
+	}
+
+	/**
+	 * Reads a sparse line. If emptyAsNull is set, returns null for lines with no stored elements
+	 */
+	private static AVector readSparseLine(BinaryReader r, int length, boolean emptyAsNull) throws IOException {
+		int n=r.getInt();
+		if ((n<0)||(n>length)) throw new IOException("Invalid sparse element count: "+n);
+		if ((n==0)&&emptyAsNull) return null;
+		int[] ixs=new int[n];
+		r.getInts(ixs, 0, n);
+		double[] vals=new double[n];
+		r.getDoubles(vals, 0, n);
+		for (int i=0; i<n; i++) {
+			if ((ixs[i]<0)||(ixs[i]>=length)||((i>0)&&(ixs[i]<=ixs[i-1]))) {
+				throw new IOException("Invalid sparse index at position "+i+": "+ixs[i]);
+			}
+		}
+		return SparseIndexedVector.wrap(length, ixs, vals);
+	}
+}
@@ -0,0 +1,74 @@
+package mikera.arrayz.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Little-endian reader for primitive data, using bulk NIO transfers.
+ *
+ * Reads exactly the number of bytes requested, so that a stream may contain further data
+ * after an array.
+ *
+ * @author Mike
+ */
+final class BinaryReader {
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	BinaryReader(ReadableByteChannel channel) {
+		this.channel=channel;
+		this.buffer=ByteBuffer.allocate(BinaryFormat.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads exactly the given number of bytes into the buffer, ready for getting
+	 */
+	private void fill(int bytes) throws IOException {
+		buffer.clear();
+		buffer.limit(bytes);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer)<0) throw new EOFException("Unexpected end of binary array data");
+		}
+		buffer.flip();
+	}
+
+	byte getByte() throws IOException {
+		fill(1);
+		return buffer.get();
+	}
+
+	int getInt() throws IOException {
+		fill(4);
+		return buffer.getInt();
+	}
+
+	long getLong() throws IOException {
+		fill(8);
+		return buffer.getLong();
+	}
+
+	void getInts(int[] data, int offset, int length) throws IOException {
+		int chunk=buffer.capacity()/4;
+		while (length>0) {
+			int n=Math.min(length, chunk);
+			fill(n*4);
+			buffer.asIntBuffer().get(data, offset, n);
+			offset+=n;
+			length-=n;
+		}
+	}
+
+	void getDoubles(double[] data, int offset, int length) throws IOException {
+		int chunk=buffer.capacity()/8;
+		while (length>0) {
+			int n=Math.min(length, chunk);
+			fill(n*8);
+			buffer.asDoubleBuffer().get(data, offset, n);
+			offset+=n;
+			length-=n;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package mikera.arrayz.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered little-endian writer for primitive data, using bulk NIO transfers
+ *
+ * @author Mike
+ */
+final class BinaryWriter {
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	BinaryWriter(WritableByteChannel channel) {
+		this.channel=channel;
+		this.buffer=ByteBuffer.allocate(BinaryFormat.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining()<bytes) flush();
+	}
+
+	void putByte(byte b) throws IOException {
+		ensure(1);
+		buffer.put(b);
+	}
+
+	void putInt(int v) throws IOException {
+		ensure(4);
+		buffer.putInt(v);
+	}
+
+	void putLong(long v) throws IOException {
+		ensure(8);
+		buffer.putLong(v);
+	}
+
+	void putInts(int[] data, int offset, int length) throws IOException {
+		while (length>0) {
+			ensure(4);
+			int n=Math.min(length, buffer.remaining()/4);
+			buffer.asIntBuffer().put(data, offset, n);
+			buffer.position(buffer.position()+n*4);
+			offset+=n;
+			length-=n;
+		}
+	}
+
+	void putDoubles(double[] data, int offset, int length) throws IOException {
+		while (length>0) {
+			ensure(8);
+			int n=Math.min(length, buffer.remaining()/8);
+			buffer.asDoubleBuffer().put(data, offset, n);
+			buffer.position(buffer.position()+n*8);
+			offset+=n;
+			length-=n;
+		}
+	}
+
+	void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,155 @@
+package mikera.arrayz.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Double storage addressed by long index, split into chunks so that it can exceed the 2GB limit
+ * of a single NIO buffer.
+ *
+ * Chunks are either memory-mapped regions of a file or heap buffers.
+ *
+ * @author Mike
+ */
+final class ChunkedDoubleBuffer {
+	static final int CHUNK_SHIFT=27; // 2^27 doubles per chunk, i.e. 1GB
+
+	private final DoubleBuffer[] chunks;
+	private final long length;
+	private final boolean writable;
+	private final int shift;
+	private final int chunkSize;
+	private final int mask;
+
+	private ChunkedDoubleBuffer(DoubleBuffer[] chunks, long length, boolean writable, int shift) {
+		this.chunks=chunks;
+		this.length=length;
+		this.writable=writable;
+		this.shift=shift;
+		this.chunkSize=1<<shift;
+		this.mask=chunkSize-1;
+	}
+
+	private static int chunkCount(long length, int shift) {
+		return (int)((length+(1<<shift)-1)>>>shift);
+	}
+
+	private static int chunkLength(long length, int chunk, int shift) {
+		return (int)Math.min(1<<shift, length-(((long)chunk)<<shift));
+	}
+
+	/**
+	 * Maps little-endian double data from a file channel.
+	 * @param channel
+	 * @param mode READ_ONLY or PRIVATE (copy-on-write)
+	 * @param position Byte position of the first double in the file
+	 * @param length Number of doubles
+	 */
+	static ChunkedDoubleBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long length) throws IOException {
+		return map(channel,mode,position,length,CHUNK_SHIFT);
+	}
+
+	/**
+	 * Maps little-endian double data from a file channel, with 2^shift doubles per chunk
+	 */
+	static ChunkedDoubleBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long length, int shift) throws IOException {
+		int n=chunkCount(length,shift);
+		DoubleBuffer[] chunks=new DoubleBuffer[n];
+		for (int i=0; i<n; i++) {
+			int len=chunkLength(length,i,shift);
+			MappedByteBuffer mb=channel.map(mode, position+(((long)i)<<(shift+3)), len*8L);
+			chunks[i]=mb.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+		}
+		return new ChunkedDoubleBuffer(chunks,length,mode!=FileChannel.MapMode.READ_ONLY,shift);
+	}
+
+	/**
+	 * Creates writable heap storage, initially filled with zeros
+	 */
+	private static ChunkedDoubleBuffer allocate(long length, int shift) {
+		int n=chunkCount(length,shift);
+		DoubleBuffer[] chunks=new DoubleBuffer[n];
+		for (int i=0; i<n; i++) {
+			chunks[i]=DoubleBuffer.allocate(chunkLength(length,i,shift));
+		}
+		return new ChunkedDoubleBuffer(chunks,length,true,shift);
+	}
+
+	long length() {
+		return length;
+	}
+
+	boolean isWritable() {
+		return writable;
+	}
+
+	double get(long i) {
+		return chunks[(int)(i>>>shift)].get((int)(i&mask));
+	}
+
+	void set(long i, double value) {
+		chunks[(int)(i>>>shift)].put((int)(i&mask),value);
+	}
+
+	/**
+	 * Copies doubles into an array, spanning chunk boundaries as needed
+	 */
+	void get(long start, double[] dest, int offset, int n) {
+		while (n>0) {
+			int ci=(int)(start>>>shift);
+			int pos=(int)(start&mask);
+			int len=Math.min(n, chunkSize-pos);
+			DoubleBuffer b=chunks[ci].duplicate();
+			b.position(pos);
+			b.get(dest, offset, len);
+			start+=len;
+			offset+=len;
+			n-=len;
+		}
+	}
+
+	/**
+	 * Copies doubles from an array, spanning chunk boundaries as needed
+	 */
+	void put(long start, double[] src, int offset, int n) {
+		while (n>0) {
+			int ci=(int)(start>>>shift);
+			int pos=(int)(start&mask);
+			int len=Math.min(n, chunkSize-pos);
+			DoubleBuffer b=chunks[ci].duplicate();
+			b.position(pos);
+			b.put(src, offset, len);
+			start+=len;
+			offset+=len;
+			n-=len;
+		}
+	}
+
+	/**
+	 * Computes the dot product of a range of elements with an array
+	 */
+	double dotProduct(long start, double[] data, int offset, int n) {
+		double result=0.0;
+		for (int i=0; i<n; i++) {
+			result+=get(start+i)*data[offset+i];
+		}
+		return result;
+	}
+
+	/**
+	 * Copies a range of elements into new writable heap storage
+	 */
+	ChunkedDoubleBuffer copy(long start, long n) {
+		ChunkedDoubleBuffer result=allocate(n,shift);
+		double[] buf=new double[(int)Math.min(n, BinaryFormat.BUFFER_SIZE)];
+		for (long i=0; i<n; i+=buf.length) {
+			int len=(int)Math.min(buf.length, n-i);
+			get(start+i, buf, 0, len);
+			result.put(i, buf, 0, len);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,438 @@
+package mikera.arrayz.io;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.matrixx.AMatrix;
+import mikera.vectorz.Scalar;
+import mikera.vectorz.util.DoubleArrays;
+import mikera.vectorz.util.VectorzException;
+import us.bpsm.edn.parser.Parseable;
+import us.bpsm.edn.parser.Parser;
+import us.bpsm.edn.parser.Parsers;
+
+/**
+ * Streaming reader and writer for numeric arrays in edn format.
+ *
+ * The reader handles the numeric subset of edn: numbers, possibly nested in vectors or lists, with
+ * whitespace, commas and comments. Elements are tokenised directly into a growing double[] while the
+ * shape is inferred from the nesting, so no intermediate objects are created per element. NaN,
+ * Infinity and -Infinity are also accepted, so that the output of toString() on any array can be read
+ * back.
+ *
+ * Any other edn content is handed to the general edn parser, so the result is the same as creating an
+ * array from the parsed edn data.
+ *
+ * @author Mike
+ */
+public class EdnFormat {
+	private static final int BUFFER_SIZE=8192;
+
+	// ==============================================
+	// Reading
+
+	/**
+	 * Reads an array in edn format. Reads a single top level value.
+	 * @param reader
+	 * @return
+	 */
+	public static INDArray read(Reader reader) {
+		try {
+			return new EdnReader(reader).read();
+		} catch (IOException e) {
+			throw new VectorzException("Error reading edn array: "+e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads an array with the general edn parser
+	 */
+	private static INDArray readGeneral(Reader reader) {
+		Parseable pbr=Parsers.newParseable(reader);
+		Parser p = Parsers.newParser(Parsers.defaultConfiguration());
+		return Arrayz.create(p.nextValue(pbr));
+	}
+
+	private static final class EdnReader {
+		private final Reader source;
+		private final char[] buffer=new char[BUFFER_SIZE];
+		private int pos=0;
+		private int limit=0;
+
+		private final StringBuilder token=new StringBuilder();
+
+		private double[] data=new double[16];
+		private int count=0;
+
+		// counts of completed children for each currently open list
+		private int[] counts=new int[4];
+		private char[] closers=new char[4];
+		private int depth=0;
+
+		// inferred shape, -1 where not yet known
+		private int[] shape=new int[] {-1,-1,-1,-1};
+		private int dims=-1;
+		private int maxDepth=0;
+
+		EdnReader(Reader source) {
+			this.source=source;
+		}
+
+		/**
+		 * Returns the next character without consuming it, or -1 at end of input
+		 */
+		private int peek() throws IOException {
+			if (pos>=limit) {
+				limit=source.read(buffer,0,buffer.length);
+				pos=0;
+				if (limit<=0) {
+					limit=0;
+					return -1;
+				}
+			}
+			return buffer[pos];
+		}
+
+		private static boolean isDelimiter(int c) {
+			return (c<0)||Character.isWhitespace(c)||(c==',')||(c=='[')||(c==']')||(c=='(')||(c==')')||(c==';');
+		}
+
+		/**
+		 * Skips whitespace, commas and comments, returning the next character
+		 */
+		private int skipSpace() throws IOException {
+			int c=peek();
+			while (c>=0) {
+				if (c==';') {
+					while ((c>=0)&&(c!='\n')&&(c!='\r')) {
+						pos++;
+						c=peek();
+					}
+				} else if ((c==',')||Character.isWhitespace(c)) {
+					pos++;
+					c=peek();
+				} else {
+					break;
+				}
+			}
+			return c;
+		}
+
+		INDArray read() throws IOException {
+			do {
+				int c=skipSpace();
+				if (c<0) throw new VectorzException("Unexpected end of edn input");
+				if ((c=='[')||(c=='(')) {
+					pos++;
+					open((c=='[')?']':')');
+				} else if ((c==']')||(c==')')) {
+					pos++;
+					close((char)c);
+				} else {
+					token.setLength(0);
+					while (!isDelimiter(c)) {
+						token.append((char)c);
+						pos++;
+						c=peek();
+					}
+					if (!parseNumber()) return fallback();
+				}
+			} while (depth>0);
+
+			if (dims<0) {
+				if (maxDepth==0) return Scalar.create(data[0]);
+				dims=maxDepth;
+			}
+			if (dims==0) return Scalar.create(data[0]);
+			int[] rshape=new int[dims];
+			System.arraycopy(shape, 0, rshape, 0, dims);
+			double[] rdata=(count==data.length)?data:DoubleArrays.copyOf(data, 0, count);
+			return Arrayz.wrap(rdata, rshape);
+		}
+
+		private void open(char closer) {
+			if ((dims>=0)&&(depth>=dims)) throw new IllegalArgumentException("Inconsistent nesting in edn array: expected a number at depth "+depth);
+			if (depth==counts.length) {
+				counts=Arrays.copyOf(counts, depth*2);
+				closers=Arrays.copyOf(closers, depth*2);
+				int[] ns=Arrays.copyOf(shape, depth*2);
+				Arrays.fill(ns, depth, depth*2, -1);
+				shape=ns;
+			}
+			counts[depth]=0;
+			closers[depth]=closer;
+			depth++;
+			if (depth>maxDepth) maxDepth=depth;
+		}
+
+		private void close(char c) {
+			if (depth==0) throw new VectorzException("Unmatched '"+c+"' in edn input");
+			int k=depth-1;
+			if (closers[k]!=c) throw new VectorzException("Mismatched '"+c+"' in edn input");
+			int n=counts[k];
+			if (shape[k]<0) {
+				shape[k]=n;
+			} else if (shape[k]!=n) {
+				throw new IllegalArgumentException("Inconsistent lengths in edn array at depth "+k+": "+shape[k]+" and "+n);
+			}
+			depth=k;
+			if (depth>0) counts[depth-1]++;
+		}
+
+		private void addValue(double v) {
+			if (dims<0) {
+				dims=depth;
+				if (maxDepth>dims) throw new IllegalArgumentException("Inconsistent nesting in edn array: unexpected number at depth "+depth);
+			} else if (depth!=dims) {
+				throw new IllegalArgumentException("Inconsistent nesting in edn array: unexpected number at depth "+depth);
+			}
+			if (count==data.length) {
+				if (count==Integer.MAX_VALUE) throw new IllegalArgumentException("Too many elements in edn array");
+				data=Arrays.copyOf(data, (int)Math.min(Integer.MAX_VALUE, count*2L));
+			}
+			data[count++]=v;
+			if (depth>0) counts[depth-1]++;
+		}
+
+		/**
+		 * Parses the current token as a number, returning false if it is not a supported number
+		 */
+		private boolean parseNumber() {
+			StringBuilder t=token;
+			int n=t.length();
+			if (n==0) return false;
+			int i=0;
+			boolean negative=false;
+			char c=t.charAt(0);
+			if ((c=='+')||(c=='-')) {
+				negative=(c=='-');
+				i++;
+			}
+			if ((i<n)&&(t.charAt(i)=='I')&&(n-i==8)&&(t.indexOf("Infinity")==i)) {
+				addValue(negative?Double.NEGATIVE_INFINITY:Double.POSITIVE_INFINITY);
+				return true;
+			}
+			if ((n==3)&&(i==0)&&"NaN".contentEquals(t)) {
+				addValue(Double.NaN);
+				return true;
+			}
+
+			// edn arbitrary precision suffixes
+			char last=t.charAt(n-1);
+			if ((last=='N')||(last=='M')) n--;
+
+			long mantissa=0;
+			int digits=0;
+			int exponent=0;
+			boolean seenDigit=false;
+			boolean exact=true;
+			for (; i<n; i++) {
+				c=t.charAt(i);
+				if ((c<'0')||(c>'9')) break;
+				seenDigit=true;
+				if ((mantissa==0)&&(c=='0')) continue;
+				if (digits<18) {
+					mantissa=mantissa*10+(c-'0');
+					digits++;
+				} else {
+					exponent++;
+					if (c!='0') exact=false;
+				}
+			}
+			if ((i<n)&&(t.charAt(i)=='.')) {
+				if (last=='N') return false;
+				i++;
+				for (; i<n; i++) {
+					c=t.charAt(i);
+					if ((c<'0')||(c>'9')) break;
+					seenDigit=true;
+					if ((mantissa==0)&&(c=='0')) {
+						exponent--;
+						continue;
+					}
+					if (digits<18) {
+						mantissa=mantissa*10+(c-'0');
+						digits++;
+						exponent--;
+					} else if (c!='0') {
+						exact=false;
+					}
+				}
+			}
+			if (!seenDigit) return false;
+			if ((i<n)&&((t.charAt(i)=='e')||(t.charAt(i)=='E'))) {
+				if (last=='N') return false;
+				i++;
+				boolean negExp=false;
+				if ((i<n)&&((t.charAt(i)=='+')||(t.charAt(i)=='-'))) {
+					negExp=(t.charAt(i)=='-');
+					i++;
+				}
+				if (i>=n) return false;
+				int e=0;
+				for (; i<n; i++) {
+					c=t.charAt(i);
+					if ((c<'0')||(c>'9')) return false;
+					if (e<100000) e=e*10+(c-'0');
+				}
+				exponent+=negExp?-e:e;
+			}
+			if (i!=n) return false;
+
+			double v;
+			if (exact&&(digits<=15)&&(exponent>=-22)&&(exponent<=22)) {
+				// both mantissa and power of ten are exactly representable, so a single rounding is correct
+				v=mantissa;
+				if (exponent<0) {
+					v/=POWERS_OF_TEN[-exponent];
+				} else {
+					v*=POWERS_OF_TEN[exponent];
+				}
+				if (negative) v=-v;
+			} else {
+				v=Double.parseDouble(t.substring(0, n));
+			}
+			addValue(v);
+			return true;
+		}
+
+		/**
+		 * Hands the input to the general edn parser. Reconstructs the text consumed so far, which is
+		 * always a regular numeric prefix, and pushes it back ahead of the unread input.
+		 */
+		private INDArray fallback() throws IOException {
+			StringBuilder sb=new StringBuilder();
+			int[] dataPos=new int[1];
+			appendOpen(sb,0,dataPos);
+			sb.append(token);
+			sb.append(buffer,pos,limit-pos);
+			PushbackReader pr=new PushbackReader(source,Math.max(1, sb.length()));
+			char[] chars=new char[sb.length()];
+			sb.getChars(0, chars.length, chars, 0);
+			pr.unread(chars);
+			return readGeneral(pr);
+		}
+
+		private void appendOpen(StringBuilder sb, int level, int[] dataPos) {
+			if (level>=depth) return;
+			sb.append((closers[level]==']')?'[':'(');
+			int n=counts[level];
+			for (int i=0; i<n; i++) {
+				appendComplete(sb,level+1,dataPos);
+				sb.append(' ');
+			}
+			appendOpen(sb,level+1,dataPos);
+		}
+
+		private void appendComplete(StringBuilder sb, int level, int[] dataPos) {
+			if (level==dims) {
+				sb.append(data[dataPos[0]++]);
+				return;
+			}
+			sb.append('[');
+			int n=shape[level];
+			for (int i=0; i<n; i++) {
+				if (i>0) sb.append(' ');
+				appendComplete(sb,level+1,dataPos);
+			}
+			sb.append(']');
+		}
+	}
+
+	private static final double[] POWERS_OF_TEN=new double[23];
+	static {
+		double p=1.0;
+		for (int i=0; i<POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i]=p;
+			p*=10.0;
+		}
+	}
+
+	// ==============================================
+	// Writing
+
+	/**
+	 * Writes an array in edn format, using the same layout as toString(). Does not close the writer.
+	 * @param a
+	 * @param writer
+	 * @throws IOException
+	 */
+	public static void write(INDArray a, Writer writer) throws IOException {
+		StringBuilder sb=new StringBuilder(BUFFER_SIZE+64);
+		if (a.dimensionality()==0) {
+			sb.append(a.get());
+		} else {
+			double[] row=new double[Math.max(1, a.getShape(a.dimensionality()-1))];
+			writeSlices(a,sb,writer,row);
+		}
+		writer.write(sb.toString());
+		writer.flush();
+	}
+
+	/**
+	 * Writes an array in edn format to a String
+	 * @param a
+	 * @return
+	 */
+	public static String toString(INDArray a) {
+		StringWriter sw=new StringWriter();
+		try {
+			write(a,sw);
+		} catch (IOException e) {
+			throw new VectorzException("Unexpected error writing edn: "+e.getMessage());
+		}
+		return sw.toString();
+	}
+
+	private static void writeSlices(INDArray a, StringBuilder sb, Writer writer, double[] row) throws IOException {
+		int dims=a.dimensionality();
+		if (dims==1) {
+			int n=a.getShape(0);
+			if (a instanceof IDenseArray) {
+				IDenseArray da=(IDenseArray)a;
+				writeRow(da.getArray(),da.getArrayOffset(),n,sb,writer);
+			} else {
+				a.asVector().copyTo(0, row, 0, n);
+				writeRow(row,0,n,sb,writer);
+			}
+			return;
+		}
+		int sc=a.sliceCount();
+		sb.append('[');
+		if ((dims==2)&&(a instanceof AMatrix)&&!(a instanceof IDenseArray)) {
+			AMatrix m=(AMatrix)a;
+			int cc=m.columnCount();
+			for (int i=0; i<sc; i++) {
+				if (i>0) sb.append(',');
+				m.copyRowTo(i, row, 0);
+				writeRow(row,0,cc,sb,writer);
+			}
+		} else {
+			for (int i=0; i<sc; i++) {
+				if (i>0) sb.append(',');
+				writeSlices(a.slice(i),sb,writer,row);
+			}
+		}
+		sb.append(']');
+	}
+
+	private static void writeRow(double[] data, int offset, int n, StringBuilder sb, Writer writer) throws IOException {
+		sb.append('[');
+		for (int i=0; i<n; i++) {
+			if (i>0) sb.append(',');
+			sb.append(data[offset+i]);
+			if (sb.length()>=BUFFER_SIZE) {
+				writer.write(sb.toString());
+				sb.setLength(0);
+			}
+		}
+		sb.append(']');
+	}
+}
@@ -0,0 +1,130 @@
+package mikera.arrayz.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.SliceArray;
+import mikera.vectorz.Scalar;
+import mikera.vectorz.util.IntArrays;
+
+/**
+ * Static functions for zero-copy loading of arrays by memory-mapping files written with BinaryFormat.
+ *
+ * Only dense arrays with packed row-major strides can be mapped. Element data stays in the file
+ * and is paged in by the operating system on demand, so mapped arrays may be much larger than the
+ * Java heap. Mappings are split into 1GB chunks internally, so files larger than 2GB are supported.
+ *
+ * Mapped arrays are either read-only, or copy-on-write. Copy-on-write changes are private to the
+ * returned array and never written back to the file, though copy-on-write mapping requires write
+ * permission on the file.
+ *
+ * The file is closed after mapping; the mapping itself remains valid until the array is garbage
+ * collected.
+ *
+ * @author Mike
+ */
+public class MappedArrays {
+
+	/**
+	 * Maps an array read-only from a file in binary format
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static INDArray map(File file) throws IOException {
+		return map(file,false);
+	}
+
+	/**
+	 * Maps an array from a file in binary format.
+	 *
+	 * 1D arrays are returned as a MappedVector, 2D arrays as a MappedMatrix, and higher dimensional
+	 * arrays as slices of mapped matrices.
+	 *
+	 * @param file
+	 * @param copyOnWrite If true, the array is mutable with changes private to the array. Otherwise the array is read-only.
+	 * @return
+	 * @throws IOException
+	 */
+	public static INDArray map(File file, boolean copyOnWrite) throws IOException {
+		return map(file,copyOnWrite,ChunkedDoubleBuffer.CHUNK_SHIFT);
+	}
+
+	/**
+	 * Maps an array with 2^chunkShift elements per mapped chunk
+	 */
+	static INDArray map(File file, boolean copyOnWrite, int chunkShift) throws IOException {
+		// NIO requires a writable channel for private mappings, though the file is never modified
+		RandomAccessFile raf=new RandomAccessFile(file,copyOnWrite?"rw":"r");
+		try {
+			FileChannel channel=raf.getChannel();
+			BinaryFormat.Header h=BinaryFormat.readHeader(new BinaryReader(channel));
+			if (h.type!=BinaryFormat.TYPE_DENSE) throw new IOException("Only dense arrays can be memory-mapped, found type: "+h.type);
+			int[] shape=h.shape;
+			if (!Arrayz.isPackedStrides(shape, h.strides)) {
+				throw new IOException("Only packed row-major arrays can be memory-mapped, found strides: "+Arrays.toString(h.strides));
+			}
+			long n=new BinaryReader(channel).getLong();
+			long ec=IntArrays.arrayProduct(shape);
+			if (n!=ec) throw new IOException("Invalid storage length for shape "+Arrays.toString(shape)+": "+n);
+			long position=channel.position();
+			if (channel.size()<position+n*8) throw new IOException("File truncated, expected "+n+" elements");
+			FileChannel.MapMode mode=copyOnWrite?FileChannel.MapMode.PRIVATE:FileChannel.MapMode.READ_ONLY;
+			ChunkedDoubleBuffer storage=ChunkedDoubleBuffer.map(channel, mode, position, n, chunkShift);
+			return create(storage,0,shape,0);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Maps a vector from a file in binary format
+	 * @param file
+	 * @param copyOnWrite If true, the vector is mutable with changes private to the vector. Otherwise the vector is read-only.
+	 * @return
+	 * @throws IOException
+	 */
+	public static MappedVector mapVector(File file, boolean copyOnWrite) throws IOException {
+		INDArray a=map(file,copyOnWrite);
+		if (!(a instanceof MappedVector)) throw new IOException("Expected a 1D array but got shape: "+Arrays.toString(a.getShape()));
+		return (MappedVector)a;
+	}
+
+	/**
+	 * Maps a matrix from a file in binary format
+	 * @param file
+	 * @param copyOnWrite If true, the matrix is mutable with changes private to the matrix. Otherwise the matrix is read-only.
+	 * @return
+	 * @throws IOException
+	 */
+	public static MappedMatrix mapMatrix(File file, boolean copyOnWrite) throws IOException {
+		INDArray a=map(file,copyOnWrite);
+		if (!(a instanceof MappedMatrix)) throw new IOException("Expected a 2D array but got shape: "+Arrays.toString(a.getShape()));
+		return (MappedMatrix)a;
+	}
+
+	private static INDArray create(ChunkedDoubleBuffer storage, long offset, int[] shape, int dim) {
+		int dims=shape.length-dim;
+		switch (dims) {
+			case 0: return Scalar.create(storage.get(offset));
+			case 1: return new MappedVector(storage,offset,shape[dim]);
+			case 2: return new MappedMatrix(storage,offset,shape[dim],shape[dim+1]);
+			default: {
+				int sc=shape[dim];
+				long sliceSize=IntArrays.arrayProduct(shape,dim+1,shape.length);
+				List<INDArray> slices=new ArrayList<INDArray>(sc);
+				for (int i=0; i<sc; i++) {
+					slices.add(create(storage,offset+i*sliceSize,shape,dim+1));
+				}
+				return SliceArray.create(slices,Arrays.copyOfRange(shape, dim, shape.length));
+			}
+		}
+	}
+}
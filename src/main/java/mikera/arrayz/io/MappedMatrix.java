@@ -0,0 +1,106 @@
+package mikera.arrayz.io;
+
+import java.io.ObjectStreamException;
+
+import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.ARectangularMatrix;
+import mikera.matrixx.impl.IFastRows;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * Dense row-major matrix backed by memory-mapped file storage, as created by MappedArrays.
+ *
+ * Element storage is addressed by long index, so the total element count may exceed the maximum
+ * size of a Java array. Rows are returned as MappedVector views over the same mapping.
+ *
+ * Serialises as a dense Matrix.
+ *
+ * @author Mike
+ */
+public final class MappedMatrix extends ARectangularMatrix implements IFastRows {
+	private static final long serialVersionUID = 4408296386290914366L;
+
+	private final transient ChunkedDoubleBuffer storage;
+	private final transient long offset;
+
+	MappedMatrix(ChunkedDoubleBuffer storage, long offset, int rows, int cols) {
+		super(rows,cols);
+		this.storage=storage;
+		this.offset=offset;
+	}
+
+	private long index(int i, int j) {
+		return offset+((long)i)*cols+j;
+	}
+
+	@Override
+	public double get(int i, int j) {
+		checkIndex(i,j);
+		return storage.get(index(i,j));
+	}
+
+	@Override
+	public double unsafeGet(int i, int j) {
+		return storage.get(index(i,j));
+	}
+
+	@Override
+	public void set(int i, int j, double value) {
+		checkIndex(i,j);
+		unsafeSet(i,j,value);
+	}
+
+	@Override
+	public void unsafeSet(int i, int j, double value) {
+		if (!storage.isWritable()) throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+		storage.set(index(i,j),value);
+	}
+
+	@Override
+	public MappedVector getRow(int row) {
+		return getRowView(row);
+	}
+
+	@Override
+	public MappedVector getRowView(int row) {
+		if ((row<0)||(row>=rows)) throw new IndexOutOfBoundsException(ErrorMessages.invalidSlice(this, row));
+		return new MappedVector(storage,index(row,0),cols);
+	}
+
+	@Override
+	public void copyRowTo(int row, double[] dest, int destOffset) {
+		storage.get(index(row,0), dest, destOffset, cols);
+	}
+
+	@Override
+	public void getElements(double[] dest, int offset) {
+		storage.get(this.offset, dest, offset, rows*cols);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return storage.isWritable();
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return storage.isWritable();
+	}
+
+	@Override
+	public boolean isView() {
+		return true;
+	}
+
+	/**
+	 * Returns a copy of this matrix in heap memory. The copy is always mutable.
+	 */
+	@Override
+	public MappedMatrix exactClone() {
+		return new MappedMatrix(storage.copy(offset, elementCount()),0,rows,cols);
+	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return Matrix.create(this);
+	}
+}
@@ -0,0 +1,117 @@
+package mikera.arrayz.io;
+
+import java.io.ObjectStreamException;
+
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.ASizedVector;
+import mikera.vectorz.impl.Vector0;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * Vector backed by memory-mapped file storage, as created by MappedArrays.
+ *
+ * Elements are read directly from the mapping without copying to the heap. A mapped vector is either
+ * read-only, or copy-on-write in which case changes are private to the mapping and never written
+ * back to the file.
+ *
+ * Serialises as a dense Vector.
+ *
+ * @author Mike
+ */
+public final class MappedVector extends ASizedVector {
+	private static final long serialVersionUID = -2817541163286466409L;
+
+	private final transient ChunkedDoubleBuffer storage;
+	private final transient long offset;
+
+	MappedVector(ChunkedDoubleBuffer storage, long offset, int length) {
+		super(length);
+		this.storage=storage;
+		this.offset=offset;
+	}
+
+	@Override
+	public double get(int i) {
+		checkIndex(i);
+		return storage.get(offset+i);
+	}
+
+	@Override
+	public double unsafeGet(int i) {
+		return storage.get(offset+i);
+	}
+
+	@Override
+	public void set(int i, double value) {
+		checkIndex(i);
+		unsafeSet(i,value);
+	}
+
+	@Override
+	public void unsafeSet(int i, double value) {
+		if (!storage.isWritable()) throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+		storage.set(offset+i,value);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return storage.isWritable();
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return storage.isWritable();
+	}
+
+	@Override
+	public boolean isView() {
+		return true;
+	}
+
+	@Override
+	public double dotProduct(double[] data, int offset) {
+		return storage.dotProduct(this.offset, data, offset, length);
+	}
+
+	@Override
+	public void copyTo(int offset, double[] dest, int destOffset, int length) {
+		storage.get(this.offset+offset, dest, destOffset, length);
+	}
+
+	@Override
+	public void getElements(double[] dest, int offset) {
+		storage.get(this.offset, dest, offset, length);
+	}
+
+	@Override
+	public void setElements(double[] values, int offset) {
+		if (!storage.isWritable()) throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+		storage.put(this.offset, values, offset, length);
+	}
+
+	@Override
+	public AVector subVector(int start, int length) {
+		int len=checkRange(start,length);
+		if (length==0) return Vector0.INSTANCE;
+		if (length==len) return this;
+		return new MappedVector(storage,offset+start,length);
+	}
+
+	/**
+	 * Returns a copy of this vector in heap memory. The copy is always mutable.
+	 */
+	@Override
+	public MappedVector exactClone() {
+		return new MappedVector(storage.copy(offset, length),0,length);
+	}
+
+	@Override
+	public Vector clone() {
+		return Vector.create(this);
+	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return Vector.create(this);
+	}
+}
@@ -3,7 +3,6 @@ package mikera.indexz;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Collections;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -56,10 +55,22 @@ public final class Index extends AIndex {
 	}
 
 	public static Index createSorted(Set<Integer> keySet) {
-		ArrayList<Integer> al=new ArrayList<Integer>();
-		al.addAll(keySet);
-		Collections.sort(al);
-		return create(al);
+		int[] rs=toIntArray(keySet,0);
+		Arrays.sort(rs);
+		return new Index(rs);
+	}
+	
+	/**
+	 * Copies the values of a set into a new int array, after the specified number of leading zeros
+	 */
+	private static int[] toIntArray(Set<Integer> set, int offset) {
+		int[] rs=new int[offset+set.size()];
+		int i=offset;
+		for (Integer x:set) {
+			rs[i++]=x;
+		}
+		if (i!=rs.length) throw new VectorzException(ErrorMessages.impossible());
+		return rs;
 	}
 	
 	public static Index createSorted(SortedSet<Integer> keySet) {
@@ -185,20 +196,47 @@ public final class Index extends AIndex {
 		return true;
 	}
 	
+	/**
+	 * Returns a new sorted Index containing the distinct values of this Index together with
+	 * the values of the given set
+	 */
 	public Index includeSorted(Set<Integer> is) {
-		TreeSet<Integer> ss=new TreeSet<Integer>(this.toSet());
-		for (Integer i:is) {
-			ss.add(i);
-		}
-		return createSorted(ss);
+		int n=data.length;
+		int[] rs=toIntArray(is,n);
+		System.arraycopy(data, 0, rs, 0, n);
+		int k=IntArrays.sortDistinct(rs, rs.length);
+		return new Index((k==rs.length)?rs:Arrays.copyOf(rs, k));
 	}
 	
+	/**
+	 * Returns a new sorted Index containing the distinct values of this Index together with
+	 * the values of another Index. Uses a linear merge if both indexes are sorted and distinct.
+	 */
 	public Index includeSorted(Index ind) {
-		TreeSet<Integer> ss=new TreeSet<Integer>(this.toSet());
-		for (Integer i:ind) {
-			ss.add(i);
+		if (isDistinctSorted()&&ind.isDistinctSorted()) {
+			return new Index(IntArrays.mergeSorted(data, ind.data));
 		}
-		return createSorted(ss);
+		int n=data.length;
+		int[] rs=Arrays.copyOf(data, n+ind.data.length);
+		System.arraycopy(ind.data, 0, rs, n, ind.data.length);
+		int k=IntArrays.sortDistinct(rs, rs.length);
+		return new Index((k==rs.length)?rs:Arrays.copyOf(rs, k));
+	}
+	
+	/**
+	 * Returns a new Index containing the values present in both this Index and another.
+	 * Both indexes must be sorted and distinct.
+	 */
+	public Index intersectSorted(Index ind) {
+		return new Index(IntArrays.intersectSorted(data, ind.data));
+	}
+	
+	/**
+	 * Returns a new Index containing the values of this Index that are not present in another.
+	 * Both indexes must be sorted and distinct.
+	 */
+	public Index excludeSorted(Index ind) {
+		return new Index(IntArrays.differenceSorted(data, ind.data));
 	}
 	
 	public Set<Integer> toSet() {
@@ -0,0 +1,223 @@
+package mikera.indexz.impl;
+
+import java.util.Arrays;
+
+import mikera.indexz.AIndex;
+import mikera.indexz.Index;
+
+/**
+ * Immutable compressed index for large sorted sets of distinct non-negative values, such as
+ * the support of a very large sparse vector.
+ *
+ * Values are stored as the differences between consecutive values, each encoded as a
+ * variable-length integer of 7 bits per byte. Dense supports therefore take one byte per value
+ * rather than four. The first value of every block of BLOCK_SIZE values is also stored
+ * uncompressed with its position in the encoded data, so that random access decodes at most
+ * BLOCK_SIZE-1 differences and searches can skip whole blocks.
+ *
+ * @author Mike
+ */
+public final class CompressedIndex extends ComputedIndex {
+	private static final long serialVersionUID = 2361207396478226153L;
+
+	/**
+	 * Number of values in each block of the skip table
+	 */
+	public static final int BLOCK_SIZE=64;
+	private static final int BLOCK_SHIFT=6;
+
+	private final byte[] deltas;
+	private final int[] blockValues;
+	private final int[] blockOffsets;
+
+	private CompressedIndex(int length, byte[] deltas, int[] blockValues, int[] blockOffsets) {
+		super(length);
+		this.deltas=deltas;
+		this.blockValues=blockValues;
+		this.blockOffsets=blockOffsets;
+	}
+
+	/**
+	 * Creates a CompressedIndex from a sorted array of distinct non-negative values
+	 */
+	public static CompressedIndex create(int[] values) {
+		return create(values,0,values.length);
+	}
+
+	/**
+	 * Creates a CompressedIndex from a range of a sorted array of distinct non-negative values
+	 */
+	public static CompressedIndex create(int[] values, int offset, int length) {
+		int blocks=(length+BLOCK_SIZE-1)>>>BLOCK_SHIFT;
+		int[] blockValues=new int[blocks];
+		int[] blockOffsets=new int[blocks];
+		byte[] buf=new byte[length+16];
+		int pos=0;
+		int last=-1;
+		for (int i=0; i<length; i++) {
+			int v=values[offset+i];
+			if (v<=last) throw new IllegalArgumentException("Values must be sorted, distinct and non-negative, found "+v+" at position "+i);
+			if ((i&(BLOCK_SIZE-1))==0) {
+				blockValues[i>>>BLOCK_SHIFT]=v;
+				blockOffsets[i>>>BLOCK_SHIFT]=pos;
+			} else {
+				if (pos+5>buf.length) buf=Arrays.copyOf(buf, buf.length*2);
+				pos=writeVarInt(buf,pos,v-last);
+			}
+			last=v;
+		}
+		return new CompressedIndex(length,Arrays.copyOf(buf, pos),blockValues,blockOffsets);
+	}
+
+	/**
+	 * Creates a CompressedIndex from a sorted and distinct index of non-negative values
+	 */
+	public static CompressedIndex create(AIndex index) {
+		if (index instanceof CompressedIndex) return (CompressedIndex)index;
+		if (index instanceof Index) return create(((Index)index).data);
+		return create(index.toArray());
+	}
+
+	private static int writeVarInt(byte[] buf, int pos, int v) {
+		while ((v&~0x7F)!=0) {
+			buf[pos++]=(byte)((v&0x7F)|0x80);
+			v>>>=7;
+		}
+		buf[pos++]=(byte)v;
+		return pos;
+	}
+
+	@Override
+	public int get(int i) {
+		if ((i<0)||(i>=length)) throw new IndexOutOfBoundsException("Position "+i+" out of range for index of length "+length);
+		int block=i>>>BLOCK_SHIFT;
+		int v=blockValues[block];
+		int pos=blockOffsets[block];
+		byte[] d=deltas;
+		for (int k=i&(BLOCK_SIZE-1); k>0; k--) {
+			int b=d[pos++];
+			int delta=b&0x7F;
+			int shift=7;
+			while (b<0) {
+				b=d[pos++];
+				delta|=(b&0x7F)<<shift;
+				shift+=7;
+			}
+			v+=delta;
+		}
+		return v;
+	}
+
+	@Override
+	public void copyTo(int[] array, int offset) {
+		byte[] d=deltas;
+		int pos=0;
+		int v=0;
+		for (int i=0; i<length; i++) {
+			if ((i&(BLOCK_SIZE-1))==0) {
+				v=blockValues[i>>>BLOCK_SHIFT];
+			} else {
+				int b=d[pos++];
+				int delta=b&0x7F;
+				int shift=7;
+				while (b<0) {
+					b=d[pos++];
+					delta|=(b&0x7F)<<shift;
+					shift+=7;
+				}
+				v+=delta;
+			}
+			array[offset+i]=v;
+		}
+	}
+
+	/**
+	 * Converts this compressed index to a regular Index
+	 */
+	public Index toIndex() {
+		return Index.wrap(toArray());
+	}
+
+	/**
+	 * Returns the position of a value in this index, or -1 if not present. Uses a binary search
+	 * over the skip table followed by a scan of at most one block.
+	 */
+	public int indexPosition(int value) {
+		int lo=0;
+		int hi=blockValues.length-1;
+		if ((hi<0)||(value<blockValues[0])) return -1;
+		while (lo<hi) {
+			int mid=(lo+hi+1)>>>1;
+			if (blockValues[mid]<=value) {
+				lo=mid;
+			} else {
+				hi=mid-1;
+			}
+		}
+		int i=lo<<BLOCK_SHIFT;
+		int v=blockValues[lo];
+		int pos=blockOffsets[lo];
+		int end=Math.min(length, i+BLOCK_SIZE);
+		byte[] d=deltas;
+		while (true) {
+			if (v==value) return i;
+			if ((v>value)||(++i>=end)) return -1;
+			int b=d[pos++];
+			int delta=b&0x7F;
+			int shift=7;
+			while (b<0) {
+				b=d[pos++];
+				delta|=(b&0x7F)<<shift;
+				shift+=7;
+			}
+			v+=delta;
+		}
+	}
+
+	@Override
+	public boolean contains(int value) {
+		return indexPosition(value)>=0;
+	}
+
+	@Override
+	public boolean containsSorted(int value) {
+		return indexPosition(value)>=0;
+	}
+
+	@Override
+	public boolean isSorted() {
+		return true;
+	}
+
+	@Override
+	public boolean isDistinctSorted() {
+		return true;
+	}
+
+	@Override
+	public boolean isDistinct() {
+		return true;
+	}
+
+	@Override
+	public int minIndex() {
+		return blockValues[0];
+	}
+
+	@Override
+	public int maxIndex() {
+		return get(length-1);
+	}
+
+	/**
+	 * Returns the approximate number of bytes used to store the values of this index
+	 */
+	public long byteSize() {
+		return deltas.length+8L*blockValues.length;
+	}
+
+	@Override
+	public CompressedIndex clone() {
+		return this;
+	}
+}
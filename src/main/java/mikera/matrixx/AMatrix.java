@@ -720,6 +720,32 @@ public abstract class AMatrix extends AbstractArray<AVector> implements IMatrix
 		return copy().getTranspose();
 	}
 	
+	/**
+	 * Stores the transpose of this matrix in the destination matrix. The destination must have
+	 * shape [columnCount, rowCount]. If the destination is this matrix, it is transposed in place.
+	 */
+	public void transposeInto(AMatrix dest) {
+		if (dest==this) {
+			transposeInPlace();
+			return;
+		}
+		int rc=rowCount();
+		int cc=columnCount();
+		dest.checkShape(cc,rc);
+		if (dest instanceof Matrix) {
+			double[] data=((Matrix)dest).data;
+			for (int j=0; j<cc; j++) {
+				copyColumnTo(j, data, j*rc);
+			}
+			return;
+		}
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				dest.unsafeSet(j, i, unsafeGet(i, j));
+			}
+		}
+	}
+	
 	/**
 	 * Adds another matrix to this matrix. Matrices must be the same size.
 	 */
@@ -783,6 +809,21 @@ public abstract class AMatrix extends AbstractArray<AVector> implements IMatrix
 		return r;
 	}	
 
+	/**
+	 * Multiplies this matrix by a constant factor, storing the result in the destination matrix.
+	 * The destination may be this matrix.
+	 */
+	public void multiplyInto(double factor, AMatrix dest) {
+		int rc=rowCount();
+		int cc=columnCount();
+		dest.checkShape(rc,cc);
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				dest.unsafeSet(i, j, unsafeGet(i, j)*factor);
+			}
+		}
+	}
+
 	/**
 	 * Returns the sum of all elements in the matrix
 	 * @param m
@@ -1243,6 +1284,24 @@ public abstract class AMatrix extends AbstractArray<AVector> implements IMatrix
 		return Multiplications.multiply(this, a);
 	}
 	
+	/**
+	 * Computes the inner product of this matrix with another matrix, storing the result in the
+	 * destination matrix. The destination must have shape [rowCount, a.columnCount].
+	 * 
+	 * Dense operands with a Matrix destination are multiplied without any allocation.
+	 */
+	public void innerProductInto(AMatrix a, AMatrix dest) {
+		Multiplications.multiplyInto(this, a, dest);
+	}
+	
+	/**
+	 * Computes the inner product of this matrix with a vector, storing the result in the
+	 * destination vector. Equivalent to transform(v, dest).
+	 */
+	public final void innerProductInto(AVector v, AVector dest) {
+		transform(v, dest);
+	}
+	
 	@Override
 	public AVector innerProduct(AVector v) {
 		if (v instanceof Vector) {
@@ -1441,6 +1500,21 @@ public abstract class AMatrix extends AbstractArray<AVector> implements IMatrix
 		}
 	}
 	
+	/**
+	 * Applies an operator to every element of this matrix, storing the result in the destination
+	 * matrix. The destination may be this matrix.
+	 */
+	public void applyOpInto(Op op, AMatrix dest) {
+		int rc=rowCount();
+		int cc=columnCount();
+		dest.checkShape(rc,cc);
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				dest.unsafeSet(i, j, op.apply(unsafeGet(i, j)));
+			}
+		}
+	}
+	
 	@Override
 	public void add(INDArray a) {
 		if (a instanceof AMatrix) {
@@ -2013,6 +2087,40 @@ public abstract class AMatrix extends AbstractArray<AVector> implements IMatrix
 		this.addToArray(r.data,0);
 		return r;
 	}
+	
+	/**
+	 * Adds another matrix to this matrix, storing the result in the destination matrix. The
+	 * destination may be the same matrix as either operand, but should not otherwise share
+	 * storage with them.
+	 */
+	public void addInto(AMatrix a, AMatrix dest) {
+		int rc=rowCount();
+		int cc=columnCount();
+		a.checkShape(rc,cc);
+		dest.checkShape(rc,cc);
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				dest.unsafeSet(i, j, unsafeGet(i, j)+a.unsafeGet(i, j));
+			}
+		}
+	}
+	
+	/**
+	 * Subtracts another matrix from this matrix, storing the result in the destination matrix. The
+	 * destination may be the same matrix as either operand, but should not otherwise share
+	 * storage with them.
+	 */
+	public void subInto(AMatrix a, AMatrix dest) {
+		int rc=rowCount();
+		int cc=columnCount();
+		a.checkShape(rc,cc);
+		dest.checkShape(rc,cc);
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				dest.unsafeSet(i, j, unsafeGet(i, j)-a.unsafeGet(i, j));
+			}
+		}
+	}
 
 	/**
      * Checks to see if any element in the matrix is NaN of Infinite.
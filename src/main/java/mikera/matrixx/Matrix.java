@@ -23,6 +23,7 @@ import mikera.vectorz.impl.StridedElementIterator;
 import mikera.vectorz.impl.StridedVector;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.Parallel;
 
 /**
  * Standard MxN matrix class backed by a densely packed double[] array
@@ -201,11 +202,13 @@ public final class Matrix extends ADenseArrayMatrix {
 
 	@Override
 	public double elementSum() {
+		if (Parallel.useParallel(data.length)) return Parallel.elementSum(data, 0, data.length);
 		return DoubleArrays.elementSum(data);
 	}
 
 	@Override
 	public double elementSquaredSum() {
+		if (Parallel.useParallel(data.length)) return Parallel.elementSquaredSum(data, 0, data.length);
 		return DoubleArrays.elementSquaredSum(data);
 	}
 
@@ -471,11 +474,19 @@ public final class Matrix extends ADenseArrayMatrix {
 
 	@Override
 	public void applyOp(Op op) {
+		if (Parallel.useParallel(data.length)) {
+			Parallel.applyOp(op, data, 0, data.length);
+			return;
+		}
 		op.applyTo(data);
 	}
 
 	public void addMultiple(Matrix m, double factor) {
 		checkSameShape(m);
+		if (Parallel.useParallel(data.length)) {
+			Parallel.addMultiple(data, 0, m.data, 0, data.length, factor);
+			return;
+		}
 		DoubleArrays.addMultiple(data,m.data,factor);
 	}
 
@@ -493,6 +504,48 @@ public final class Matrix extends ADenseArrayMatrix {
 		return r;
 	}
 	
+	@Override
+	public void addInto(AMatrix a, AMatrix dest) {
+		if ((a instanceof Matrix)&&(dest instanceof Matrix)) {
+			a.checkShape(rows, cols);
+			dest.checkShape(rows, cols);
+			DoubleArrays.addResult(((Matrix)dest).data, data, ((Matrix)a).data);
+			return;
+		}
+		super.addInto(a, dest);
+	}
+	
+	@Override
+	public void subInto(AMatrix a, AMatrix dest) {
+		if ((a instanceof Matrix)&&(dest instanceof Matrix)) {
+			a.checkShape(rows, cols);
+			dest.checkShape(rows, cols);
+			DoubleArrays.subResult(((Matrix)dest).data, 0, data, 0, ((Matrix)a).data, 0, data.length);
+			return;
+		}
+		super.subInto(a, dest);
+	}
+	
+	@Override
+	public void multiplyInto(double factor, AMatrix dest) {
+		if (dest instanceof Matrix) {
+			dest.checkShape(rows, cols);
+			DoubleArrays.scaleResult(((Matrix)dest).data, 0, data, 0, data.length, factor);
+			return;
+		}
+		super.multiplyInto(factor, dest);
+	}
+	
+	@Override
+	public void applyOpInto(Op op, AMatrix dest) {
+		if (dest instanceof Matrix) {
+			dest.checkShape(rows, cols);
+			op.applyTo(data, 0, ((Matrix)dest).data, 0, data.length);
+			return;
+		}
+		super.applyOpInto(op, dest);
+	}
+	
 	@Override
 	public void add2(AMatrix a, AMatrix b) {
 		if (a instanceof ADenseArrayMatrix) {
@@ -548,6 +601,10 @@ public final class Matrix extends ADenseArrayMatrix {
 
 	@Override
 	public void multiply(double factor) {
+		if (Parallel.useParallel(data.length)) {
+			Parallel.multiply(data, 0, data.length, factor);
+			return;
+		}
 		DoubleArrays.multiply(data, factor);
 	}
 
@@ -137,11 +137,31 @@ public final class Matrix22 extends APrimitiveMatrix implements ISpecialisedTran
 	
 	@Override
 	public Matrix22 inverse() {
+		Matrix22 r=new Matrix22();
+		if (!inverseInto(r)) return null;
+		return r;
+	}
+	
+	/**
+	 * Computes the inverse of this matrix, storing the result in dest without allocation.
+	 * dest may be this matrix.
+	 * 
+	 * @return false if the matrix is singular, in which case dest is unchanged
+	 */
+	public boolean inverseInto(Matrix22 dest) {
 		double det=determinant();
-		if (det==0.0) return null;
+		if (det==0.0) return false;
 		double invDet=1.0/det;
-		return new Matrix22( invDet*m11, -invDet*m01,
-				            -invDet*m10,  invDet*m00);		
+		double t00=invDet*m11, t01=-invDet*m01;
+		double t10=-invDet*m10, t11=invDet*m00;
+		dest.m00=t00; dest.m01=t01;
+		dest.m10=t10; dest.m11=t11;
+		return true;
+	}
+	
+	@Override
+	public void transposeInPlace() {
+		double t=m01; m01=m10; m10=t;
 	}
 
 	@Override
@@ -274,21 +294,58 @@ public final class Matrix22 extends APrimitiveMatrix implements ISpecialisedTran
 	
 	public Matrix22 innerProduct(Matrix22 a) {
 		Matrix22 r=new Matrix22();
-		r.m00=m00*a.m00+m01*a.m10;
-		r.m01=m00*a.m01+m01*a.m11;
-		r.m10=m10*a.m00+m11*a.m10;
-		r.m11=m10*a.m01+m11*a.m11;
+		innerProductInto(a,r);
 		return r;
 	}
 	
+	/**
+	 * Computes the matrix product this * a, storing the result in dest without allocation.
+	 * dest may be the same object as this or a.
+	 */
+	public void innerProductInto(Matrix22 a, Matrix22 dest) {
+		double t00=m00*a.m00+m01*a.m10;
+		double t01=m00*a.m01+m01*a.m11;
+		double t10=m10*a.m00+m11*a.m10;
+		double t11=m10*a.m01+m11*a.m11;
+		dest.m00=t00; dest.m01=t01;
+		dest.m10=t10; dest.m11=t11;
+	}
+	
+	/**
+	 * Computes the matrix product transpose(this) * a, storing the result in dest without 
+	 * allocation. dest may be the same object as this or a.
+	 */
+	public void transposeInnerProductInto(Matrix22 a, Matrix22 dest) {
+		double t00=m00*a.m00+m10*a.m10;
+		double t01=m00*a.m01+m10*a.m11;
+		double t10=m01*a.m00+m11*a.m10;
+		double t11=m01*a.m01+m11*a.m11;
+		dest.m00=t00; dest.m01=t01;
+		dest.m10=t10; dest.m11=t11;
+	}
+	
+	/**
+	 * Multiplies a vector by the transpose of this matrix, storing the result in dest.
+	 * Source and destination may be the same vector.
+	 */
+	public void transposeTransform(Vector2 source, Vector2 dest) {
+		double x=source.x, y=source.y;
+		dest.x=((m00*x)+(m10*y));
+		dest.y=((m01*x)+(m11*y));
+	}
+	
 	@Override
 	public void transform(AVector source, AVector dest) {
 		if (source instanceof Vector2) {transform((Vector2)source,dest); return;}
-		super.transform(source,dest);
+		if ((source.length()!=2)||(dest.length()!=2)) throw new IllegalArgumentException(ErrorMessages.mismatch(source,dest));
+		double x=source.unsafeGet(0), y=source.unsafeGet(1);
+		dest.unsafeSet(0,(m00*x)+(m01*y));
+		dest.unsafeSet(1,(m10*x)+(m11*y));
 	}
 	
 	public void transform(Vector2 source, AVector dest) {
 		if (dest instanceof Vector2) {transform(source,(Vector2)dest); return;}
+		if (dest.length()!=2) throw new IllegalArgumentException(ErrorMessages.mismatch(source,dest));
 		Vector2 s=source;
 		dest.set(0,(m00*s.x)+(m01*s.y));
 		dest.set(1,(m10*s.x)+(m11*s.y));
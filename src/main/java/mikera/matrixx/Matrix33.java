@@ -4,6 +4,7 @@ import mikera.matrixx.impl.APrimitiveMatrix;
 import mikera.transformz.Affine34;
 import mikera.transformz.marker.ISpecialisedTransform;
 import mikera.vectorz.AVector;
+import mikera.vectorz.PointCloud3;
 import mikera.vectorz.Vector3;
 import mikera.vectorz.util.ErrorMessages;
 
@@ -154,9 +155,23 @@ public final class Matrix33 extends APrimitiveMatrix implements ISpecialisedTran
 		if (a instanceof Matrix33) {
 			return innerProduct((Matrix33)a);
 		}
+		if ((a.rowCount()==3)&&(a.columnCount()==3)) {
+			double a00=a.unsafeGet(0,0), a01=a.unsafeGet(0,1), a02=a.unsafeGet(0,2);
+			double a10=a.unsafeGet(1,0), a11=a.unsafeGet(1,1), a12=a.unsafeGet(1,2);
+			double a20=a.unsafeGet(2,0), a21=a.unsafeGet(2,1), a22=a.unsafeGet(2,2);
+			return new Matrix33(
+					(m00*a00)+(m01*a10)+(m02*a20),(m00*a01)+(m01*a11)+(m02*a21),(m00*a02)+(m01*a12)+(m02*a22),
+					(m10*a00)+(m11*a10)+(m12*a20),(m10*a01)+(m11*a11)+(m12*a21),(m10*a02)+(m11*a12)+(m12*a22),
+					(m20*a00)+(m21*a10)+(m22*a20),(m20*a01)+(m21*a11)+(m22*a21),(m20*a02)+(m21*a12)+(m22*a22));
+		}
 		return super.innerProduct(a);
 	}
 	
+	@Override
+	public AMatrix innerProduct(Matrix a) {
+		return innerProduct((AMatrix)a);
+	}
+	
 	@Override
 	public AVector innerProduct(AVector a) {
 		if (a instanceof Vector3) {
@@ -171,22 +186,67 @@ public final class Matrix33 extends APrimitiveMatrix implements ISpecialisedTran
 	
 	public Matrix33 innerProduct(Matrix33 a) {
 		Matrix33 r=new Matrix33();
-		for (int i=0; i<3; i++) {
-			for (int j=0; j<3; j++) {
-				double acc=0.0;
-				for (int k=0; k<3; k++) {
-					acc+=this.unsafeGet(i, k)*a.unsafeGet(k, j);
-				}
-				r.set(i,j,acc);
-			}
-		}
+		innerProductInto(a,r);
 		return r;
 	}
 	
+	/**
+	 * Computes the matrix product this * a, storing the result in dest without allocation.
+	 * dest may be the same object as this or a.
+	 */
+	public void innerProductInto(Matrix33 a, Matrix33 dest) {
+		double t00=(m00*a.m00)+(m01*a.m10)+(m02*a.m20);
+		double t01=(m00*a.m01)+(m01*a.m11)+(m02*a.m21);
+		double t02=(m00*a.m02)+(m01*a.m12)+(m02*a.m22);
+		double t10=(m10*a.m00)+(m11*a.m10)+(m12*a.m20);
+		double t11=(m10*a.m01)+(m11*a.m11)+(m12*a.m21);
+		double t12=(m10*a.m02)+(m11*a.m12)+(m12*a.m22);
+		double t20=(m20*a.m00)+(m21*a.m10)+(m22*a.m20);
+		double t21=(m20*a.m01)+(m21*a.m11)+(m22*a.m21);
+		double t22=(m20*a.m02)+(m21*a.m12)+(m22*a.m22);
+		dest.m00=t00; dest.m01=t01; dest.m02=t02;
+		dest.m10=t10; dest.m11=t11; dest.m12=t12;
+		dest.m20=t20; dest.m21=t21; dest.m22=t22;
+	}
+	
+	/**
+	 * Computes the matrix product transpose(this) * a, storing the result in dest without 
+	 * allocation. dest may be the same object as this or a.
+	 */
+	public void transposeInnerProductInto(Matrix33 a, Matrix33 dest) {
+		double t00=(m00*a.m00)+(m10*a.m10)+(m20*a.m20);
+		double t01=(m00*a.m01)+(m10*a.m11)+(m20*a.m21);
+		double t02=(m00*a.m02)+(m10*a.m12)+(m20*a.m22);
+		double t10=(m01*a.m00)+(m11*a.m10)+(m21*a.m20);
+		double t11=(m01*a.m01)+(m11*a.m11)+(m21*a.m21);
+		double t12=(m01*a.m02)+(m11*a.m12)+(m21*a.m22);
+		double t20=(m02*a.m00)+(m12*a.m10)+(m22*a.m20);
+		double t21=(m02*a.m01)+(m12*a.m11)+(m22*a.m21);
+		double t22=(m02*a.m02)+(m12*a.m12)+(m22*a.m22);
+		dest.m00=t00; dest.m01=t01; dest.m02=t02;
+		dest.m10=t10; dest.m11=t11; dest.m12=t12;
+		dest.m20=t20; dest.m21=t21; dest.m22=t22;
+	}
+	
+	/**
+	 * Multiplies a vector by the transpose of this matrix, storing the result in dest.
+	 * Source and destination may be the same vector.
+	 */
+	public void transposeTransform(Vector3 source, Vector3 dest) {
+		double x=source.x, y=source.y, z=source.z;
+		dest.x=((m00*x)+(m10*y)+(m20*z));
+		dest.y=((m01*x)+(m11*y)+(m21*z));
+		dest.z=((m02*x)+(m12*y)+(m22*z));
+	}
+	
 	@Override
 	public void transform(AVector source, AVector dest) {
 		if (source instanceof Vector3) {transform((Vector3)source,dest); return;}
-		super.transform(source,dest);
+		if ((source.length()!=3)||(dest.length()!=3)) throw new IllegalArgumentException(ErrorMessages.mismatch(source,dest));
+		double x=source.unsafeGet(0), y=source.unsafeGet(1), z=source.unsafeGet(2);
+		dest.unsafeSet(0,(m00*x)+(m01*y)+(m02*z));
+		dest.unsafeSet(1,(m10*x)+(m11*y)+(m12*z));
+		dest.unsafeSet(2,(m20*x)+(m21*y)+(m22*z));
 	}
 	
 	public void transform(Vector3 source, AVector dest) {
@@ -252,6 +312,13 @@ public final class Matrix33 extends APrimitiveMatrix implements ISpecialisedTran
 		double tz=((m20*s.x)+(m21*s.y)+(m22*s.z));
 		s.x=tx; s.y=ty; s.z=tz;
 	}
+	
+	/**
+	 * Transforms all points in a point cloud in place
+	 */
+	public void transformInPlace(PointCloud3 points) {
+		points.transform(this);
+	}
 		
 	@Override
 	public boolean isSymmetric() {
@@ -304,19 +371,41 @@ public final class Matrix33 extends APrimitiveMatrix implements ISpecialisedTran
 	
 	@Override
 	public Matrix33 inverse() {
+		Matrix33 r=new Matrix33();
+		if (!inverseInto(r)) return null;
+		return r;
+	}
+	
+	/**
+	 * Computes the inverse of this matrix, storing the result in dest without allocation.
+	 * dest may be this matrix.
+	 * 
+	 * @return false if the matrix is singular, in which case dest is unchanged
+	 */
+	public boolean inverseInto(Matrix33 dest) {
 		double det=determinant();
-		if (det==0.0) return null;
+		if (det==0.0) return false;
 		double invDet=1.0/det;
-		return new Matrix33(
-				invDet*((m11*m22-m12*m21)),
-				invDet*((m02*m21-m01*m22)),
-				invDet*((m01*m12-m02*m11)),
-				invDet*((m12*m20-m10*m22)),
-				invDet*((m00*m22-m02*m20)),
-				invDet*((m02*m10-m00*m12)),
-				invDet*((m10*m21-m11*m20)),
-				invDet*((m01*m20-m00*m21)),
-				invDet*((m00*m11-m01*m10)));		
+		double t00=invDet*((m11*m22-m12*m21));
+		double t01=invDet*((m02*m21-m01*m22));
+		double t02=invDet*((m01*m12-m02*m11));
+		double t10=invDet*((m12*m20-m10*m22));
+		double t11=invDet*((m00*m22-m02*m20));
+		double t12=invDet*((m02*m10-m00*m12));
+		double t20=invDet*((m10*m21-m11*m20));
+		double t21=invDet*((m01*m20-m00*m21));
+		double t22=invDet*((m00*m11-m01*m10));
+		dest.m00=t00; dest.m01=t01; dest.m02=t02;
+		dest.m10=t10; dest.m11=t11; dest.m12=t12;
+		dest.m20=t20; dest.m21=t21; dest.m22=t22;
+		return true;
+	}
+	
+	@Override
+	public void transposeInPlace() {
+		double t=m01; m01=m10; m10=t;
+		t=m02; m02=m20; m20=t;
+		t=m12; m12=m21; m21=t;
 	}
 	
 	@Override
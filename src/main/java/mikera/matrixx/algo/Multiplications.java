@@ -1,10 +1,16 @@
 package mikera.matrixx.algo;
 
+import java.util.Arrays;
+
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.ADiagonalMatrix;
+import mikera.matrixx.impl.BlockDiagonalMatrix;
 import mikera.matrixx.impl.ImmutableMatrix;
+import mikera.matrixx.impl.PermutationMatrix;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.Workspace;
 
 public class Multiplications {
 	// target number of elements in working set group
@@ -15,6 +21,9 @@ public class Multiplications {
 	 * General purpose matrix multiplication, with smart selection of algorithm based
 	 * on matrix size and type.
 	 * 
+	 * Diagonal, permutation, block diagonal, banded and triangular operands on either side
+	 * are multiplied with specialised kernels that exploit their structure. 
+	 * 
 	 * @param a
 	 * @param b
 	 * @return
@@ -22,17 +31,271 @@ public class Multiplications {
 	public static Matrix multiply(AMatrix a, AMatrix b) {
 		if (a instanceof Matrix) {
 			return multiply((Matrix)a,b);
-		} else if (a instanceof ImmutableMatrix) {
-			return multiply(Matrix.wrap(a.rowCount(),a.columnCount(),((ImmutableMatrix)a).getInternalData()),b);
+		} 
+		Matrix r=structuredMultiply(a,b);
+		if (r!=null) return r;
+		if (a instanceof ImmutableMatrix) {
+			return blockedMultiply(Matrix.wrap(a.rowCount(),a.columnCount(),((ImmutableMatrix)a).getInternalData()),b);
 		} else {
 			return blockedMultiply(a.toMatrix(),b);
 		}
 	}
 	
 	public static Matrix multiply(Matrix a, AMatrix b) {
+		Matrix r=structuredMultiply(a,b);
+		if (r!=null) return r;
 		return blockedMultiply(a,b);
 	}
 	
+	/**
+	 * Multiplies two matrices, storing the result in the destination matrix. The destination must
+	 * have shape [a.rowCount, b.columnCount]. It may be the same matrix as either operand, but
+	 * should not otherwise share storage with them.
+	 * 
+	 * Dense operands are multiplied directly into a Matrix destination, with temporary storage
+	 * taken from the Workspace pool, so that repeated calls allocate nothing. Other destinations
+	 * are filled from a pooled buffer. Structured operands use the same specialised kernels as
+	 * multiply(...), and their result is copied into the destination.
+	 * 
+	 * @param a
+	 * @param b
+	 * @param dest
+	 */
+	public static void multiplyInto(AMatrix a, AMatrix b, AMatrix dest) {
+		int rc=a.rowCount();
+		int cc=b.columnCount();
+		checkShapes(a,b);
+		if ((dest.rowCount()!=rc)||(dest.columnCount()!=cc)) {
+			throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(new int[] {rc,cc}, dest.getShape()));
+		}
+		if ((dest==a)||(dest==b)) {
+			// result would overwrite an operand, so compute it separately
+			dest.set(multiply(a,b));
+			return;
+		}
+		Matrix r=structuredMultiply(a,b);
+		if (r!=null) {
+			dest.set(r);
+			return;
+		}
+		
+		if (dest instanceof Matrix) {
+			denseMultiply(a,b,((Matrix)dest).data,rc*cc);
+		} else {
+			int n=rc*cc;
+			double[] tmp=Workspace.acquire(n);
+			denseMultiply(a,b,tmp,n);
+			dest.setElements(tmp,0);
+			Workspace.release(tmp);
+		}
+	}
+	
+	/**
+	 * Multiplies two matrices with no exploitable structure into the first n elements of a
+	 * row-major result array.
+	 */
+	private static void denseMultiply(AMatrix a, AMatrix b, double[] result, int n) {
+		if (a.columnCount()==0) {
+			Arrays.fill(result, 0, n, 0.0);
+		} else if (a instanceof Matrix) {
+			blockedMultiply((Matrix)a,b,result);
+		} else {
+			doubleBlockedMultiply(a,b,result);
+		}
+	}
+	
+	/**
+	 * Multiplies two matrices using a specialised kernel for the structure of either operand.
+	 * 
+	 * Returns null if neither operand has structure that can be exploited.
+	 * 
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	public static Matrix structuredMultiply(AMatrix a, AMatrix b) {
+		if (a instanceof ADiagonalMatrix) return diagonalMultiply((ADiagonalMatrix)a,b);
+		if (b instanceof ADiagonalMatrix) return multiplyDiagonal(a,(ADiagonalMatrix)b);
+		if (a instanceof PermutationMatrix) return permutationMultiply((PermutationMatrix)a,b);
+		if (b instanceof PermutationMatrix) return multiplyPermutation(a,(PermutationMatrix)b);
+		if (a instanceof BlockDiagonalMatrix) return blockDiagonalMultiply((BlockDiagonalMatrix)a,b);
+		if (b instanceof BlockDiagonalMatrix) return multiplyBlockDiagonal(a,(BlockDiagonalMatrix)b);
+		if (isBandLimited(a)||isBandLimited(b)) return bandedMultiply(a,b);
+		return null;
+	}
+	
+	private static void checkShapes(AMatrix a, AMatrix b) {
+		if ((a.columnCount()!=b.rowCount())) {
+			throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(a,b));
+		}
+	}
+	
+	/**
+	 * Returns true if a matrix is known to have zeros outside a band narrower than the matrix
+	 */
+	private static boolean isBandLimited(AMatrix m) {
+		return (m.lowerBandwidthLimit()<m.rowCount()-1)||(m.upperBandwidthLimit()<m.columnCount()-1);
+	}
+	
+	/**
+	 * Multiplies a diagonal matrix by any matrix, by scaling rows
+	 */
+	public static Matrix diagonalMultiply(ADiagonalMatrix a, AMatrix b) {
+		checkShapes(a,b);
+		Matrix result=Matrix.create(b);
+		int rc=a.rowCount();
+		for (int i=0; i<rc; i++) {
+			result.multiplyRow(i, a.unsafeGetDiagonalValue(i));
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies any matrix by a diagonal matrix, by scaling columns
+	 */
+	public static Matrix multiplyDiagonal(AMatrix a, ADiagonalMatrix b) {
+		checkShapes(a,b);
+		Matrix result=Matrix.create(a);
+		int rc=result.rowCount();
+		int cc=result.columnCount();
+		double[] d=b.getLeadingDiagonal().toDoubleArray();
+		double[] data=result.data;
+		for (int i=0; i<rc; i++) {
+			DoubleArrays.arraymultiply(d, 0, data, i*cc, cc);
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies a permutation matrix by any matrix, by permuting rows
+	 */
+	public static Matrix permutationMultiply(PermutationMatrix a, AMatrix b) {
+		checkShapes(a,b);
+		int rc=a.rowCount();
+		int cc=b.columnCount();
+		Matrix result=Matrix.create(rc,cc);
+		int[] perm=a.getPermutation().data;
+		for (int i=0; i<rc; i++) {
+			b.copyRowTo(perm[i], result.data, i*cc);
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies any matrix by a permutation matrix, by permuting columns
+	 */
+	public static Matrix multiplyPermutation(AMatrix a, PermutationMatrix b) {
+		checkShapes(a,b);
+		int rc=a.rowCount();
+		int cc=b.columnCount();
+		Matrix result=Matrix.create(rc,cc);
+		int[] perm=b.getPermutation().data;
+		double[] row=Workspace.acquire(cc);
+		double[] data=result.data;
+		for (int i=0; i<rc; i++) {
+			a.copyRowTo(i, row, 0);
+			int offset=i*cc;
+			for (int k=0; k<cc; k++) {
+				data[offset+perm[k]]=row[k];
+			}
+		}
+		Workspace.release(row);
+		return result;
+	}
+	
+	/**
+	 * Multiplies a block diagonal matrix by any matrix, one block of rows at a time
+	 */
+	public static Matrix blockDiagonalMultiply(BlockDiagonalMatrix a, AMatrix b) {
+		checkShapes(a,b);
+		int cc=b.columnCount();
+		Matrix result=Matrix.create(a.rowCount(),cc);
+		int n=a.rowBlockCount();
+		for (int k=0; k<n; k++) {
+			int start=a.getBlockRowStart(k);
+			int size=a.getBlockRowCount(k);
+			if ((size==0)||(cc==0)) continue;
+			AMatrix block=a.getBlock(k, k);
+			result.subMatrix(start, size, 0, cc).set(multiply(block,b.subMatrix(start, size, 0, cc)));
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies any matrix by a block diagonal matrix, one block of columns at a time
+	 */
+	public static Matrix multiplyBlockDiagonal(AMatrix a, BlockDiagonalMatrix b) {
+		checkShapes(a,b);
+		int rc=a.rowCount();
+		Matrix result=Matrix.create(rc,b.columnCount());
+		int n=b.columnBlockCount();
+		for (int k=0; k<n; k++) {
+			int start=b.getBlockColumnStart(k);
+			int size=b.getBlockColumnCount(k);
+			if ((size==0)||(rc==0)) continue;
+			AMatrix block=b.getBlock(k, k);
+			result.subMatrix(0, rc, start, size).set(multiply(a.subMatrix(0, rc, start, size),block));
+		}
+		return result;
+	}
+	
+	/**
+	 * Multiplies matrices where either operand has limited bandwidth, e.g. banded or triangular 
+	 * matrices. Only products of elements within the bands of both operands are computed.
+	 */
+	public static Matrix bandedMultiply(AMatrix a, AMatrix b) {
+		checkShapes(a,b);
+		int rc=a.rowCount();
+		int ic=a.columnCount();
+		int cc=b.columnCount();
+		Matrix result=Matrix.create(rc,cc);
+		if ((ic==0)||(cc==0)) return result;
+		int la=Math.min(a.lowerBandwidthLimit(),rc-1);
+		int ua=Math.min(a.upperBandwidthLimit(),ic-1);
+		int lb=Math.min(b.lowerBandwidthLimit(),ic-1);
+		int ub=Math.min(b.upperBandwidthLimit(),cc-1);
+		
+		// in-band segment of each row k of b, covering columns [max(0,k-lb), min(cc,k+ub+1))
+		double[] bdata;
+		int bwidth;
+		boolean packed=false;
+		if (b instanceof Matrix) {
+			bdata=((Matrix)b).data;
+			bwidth=cc;
+		} else if ((lb>=ic-1)&&(ub>=cc-1)) {
+			bdata=b.toMatrix().data;
+			bwidth=cc;
+		} else {
+			packed=true;
+			bwidth=Math.min(cc, lb+ub+1);
+			bdata=Workspace.acquire(ic*bwidth);
+			for (int k=0; k<ic; k++) {
+				int s=Math.max(0, k-lb);
+				int e=Math.min(cc, k+ub+1);
+				for (int j=s; j<e; j++) {
+					bdata[k*bwidth+j-s]=b.unsafeGet(k, j);
+				}
+			}
+		}
+		
+		double[] rdata=result.data;
+		for (int i=0; i<rc; i++) {
+			int ks=Math.max(0, i-la);
+			int ke=Math.min(ic, i+ua+1);
+			int roffset=i*cc;
+			for (int k=ks; k<ke; k++) {
+				double aik=a.unsafeGet(i, k);
+				int s=Math.max(0, k-lb);
+				int e=Math.min(cc, k+ub+1);
+				if (s>=e) continue;
+				int boffset=packed?(k*bwidth):(k*cc+s);
+				DoubleArrays.addMultiple(rdata, roffset+s, bdata, boffset, e-s, aik);
+			}
+		}
+		if (packed) Workspace.release(bdata);
+		return result;
+	}
+	
 	/**
 	 * Performs fast matrix multiplication using temporary working storage for the second matrix
 	 * @param a
@@ -50,17 +313,29 @@ public class Multiplications {
 
 		Matrix result=Matrix.create(rc, cc);
 		if (ic==0) return result;
+		blockedMultiply(a,b,result.data);
+		return result;
+	}
+	
+	/**
+	 * Blocked multiplication kernel, writing every element of the row-major result array.
+	 * Shapes must already have been checked, and the inner dimension must be non-zero.
+	 */
+	private static void blockedMultiply(Matrix a, AMatrix b, double[] result) {
+		int rc=a.rowCount();
+		int cc=b.columnCount();
+		int ic=a.columnCount();
 		
 		int block=(WORKING_SET_TARGET/ic)+1;
 		// working set stores up to <block> number of columns from second matrix
-		Matrix wsb=Matrix.create(Math.min(block,cc), ic);
+		double[] wsb=Workspace.acquire(Math.min(block,cc)*ic);
 		
 		for (int bj=0; bj<cc; bj+=block) {
 			int bjsize=Math.min(block, cc-bj);
 			
 			// copy columns into working set
 			for (int t=0; t<bjsize; t++) {
-				b.copyColumnTo(bj+t,wsb.data,t*ic);
+				b.copyColumnTo(bj+t,wsb,t*ic);
 			}
 			
 			for (int bi=0; bi<rc; bi+=block) {
@@ -70,13 +345,12 @@ public class Multiplications {
 				for (int i=bi; i<(bi+bisize); i++) {
 					int aDataOffset=i*ic;
 					for (int j=bj; j<(bj+bjsize); j++) {
-						double val=DoubleArrays.dotProduct(a.data, aDataOffset, wsb.data, ic*(j-bj), ic);
-						result.unsafeSet(i, j, val);
+						result[i*cc+j]=DoubleArrays.dotProduct(a.data, aDataOffset, wsb, ic*(j-bj), ic);
 					}
 				}
 			}
 		}
-		return result;
+		Workspace.release(wsb);
 	}
 	
 	/**
@@ -96,38 +370,50 @@ public class Multiplications {
 
 		Matrix result=Matrix.create(rc, cc);
 		if (ic==0) return result;
+		doubleBlockedMultiply(a,b,result.data);
+		return result;
+	}
+	
+	/**
+	 * Double blocked multiplication kernel, writing every element of the row-major result array.
+	 * Shapes must already have been checked, and the inner dimension must be non-zero.
+	 */
+	private static void doubleBlockedMultiply(AMatrix a, AMatrix b, double[] result) {
+		int rc=a.rowCount();
+		int cc=b.columnCount();
+		int ic=a.columnCount();
 		
 		int block=(WORKING_SET_TARGET/ic)+1;
 		// working sets stores up to <block> number of columns from each matrix
-		Matrix wsa=Matrix.create(Math.min(block,rc), ic);
-		Matrix wsb=Matrix.create(Math.min(block,cc), ic);
+		double[] wsa=Workspace.acquire(Math.min(block,rc)*ic);
+		double[] wsb=Workspace.acquire(Math.min(block,cc)*ic);
 		
 		for (int bj=0; bj<cc; bj+=block) {
 			int bjsize=Math.min(block, cc-bj);
 			
 			// copy columns into working set
 			for (int t=0; t<bjsize; t++) {
-				b.copyColumnTo(bj+t,wsb.data,t*ic);
+				b.copyColumnTo(bj+t,wsb,t*ic);
 			}
 			
 			for (int bi=0; bi<rc; bi+=block) {
 				int bisize=Math.min(block, rc-bi);
 				
-				// copy columns into working set
+				// copy rows into working set
 				for (int t=0; t<bisize; t++) {
-					b.copyRowTo(bi+t,wsa.data,t*ic);
+					a.copyRowTo(bi+t,wsa,t*ic);
 				}
 				
 				// compute inner block
 				for (int i=bi; i<(bi+bisize); i++) {
 					for (int j=bj; j<(bj+bjsize); j++) {
-						double val=DoubleArrays.dotProduct(wsa.data, ic*(i-bi), wsb.data, ic*(j-bj), ic);
-						result.unsafeSet(i, j, val);
+						result[i*cc+j]=DoubleArrays.dotProduct(wsa, ic*(i-bi), wsb, ic*(j-bj), ic);
 					}
 				}
 			}
 		}
-		return result;
+		Workspace.release(wsb);
+		Workspace.release(wsa);
 	}
 	
 	public static Matrix directMultiply(Matrix a, AMatrix b) {
@@ -140,7 +426,7 @@ public class Multiplications {
 		}
 
 		Matrix result=Matrix.create(rc,cc);
-		double[] tmp=new double[ic];
+		double[] tmp=Workspace.acquire(ic);
 		for (int j=0; j<cc; j++) {
 			b.copyColumnTo(j, tmp, 0);
 			
@@ -153,6 +439,7 @@ public class Multiplications {
 				result.unsafeSet(i,j,acc);
 			}
 		}
+		Workspace.release(tmp);
 		return result;		
 	}
 	
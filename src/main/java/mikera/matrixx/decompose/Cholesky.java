@@ -1,6 +1,8 @@
 package mikera.matrixx.decompose;
 
 import mikera.matrixx.AMatrix;
+import mikera.matrixx.decompose.impl.chol.BandedCholesky;
+import mikera.matrixx.impl.ABandedMatrix;
 
 /**
  * Class implementing Cholesky decomposition
@@ -22,10 +24,13 @@ public class Cholesky {
 	/**
 	 * Decompose a Matrix according the the Cholesky decomposition A = L.L*
 	 * 
+	 * Banded matrices are decomposed directly in band storage, giving a banded L.
+	 * 
 	 * @param a Any symmetric, positive definite matrix
 	 * @return The decomposition result, or null if not possible
 	 */
 	public static final ICholeskyResult decompose(AMatrix a) {
+		if (a instanceof ABandedMatrix) return BandedCholesky.decompose(a);
 		return mikera.matrixx.decompose.impl.chol.Cholesky.decompose(a);
 	}
 }
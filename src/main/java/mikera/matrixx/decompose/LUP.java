@@ -2,6 +2,8 @@ package mikera.matrixx.decompose;
 
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.decompose.impl.lu.AltLU;
+import mikera.matrixx.decompose.impl.lu.BandedLU;
+import mikera.matrixx.impl.ABandedMatrix;
 
 public class LUP {
 	
@@ -10,10 +12,13 @@ public class LUP {
 	/**
 	 * This performs LU decomposition on the given matrix and returns the result as a ILUPResult object
 	 * 
+	 * Banded matrices are decomposed directly in band storage, giving a banded U.
+	 * 
 	 * @param A The matrix that is to be decomposed. Not modified.
 	 * @return An ILUPResult object that contains L, U and P matrices
 	 */
 	public static ILUPResult decompose(AMatrix A) {
+		if (A instanceof ABandedMatrix) return BandedLU.decompose(A);
 		return AltLU.decompose(A);
 	}
 
@@ -0,0 +1,67 @@
+package mikera.matrixx.decompose.impl.chol;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.impl.BandedMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.util.DoubleArrays;
+
+/**
+ * Cholesky decomposition A = L.L* for symmetric positive definite banded matrices, operating
+ * on band storage.
+ *
+ * L has the same bandwidth kb as A, and decomposition takes O(n*kb^2) time. Only the lower
+ * bands of A are read.
+ *
+ * @author Mike
+ */
+public class BandedCholesky {
+
+	/**
+	 * Decomposes a symmetric positive definite matrix, using its bandwidth limits as the band structure
+	 *
+	 * @param a Any symmetric, positive definite matrix
+	 * @return The decomposition result, with L as a BandedMatrix, or null if not possible
+	 */
+	public static CholeskyResult decompose(AMatrix a) {
+		int n=a.checkSquare();
+		int kb=Math.max(0, Math.min(Math.max(a.lowerBandwidthLimit(), a.upperBandwidthLimit()), n-1));
+		int width=kb+1;
+
+		// row i stores L[i, i-kb .. i] at offset i*width
+		double[] l=new double[n*width];
+		for (int b=-kb; b<=0; b++) {
+			AVector band=a.getBand(b);
+			int len=band.length();
+			for (int t=0; t<len; t++) {
+				int i=t-b;
+				l[i*width+kb+b]=band.unsafeGet(t);
+			}
+		}
+
+		for (int i=0; i<n; i++) {
+			int start=Math.max(0, i-kb);
+			int iOffset=i*width+kb-i;
+			for (int j=start; j<=i; j++) {
+				int jOffset=j*width+kb-j;
+				double s=l[iOffset+j]-DoubleArrays.dotProduct(l, iOffset+start, l, jOffset+start, j-start);
+				if (j==i) {
+					if (!(s>0.0)) return null;
+					l[iOffset+i]=Math.sqrt(s);
+				} else {
+					l[iOffset+j]=s/l[jOffset+j];
+				}
+			}
+		}
+
+		BandedMatrix L=BandedMatrix.create(n, n, -kb, 0);
+		for (int b=-kb; b<=0; b++) {
+			AVector band=L.getBand(b);
+			int len=band.length();
+			for (int t=0; t<len; t++) {
+				int i=t-b;
+				band.unsafeSet(t, l[i*width+kb+b]);
+			}
+		}
+		return new CholeskyResult(L);
+	}
+}
@@ -25,6 +25,7 @@ import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
 import mikera.matrixx.impl.PermutationMatrix;
 import mikera.matrixx.solve.impl.TriangularSolver;
+import mikera.vectorz.util.Workspace;
 
 /**
  * <p>
@@ -38,7 +39,16 @@ public class AltLU {
     
     public static LUPResult decompose(AMatrix A) {
         AltLU alg = new AltLU();
-        return alg._decompose(A);
+        // work arrays are only needed during decomposition, so take them from the workspace
+        int width = Math.max(A.rowCount(),A.columnCount());
+        alg.vv = Workspace.acquire(width);
+        alg.indx = Workspace.acquireInts(width);
+        alg.pivot = Workspace.acquireInts(width);
+        LUPResult result = alg._decompose(A);
+        Workspace.release(alg.vv);
+        Workspace.release(alg.indx);
+        Workspace.release(alg.pivot);
+        return result;
     }
     
     // the decomposed matrix
@@ -130,9 +140,12 @@ public class AltLU {
         this.dataLU = LU.data;
         maxWidth = Math.max(m,n);
 
-        vv = new double[ maxWidth ];
-        indx = new int[ maxWidth ];
-        pivot = new int[ maxWidth ];
+        // reuse existing work arrays if they are large enough
+        if( vv == null || vv.length < maxWidth ) {
+            vv = new double[ maxWidth ];
+            indx = new int[ maxWidth ];
+            pivot = new int[ maxWidth ];
+        }
 
         for (int i = 0; i < m; i++) {
             pivot[i] = i;
@@ -0,0 +1,283 @@
+package mikera.matrixx.decompose.impl.lu;
+
+import java.util.Arrays;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.decompose.ILUPResult;
+import mikera.matrixx.impl.BandedMatrix;
+import mikera.matrixx.impl.PermutationMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.SparseIndexedVector;
+import mikera.vectorz.util.DoubleArrays;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * LU decomposition with partial pivoting for banded matrices, operating on band storage.
+ *
+ * For a matrix with lower bandwidth kl and upper bandwidth ku, decomposition takes O(n*kl*(kl+ku))
+ * time and solving takes O(n*(kl+ku)) time per right hand side. Row interchanges widen the upper
+ * bandwidth of U to at most kl+ku.
+ *
+ * As with LAPACK banded LU, the row interchanges are stored as a sequence rather than applied
+ * to earlier columns of L. The L and P matrices of the PA = LU form are constructed on demand.
+ *
+ * @author Mike
+ */
+public class BandedLU implements ILUPResult {
+	private final int n;
+	private final int kl;
+	private final int ku;
+
+	// row i of U stores columns [i-kl, i+kl+ku] at offset i*width
+	private final int width;
+	private final double[] ab;
+
+	// multipliers of elimination step k, for rows k+1 .. k+kl
+	private final double[] mult;
+	private final int[] ipiv;
+	private boolean singular=false;
+
+	private BandedLU(int n, int kl, int ku) {
+		this.n=n;
+		this.kl=kl;
+		this.ku=ku;
+		this.width=2*kl+ku+1;
+		this.ab=new double[n*width];
+		this.mult=new double[n*kl];
+		this.ipiv=new int[n];
+	}
+
+	/**
+	 * Decomposes a square matrix, using its bandwidth limits as the band structure
+	 * @param A
+	 * @return
+	 */
+	public static BandedLU decompose(AMatrix A) {
+		int n=A.checkSquare();
+		int kl=Math.max(0, Math.min(A.lowerBandwidthLimit(), n-1));
+		int ku=Math.max(0, Math.min(A.upperBandwidthLimit(), n-1));
+		BandedLU lu=new BandedLU(n,kl,ku);
+		lu.load(A);
+		lu.factor();
+		return lu;
+	}
+
+	private int index(int i, int j) {
+		return i*width+j-i+kl;
+	}
+
+	private void load(AMatrix A) {
+		for (int b=-kl; b<=ku; b++) {
+			AVector band=A.getBand(b);
+			int len=band.length();
+			int row=(b<0)?-b:0;
+			for (int t=0; t<len; t++) {
+				int i=row+t;
+				ab[index(i,i+b)]=band.unsafeGet(t);
+			}
+		}
+	}
+
+	private void factor() {
+		for (int k=0; k<n; k++) {
+			int last=Math.min(n-1, k+kl);
+			int p=k;
+			double max=Math.abs(ab[index(k,k)]);
+			for (int i=k+1; i<=last; i++) {
+				double v=Math.abs(ab[index(i,k)]);
+				if (v>max) {
+					max=v;
+					p=i;
+				}
+			}
+			ipiv[k]=p;
+			if (max==0.0) {
+				singular=true;
+				continue;
+			}
+			int jend=Math.min(n, k+kl+ku+1);
+			if (p!=k) {
+				int ki=index(k,k);
+				int pi=index(p,k);
+				for (int j=0; j<jend-k; j++) {
+					double t=ab[ki+j];
+					ab[ki+j]=ab[pi+j];
+					ab[pi+j]=t;
+				}
+			}
+			double pivot=ab[index(k,k)];
+			int len=jend-k-1;
+			for (int i=k+1; i<=last; i++) {
+				int ii=index(i,k);
+				double m=ab[ii]/pivot;
+				mult[k*kl+(i-k-1)]=m;
+				ab[ii]=0.0;
+				if (m!=0.0) {
+					DoubleArrays.addMultiple(ab, ii+1, ab, index(k,k+1), len, -m);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the matrix was found to be singular, i.e. U has a zero on its diagonal
+	 * @return
+	 */
+	public boolean isSingular() {
+		if (singular) return true;
+		for (int i=0; i<n; i++) {
+			if (ab[index(i,i)]==0.0) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Solves A.x = b in place, overwriting the array with the solution x
+	 */
+	private void solveInPlace(double[] x) {
+		for (int k=0; k<n; k++) {
+			int p=ipiv[k];
+			if (p!=k) {
+				double t=x[k];
+				x[k]=x[p];
+				x[p]=t;
+			}
+			double xk=x[k];
+			if (xk==0.0) continue;
+			int m=Math.min(kl, n-1-k);
+			for (int t=0; t<m; t++) {
+				x[k+1+t]-=mult[k*kl+t]*xk;
+			}
+		}
+		for (int k=n-1; k>=0; k--) {
+			int jend=Math.min(n, k+kl+ku+1);
+			double s=x[k]-DoubleArrays.dotProduct(ab, index(k,k+1), x, k+1, jend-k-1);
+			x[k]=s/ab[index(k,k)];
+		}
+	}
+
+	/**
+	 * Solves A.x = b. Returns null if the matrix is singular.
+	 * @param b
+	 * @return
+	 */
+	public Vector solve(AVector b) {
+		if (b.length()!=n) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(new int[] {n,n}, b.getShape()));
+		if (isSingular()) return null;
+		Vector x=Vector.create(b);
+		solveInPlace(x.getArray());
+		return x;
+	}
+
+	/**
+	 * Solves A.X = B for each column of B. Returns null if the matrix is singular.
+	 * @param B
+	 * @return
+	 */
+	public Matrix solve(AMatrix B) {
+		if (B.rowCount()!=n) throw new IllegalArgumentException("Unexpected matrix size: "+B.rowCount()+" rows, expected "+n);
+		if (isSingular()) return null;
+		int cc=B.columnCount();
+		Matrix X=Matrix.create(n,cc);
+		double[] col=new double[n];
+		for (int j=0; j<cc; j++) {
+			B.copyColumnTo(j, col, 0);
+			solveInPlace(col);
+			X.getColumn(j).setElements(col);
+		}
+		return X;
+	}
+
+	/**
+	 * Returns the L matrix of the PA = LU form, as a sparse matrix with unit diagonal
+	 */
+	@Override
+	public AMatrix getL() {
+		int[][] rowIndexes=new int[n][];
+		double[][] rowValues=new double[n][];
+		int[] counts=new int[n];
+		for (int k=0; k<n; k++) {
+			int p=ipiv[k];
+			if (p!=k) {
+				// rows only hold entries in columns < k at this point
+				int[] ti=rowIndexes[k]; rowIndexes[k]=rowIndexes[p]; rowIndexes[p]=ti;
+				double[] tv=rowValues[k]; rowValues[k]=rowValues[p]; rowValues[p]=tv;
+				int tc=counts[k]; counts[k]=counts[p]; counts[p]=tc;
+			}
+			int m=Math.min(kl, n-1-k);
+			for (int t=0; t<m; t++) {
+				double v=mult[k*kl+t];
+				if (v==0.0) continue;
+				int i=k+1+t;
+				int c=counts[i];
+				if ((rowIndexes[i]==null)||(c==rowIndexes[i].length)) {
+					int size=Math.max(4, c*2);
+					rowIndexes[i]=(rowIndexes[i]==null)?new int[size]:Arrays.copyOf(rowIndexes[i], size);
+					rowValues[i]=(rowValues[i]==null)?new double[size]:Arrays.copyOf(rowValues[i], size);
+				}
+				rowIndexes[i][c]=k;
+				rowValues[i][c]=v;
+				counts[i]=c+1;
+			}
+		}
+		AVector[] rows=new AVector[n];
+		for (int i=0; i<n; i++) {
+			int c=counts[i];
+			int[] ixs=new int[c+1];
+			double[] vals=new double[c+1];
+			if (c>0) {
+				System.arraycopy(rowIndexes[i], 0, ixs, 0, c);
+				System.arraycopy(rowValues[i], 0, vals, 0, c);
+			}
+			ixs[c]=i;
+			vals[c]=1.0;
+			rows[i]=SparseIndexedVector.wrap(n, ixs, vals);
+		}
+		return SparseRowMatrix.wrap(rows, n, n);
+	}
+
+	/**
+	 * Returns the U matrix, as a banded matrix with upper bandwidth of at most kl+ku
+	 */
+	@Override
+	public BandedMatrix getU() {
+		int maxBand=Math.min(kl+ku, Math.max(0, n-1));
+		BandedMatrix U=BandedMatrix.create(n, n, 0, maxBand);
+		for (int b=0; b<=maxBand; b++) {
+			AVector band=U.getBand(b);
+			int len=band.length();
+			for (int i=0; i<len; i++) {
+				band.unsafeSet(i, ab[index(i,i+b)]);
+			}
+		}
+		return U;
+	}
+
+	@Override
+	public PermutationMatrix getP() {
+		int[] rows=new int[n];
+		for (int i=0; i<n; i++) {
+			rows[i]=i;
+		}
+		for (int k=0; k<n; k++) {
+			int p=ipiv[k];
+			int t=rows[k];
+			rows[k]=rows[p];
+			rows[p]=t;
+		}
+		return PermutationMatrix.wrap(rows);
+	}
+
+	@Override
+	public double computeDeterminant() {
+		double det=1.0;
+		for (int k=0; k<n; k++) {
+			det*=ab[index(k,k)];
+			if (ipiv[k]!=k) det=-det;
+		}
+		return det;
+	}
+}
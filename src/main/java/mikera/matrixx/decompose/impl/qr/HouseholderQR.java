@@ -20,6 +20,7 @@ package mikera.matrixx.decompose.impl.qr;
 
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
+import mikera.vectorz.util.Workspace;
 
 /**
  * <p>
@@ -166,6 +167,8 @@ public class HouseholderQR implements QRDecomposition {
     @Override
     public QRResult decompose( AMatrix A ) {
         error = false;
+        Q = null;
+        R = null;
 
         this.numCols = A.columnCount();
         this.numRows = A.rowCount();
@@ -173,8 +176,9 @@ public class HouseholderQR implements QRDecomposition {
         int maxLength = Math.max(numRows,numCols);
 
         QR = A.copy().toMatrix();
-        u = new double[ maxLength ];
-        v = new double[ maxLength ];
+        // u and v are only needed until Q and R are computed
+        u = Workspace.acquire( maxLength );
+        v = Workspace.acquire( maxLength );
 
         dataQR = QR.data;
 
@@ -188,7 +192,12 @@ public class HouseholderQR implements QRDecomposition {
     //  if (error)
     //      return null;
     //  else
-        return new QRResult(getQ(), getR());
+        QRResult result = new QRResult(getQ(), getR());
+        Workspace.release(u);
+        Workspace.release(v);
+        u = null;
+        v = null;
+        return result;
     }
 
     /**
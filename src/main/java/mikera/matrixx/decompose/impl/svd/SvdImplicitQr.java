@@ -243,9 +243,6 @@ public class SvdImplicitQr {
         numRows = orig.rowCount();
         numCols = orig.columnCount();
 
-        diag = new double[ numColsT ];
-        off = new double[ numColsT-1 ];
-
         // if it is a tall matrix and U is not needed then there is faster decomposition algorithm
 //        if( canUseTallBidiagonal && numRows > numCols * 2 && !computeU ) {
 //            if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionTall) ) {
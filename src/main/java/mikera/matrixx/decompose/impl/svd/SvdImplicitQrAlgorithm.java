@@ -22,6 +22,7 @@ import java.util.Random;
 
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
+import mikera.vectorz.util.Workspace;
 
 
 /**
@@ -53,7 +54,8 @@ public class SvdImplicitQrAlgorithm {
 	public static double EPS = Math.pow(2,-52);
 
     // used in exceptional shifts
-    protected Random rand = new Random(0x34671e);
+    // created on first use, since exceptional shifts are rarely needed
+    protected Random rand;
 
     // U and V matrices in singular value decomposition.  Stored in the transpose
     // to reduce cache jumps
@@ -199,10 +201,6 @@ public class SvdImplicitQrAlgorithm {
 
         this.N = N;
 
-        if( splits == null || splits.length < N ) {
-            splits = new int[N];
-        }
-
         x1 = 0;
         x2 = this.N-1;
 
@@ -238,6 +236,16 @@ public class SvdImplicitQrAlgorithm {
         // it is a zero matrix
         if( maxValue == 0 )
             return true;
+
+        // the split stack is only needed while processing, so take it from the workspace
+        splits = Workspace.acquireInts(N);
+        boolean result = processSteps();
+        Workspace.release(splits);
+        splits = null;
+        return result;
+    }
+
+    private boolean processSteps() {
         while( x2 >= 0 ) {
             // if it has cycled too many times give up
             if( steps > maxIterations ) {
@@ -789,6 +797,8 @@ public class SvdImplicitQrAlgorithm {
         double mag = 0.05*numExceptional;
         if( mag > 1.0 ) mag = 1.0;
 
+        if( rand == null )
+            rand = new Random(0x34671e);
         double angle = 2.0*Math.PI*(rand.nextDouble()-0.5)*mag;
         performImplicitSingleStep(0,angle,true);
 
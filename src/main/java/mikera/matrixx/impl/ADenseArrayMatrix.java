@@ -11,6 +11,7 @@ import mikera.vectorz.impl.ADenseArrayVector;
 import mikera.vectorz.impl.AStridedVector;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.Parallel;
 
 /**
  * Abstract base class for matrices wrapping a dense (rows*cols) subset of a double[] array
@@ -122,12 +123,16 @@ public abstract class ADenseArrayMatrix extends AStridedMatrix implements IFastR
 	
 	@Override
 	public double elementSum() {
-		return DoubleArrays.elementSum(data,getArrayOffset(), rows*cols);
+		int n=rows*cols;
+		if (Parallel.useParallel(n)) return Parallel.elementSum(data, getArrayOffset(), n);
+		return DoubleArrays.elementSum(data,getArrayOffset(), n);
 	}
 	
 	@Override
 	public double elementSquaredSum() {
-		return DoubleArrays.elementSquaredSum(data,getArrayOffset(), rows*cols);
+		int n=rows*cols;
+		if (Parallel.useParallel(n)) return Parallel.elementSquaredSum(data, getArrayOffset(), n);
+		return DoubleArrays.elementSquaredSum(data,getArrayOffset(), n);
 	}
 	
 	@Override
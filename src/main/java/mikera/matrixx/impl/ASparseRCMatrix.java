@@ -7,6 +7,7 @@ import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
 import mikera.vectorz.AVector;
 import mikera.vectorz.impl.RepeatedElementVector;
+import mikera.vectorz.util.Summation;
 import mikera.vectorz.util.VectorzException;
 
 /**
@@ -206,6 +207,30 @@ public abstract class ASparseRCMatrix extends ARectangularMatrix {
 		return result;
 	}	
 	
+	@Override
+	public double elementSum(Summation mode) {
+		if (mode==Summation.NAIVE) return elementSum();
+		int n=lineCount();
+		double[] partials=new double[n];
+		for (int i=0; i<n; i++) {
+			AVector vec=data[i];
+			if (vec != null) partials[i]=vec.elementSum(mode);
+		}
+		return mode.sum(partials, 0, n);
+	}
+	
+	@Override
+	public double elementSquaredSum(Summation mode) {
+		if (mode==Summation.NAIVE) return elementSquaredSum();
+		int n=lineCount();
+		double[] partials=new double[n];
+		for (int i=0; i<n; i++) {
+			AVector vec=data[i];
+			if (vec != null) partials[i]=vec.elementSquaredSum(mode);
+		}
+		return mode.sum(partials, 0, n);
+	}
+	
 	@Override
 	public double elementMin() {
 		double result=Double.MAX_VALUE;
@@ -0,0 +1,279 @@
+package mikera.matrixx.impl;
+
+import java.util.Arrays;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.BitVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * Boolean matrix backed by densely packed bits - constrained to 0.0 / 1.0 values
+ *
+ * Each row is stored as a run of 64-bit words, so that row operations work on 64 elements at a
+ * time. Setting an element will set it to 1.0 for any positive value and 0.0 otherwise.
+ *
+ * Intended for compact storage of large binary relations, e.g. set membership, together with
+ * fast boolean matrix multiplication and co-occurrence counts.
+ *
+ * @author Mike
+ */
+public final class BitMatrix extends ABooleanMatrix implements IFastRows {
+	private static final long serialVersionUID = -2254946457342233457L;
+
+	private final int rows;
+	private final int cols;
+	private final int rowWords;
+	private final long[] data;
+
+	private BitMatrix(int rows, int cols, long[] data) {
+		this.rows=rows;
+		this.cols=cols;
+		this.rowWords=(cols+63)>>>6;
+		this.data=data;
+	}
+
+	public static BitMatrix create(int rows, int cols) {
+		if ((rows<0)||(cols<0)) throw new IllegalArgumentException("Invalid shape ["+rows+","+cols+"]");
+		return new BitMatrix(rows,cols,new long[rows*((cols+63)>>>6)]);
+	}
+
+	/**
+	 * Creates a BitMatrix with bits set for all positive elements of the source matrix
+	 */
+	public static BitMatrix create(AMatrix source) {
+		int rc=source.rowCount();
+		int cc=source.columnCount();
+		BitMatrix m=create(rc,cc);
+		for (int i=0; i<rc; i++) {
+			for (int j=0; j<cc; j++) {
+				if (source.unsafeGet(i, j)>BitVector.BIT_THRESHOLD) m.setBit(i, j);
+			}
+		}
+		return m;
+	}
+
+	@Override
+	public int rowCount() {
+		return rows;
+	}
+
+	@Override
+	public int columnCount() {
+		return cols;
+	}
+
+	private boolean getBit(int i, int j) {
+		return ((data[i*rowWords+(j>>>6)]>>>(j&63))&1L)!=0L;
+	}
+
+	private void setBit(int i, int j) {
+		data[i*rowWords+(j>>>6)]|=(1L<<(j&63));
+	}
+
+	@Override
+	public double get(int i, int j) {
+		checkIndex(i,j);
+		return getBit(i,j)?BitVector.BIT_ON:BitVector.BIT_OFF;
+	}
+
+	@Override
+	public double unsafeGet(int i, int j) {
+		return getBit(i,j)?BitVector.BIT_ON:BitVector.BIT_OFF;
+	}
+
+	@Override
+	public void set(int i, int j, double value) {
+		checkIndex(i,j);
+		unsafeSet(i,j,value);
+	}
+
+	@Override
+	public void unsafeSet(int i, int j, double value) {
+		int p=i*rowWords+(j>>>6);
+		long mask=1L<<(j&63);
+		data[p]=(data[p]&(~mask))|((value>BitVector.BIT_THRESHOLD)?mask:0L);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public boolean isZero() {
+		for (int i=0; i<data.length; i++) {
+			if (data[i]!=0L) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public long nonZeroCount() {
+		long result=0;
+		for (int i=0; i<data.length; i++) {
+			result+=Long.bitCount(data[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a row of this matrix as a new BitVector
+	 */
+	@Override
+	public BitVector getRow(int i) {
+		if ((i<0)||(i>=rows)) throw new IndexOutOfBoundsException(ErrorMessages.invalidSlice(this, i));
+		return BitVector.wrap(Arrays.copyOfRange(data, i*rowWords, (i+1)*rowWords), cols);
+	}
+
+	@Override
+	public void copyRowTo(int i, double[] dest, int destOffset) {
+		Arrays.fill(dest, destOffset, destOffset+cols, BitVector.BIT_OFF);
+		int base=i*rowWords;
+		for (int w=0; w<rowWords; w++) {
+			long mask=data[base+w];
+			int col=destOffset+(w<<6);
+			while (mask!=0L) {
+				dest[col+Long.numberOfTrailingZeros(mask)]=BitVector.BIT_ON;
+				mask&=mask-1;
+			}
+		}
+	}
+
+	@Override
+	public void getElements(double[] dest, int offset) {
+		for (int i=0; i<rows; i++) {
+			copyRowTo(i,dest,offset+i*cols);
+		}
+	}
+
+	/**
+	 * Sums the source elements selected by the set bits of a row
+	 */
+	private double rowSum(int i, double[] source, int offset) {
+		double result=0.0;
+		int base=i*rowWords;
+		for (int w=0; w<rowWords; w++) {
+			long mask=data[base+w];
+			int col=offset+(w<<6);
+			while (mask!=0L) {
+				result+=source[col+Long.numberOfTrailingZeros(mask)];
+				mask&=mask-1;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void transform(AVector source, AVector dest) {
+		if ((source instanceof Vector)&&(dest instanceof Vector)) {
+			transform((Vector)source,(Vector)dest);
+			return;
+		}
+		if (source.length()!=cols) throw new IllegalArgumentException(ErrorMessages.wrongSourceLength(source));
+		if (dest.length()!=rows) throw new IllegalArgumentException(ErrorMessages.wrongDestLength(dest));
+		double[] temp=source.toDoubleArray();
+		for (int i=0; i<rows; i++) {
+			dest.unsafeSet(i, rowSum(i,temp,0));
+		}
+	}
+
+	@Override
+	public void transform(Vector source, Vector dest) {
+		if (source.length()!=cols) throw new IllegalArgumentException(ErrorMessages.wrongSourceLength(source));
+		if (dest.length()!=rows) throw new IllegalArgumentException(ErrorMessages.wrongDestLength(dest));
+		double[] sdata=source.getArray();
+		double[] ddata=dest.getArray();
+		for (int i=0; i<rows; i++) {
+			ddata[i]=rowSum(i,sdata,0);
+		}
+	}
+
+	/**
+	 * Computes the boolean matrix product with another BitMatrix, where each result element is the
+	 * logical OR over k of (this[i,k] AND b[k,j]).
+	 *
+	 * Each set bit of a row of this matrix ORs a whole row of b into the result row, 64 columns
+	 * per word operation.
+	 */
+	public BitMatrix booleanProduct(BitMatrix b) {
+		if (cols!=b.rows) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(this, b));
+		int bWords=b.rowWords;
+		long[] bdata=b.data;
+		BitMatrix result=create(rows,b.cols);
+		long[] rdata=result.data;
+		for (int i=0; i<rows; i++) {
+			int base=i*rowWords;
+			int rbase=i*bWords;
+			for (int w=0; w<rowWords; w++) {
+				long mask=data[base+w];
+				while (mask!=0L) {
+					int k=(w<<6)+Long.numberOfTrailingZeros(mask);
+					mask&=mask-1;
+					int kbase=k*bWords;
+					for (int v=0; v<bWords; v++) {
+						rdata[rbase+v]|=bdata[kbase+v];
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public AMatrix innerProduct(AMatrix a) {
+		if (a instanceof BitMatrix) return innerProduct((BitMatrix)a);
+		return super.innerProduct(a);
+	}
+
+	/**
+	 * Computes the numeric matrix product with another BitMatrix. Each result element is the
+	 * number of positions set in both row i of this matrix and column j of the other, computed
+	 * with word-level AND and popcount against the transpose of the other matrix.
+	 */
+	public Matrix innerProduct(BitMatrix a) {
+		if (cols!=a.rows) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(this, a));
+		BitMatrix t=a.getTranspose();
+		int rc=rows;
+		int cc=a.cols;
+		Matrix result=Matrix.create(rc, cc);
+		double[] rdata=result.getArray();
+		long[] tdata=t.data;
+		for (int i=0; i<rc; i++) {
+			int base=i*rowWords;
+			for (int j=0; j<cc; j++) {
+				int tbase=j*rowWords;
+				long count=0;
+				for (int w=0; w<rowWords; w++) {
+					count+=Long.bitCount(data[base+w]&tdata[tbase+w]);
+				}
+				rdata[i*cc+j]=count;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BitMatrix getTranspose() {
+		BitMatrix result=create(cols,rows);
+		for (int i=0; i<rows; i++) {
+			int base=i*rowWords;
+			for (int w=0; w<rowWords; w++) {
+				long mask=data[base+w];
+				while (mask!=0L) {
+					int j=(w<<6)+Long.numberOfTrailingZeros(mask);
+					mask&=mask-1;
+					result.setBit(j, i);
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BitMatrix exactClone() {
+		return new BitMatrix(rows,cols,data.clone());
+	}
+}
@@ -71,8 +71,8 @@ public class DenseColumnMatrix extends AStridedMatrix implements IFastColumns, I
 	@Override
 	public void setRow(int i, AVector row) {
 		int cc = checkColumnCount(row.length());
-		for (int j = 0; j < cc; i++) {
-			data[index(i, j)] = row.unsafeGet(i);
+		for (int j = 0; j < cc; j++) {
+			data[index(i, j)] = row.unsafeGet(j);
 		}
 	}
 
@@ -0,0 +1,237 @@
+package mikera.matrixx.impl;
+
+import java.util.Arrays;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.FloatVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.ADenseArrayVector;
+import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.FloatArrays;
+
+/**
+ * Dense matrix backed by a float[] array in row-major format.
+ *
+ * Elements are stored in single precision, halving memory use and bandwidth compared to a
+ * double Matrix. Rows are available as FloatVector views. Matrix-vector and matrix-matrix
+ * products read the float data directly and accumulate in double precision.
+ *
+ * @author Mike
+ */
+public final class FloatMatrix extends ARectangularMatrix implements IFastRows {
+	private static final long serialVersionUID = 3106489738470538124L;
+
+	private final float[] data;
+
+	private FloatMatrix(int rows, int cols, float[] data) {
+		super(rows,cols);
+		this.data=data;
+	}
+
+	public static FloatMatrix create(int rows, int cols) {
+		return new FloatMatrix(rows,cols,new float[rows*cols]);
+	}
+
+	public static FloatMatrix create(AMatrix m) {
+		int rc=m.rowCount();
+		int cc=m.columnCount();
+		FloatMatrix result=create(rc,cc);
+		if (m instanceof FloatMatrix) {
+			System.arraycopy(((FloatMatrix)m).data, 0, result.data, 0, rc*cc);
+		} else if (m instanceof Matrix) {
+			FloatArrays.copy(((Matrix)m).getArray(), 0, result.data, 0, rc*cc);
+		} else {
+			for (int i=0; i<rc; i++) {
+				for (int j=0; j<cc; j++) {
+					result.data[i*cc+j]=(float)m.unsafeGet(i, j);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Wraps a float array as a row-major matrix. Changes to the array are reflected in the matrix
+	 */
+	public static FloatMatrix wrap(int rows, int cols, float[] data) {
+		if (data.length!=rows*cols) throw new IllegalArgumentException("Array of length "+data.length+" does not match shape ["+rows+","+cols+"]");
+		return new FloatMatrix(rows,cols,data);
+	}
+
+	public float[] getArray() {
+		return data;
+	}
+
+	@Override
+	public double get(int i, int j) {
+		if ((j<0)||(j>=cols)) throw new IndexOutOfBoundsException(ErrorMessages.invalidIndex(this, i,j));
+		return data[i*cols+j];
+	}
+
+	@Override
+	public double unsafeGet(int i, int j) {
+		return data[i*cols+j];
+	}
+
+	@Override
+	public void set(int i, int j, double value) {
+		if ((j<0)||(j>=cols)) throw new IndexOutOfBoundsException(ErrorMessages.invalidIndex(this, i,j));
+		data[i*cols+j]=(float)value;
+	}
+
+	@Override
+	public void unsafeSet(int i, int j, double value) {
+		data[i*cols+j]=(float)value;
+	}
+
+	@Override
+	public void addAt(int i, int j, double d) {
+		data[i*cols+j]+=d;
+	}
+
+	@Override
+	public FloatVector getRowView(int i) {
+		return FloatVector.wrap(data, i*cols, cols);
+	}
+
+	@Override
+	public FloatVector getRow(int i) {
+		return getRowView(i);
+	}
+
+	@Override
+	public void copyRowTo(int i, double[] dest, int destOffset) {
+		FloatArrays.copy(data, i*cols, dest, destOffset, cols);
+	}
+
+	@Override
+	public void getElements(double[] dest, int offset) {
+		FloatArrays.copy(data, 0, dest, offset, data.length);
+	}
+
+	@Override
+	public void transform(AVector source, AVector dest) {
+		if ((dest instanceof Vector)&&(source instanceof Vector)) {
+			transform((Vector)source,(Vector)dest);
+			return;
+		}
+		if (source.length()!=cols) throw new IllegalArgumentException(ErrorMessages.wrongSourceLength(source));
+		if (dest.length()!=rows) throw new IllegalArgumentException(ErrorMessages.wrongDestLength(dest));
+		if (source instanceof FloatVector) {
+			FloatVector fv=(FloatVector)source;
+			float[] sdata=fv.getArray();
+			int soffset=fv.getArrayOffset();
+			for (int i=0; i<rows; i++) {
+				dest.unsafeSet(i, FloatArrays.dotProduct(data, i*cols, sdata, soffset, cols));
+			}
+		} else if (source instanceof ADenseArrayVector) {
+			ADenseArrayVector dv=(ADenseArrayVector)source;
+			double[] sdata=dv.getArray();
+			int soffset=dv.getArrayOffset();
+			for (int i=0; i<rows; i++) {
+				dest.unsafeSet(i, FloatArrays.dotProduct(data, i*cols, sdata, soffset, cols));
+			}
+		} else {
+			double[] temp=source.toDoubleArray();
+			for (int i=0; i<rows; i++) {
+				dest.unsafeSet(i, FloatArrays.dotProduct(data, i*cols, temp, 0, cols));
+			}
+		}
+	}
+
+	@Override
+	public void transform(Vector source, Vector dest) {
+		if (source.length()!=cols) throw new IllegalArgumentException(ErrorMessages.wrongSourceLength(source));
+		if (dest.length()!=rows) throw new IllegalArgumentException(ErrorMessages.wrongDestLength(dest));
+		double[] sdata=source.getArray();
+		double[] ddata=dest.getArray();
+		for (int i=0; i<rows; i++) {
+			ddata[i]=FloatArrays.dotProduct(data, i*cols, sdata, 0, cols);
+		}
+	}
+
+	@Override
+	public AMatrix innerProduct(AMatrix a) {
+		if (a instanceof FloatMatrix) return innerProduct((FloatMatrix)a);
+		return super.innerProduct(a);
+	}
+
+	/**
+	 * Computes the matrix product with another FloatMatrix, reading both operands directly in
+	 * single precision. Each result row is accumulated in double precision before being stored.
+	 */
+	public FloatMatrix innerProduct(FloatMatrix a) {
+		if (cols!=a.rows) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(this, a));
+		int rc=rows;
+		int cc=a.cols;
+		float[] adata=a.data;
+		FloatMatrix result=create(rc,cc);
+		float[] rdata=result.data;
+		double[] acc=new double[cc];
+		for (int i=0; i<rc; i++) {
+			Arrays.fill(acc, 0.0);
+			for (int k=0; k<cols; k++) {
+				double x=data[i*cols+k];
+				int aoff=k*cc;
+				for (int j=0; j<cc; j++) {
+					acc[j]+=x*adata[aoff+j];
+				}
+			}
+			FloatArrays.copy(acc, 0, rdata, i*cc, cc);
+		}
+		return result;
+	}
+
+	@Override
+	public double elementSum() {
+		return FloatArrays.elementSum(data, 0, data.length);
+	}
+
+	@Override
+	public double elementSquaredSum() {
+		return FloatArrays.elementSquaredSum(data, 0, data.length);
+	}
+
+	@Override
+	public boolean isZero() {
+		return FloatArrays.isZero(data, 0, data.length);
+	}
+
+	@Override
+	public void multiply(double factor) {
+		FloatArrays.multiply(data, 0, data.length, factor);
+	}
+
+	@Override
+	public void set(double value) {
+		Arrays.fill(data, (float)value);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public boolean isView() {
+		return false;
+	}
+
+	@Override
+	public boolean isElementConstrained() {
+		// elements are rounded to float precision
+		return true;
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return false;
+	}
+
+	@Override
+	public FloatMatrix exactClone() {
+		return new FloatMatrix(rows,cols,data.clone());
+	}
+}
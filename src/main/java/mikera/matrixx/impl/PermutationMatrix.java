@@ -229,6 +229,16 @@ public final class PermutationMatrix extends ABooleanMatrix implements IFastRows
 		dest[destOffset+perm.find(col)]=1.0;
 	}
 	
+	/**
+	 * Gets the permutation index of this matrix, i.e. the column of the 1.0 in each row. 
+	 * 
+	 * Returns the internal index, which should not be modified.
+	 * @return
+	 */
+	public Index getPermutation() {
+		return perm;
+	}
+	
 	@Override
 	public void swapRows(int i, int j) {
 		if (i!=j) {
@@ -186,6 +186,7 @@ public class SparseRowMatrix extends ASparseRCMatrix implements ISparse, IFastRo
 		AVector v = unsafeGetVec(i);
 		if (v == null) {
 			AVector nv=SparseIndexedVector.createLength(cols);
+			unsafeSetVec(i, nv);
 			return nv;
 		}
 		if (v.isFullyMutable()) return v;
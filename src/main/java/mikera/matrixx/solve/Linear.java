@@ -2,8 +2,10 @@ package mikera.matrixx.solve;
 
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.ABandedMatrix;
 import mikera.matrixx.impl.ColumnMatrix;
 import mikera.matrixx.impl.DenseColumnMatrix;
+import mikera.matrixx.solve.impl.BandedSolver;
 import mikera.matrixx.solve.impl.lu.LUSolver;
 import mikera.matrixx.solve.impl.qr.QRHouseColSolver;
 import mikera.vectorz.AVector;
@@ -99,6 +101,7 @@ public class Linear {
 	 */
 	private static AVector solveSquare(AMatrix A, AVector b) {
 	    A.checkSquare();
+	    if (A instanceof ABandedMatrix) return BandedSolver.solve(A, b);
 	    LUSolver solver = new LUSolver();
 	    solver.setA(A);
 //      create AMatrix from AVector
@@ -122,6 +125,7 @@ public class Linear {
      */
 	private static AMatrix solveSquare(AMatrix A, AMatrix B) {
 		A.checkSquare();
+		if (A instanceof ABandedMatrix) return BandedSolver.solve(A, B);
 		LUSolver solver = new LUSolver();
 		solver.setA(A);
 		return solver.solve(B);
@@ -0,0 +1,90 @@
+package mikera.matrixx.solve.impl;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.decompose.impl.lu.BandedLU;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+
+/**
+ * Solvers for square banded systems A.x = b that operate directly on band storage.
+ *
+ * Tridiagonal systems that are diagonally dominant use the Thomas algorithm in O(n) time. All
+ * other banded systems use banded LU decomposition with partial pivoting.
+ *
+ * @author Mike
+ */
+public class BandedSolver {
+
+	/**
+	 * Solves A.x = b for a square banded matrix A. Returns null if A is singular.
+	 * @param A
+	 * @param b
+	 * @return
+	 */
+	public static AVector solve(AMatrix A, AVector b) {
+		int n=A.checkSquare();
+		if (b.length()!=n) throw new IllegalArgumentException("Unexpected vector length: "+b.length()+", expected "+n);
+		if (isTridiagonal(A)) {
+			double[] lower=A.getBand(-1).toDoubleArray();
+			double[] diag=A.getBand(0).toDoubleArray();
+			double[] upper=A.getBand(1).toDoubleArray();
+			if (isDiagonallyDominant(lower,diag,upper)) {
+				double[] x=b.toDoubleArray();
+				if (solveTridiagonal(lower,diag,upper,x)) return Vector.wrap(x);
+			}
+		}
+		return BandedLU.decompose(A).solve(b);
+	}
+
+	/**
+	 * Solves A.X = B for a square banded matrix A. Returns null if A is singular.
+	 * @param A
+	 * @param B
+	 * @return
+	 */
+	public static AMatrix solve(AMatrix A, AMatrix B) {
+		return BandedLU.decompose(A).solve(B);
+	}
+
+	private static boolean isTridiagonal(AMatrix A) {
+		return (A.rowCount()>1)&&(A.lowerBandwidthLimit()<=1)&&(A.upperBandwidthLimit()<=1);
+	}
+
+	private static boolean isDiagonallyDominant(double[] lower, double[] diag, double[] upper) {
+		int n=diag.length;
+		for (int i=0; i<n; i++) {
+			double off=((i>0)?Math.abs(lower[i-1]):0.0)+((i<n-1)?Math.abs(upper[i]):0.0);
+			if (Math.abs(diag[i])<off) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Solves a tridiagonal system with the Thomas algorithm, in O(n) time without pivoting. Stable
+	 * for diagonally dominant or symmetric positive definite systems.
+	 *
+	 * The diagonal and right hand side arrays are overwritten, with the solution returned in x.
+	 *
+	 * @param lower Sub-diagonal, of length n-1
+	 * @param diag Main diagonal, of length n
+	 * @param upper Super-diagonal, of length n-1
+	 * @param x Right hand side on entry, solution on exit
+	 * @return false if a zero pivot was encountered, in which case the arrays are left in an undefined state
+	 */
+	public static boolean solveTridiagonal(double[] lower, double[] diag, double[] upper, double[] x) {
+		int n=diag.length;
+		for (int i=1; i<n; i++) {
+			double d=diag[i-1];
+			if (d==0.0) return false;
+			double m=lower[i-1]/d;
+			diag[i]-=m*upper[i-1];
+			x[i]-=m*x[i-1];
+		}
+		if (diag[n-1]==0.0) return false;
+		x[n-1]/=diag[n-1];
+		for (int i=n-2; i>=0; i--) {
+			x[i]=(x[i]-upper[i]*x[i+1])/diag[i];
+		}
+		return true;
+	}
+}
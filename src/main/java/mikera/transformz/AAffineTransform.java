@@ -1,6 +1,8 @@
 package mikera.transformz;
 
 import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.algo.Multiplications;
 import mikera.vectorz.AVector;
 
 /**
@@ -52,10 +54,9 @@ public abstract class AAffineTransform extends ATransform {
 		return super.compose(a);
 	}
 	
-	public ATransform compose(AAffineTransform a) {
-		AVector v=a.copyOfTranslationVector();
+	public AAffineTransform compose(AAffineTransform a) {
 		AMatrix thisM=getMatrix();
-		thisM.transformInPlace(v);
+		AVector v=thisM.transform(a.getTranslationVector());
 		v.add(getTranslation().getTranslationVector());
 		
 		AMatrix m=thisM.compose(a.getMatrix());
@@ -69,6 +70,19 @@ public abstract class AAffineTransform extends ATransform {
 		getTranslation().transformInPlace(dest);
 	}
 	
+	/**
+	 * Transforms all rows of the source matrix with a single matrix multiplication, followed by
+	 * a broadcast of the translation vector
+	 */
+	@Override
+	public void transformAll(AMatrix sources, AMatrix dest) {
+		checkTransformAll(sources,dest);
+		Matrix r=Multiplications.multiply(sources, getMatrix().getTransposeView());
+		ATranslation t=getTranslation();
+		if (!t.isIdentity()) r.add(t.getTranslationVector());
+		dest.set(r);
+	}
+	
 	public void transformNormal(AVector source, AVector dest) {
 		getMatrix().transform(source,dest);
 		dest.normalise();
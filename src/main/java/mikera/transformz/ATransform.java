@@ -1,12 +1,19 @@
 package mikera.transformz;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import mikera.indexz.Index;
 import mikera.indexz.Indexz;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
 import mikera.transformz.impl.AConstantTransform;
 import mikera.transformz.impl.CompoundTransform;
 import mikera.transformz.impl.SubsetTransform;
 import mikera.vectorz.AVector;
 import mikera.vectorz.Vector;
+import mikera.vectorz.util.ErrorMessages;
 
 /**
  * Abstract base class for all vector transformations.
@@ -43,6 +50,11 @@ public abstract class ATransform implements Cloneable, ITransform {
 	// =====================================
 	// Standard implementations
 	
+	/**
+	 * Number of vectors gathered into each batch by the streaming form of transformAll
+	 */
+	protected static final int TRANSFORM_BATCH_SIZE=64;
+	
 	/**
 	 * Clones the transform, performing a deep copy where needed
 	 */
@@ -117,6 +129,82 @@ public abstract class ATransform implements Cloneable, ITransform {
 		return temp;
 	}
 	
+	/**
+	 * Transforms each row of a source matrix, storing the results in the corresponding rows of 
+	 * the destination matrix.
+	 * 
+	 * Subclasses override this where a whole batch can be transformed more efficiently than
+	 * one vector at a time, e.g. with a single matrix multiplication for affine transforms.
+	 * 
+	 * @param sources Matrix with one input vector per row
+	 * @param dest Matrix with one output vector per row
+	 */
+	public void transformAll(AMatrix sources, AMatrix dest) {
+		checkTransformAll(sources,dest);
+		int n=sources.rowCount();
+		for (int i=0; i<n; i++) {
+			transform(sources.getRow(i),dest.getRowView(i));
+		}
+	}
+	
+	/**
+	 * Transforms each row of a source matrix, returning a new matrix of transformed rows
+	 * 
+	 * @param sources Matrix with one input vector per row
+	 * @return
+	 */
+	public Matrix transformAll(AMatrix sources) {
+		Matrix dest=Matrix.create(sources.rowCount(),outputDimensions());
+		transformAll(sources,dest);
+		return dest;
+	}
+	
+	/**
+	 * Transforms a sequence of vectors, returning a list of new transformed vectors.
+	 * 
+	 * Vectors are gathered into batches and transformed with transformAll(AMatrix, AMatrix),
+	 * so the sequence is consumed in a single pass without first being collected.
+	 * 
+	 * @param sources
+	 * @return
+	 */
+	public List<AVector> transformAll(Iterable<? extends AVector> sources) {
+		int inDims=inputDimensions();
+		ArrayList<AVector> result=new ArrayList<AVector>();
+		Matrix batch=Matrix.create(TRANSFORM_BATCH_SIZE, inDims);
+		double[] data=batch.getArray();
+		int count=0;
+		for (AVector v: sources) {
+			if (v.length()!=inDims) throw new IllegalArgumentException(ErrorMessages.wrongSourceLength(v));
+			v.getElements(data, count*inDims);
+			if (++count==TRANSFORM_BATCH_SIZE) {
+				transformBatch(batch,result);
+				count=0;
+			}
+		}
+		if (count>0) {
+			transformBatch(Matrix.wrap(count, inDims, Arrays.copyOf(data, count*inDims)),result);
+		}
+		return result;
+	}
+	
+	private void transformBatch(Matrix batch, List<AVector> result) {
+		Matrix out=transformAll(batch);
+		int n=out.rowCount();
+		for (int i=0; i<n; i++) {
+			result.add(out.getRow(i));
+		}
+	}
+	
+	/**
+	 * Checks that source and destination matrices are compatible with transformAll
+	 */
+	protected void checkTransformAll(AMatrix sources, AMatrix dest) {
+		if ((sources.columnCount()!=inputDimensions())||(dest.columnCount()!=outputDimensions())||(sources.rowCount()!=dest.rowCount())) {
+			throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(sources, dest));
+		}
+	}
+	
 	/**
 	 * Calculates a single element of the output. 
 	 * Not necessarily faster than calculating full output, but can be in some circumstances.
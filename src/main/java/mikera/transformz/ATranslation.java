@@ -1,5 +1,6 @@
 package mikera.transformz;
 
+import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrixx;
 import mikera.vectorz.AVector;
 
@@ -43,6 +44,13 @@ public abstract class ATranslation extends AAffineTransform {
 		dest.add(getTranslationVector());
 	}
 	
+	@Override
+	public void transformAll(AMatrix sources, AMatrix dest) {
+		checkTransformAll(sources,dest);
+		dest.set(sources);
+		dest.add(getTranslationVector());
+	}
+	
 	@Override
 	public void transformNormal(AVector source, AVector dest) {
 		// translation does not affect normal
@@ -4,6 +4,7 @@ import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix33;
 import mikera.transformz.marker.ISpecialisedTransform;
 import mikera.vectorz.AVector;
+import mikera.vectorz.PointCloud3;
 import mikera.vectorz.Vector3;
 
 /**
@@ -158,6 +159,13 @@ public final class Affine34 extends AAffineTransform  implements ISpecialisedTra
 		s.x=tx; s.y=ty; s.z=tz;
 	}
 
+	/**
+	 * Transforms all points in a point cloud in place
+	 */
+	public void transformInPlace(PointCloud3 points) {
+		points.transform(this);
+	}
+
 	@Override
 	public int inputDimensions() {
 		return 3;
@@ -181,6 +189,14 @@ public final class Affine34 extends AAffineTransform  implements ISpecialisedTra
 	}
 	
 	public void composeWith(Affine34 a) {
+		composeInto(a,this);
+	}
+	
+	/**
+	 * Computes the composition this * a (a applied first), storing the result in dest without
+	 * allocation. dest may be the same object as this or a.
+	 */
+	public void composeInto(Affine34 a, Affine34 dest) {
 		double t00=(m00*a.m00)+(m01*a.m10)+(m02*a.m20);
 		double t01=(m00*a.m01)+(m01*a.m11)+(m02*a.m21);
 		double t02=(m00*a.m02)+(m01*a.m12)+(m02*a.m22);
@@ -194,9 +210,46 @@ public final class Affine34 extends AAffineTransform  implements ISpecialisedTra
 		double t03=(m00*a.tr0)+(m01*a.tr1)+(m02*a.tr2)+tr0;
 		double t13=(m10*a.tr0)+(m11*a.tr1)+(m12*a.tr2)+tr1;
 		double t23=(m20*a.tr0)+(m21*a.tr1)+(m22*a.tr2)+tr2;
-		m00=t00; m01=t01; m02=t02; tr0=t03;
-		m10=t10; m11=t11; m12=t12; tr1=t13;
-		m20=t20; m21=t21; m22=t22; tr2=t23;
+		dest.m00=t00; dest.m01=t01; dest.m02=t02; dest.tr0=t03;
+		dest.m10=t10; dest.m11=t11; dest.m12=t12; dest.tr1=t13;
+		dest.m20=t20; dest.m21=t21; dest.m22=t22; dest.tr2=t23;
+	}
+	
+	/**
+	 * Returns the determinant of the matrix part of this transform
+	 */
+	public double determinant() {
+		return (m00*m11*m22)+(m01*m12*m20)+(m02*m10*m21)
+		      -(m00*m12*m21)-(m01*m10*m22)-(m02*m11*m20);
+	}
+	
+	/**
+	 * Computes the inverse of this transform, storing the result in dest without allocation.
+	 * dest may be this transform.
+	 * 
+	 * @return false if the transform is singular, in which case dest is unchanged
+	 */
+	public boolean inverseInto(Affine34 dest) {
+		double det=determinant();
+		if (det==0.0) return false;
+		double invDet=1.0/det;
+		double t00=invDet*((m11*m22-m12*m21));
+		double t01=invDet*((m02*m21-m01*m22));
+		double t02=invDet*((m01*m12-m02*m11));
+		double t10=invDet*((m12*m20-m10*m22));
+		double t11=invDet*((m00*m22-m02*m20));
+		double t12=invDet*((m02*m10-m00*m12));
+		double t20=invDet*((m10*m21-m11*m20));
+		double t21=invDet*((m01*m20-m00*m21));
+		double t22=invDet*((m00*m11-m01*m10));
+		// inverse translation is -inv(M).t
+		double t03=-((t00*tr0)+(t01*tr1)+(t02*tr2));
+		double t13=-((t10*tr0)+(t11*tr1)+(t12*tr2));
+		double t23=-((t20*tr0)+(t21*tr1)+(t22*tr2));
+		dest.m00=t00; dest.m01=t01; dest.m02=t02; dest.tr0=t03;
+		dest.m10=t10; dest.m11=t11; dest.m12=t12; dest.tr1=t13;
+		dest.m20=t20; dest.m21=t21; dest.m22=t22; dest.tr2=t23;
+		return true;
 	}
 	
 	public void composeWith(Matrix33 a) {
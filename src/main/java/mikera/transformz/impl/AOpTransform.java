@@ -1,5 +1,6 @@
 package mikera.transformz.impl;
 
+import mikera.matrixx.AMatrix;
 import mikera.transformz.ATransform;
 import mikera.vectorz.AVector;
 import mikera.vectorz.Op;
@@ -29,6 +30,13 @@ public class AOpTransform extends ATransform  {
 		}
 	}
 	
+	@Override
+	public void transformAll(AMatrix sources, AMatrix dest) {
+		checkTransformAll(sources,dest);
+		dest.set(sources);
+		dest.applyOp(op);
+	}
+	
 	@Override
 	public double calculateElement(int i, AVector inputVector) {
 		return op.apply(inputVector.get(i));
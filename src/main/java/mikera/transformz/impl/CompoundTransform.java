@@ -1,20 +1,31 @@
 package mikera.transformz.impl;
 
+import java.util.ArrayList;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.transformz.AAffineTransform;
 import mikera.transformz.ATransform;
 import mikera.vectorz.AVector;
-import mikera.vectorz.Vectorz;
+import mikera.vectorz.impl.ArraySubVector;
+import mikera.vectorz.util.Workspace;
 
 /**
- * Class to represent a compound transform when it is not known how to 
+ * Class to represent a compound transform when it is not known how to
  * combine the transforms directly.
- * 
+ *
+ * A CompoundTransform always reflects the current state of its component transforms. Chains
+ * that will be applied many times can be converted with precompute(), which flattens nested
+ * compound transforms and collapses each run of adjacent affine stages into one affine
+ * transform.
+ *
  * @author Mike
  *
  */
 public class CompoundTransform extends ATransform {
 	private ATransform outer;
 	private ATransform inner;
-	
+
 	public CompoundTransform(ATransform outer, ATransform inner) {
 		if (inner.outputDimensions()!=outer.inputDimensions()) {
 			throw new IllegalArgumentException("Transform dimensionality not compatible");
@@ -27,24 +38,101 @@ public class CompoundTransform extends ATransform {
 	public boolean isLinear() {
 		return inner.isLinear()&&outer.isLinear();
 	}
-	
+
+	/**
+	 * Returns the flattened stages of this transform, in order of application, with each run of
+	 * adjacent affine stages collapsed into a newly computed affine transform
+	 */
+	public ATransform[] getStages() {
+		ArrayList<ATransform> al=new ArrayList<ATransform>();
+		addStages(al);
+		return al.toArray(new ATransform[al.size()]);
+	}
+
+	/**
+	 * Returns a new transform equivalent to this one, with nested compound transforms flattened
+	 * and adjacent affine stages collapsed, so that a chain of affine transforms costs a single
+	 * product per call.
+	 *
+	 * The result is a snapshot: collapsed stages are computed now, so later in-place changes to
+	 * affine components of this transform are not reflected in it.
+	 */
+	public ATransform precompute() {
+		ATransform[] s=getStages();
+		ATransform result=s[0];
+		for (int i=1; i<s.length; i++) {
+			result=new CompoundTransform(s[i],result);
+		}
+		return result;
+	}
+
+	private void addStages(ArrayList<ATransform> al) {
+		addStage(al,inner);
+		addStage(al,outer);
+	}
+
+	private static void addStage(ArrayList<ATransform> al, ATransform t) {
+		if (t instanceof CompoundTransform) {
+			((CompoundTransform)t).addStages(al);
+			return;
+		}
+		int n=al.size();
+		if ((n>0)&&(t instanceof AAffineTransform)) {
+			ATransform prev=al.get(n-1);
+			if (prev instanceof AAffineTransform) {
+				al.set(n-1, ((AAffineTransform)t).compose((AAffineTransform)prev));
+				return;
+			}
+		}
+		al.add(t);
+	}
+
 	@Override
 	public void transform(AVector source, AVector dest) {
-		AVector temp=Vectorz.newVector(inner.outputDimensions());
-		inner.transform(source,temp);
-		outer.transform(temp,dest);
+		// intermediate result is held in a workspace buffer
+		int dims=inner.outputDimensions();
+		double[] buffer=Workspace.acquireZeroed(dims);
+		inner.transform(source,ArraySubVector.wrap(buffer, 0, dims));
+		outer.transform(ArraySubVector.wrap(buffer, 0, dims),dest);
+		Workspace.release(buffer);
+	}
+
+	/**
+	 * Transforms all rows in one batch per stage. Affine stages are composed first, so a
+	 * chain of affine transforms costs a single matrix multiplication.
+	 */
+	@Override
+	public void transformAll(AMatrix sources, AMatrix dest) {
+		checkTransformAll(sources,dest);
+		if ((outer instanceof AAffineTransform)&&(inner instanceof AAffineTransform)) {
+			((AAffineTransform)outer).compose((AAffineTransform)inner).transformAll(sources,dest);
+			return;
+		}
+		Matrix temp=inner.transformAll(sources);
+		outer.transformAll(temp,dest);
 	}
 
 	@Override
 	public int inputDimensions() {
 		return inner.inputDimensions();
 	}
-	
+
 	@Override
 	public CompoundTransform compose(ATransform trans) {
 		return new CompoundTransform(outer,inner.compose(trans));
 	}
 
+	/**
+	 * Composes this transform with another transform, so that trans is applied first
+	 */
+	@Override
+	public void composeWith(ATransform trans) {
+		if (trans.outputDimensions()!=inputDimensions()) {
+			throw new IllegalArgumentException("Transform dimensionality not compatible");
+		}
+		inner=inner.compose(trans);
+	}
+
 	@Override
 	public int outputDimensions() {
 		return outer.outputDimensions();
@@ -10,6 +10,7 @@ import mikera.arrayz.Arrayz;
 import mikera.arrayz.INDArray;
 import mikera.arrayz.ISparse;
 import mikera.arrayz.impl.AbstractArray;
+import mikera.arrayz.impl.IDenseArray;
 import mikera.arrayz.impl.SliceArray;
 import mikera.indexz.Index;
 import mikera.matrixx.AMatrix;
@@ -20,6 +21,7 @@ import mikera.matrixx.impl.RowMatrix;
 import mikera.randomz.Hash;
 import mikera.util.Maths;
 import mikera.vectorz.impl.ADenseArrayVector;
+import mikera.vectorz.impl.ArraySubVector;
 import mikera.vectorz.impl.ASizedVector;
 import mikera.vectorz.impl.ImmutableVector;
 import mikera.vectorz.impl.IndexedSubVector;
@@ -32,7 +34,9 @@ import mikera.vectorz.impl.WrappedSubVector;
 import mikera.vectorz.ops.Logistic;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.Summation;
 import mikera.vectorz.util.VectorzException;
+import mikera.vectorz.util.Workspace;
 
 /**
  * Main abstract base class for all types of vector
@@ -782,13 +786,35 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		int rc=length();
 		int cc=a.length();
 		Matrix m=Matrix.create(rc, cc);
-		int di=0;
+		outerProductInto(a,m);
+		return m;
+	}
+	
+	/**
+	 * Computes the outer product of this vector with another vector, storing the result in the
+	 * destination matrix. The destination must have shape [this.length, a.length]
+	 */
+	public void outerProductInto(AVector a, AMatrix dest) {
+		int rc=length();
+		int cc=a.length();
+		if ((dest.rowCount()!=rc)||(dest.columnCount()!=cc)) {
+			throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(new int[] {rc,cc}, dest.getShape()));
+		}
+		if (dest instanceof Matrix) {
+			double[] data=((Matrix)dest).data;
+			for (int i=0; i<rc; i++) {
+				int di=i*cc;
+				a.copyTo(0, data, di, cc);
+				DoubleArrays.multiply(data, di, cc, unsafeGet(i));
+			}
+			return;
+		}
 		for (int i=0; i<rc; i++) {
+			double x=unsafeGet(i);
 			for (int j=0; j<cc; j++) {
-				m.data[di++]=unsafeGet(i)*a.unsafeGet(j);
+				dest.unsafeSet(i,j,x*a.unsafeGet(j));
 			}
 		}
-		return m;
 	}
 	
 	public INDArray outerProduct(INDArray a) {
@@ -810,14 +836,54 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 	}
 	
 	public AVector innerProduct(AMatrix m) {
+		Vector r=Vector.createLength(m.columnCount());
+		innerProductInto(m,r);
+		return r;
+	}
+	
+	/**
+	 * Computes the inner product of this vector with a matrix, storing the result in the
+	 * destination vector. If the destination is this vector, or shares its backing array with
+	 * this vector or the matrix, the result is computed in temporary storage and then copied.
+	 */
+	public void innerProductInto(AMatrix m, AVector dest) {
 		int cc=m.columnCount();
 		int rc=m.rowCount();
 		checkLength(rc);
-		Vector r=Vector.createLength(cc);
+		if (dest.length()!=cc) throw new IllegalArgumentException(ErrorMessages.wrongDestLength(dest));
+		if (sharesStorage(dest,m)) {
+			double[] temp=Workspace.acquire(cc);
+			innerProductInto(m,ArraySubVector.wrap(temp, 0, cc));
+			dest.setElements(temp,0);
+			Workspace.release(temp);
+			return;
+		}
+		if ((m instanceof Matrix)&&(dest instanceof ADenseArrayVector)) {
+			double[] mdata=((Matrix)m).data;
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			double[] data=d.getArray();
+			int offset=d.getArrayOffset();
+			Arrays.fill(data, offset, offset+cc, 0.0);
+			for (int i=0; i<rc; i++) {
+				DoubleArrays.addMultiple(data, offset, mdata, i*cc, cc, unsafeGet(i));
+			}
+			return;
+		}
 		for (int i=0; i<cc; i++) {
-			r.unsafeSet(i,this.dotProduct(m.getColumn(i)));
+			dest.unsafeSet(i,this.dotProduct(m.getColumn(i)));
 		}
-		return r;
+	}
+	
+	/**
+	 * Returns true if writing to the destination vector could overwrite elements of this vector
+	 * or of the matrix before they are read
+	 */
+	private boolean sharesStorage(AVector dest, AMatrix m) {
+		if (dest==this) return true;
+		if (!(dest instanceof ADenseArrayVector)) return false;
+		double[] data=((ADenseArrayVector)dest).getArray();
+		if ((this instanceof ADenseArrayVector)&&(((ADenseArrayVector)this).getArray()==data)) return true;
+		return (m instanceof Matrix)&&(((Matrix)m).data==data);
 	}
 	
 	public AVector innerProduct(AScalar s) {
@@ -868,6 +934,44 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		return total;
 	}
 	
+	/**
+	 * Returns the dot product of this vector with another vector, using the given summation
+	 * algorithm
+	 */
+	public double dotProduct(AVector v, Summation mode) {
+		if (mode==Summation.NAIVE) return dotProduct(v);
+		int len=checkSameLength(v);
+		boolean sparseThis=(this instanceof ISparse)&&!(this instanceof IDenseArray);
+		if (sparseThis||((v instanceof ISparse)&&!(v instanceof IDenseArray))) {
+			// only the non-zeros of the sparse operand can contribute
+			AVector s=sparseThis?this:v;
+			AVector o=sparseThis?v:this;
+			int[] ixs=s.nonZeroIndices();
+			int n=ixs.length;
+			double[] products=new double[n];
+			for (int i=0; i<n; i++) {
+				int ix=ixs[i];
+				products[i]=s.unsafeGet(ix)*o.unsafeGet(ix);
+			}
+			return mode.sum(products, 0, n);
+		}
+		double[] a, b;
+		int aOffset=0, bOffset=0;
+		if (this instanceof ADenseArrayVector) {
+			a=((ADenseArrayVector)this).getArray();
+			aOffset=((ADenseArrayVector)this).getArrayOffset();
+		} else {
+			a=toDoubleArray();
+		}
+		if (v instanceof ADenseArrayVector) {
+			b=((ADenseArrayVector)v).getArray();
+			bOffset=((ADenseArrayVector)v).getArrayOffset();
+		} else {
+			b=v.toDoubleArray();
+		}
+		return mode.dotProduct(a, aOffset, b, bOffset, len);
+	}
+	
 	/**
 	 * Returns the dot product of this vector with a target Vector.
 	 * 
@@ -1123,6 +1227,28 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		return result;
 	}
 	
+	/**
+	 * Returns the sum of all elements in a vector, using the given summation algorithm.
+	 * Only non-zero elements are visited for sparse vectors.
+	 */
+	@Override
+	public double elementSum(Summation mode) {
+		if ((mode!=Summation.NAIVE)&&(this instanceof ISparse)&&!(this instanceof IDenseArray)) {
+			double[] vs=nonZeroValues();
+			return mode.sum(vs, 0, vs.length);
+		}
+		return super.elementSum(mode);
+	}
+	
+	@Override
+	public double elementSquaredSum(Summation mode) {
+		if ((mode!=Summation.NAIVE)&&(this instanceof ISparse)&&!(this instanceof IDenseArray)) {
+			double[] vs=nonZeroValues();
+			return mode.squaredSum(vs, 0, vs.length);
+		}
+		return super.elementSquaredSum(mode);
+	}
+	
 	public double elementProduct() {
 		int len=length();
 		double result=1.0;
@@ -1524,6 +1650,56 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		return r;
 	}
 	
+	/**
+	 * Adds another vector to this vector, storing the result in the destination vector. The
+	 * destination may be the same vector as either operand, but should not otherwise overlap them.
+	 */
+	public void addInto(AVector a, AVector dest) {
+		int len=checkSameLength(a,dest);
+		if ((dest instanceof ADenseArrayVector)&&(dest!=a)) {
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			double[] data=d.getArray();
+			int offset=d.getArrayOffset();
+			if (dest!=this) copyTo(0, data, offset, len);
+			a.addToArray(0, data, offset, len);
+			return;
+		}
+		for (int i=0; i<len; i++) {
+			dest.unsafeSet(i, unsafeGet(i)+a.unsafeGet(i));
+		}
+	}
+	
+	/**
+	 * Subtracts another vector from this vector, storing the result in the destination vector. The
+	 * destination may be the same vector as either operand, but should not otherwise overlap them.
+	 */
+	public void subInto(AVector a, AVector dest) {
+		int len=checkSameLength(a,dest);
+		if ((dest instanceof ADenseArrayVector)&&(dest!=a)) {
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			double[] data=d.getArray();
+			int offset=d.getArrayOffset();
+			if (dest!=this) copyTo(0, data, offset, len);
+			a.addMultipleToArray(-1.0, 0, data, offset, len);
+			return;
+		}
+		for (int i=0; i<len; i++) {
+			dest.unsafeSet(i, unsafeGet(i)-a.unsafeGet(i));
+		}
+	}
+	
+	/**
+	 * Multiplies this vector elementwise by another vector, storing the result in the destination
+	 * vector. The destination may be the same vector as either operand, but should not otherwise
+	 * overlap them.
+	 */
+	public void multiplyInto(AVector a, AVector dest) {
+		int len=checkSameLength(a,dest);
+		for (int i=0; i<len; i++) {
+			dest.unsafeSet(i, unsafeGet(i)*a.unsafeGet(i));
+		}
+	}
+	
 	@Override
 	public void sub(INDArray a) {
 		if (a instanceof AVector) {
@@ -2046,6 +2222,25 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		return r;
 	}
 	
+	/**
+	 * Applies an operator to every element of this vector, storing the result in the destination
+	 * vector. The destination may be this vector.
+	 */
+	public void applyOpInto(Op op, AVector dest) {
+		int len=checkSameLength(dest);
+		if (dest instanceof ADenseArrayVector) {
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			double[] data=d.getArray();
+			int offset=d.getArrayOffset();
+			if (dest!=this) copyTo(0, data, offset, len);
+			op.applyTo(data, offset, len);
+			return;
+		}
+		for (int i=0; i<len; i++) {
+			dest.unsafeSet(i,op.apply(unsafeGet(i)));
+		}
+	}
+	
 	/**
 	 * Adds a value to a specific element of the vector
 	 * 
@@ -2243,6 +2438,25 @@ public abstract class AVector extends AbstractArray<Double> implements IVector,
 		return r;
 	}
 
+	/**
+	 * Multiplies this vector by a constant factor, storing the result in the destination vector.
+	 * The destination may be this vector.
+	 */
+	public void multiplyInto(double factor, AVector dest) {
+		int len=checkSameLength(dest);
+		if (dest instanceof ADenseArrayVector) {
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			double[] data=d.getArray();
+			int offset=d.getArrayOffset();
+			if (dest!=this) copyTo(0, data, offset, len);
+			DoubleArrays.multiply(data, offset, len, factor);
+			return;
+		}
+		for (int i=0; i<len; i++) {
+			dest.unsafeSet(i,unsafeGet(i)*factor);
+		}
+	}
+
 	@Override
 	public boolean hasUncountable() {
 		int len = length();
@@ -1,5 +1,7 @@
 package mikera.vectorz;
 
+import java.util.Arrays;
+
 import mikera.vectorz.impl.ABooleanVector;
 
 /**
@@ -54,6 +56,20 @@ public final class BitVector extends ABooleanVector {
 		return new BitVector(source);
 	}
 	
+	/**
+	 * Creates a BitVector that wraps an array of 64-bit words, with element i stored in bit (i%64)
+	 * of word (i/64). Bits beyond the length of the vector must be zero.
+	 */
+	public static BitVector wrap(long[] words, int length) {
+		if ((length<0)||(words.length!=((length+63)/64))) {
+			throw new IllegalArgumentException("Array of "+words.length+" words does not match BitVector length "+length);
+		}
+		if (((length&63)!=0)&&((words[words.length-1]>>>(length&63))!=0L)) {
+			throw new IllegalArgumentException("Bits set beyond end of BitVector");
+		}
+		return new BitVector(words,length);
+	}
+	
 	private final boolean getBit(int i) {
 		return (((data[i>>>6] >>> (i%64))&1L)!=0L);
 	}
@@ -120,41 +136,182 @@ public final class BitVector extends ABooleanVector {
 	@Override
 	public double dotProduct(double[] data, int offset) {
 		double result=0.0;
-		for (int i=0; i<this.data.length; i++) {
-			long mask=this.data[i];
-			for (int j=0; j<64; j++) {
-				if (mask==0) break;
-				if ((mask&1L)!=0L) result+=data[offset+j];
-				mask>>>=1;
+		long[] words=this.data;
+		for (int i=0; i<words.length; i++) {
+			long mask=words[i];
+			int base=offset+(i<<6);
+			while (mask!=0L) {
+				result+=data[base+Long.numberOfTrailingZeros(mask)];
+				mask&=mask-1; // clear lowest set bit
 			}
-			offset+=64;
 		}
 		return result;
 	}
 	
 	@Override
 	public double dotProduct(AVector v) {
+		if (v instanceof BitVector) return dotProduct((BitVector)v);
 		double result=0.0;
-		int offset=0;
+		long[] words=this.data;
+		for (int i=0; i<words.length; i++) {
+			long mask=words[i];
+			int base=i<<6;
+			while (mask!=0L) {
+				result+=v.unsafeGet(base+Long.numberOfTrailingZeros(mask));
+				mask&=mask-1;
+			}
+		}
+		return result;
+	}
+	
+	public double dotProduct(BitVector v) {
+		return intersectionCount(v);
+	}
+	
+	@Override
+	public double distanceSquared(AVector v) {
+		if (v instanceof BitVector) return hammingDistance((BitVector)v);
+		return super.distanceSquared(v);
+	}
+	
+	@Override
+	public int[] nonZeroIndices() {
+		int[] result=new int[(int)nonZeroCount()];
+		int pos=0;
 		for (int i=0; i<data.length; i++) {
-			long mask=this.data[i];
-			for (int j=0; j<64; j++) {
-				if (mask==0) break;
-				if ((mask&1L)!=0L) result+=v.unsafeGet(offset+j);
-				mask>>>=1;
+			long mask=data[i];
+			int base=i<<6;
+			while (mask!=0L) {
+				result[pos++]=base+Long.numberOfTrailingZeros(mask);
+				mask&=mask-1;
 			}
-			offset+=64;
 		}
 		return result;
 	}
 	
 	@Override
 	public void getElements(double[] data, int offset) {
-		int len = length();
-		for (int i=0; i<len; i++) {
-			data[i+offset]=unsafeGet(i);
+		Arrays.fill(data, offset, offset+length, BIT_OFF);
+		long[] words=this.data;
+		for (int i=0; i<words.length; i++) {
+			long mask=words[i];
+			int base=offset+(i<<6);
+			while (mask!=0L) {
+				data[base+Long.numberOfTrailingZeros(mask)]=BIT_ON;
+				mask&=mask-1;
+			}
+		}
+	}
+	
+	/**
+	 * Sets this vector to the bitwise AND (set intersection) of itself and another BitVector
+	 */
+	public void and(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		for (int i=0; i<data.length; i++) {
+			data[i]&=vdata[i];
+		}
+	}
+	
+	/**
+	 * Sets this vector to the bitwise OR (set union) of itself and another BitVector
+	 */
+	public void or(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		for (int i=0; i<data.length; i++) {
+			data[i]|=vdata[i];
+		}
+	}
+	
+	/**
+	 * Sets this vector to the bitwise XOR (symmetric difference) of itself and another BitVector
+	 */
+	public void xor(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		for (int i=0; i<data.length; i++) {
+			data[i]^=vdata[i];
 		}
 	}
+	
+	/**
+	 * Clears all bits of this vector that are set in another BitVector (set difference)
+	 */
+	public void andNot(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		for (int i=0; i<data.length; i++) {
+			data[i]&=~vdata[i];
+		}
+	}
+	
+	/**
+	 * Returns the number of bits set in both this and another BitVector
+	 */
+	public long intersectionCount(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		long result=0;
+		for (int i=0; i<data.length; i++) {
+			result+=Long.bitCount(data[i]&vdata[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the number of bits set in either this or another BitVector
+	 */
+	public long unionCount(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		long result=0;
+		for (int i=0; i<data.length; i++) {
+			result+=Long.bitCount(data[i]|vdata[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the Hamming distance to another BitVector, i.e. the number of positions at which
+	 * the bits differ
+	 */
+	public long hammingDistance(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		long result=0;
+		for (int i=0; i<data.length; i++) {
+			result+=Long.bitCount(data[i]^vdata[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the Jaccard similarity with another BitVector, i.e. the size of the intersection
+	 * divided by the size of the union of the two sets of bits. Two empty sets have similarity 1.0
+	 */
+	public double jaccardSimilarity(BitVector v) {
+		checkSameLength(v);
+		long[] vdata=v.data;
+		long intersection=0;
+		long union=0;
+		for (int i=0; i<data.length; i++) {
+			long a=data[i];
+			long b=vdata[i];
+			intersection+=Long.bitCount(a&b);
+			union+=Long.bitCount(a|b);
+		}
+		if (union==0) return 1.0;
+		return ((double)intersection)/union;
+	}
+	
+	/**
+	 * Returns the Jaccard distance to another BitVector, equal to 1.0 minus the Jaccard similarity
+	 */
+	public double jaccardDistance(BitVector v) {
+		return 1.0-jaccardSimilarity(v);
+	}
 
 	@Override
 	public void set(int i, double value) {
@@ -0,0 +1,236 @@
+package mikera.vectorz;
+
+import java.util.Arrays;
+
+import mikera.vectorz.impl.ADenseArrayVector;
+import mikera.vectorz.impl.ASizedVector;
+import mikera.vectorz.impl.Vector0;
+import mikera.vectorz.util.FloatArrays;
+
+/**
+ * Dense vector backed by a range of a float[] array.
+ *
+ * Elements are stored in single precision, halving memory use and bandwidth compared to a
+ * double vector. Values are rounded to the nearest float when set and read back as doubles.
+ * Dot products, sums and accumulation are computed in double precision.
+ *
+ * Intended for large memory-bound workloads such as embedding tables where float precision
+ * is sufficient.
+ *
+ * @author Mike
+ */
+public final class FloatVector extends ASizedVector {
+	private static final long serialVersionUID = -4153287474622350232L;
+
+	private final float[] data;
+	private final int offset;
+
+	private FloatVector(float[] data, int offset, int length) {
+		super(length);
+		this.data=data;
+		this.offset=offset;
+	}
+
+	public static FloatVector createLength(int length) {
+		return new FloatVector(new float[length],0,length);
+	}
+
+	public static FloatVector create(AVector source) {
+		int length=source.length();
+		FloatVector v=createLength(length);
+		v.set(source);
+		return v;
+	}
+
+	public static FloatVector of(double... values) {
+		int length=values.length;
+		float[] data=new float[length];
+		FloatArrays.copy(values, 0, data, 0, length);
+		return new FloatVector(data,0,length);
+	}
+
+	/**
+	 * Wraps a float array as a vector. Changes to the array are reflected in the vector
+	 */
+	public static FloatVector wrap(float[] data) {
+		return new FloatVector(data,0,data.length);
+	}
+
+	/**
+	 * Wraps a range of a float array as a vector. Changes to the array are reflected in the vector
+	 */
+	public static FloatVector wrap(float[] data, int offset, int length) {
+		if ((offset<0)||(length<0)||(offset+length>data.length)) {
+			throw new IndexOutOfBoundsException("Invalid range: offset="+offset+", length="+length+" for array of length "+data.length);
+		}
+		return new FloatVector(data,offset,length);
+	}
+
+	public float[] getArray() {
+		return data;
+	}
+
+	public int getArrayOffset() {
+		return offset;
+	}
+
+	@Override
+	public double get(int i) {
+		checkIndex(i);
+		return data[offset+i];
+	}
+
+	@Override
+	public double unsafeGet(int i) {
+		return data[offset+i];
+	}
+
+	@Override
+	public void set(int i, double value) {
+		checkIndex(i);
+		data[offset+i]=(float)value;
+	}
+
+	@Override
+	public void unsafeSet(int i, double value) {
+		data[offset+i]=(float)value;
+	}
+
+	@Override
+	public void addAt(int i, double value) {
+		data[offset+i]+=value;
+	}
+
+	@Override
+	public void set(AVector src) {
+		checkSameLength(src);
+		if (src instanceof FloatVector) {
+			FloatVector v=(FloatVector)src;
+			System.arraycopy(v.data, v.offset, data, offset, length);
+		} else if (src instanceof ADenseArrayVector) {
+			ADenseArrayVector v=(ADenseArrayVector)src;
+			FloatArrays.copy(v.getArray(), v.getArrayOffset(), data, offset, length);
+		} else {
+			for (int i=0; i<length; i++) {
+				data[offset+i]=(float)src.unsafeGet(i);
+			}
+		}
+	}
+
+	@Override
+	public void fill(double value) {
+		Arrays.fill(data, offset, offset+length, (float)value);
+	}
+
+	@Override
+	public void getElements(double[] dest, int destOffset) {
+		FloatArrays.copy(data, offset, dest, destOffset, length);
+	}
+
+	@Override
+	public double dotProduct(double[] data, int offset) {
+		return FloatArrays.dotProduct(this.data, this.offset, data, offset, length);
+	}
+
+	@Override
+	public double dotProduct(AVector v) {
+		if (v instanceof FloatVector) return dotProduct((FloatVector)v);
+		checkSameLength(v);
+		if (v instanceof ADenseArrayVector) {
+			ADenseArrayVector dv=(ADenseArrayVector)v;
+			return FloatArrays.dotProduct(data, offset, dv.getArray(), dv.getArrayOffset(), length);
+		}
+		double result=0.0;
+		for (int i=0; i<length; i++) {
+			result+=data[offset+i]*v.unsafeGet(i);
+		}
+		return result;
+	}
+
+	public double dotProduct(FloatVector v) {
+		checkSameLength(v);
+		return FloatArrays.dotProduct(data, offset, v.data, v.offset, length);
+	}
+
+	@Override
+	public double elementSum() {
+		return FloatArrays.elementSum(data, offset, length);
+	}
+
+	@Override
+	public double magnitudeSquared() {
+		return FloatArrays.elementSquaredSum(data, offset, length);
+	}
+
+	@Override
+	public boolean isZero() {
+		return FloatArrays.isZero(data, offset, length);
+	}
+
+	@Override
+	public void multiply(double factor) {
+		FloatArrays.multiply(data, offset, length, factor);
+	}
+
+	@Override
+	public void add(AVector v) {
+		if (v instanceof FloatVector) {
+			checkSameLength(v);
+			FloatVector fv=(FloatVector)v;
+			FloatArrays.add(fv.data, fv.offset, data, offset, length);
+			return;
+		}
+		super.add(v);
+	}
+
+	@Override
+	public void addMultiple(AVector v, double factor) {
+		checkSameLength(v);
+		if (v instanceof FloatVector) {
+			FloatVector fv=(FloatVector)v;
+			FloatArrays.addMultiple(data, offset, fv.data, fv.offset, length, factor);
+		} else if (v instanceof ADenseArrayVector) {
+			ADenseArrayVector dv=(ADenseArrayVector)v;
+			FloatArrays.addMultiple(data, offset, dv.getArray(), dv.getArrayOffset(), length, factor);
+		} else {
+			for (int i=0; i<length; i++) {
+				data[offset+i]+=v.unsafeGet(i)*factor;
+			}
+		}
+	}
+
+	@Override
+	public AVector subVector(int offset, int length) {
+		int len=checkRange(offset,length);
+		if (length==0) return Vector0.INSTANCE;
+		if (length==len) return this;
+		return new FloatVector(data,this.offset+offset,length);
+	}
+
+	@Override
+	public boolean isView() {
+		return (offset!=0)||(length!=data.length);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public boolean isElementConstrained() {
+		// elements are rounded to float precision
+		return true;
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return false;
+	}
+
+	@Override
+	public FloatVector exactClone() {
+		float[] newData=Arrays.copyOfRange(data, offset, offset+length);
+		return new FloatVector(newData,0,length);
+	}
+}
@@ -19,7 +19,11 @@ import mikera.vectorz.ops.Sum;
  */
 public abstract class Op implements IOperator {
 	
-	
+	/**
+	 * Number of elements processed at a time when applying compound ops to arrays. Blocks are
+	 * small enough that every component op can be applied while the block remains in cache.
+	 */
+	protected static final int APPLY_BLOCK_SIZE=256;
 
 	public abstract double apply(double x);
 	
@@ -90,6 +94,15 @@ public abstract class Op implements IOperator {
 		applyTo(data,0,data.length);
 	}
 	
+	/**
+	 * Applies this op to a range of source elements, storing the results in a destination array.
+	 * The source array is not modified.
+	 */
+	public void applyTo(double[] src, int srcOffset, double[] dest, int destOffset, int length) {
+		System.arraycopy(src, srcOffset, dest, destOffset, length);
+		applyTo(dest,destOffset,length);
+	}
+	
 	@Override
 	public ATransform getTransform(int dims) {
 		return new AOpTransform(this,dims);
@@ -7,6 +7,11 @@ import mikera.vectorz.ops.Absolute;
 import mikera.vectorz.ops.Clamp;
 import mikera.vectorz.ops.Cosh;
 import mikera.vectorz.ops.Exp;
+import mikera.vectorz.ops.FastExp;
+import mikera.vectorz.ops.FastLog;
+import mikera.vectorz.ops.FastLogistic;
+import mikera.vectorz.ops.FastSoftPlus;
+import mikera.vectorz.ops.FastTanh;
 import mikera.vectorz.ops.Identity;
 import mikera.vectorz.ops.Linear;
 import mikera.vectorz.ops.Log;
@@ -56,6 +61,13 @@ public final class Ops {
 
 	public static final Op RECIPROCAL = Reciprocal.INSTANCE;
 
+	// fast approximations, see the individual classes for error bounds
+	public static final Op FAST_EXP = FastExp.INSTANCE;
+	public static final Op FAST_LOG = FastLog.INSTANCE;
+	public static final Op FAST_TANH = FastTanh.INSTANCE;
+	public static final Op FAST_LOGISTIC = FastLogistic.INSTANCE;
+	public static final Op FAST_SOFTPLUS = FastSoftPlus.INSTANCE;
+
 	public static final ARoundingOp CEIL = new ARoundingOp() {
 		@Override
 		public double apply(double x) {
@@ -0,0 +1,378 @@
+package mikera.vectorz;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix33;
+import mikera.matrixx.impl.ARectangularMatrix;
+import mikera.matrixx.impl.IFastColumns;
+import mikera.transformz.Affine34;
+import mikera.vectorz.util.DoubleArrays;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * Packed buffer of 3D points, stored in structure-of-arrays form as separate x, y and z arrays.
+ *
+ * Behaves as an N*3 matrix where each row is a point. Bulk transform, rotation, bounds and
+ * distance operations run as tight loops over the primitive arrays, avoiding the per-point
+ * object overhead of Vector3 instances.
+ *
+ * Range variants of the bulk operations touch only the given points, so disjoint ranges may
+ * be processed concurrently by separate threads.
+ *
+ * @author Mike
+ */
+public final class PointCloud3 extends ARectangularMatrix implements IFastColumns {
+	private static final long serialVersionUID = -3402586214523985166L;
+
+	private final double[] xs;
+	private final double[] ys;
+	private final double[] zs;
+
+	private PointCloud3(double[] xs, double[] ys, double[] zs) {
+		super(xs.length,3);
+		this.xs=xs;
+		this.ys=ys;
+		this.zs=zs;
+	}
+
+	/**
+	 * Creates a zero-initialised point cloud with the given number of points
+	 */
+	public static PointCloud3 create(int count) {
+		return new PointCloud3(new double[count],new double[count],new double[count]);
+	}
+
+	/**
+	 * Wraps coordinate arrays as a point cloud. The arrays must have equal length.
+	 */
+	public static PointCloud3 wrap(double[] xs, double[] ys, double[] zs) {
+		int n=xs.length;
+		if ((ys.length!=n)||(zs.length!=n)) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(new int[] {n}, new int[] {ys.length,zs.length}));
+		return new PointCloud3(xs,ys,zs);
+	}
+
+	public static PointCloud3 create(Vector3... points) {
+		int n=points.length;
+		PointCloud3 r=create(n);
+		for (int i=0; i<n; i++) {
+			r.setPoint(i, points[i]);
+		}
+		return r;
+	}
+
+	/**
+	 * Creates a point cloud from an N*3 matrix, with one point per row
+	 */
+	public static PointCloud3 create(AMatrix m) {
+		if (m.columnCount()!=3) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(m.getShape(), new int[] {m.rowCount(),3}));
+		int n=m.rowCount();
+		PointCloud3 r=create(n);
+		m.copyColumnTo(0, r.xs, 0);
+		m.copyColumnTo(1, r.ys, 0);
+		m.copyColumnTo(2, r.zs, 0);
+		return r;
+	}
+
+	public int pointCount() {
+		return rows;
+	}
+
+	public double[] getXArray() {
+		return xs;
+	}
+
+	public double[] getYArray() {
+		return ys;
+	}
+
+	public double[] getZArray() {
+		return zs;
+	}
+
+	public Vector3 getPoint(int i) {
+		return new Vector3(xs[i],ys[i],zs[i]);
+	}
+
+	public void getPoint(int i, Vector3 dest) {
+		dest.x=xs[i];
+		dest.y=ys[i];
+		dest.z=zs[i];
+	}
+
+	public void setPoint(int i, double x, double y, double z) {
+		xs[i]=x;
+		ys[i]=y;
+		zs[i]=z;
+	}
+
+	public void setPoint(int i, Vector3 v) {
+		setPoint(i,v.x,v.y,v.z);
+	}
+
+	private void checkRange(int start, int length) {
+		if ((start<0)||(length<0)||(start+length>rows)) {
+			throw new IndexOutOfBoundsException(ErrorMessages.invalidRange(getColumnView(0), start, length));
+		}
+	}
+
+	private void checkDest(PointCloud3 dest) {
+		if (dest.rows!=rows) throw new IllegalArgumentException(ErrorMessages.mismatch(this, dest));
+	}
+
+	/**
+	 * Applies an affine transformation to all points in place
+	 */
+	public void transform(Affine34 t) {
+		transform(t,this,0,rows);
+	}
+
+	/**
+	 * Applies an affine transformation to all points, storing the results in dest
+	 */
+	public void transform(Affine34 t, PointCloud3 dest) {
+		checkDest(dest);
+		transform(t,dest,0,rows);
+	}
+
+	/**
+	 * Applies an affine transformation in place to the points in the given range
+	 */
+	public void transform(Affine34 t, int start, int length) {
+		checkRange(start,length);
+		transform(t,this,start,length);
+	}
+
+	private void transform(Affine34 t, PointCloud3 dest, int start, int length) {
+		affine(t.m00,t.m01,t.m02,t.tr0,t.m10,t.m11,t.m12,t.tr1,t.m20,t.m21,t.m22,t.tr2,dest,start,start+length);
+	}
+
+	/**
+	 * Multiplies all points in place by a 3x3 matrix
+	 */
+	public void transform(Matrix33 m) {
+		transform(m,this,0,rows);
+	}
+
+	/**
+	 * Multiplies all points by a 3x3 matrix, storing the results in dest
+	 */
+	public void transform(Matrix33 m, PointCloud3 dest) {
+		checkDest(dest);
+		transform(m,dest,0,rows);
+	}
+
+	/**
+	 * Multiplies the points in the given range in place by a 3x3 matrix
+	 */
+	public void transform(Matrix33 m, int start, int length) {
+		checkRange(start,length);
+		transform(m,this,start,length);
+	}
+
+	private void transform(Matrix33 m, PointCloud3 dest, int start, int length) {
+		affine(m.m00,m.m01,m.m02,0.0,m.m10,m.m11,m.m12,0.0,m.m20,m.m21,m.m22,0.0,dest,start,start+length);
+	}
+
+	void affine(double m00, double m01, double m02, double tr0,
+			            double m10, double m11, double m12, double tr1,
+			            double m20, double m21, double m22, double tr2,
+			            PointCloud3 dest, int start, int end) {
+		double[] dx=dest.xs, dy=dest.ys, dz=dest.zs;
+		for (int i=start; i<end; i++) {
+			double x=xs[i], y=ys[i], z=zs[i];
+			dx[i]=(m00*x)+(m01*y)+(m02*z)+tr0;
+			dy[i]=(m10*x)+(m11*y)+(m12*z)+tr1;
+			dz[i]=(m20*x)+(m21*y)+(m22*z)+tr2;
+		}
+	}
+
+	/**
+	 * Transforms all points in place as normal vectors, applying the linear part of the
+	 * transformation and normalising the result
+	 */
+	public void transformNormals(Affine34 t) {
+		transformNormals(t,0,rows);
+	}
+
+	/**
+	 * Transforms the points in the given range in place as normal vectors
+	 */
+	public void transformNormals(Affine34 t, int start, int length) {
+		checkRange(start,length);
+		double m00=t.m00, m01=t.m01, m02=t.m02;
+		double m10=t.m10, m11=t.m11, m12=t.m12;
+		double m20=t.m20, m21=t.m21, m22=t.m22;
+		int end=start+length;
+		for (int i=start; i<end; i++) {
+			double x=xs[i], y=ys[i], z=zs[i];
+			double tx=(m00*x)+(m01*y)+(m02*z);
+			double ty=(m10*x)+(m11*y)+(m12*z);
+			double tz=(m20*x)+(m21*y)+(m22*z);
+			double d=(tx*tx)+(ty*ty)+(tz*tz);
+			if (d>0) {
+				double s=1.0/Math.sqrt(d);
+				tx*=s; ty*=s; tz*=s;
+			}
+			xs[i]=tx;
+			ys[i]=ty;
+			zs[i]=tz;
+		}
+	}
+
+	/**
+	 * Rotates all points in place by the rotation represented by a quaternion
+	 *
+	 * @param q Quaternion, which need not be normalised
+	 */
+	public void rotate(Vector4 q) {
+		transform(Quaternions.toRotationMatrix(q));
+	}
+
+	/**
+	 * Translates all points in place
+	 */
+	public void translate(double dx, double dy, double dz) {
+		DoubleArrays.add(xs, dx);
+		DoubleArrays.add(ys, dy);
+		DoubleArrays.add(zs, dz);
+	}
+
+	/**
+	 * Computes the mean position of all points
+	 */
+	public Vector3 centroid() {
+		int n=rows;
+		if (n==0) return new Vector3();
+		double s=1.0/n;
+		return new Vector3(DoubleArrays.elementSum(xs)*s, DoubleArrays.elementSum(ys)*s, DoubleArrays.elementSum(zs)*s);
+	}
+
+	/**
+	 * Computes the axis-aligned bounding box of all points in a single pass
+	 *
+	 * @param min Set to the minimum coordinates
+	 * @param max Set to the maximum coordinates
+	 */
+	public void getBounds(Vector3 min, Vector3 max) {
+		int n=rows;
+		if (n==0) throw new IllegalArgumentException(ErrorMessages.insufficientElements(0));
+		double x0=xs[0], x1=x0, y0=ys[0], y1=y0, z0=zs[0], z1=z0;
+		for (int i=1; i<n; i++) {
+			double x=xs[i], y=ys[i], z=zs[i];
+			if (x<x0) x0=x; else if (x>x1) x1=x;
+			if (y<y0) y0=y; else if (y>y1) y1=y;
+			if (z<z0) z0=z; else if (z>z1) z1=z;
+		}
+		min.setValues(x0, y0, z0);
+		max.setValues(x1, y1, z1);
+	}
+
+	/**
+	 * Computes the squared distance from a given point to each point in this cloud
+	 *
+	 * @param p Reference point
+	 * @param dest Destination array for the squared distances
+	 * @param offset Offset into the destination array
+	 */
+	public void distancesSquared(Vector3 p, double[] dest, int offset) {
+		double px=p.x, py=p.y, pz=p.z;
+		int n=rows;
+		for (int i=0; i<n; i++) {
+			double dx=xs[i]-px, dy=ys[i]-py, dz=zs[i]-pz;
+			dest[offset+i]=(dx*dx)+(dy*dy)+(dz*dz);
+		}
+	}
+
+	/**
+	 * Returns a vector containing the distance from a given point to each point in this cloud
+	 */
+	public Vector distances(Vector3 p) {
+		double[] ds=new double[rows];
+		distancesSquared(p,ds,0);
+		for (int i=0; i<ds.length; i++) {
+			ds[i]=Math.sqrt(ds[i]);
+		}
+		return Vector.wrap(ds);
+	}
+
+	/**
+	 * Returns the index of the point closest to a given point, or -1 if the cloud is empty
+	 */
+	public int nearestIndex(Vector3 p) {
+		double px=p.x, py=p.y, pz=p.z;
+		int n=rows;
+		int best=-1;
+		double bestDist=Double.POSITIVE_INFINITY;
+		for (int i=0; i<n; i++) {
+			double dx=xs[i]-px, dy=ys[i]-py, dz=zs[i]-pz;
+			double d=(dx*dx)+(dy*dy)+(dz*dz);
+			if (d<bestDist) {
+				bestDist=d;
+				best=i;
+			}
+		}
+		return best;
+	}
+
+	private double[] array(int column) {
+		switch (column) {
+			case 0: return xs;
+			case 1: return ys;
+			case 2: return zs;
+			default: throw new IndexOutOfBoundsException(ErrorMessages.invalidSlice(this, 1, column));
+		}
+	}
+
+	@Override
+	public double get(int row, int column) {
+		if ((row<0)||(row>=rows)) throw new IndexOutOfBoundsException(ErrorMessages.position(row,column));
+		return array(column)[row];
+	}
+
+	@Override
+	public void set(int row, int column, double value) {
+		if ((row<0)||(row>=rows)) throw new IndexOutOfBoundsException(ErrorMessages.position(row,column));
+		array(column)[row]=value;
+	}
+
+	@Override
+	public double unsafeGet(int row, int column) {
+		return array(column)[row];
+	}
+
+	@Override
+	public void unsafeSet(int row, int column, double value) {
+		array(column)[row]=value;
+	}
+
+	@Override
+	public Vector getColumnView(int column) {
+		return Vector.wrap(array(column));
+	}
+
+	@Override
+	public void copyColumnTo(int col, double[] dest, int destOffset) {
+		System.arraycopy(array(col), 0, dest, destOffset, rows);
+	}
+
+	@Override
+	public void copyRowTo(int row, double[] dest, int destOffset) {
+		dest[destOffset]=xs[row];
+		dest[destOffset+1]=ys[row];
+		dest[destOffset+2]=zs[row];
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return true;
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public PointCloud3 exactClone() {
+		return new PointCloud3(xs.clone(),ys.clone(),zs.clone());
+	}
+}
@@ -0,0 +1,456 @@
+package mikera.vectorz;
+
+import java.nio.DoubleBuffer;
+
+import mikera.matrixx.Matrix33;
+import mikera.transformz.Affine34;
+import mikera.vectorz.impl.APrimitiveVector;
+import mikera.vectorz.util.ErrorMessages;
+
+/**
+ * Mutable quaternion, represented as the (x,y,z,t) tuple x.i + y.j + z.k + t
+ *
+ * Uses the same element layout as the Vector4 instances used by Quaternions. All operations
+ * update this quaternion or a supplied destination in place, so they can be used in inner
+ * loops without allocation.
+ *
+ * Rotations follow the standard convention q.v.q*, where a unit quaternion with angle a about
+ * a unit axis u is (u.sin(a/2), cos(a/2)). Rotation methods do not require the quaternion to
+ * be normalised.
+ *
+ * @author Mike
+ */
+public final class Quaternion extends APrimitiveVector {
+	private static final long serialVersionUID = 4352856291390633470L;
+
+	// threshold above which slerp falls back to normalised linear interpolation
+	private static final double SLERP_LINEAR_THRESHOLD=0.9995;
+
+	public double x;
+	public double y;
+	public double z;
+	public double t;
+
+	/**
+	 * Creates a new identity quaternion
+	 */
+	public Quaternion() {
+		this.t=1.0;
+	}
+
+	public Quaternion(double x, double y, double z, double t) {
+		this.x=x;
+		this.y=y;
+		this.z=z;
+		this.t=t;
+	}
+
+	public Quaternion(Quaternion q) {
+		this(q.x,q.y,q.z,q.t);
+	}
+
+	public Quaternion(Vector4 q) {
+		this(q.x,q.y,q.z,q.t);
+	}
+
+	public static Quaternion of(double x, double y, double z, double t) {
+		return new Quaternion(x,y,z,t);
+	}
+
+	/**
+	 * Creates a unit quaternion representing a rotation by the given angle around an axis
+	 *
+	 * @param axis Axis vector, which need not be normalised
+	 * @param angle Angle in radians
+	 */
+	public static Quaternion createAxisAngle(Vector3 axis, double angle) {
+		Quaternion q=new Quaternion();
+		q.setAxisAngle(axis.x, axis.y, axis.z, angle);
+		return q;
+	}
+
+	/**
+	 * Creates a quaternion representing the rotation part of a rotation matrix
+	 */
+	public static Quaternion create(Matrix33 m) {
+		Quaternion q=new Quaternion();
+		q.setRotation(m);
+		return q;
+	}
+
+	// =====================================================
+	// In-place operations
+
+	public void setIdentity() {
+		setValues(0,0,0,1);
+	}
+
+	public void setValues(double x, double y, double z, double t) {
+		this.x=x;
+		this.y=y;
+		this.z=z;
+		this.t=t;
+	}
+
+	public void set(Quaternion q) {
+		setValues(q.x,q.y,q.z,q.t);
+	}
+
+	/**
+	 * Sets this quaternion to a rotation by the given angle around an axis. The axis need not be normalised.
+	 */
+	public void setAxisAngle(double ax, double ay, double az, double angle) {
+		double d=Math.sqrt((ax*ax)+(ay*ay)+(az*az));
+		if (d==0.0) {
+			setIdentity();
+			return;
+		}
+		double ha=0.5*angle;
+		double s=Math.sin(ha)/d;
+		setValues(ax*s,ay*s,az*s,Math.cos(ha));
+	}
+
+	/**
+	 * Multiplies this quaternion by another quaternion on the right, i.e. this = this * b
+	 */
+	public void mul(Quaternion b) {
+		setProduct(this,b);
+	}
+
+	/**
+	 * Multiplies this quaternion by another quaternion on the left, i.e. this = a * this
+	 */
+	public void preMul(Quaternion a) {
+		setProduct(a,this);
+	}
+
+	/**
+	 * Sets this quaternion to the product a * b. Either argument may be this quaternion.
+	 */
+	public void setProduct(Quaternion a, Quaternion b) {
+		double rt=(a.t*b.t)-(a.x*b.x)-(a.y*b.y)-(a.z*b.z);
+		double rx=(a.t*b.x)+(a.x*b.t)+(a.y*b.z)-(a.z*b.y);
+		double ry=(a.t*b.y)-(a.x*b.z)+(a.y*b.t)+(a.z*b.x);
+		double rz=(a.t*b.z)+(a.x*b.y)-(a.y*b.x)+(a.z*b.t);
+		setValues(rx,ry,rz,rt);
+	}
+
+	/**
+	 * Conjugates this quaternion in place
+	 */
+	public void conjugate() {
+		x=-x;
+		y=-y;
+		z=-z;
+	}
+
+	/**
+	 * Inverts this quaternion in place
+	 */
+	public void invert() {
+		double ff=1.0/magnitudeSquared();
+		setValues(-x*ff,-y*ff,-z*ff,t*ff);
+	}
+
+	@Override
+	public double magnitudeSquared() {
+		return (x*x)+(y*y)+(z*z)+(t*t);
+	}
+
+	/**
+	 * Normalises this quaternion to unit length, returning the previous magnitude.
+	 * A zero quaternion is set to the identity.
+	 */
+	@Override
+	public double normalise() {
+		double d=Math.sqrt(magnitudeSquared());
+		if (d>0.0) {
+			double s=1.0/d;
+			x*=s; y*=s; z*=s; t*=s;
+		} else {
+			setIdentity();
+		}
+		return d;
+	}
+
+	public double dotProduct(Quaternion q) {
+		return (x*q.x)+(y*q.y)+(z*q.z)+(t*q.t);
+	}
+
+	@Override
+	public double dotProduct(double[] data, int offset) {
+		return (x*data[offset])+(y*data[offset+1])+(z*data[offset+2])+(t*data[offset+3]);
+	}
+
+	// =====================================================
+	// Rotation
+
+	/**
+	 * Rotates a vector in place
+	 */
+	public void rotateInPlace(Vector3 v) {
+		rotate(v,v);
+	}
+
+	/**
+	 * Rotates a source vector, storing the result in dest. Source and destination may be the same vector.
+	 * 
+	 * As with toRotationMatrix, a zero quaternion leaves the vector unchanged.
+	 */
+	public void rotate(Vector3 source, Vector3 dest) {
+		rotate(x,y,z,t,source,dest);
+	}
+
+	/**
+	 * Rotates a source vector by the quaternion (x,y,z,t), storing the result in dest. Shared
+	 * with Quaternions so that both use the same formula.
+	 */
+	static void rotate(double x, double y, double z, double t, Vector3 source, Vector3 dest) {
+		double dd=(x*x)+(y*y)+(z*z)+(t*t);
+		double s=(dd>0.0)?2.0/dd:0.0;
+		double vx=source.x, vy=source.y, vz=source.z;
+		// c = q x v
+		double cx=(y*vz)-(z*vy);
+		double cy=(z*vx)-(x*vz);
+		double cz=(x*vy)-(y*vx);
+		// v' = v + s.t.(q x v) + s.q x (q x v)
+		dest.x=vx+s*((t*cx)+(y*cz)-(z*cy));
+		dest.y=vy+s*((t*cy)+(z*cx)-(x*cz));
+		dest.z=vz+s*((t*cz)+(x*cy)-(y*cx));
+	}
+
+	/**
+	 * Rotates all points in a point cloud in place
+	 */
+	public void rotate(PointCloud3 points) {
+		storeRotation(null,null,points);
+	}
+
+	// =====================================================
+	// Conversions
+
+	/**
+	 * Stores the equivalent rotation matrix in the given Matrix33. A zero quaternion gives the
+	 * identity matrix.
+	 */
+	public void toRotationMatrix(Matrix33 dest) {
+		storeRotation(dest,null,null);
+	}
+
+	/**
+	 * Stores the equivalent rotation in the matrix part of the given Affine34. The translation
+	 * part is left unchanged.
+	 */
+	public void toRotationMatrix(Affine34 dest) {
+		storeRotation(null,dest,null);
+	}
+
+	public Matrix33 toRotationMatrix() {
+		Matrix33 m=new Matrix33();
+		toRotationMatrix(m);
+		return m;
+	}
+
+	/**
+	 * Computes the rotation matrix coefficients and stores them in the first non-null
+	 * destination: a Matrix33, the matrix part of an Affine34, or a point cloud to be
+	 * rotated in place. A zero quaternion gives the identity.
+	 */
+	private void storeRotation(Matrix33 m, Affine34 a, PointCloud3 points) {
+		double dd=magnitudeSquared();
+		double s=(dd>0.0)?2.0/dd:0.0;
+		double xx=x*x*s, yy=y*y*s, zz=z*z*s;
+		double xy=x*y*s, xz=x*z*s, yz=y*z*s;
+		double tx=t*x*s, ty=t*y*s, tz=t*z*s;
+		double m00=1.0-(yy+zz), m01=xy-tz,       m02=xz+ty;
+		double m10=xy+tz,       m11=1.0-(xx+zz), m12=yz-tx;
+		double m20=xz-ty,       m21=yz+tx,       m22=1.0-(xx+yy);
+		if (m!=null) {
+			m.m00=m00; m.m01=m01; m.m02=m02;
+			m.m10=m10; m.m11=m11; m.m12=m12;
+			m.m20=m20; m.m21=m21; m.m22=m22;
+		} else if (a!=null) {
+			a.m00=m00; a.m01=m01; a.m02=m02;
+			a.m10=m10; a.m11=m11; a.m12=m12;
+			a.m20=m20; a.m21=m21; a.m22=m22;
+		} else {
+			points.affine(m00,m01,m02,0.0,m10,m11,m12,0.0,m20,m21,m22,0.0,points,0,points.pointCount());
+		}
+	}
+
+	/**
+	 * Sets this quaternion to the unit quaternion representing a rotation matrix
+	 */
+	public void setRotation(Matrix33 m) {
+		setRotation(m.m00,m.m01,m.m02,m.m10,m.m11,m.m12,m.m20,m.m21,m.m22);
+	}
+
+	/**
+	 * Sets this quaternion to the unit quaternion representing the matrix part of an affine
+	 * transform, which must be a rotation
+	 */
+	public void setRotation(Affine34 a) {
+		setRotation(a.m00,a.m01,a.m02,a.m10,a.m11,a.m12,a.m20,a.m21,a.m22);
+	}
+
+	private void setRotation(double m00, double m01, double m02,
+			                 double m10, double m11, double m12,
+			                 double m20, double m21, double m22) {
+		double trace=m00+m11+m22;
+		if (trace>0.0) {
+			double s=0.5/Math.sqrt(trace+1.0);
+			setValues((m21-m12)*s,(m02-m20)*s,(m10-m01)*s,0.25/s);
+		} else if ((m00>m11)&&(m00>m22)) {
+			double s=0.5/Math.sqrt(1.0+m00-m11-m22);
+			setValues(0.25/s,(m01+m10)*s,(m02+m20)*s,(m21-m12)*s);
+		} else if (m11>m22) {
+			double s=0.5/Math.sqrt(1.0+m11-m00-m22);
+			setValues((m01+m10)*s,0.25/s,(m12+m21)*s,(m02-m20)*s);
+		} else {
+			double s=0.5/Math.sqrt(1.0+m22-m00-m11);
+			setValues((m02+m20)*s,(m12+m21)*s,0.25/s,(m10-m01)*s);
+		}
+	}
+
+	// =====================================================
+	// Interpolation
+
+	/**
+	 * Sets this quaternion to the spherical linear interpolation between two unit quaternions,
+	 * following the shortest path
+	 *
+	 * @param a Start quaternion, returned for alpha=0
+	 * @param b End quaternion, returned for alpha=1
+	 * @param alpha Interpolation parameter
+	 */
+	public void slerp(Quaternion a, Quaternion b, double alpha) {
+		setSlerp(a.x,a.y,a.z,a.t,b.x,b.y,b.z,b.t,alpha);
+	}
+
+	/**
+	 * Sets this quaternion to the normalised linear interpolation between two unit quaternions,
+	 * following the shortest path. Cheaper than slerp, but does not have constant angular velocity.
+	 */
+	public void nlerp(Quaternion a, Quaternion b, double alpha) {
+		setNlerp(a.x,a.y,a.z,a.t,b.x,b.y,b.z,b.t,alpha);
+	}
+
+	void setSlerp(double ax, double ay, double az, double at,
+			      double bx, double by, double bz, double bt, double alpha) {
+		double d=(ax*bx)+(ay*by)+(az*bz)+(at*bt);
+		if (d<0.0) {
+			d=-d;
+			bx=-bx; by=-by; bz=-bz; bt=-bt;
+		}
+		if (d>SLERP_LINEAR_THRESHOLD) {
+			setNlerp(ax,ay,az,at,bx,by,bz,bt,alpha);
+			return;
+		}
+		double theta=Math.acos(d);
+		double s=1.0/Math.sin(theta);
+		double wa=Math.sin((1.0-alpha)*theta)*s;
+		double wb=Math.sin(alpha*theta)*s;
+		setValues((wa*ax)+(wb*bx),(wa*ay)+(wb*by),(wa*az)+(wb*bz),(wa*at)+(wb*bt));
+	}
+
+	void setNlerp(double ax, double ay, double az, double at,
+			      double bx, double by, double bz, double bt, double alpha) {
+		double wb=(((ax*bx)+(ay*by)+(az*bz)+(at*bt))<0.0)?-alpha:alpha;
+		double wa=1.0-alpha;
+		setValues((wa*ax)+(wb*bx),(wa*ay)+(wb*by),(wa*az)+(wb*bz),(wa*at)+(wb*bt));
+		normalise();
+	}
+
+	// =====================================================
+	// Vector implementation
+
+	@Override
+	public int length() {
+		return 4;
+	}
+
+	@Override
+	public double get(int i) {
+		switch (i) {
+		case 0: return x;
+		case 1: return y;
+		case 2: return z;
+		case 3: return t;
+		default: throw new IndexOutOfBoundsException(ErrorMessages.invalidIndex(this, i));
+		}
+	}
+
+	@Override
+	public void set(int i, double value) {
+		switch (i) {
+		case 0: x=value; return;
+		case 1: y=value; return;
+		case 2: z=value; return;
+		case 3: t=value; return;
+		default: throw new IndexOutOfBoundsException(ErrorMessages.invalidIndex(this, i));
+		}
+	}
+
+	@Override
+	public void applyOp(Op op) {
+		x=op.apply(x);
+		y=op.apply(y);
+		z=op.apply(z);
+		t=op.apply(t);
+	}
+
+	@Override
+	public void getElements(double[] data, int offset) {
+		data[offset]=x;
+		data[offset+1]=y;
+		data[offset+2]=z;
+		data[offset+3]=t;
+	}
+
+	@Override
+	public void toDoubleBuffer(DoubleBuffer dest) {
+		dest.put(x);
+		dest.put(y);
+		dest.put(z);
+		dest.put(t);
+	}
+
+	@Override
+	public double[] toDoubleArray() {
+		return new double[] {x,y,z,t};
+	}
+
+	public Vector4 toVector4() {
+		return new Vector4(x,y,z,t);
+	}
+
+	@Override
+	public double getX() {
+		return x;
+	}
+
+	@Override
+	public double getY() {
+		return y;
+	}
+
+	@Override
+	public double getZ() {
+		return z;
+	}
+
+	@Override
+	public double getT() {
+		return t;
+	}
+
+	@Override
+	public Quaternion clone() {
+		return new Quaternion(x,y,z,t);
+	}
+
+	@Override
+	public Quaternion exactClone() {
+		return clone();
+	}
+}
@@ -1,5 +1,8 @@
 package mikera.vectorz;
 
+import mikera.matrixx.Matrix33;
+import mikera.vectorz.util.ErrorMessages;
+
 /**
  * Static functions for quaternion maths, implemented on Vector4 instances
  * 
@@ -37,40 +40,59 @@ public class Quaternions {
 	}
 	
 	/**
-	 * Rotates a 3D vector using the given quaternion, returning a new 3D vector
+	 * Rotates a 3D vector using the given quaternion, returning a new 3D vector. Applies the 
+	 * rotation q.v.q*, consistent with rotate(Vector4, PointCloud3) and toRotationMatrix(q).
+	 * 
+	 * The quaternion need not be normalised.
+	 * 
+	 * @param q
+	 * @param v
+	 * @return
+	 */
+	public static Vector3 rotate(Vector4 q, Vector3 v) {
+		Vector3 result=new Vector3();
+		Quaternion.rotate(q.x,q.y,q.z,q.t,v,result);
+		return result;
+	}
+	
+	/**
+	 * Rotates all points in a point cloud in place, applying the rotation q.p.q* represented by
+	 * the given quaternion. Equivalent to multiplying every point by toRotationMatrix(q).
+	 * 
+	 * @param q
+	 * @param points
+	 */
+	public static void rotate(Vector4 q, PointCloud3 points) {
+		points.transform(toRotationMatrix(q));
+	}
+	
+	/**
+	 * Converts a quaternion to the equivalent 3x3 rotation matrix. 
+	 * 
+	 * The quaternion need not be normalised.
+	 * 
 	 * @param q
-	 * @param a
 	 * @return
 	 */
-	public static Vector3 rotate(Vector4 a, Vector3 b) {
-		double rx=(a.t*b.x)+(a.y*b.z)-(a.z*b.y);
-		double ry=(a.t*b.y)-(a.x*b.z)+(a.z*b.x);
-		double rz=(a.t*b.z)+(a.x*b.y)-(a.y*b.x);
-		return new Vector3(rx,ry,rz);
+	public static Matrix33 toRotationMatrix(Vector4 q) {
+		return new Quaternion(q).toRotationMatrix();
 	}
 	
 	/**
-	 * Create a quaternion that represents a rotation around a given axis vector.
+	 * Create a quaternion that represents a rotation around a given axis vector, i.e.
+	 * (u.sin(angle/2), cos(angle/2)) for the normalised axis u. A zero axis gives the identity.
 	 * 
 	 * The axis vector need not be normalised.
 	 * 
+	 * Note that earlier versions returned (u.sin(angle), cos(angle)), which is the quaternion
+	 * for a rotation by 2.angle under the q.v.q* convention.
+	 * 
 	 * @param axis
 	 * @param angle
 	 * @return
 	 */
 	public static Vector4 axisAngle(Vector3 axis, double angle) {
-		double ha=angle; // 0.5*angle;
-		double ca=Math.cos(ha);
-		double sa=Math.sin(ha);
-		double x=axis.x, y=axis.y, z=axis.z;
-		double d=(x*x)+(y*y)+(z*z);
-		double ff=sa;
-		if ((d<(0.99999))||(d>1.00001)) {
-			ff/=Math.sqrt(d);
-		} else {
-			ff-=(d-1.0)*0.5;
-		}
-		return new Vector4(ff*x,ff*y,ff*z,ca);
+		return Quaternion.createAxisAngle(axis, angle).toVector4();
 	}
 	
 	/**
@@ -100,4 +122,51 @@ public class Quaternions {
 		double ff=1.0/dd;
 		return new Vector4(-a.x*ff,-a.y*ff,-a.z*ff,a.t*ff);
 	}
- }
+	
+	/**
+	 * Spherically interpolates between packed arrays of unit quaternions, following the shortest 
+	 * path for each pair. Each quaternion occupies four consecutive elements in (x,y,z,t) order.
+	 * 
+	 * The destination may overlap either source exactly. No allocation is performed per quaternion.
+	 * 
+	 * @param a Start quaternions, returned for alpha=0
+	 * @param aOffset
+	 * @param b End quaternions, returned for alpha=1
+	 * @param bOffset
+	 * @param dest Destination array for the interpolated quaternions
+	 * @param destOffset
+	 * @param count Number of quaternions
+	 * @param alpha Interpolation parameter
+	 */
+	public static void slerp(double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int count, double alpha) {
+		interpolate(a,aOffset,b,bOffset,dest,destOffset,count,alpha,true);
+	}
+	
+	/**
+	 * Normalised linear interpolation between packed arrays of unit quaternions. Cheaper than slerp, 
+	 * and usually sufficient for closely spaced keyframes.
+	 * 
+	 * Arguments are as for slerp.
+	 */
+	public static void nlerp(double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int count, double alpha) {
+		interpolate(a,aOffset,b,bOffset,dest,destOffset,count,alpha,false);
+	}
+	
+	private static void interpolate(double[] a, int aOffset, double[] b, int bOffset, double[] dest, int destOffset, int count, double alpha, boolean spherical) {
+		if (count<0) throw new IllegalArgumentException(ErrorMessages.illegalSize(count));
+		int len=count*4;
+		if ((aOffset<0)||(aOffset+len>a.length)) throw new IndexOutOfBoundsException(ErrorMessages.insufficientElements(a.length));
+		if ((bOffset<0)||(bOffset+len>b.length)) throw new IndexOutOfBoundsException(ErrorMessages.insufficientElements(b.length));
+		if ((destOffset<0)||(destOffset+len>dest.length)) throw new IndexOutOfBoundsException(ErrorMessages.insufficientElements(dest.length));
+		Quaternion q=new Quaternion();
+		for (int i=0; i<len; i+=4) {
+			int ai=aOffset+i, bi=bOffset+i;
+			if (spherical) {
+				q.setSlerp(a[ai],a[ai+1],a[ai+2],a[ai+3],b[bi],b[bi+1],b[bi+2],b[bi+3],alpha);
+			} else {
+				q.setNlerp(a[ai],a[ai+1],a[ai+2],a[ai+3],b[bi],b[bi+1],b[bi+2],b[bi+3],alpha);
+			}
+			q.getElements(dest, destOffset+i);
+		}
+	}
+}
@@ -12,6 +12,7 @@ import mikera.randomz.Hash;
 import mikera.vectorz.impl.ADenseArrayVector;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.Parallel;
 import mikera.vectorz.util.VectorzException;
 
 
@@ -195,6 +196,10 @@ public final class Vector extends ADenseArrayVector {
 	
 	@Override
 	public void applyOp(Op op) {
+		if (Parallel.useParallel(length)) {
+			Parallel.applyOp(op, data, 0, length);
+			return;
+		}
 		op.applyTo(data, 0, data.length);
 	}
 	
@@ -225,6 +230,7 @@ public final class Vector extends ADenseArrayVector {
 	
 	@Override
 	public double elementSum() {
+		if (Parallel.useParallel(length)) return Parallel.elementSum(data, 0, length);
 		return DoubleArrays.elementSum(data);
 	}
 	
@@ -268,6 +274,10 @@ public final class Vector extends ADenseArrayVector {
 	@Override
 	public void addMultiple(ADenseArrayVector v, double factor) {
 		int length=checkSameLength(v);
+		if (Parallel.useParallel(length)) {
+			Parallel.addMultiple(data, 0, v.getArray(), v.getArrayOffset(), length, factor);
+			return;
+		}
 		v.addMultipleToArray(factor,0,data, 0,length);
 	}
 	
@@ -367,6 +377,7 @@ public final class Vector extends ADenseArrayVector {
 	@Override
 	public double dotProduct(double[] data, int offset) {
 		int len=length();
+		if (Parallel.useParallel(len)) return Parallel.dotProduct(this.data, 0, data, offset, len);
 		double result=0.0;
 		for (int i=0; i<len; i++) {
 			result+=this.data[i]*data[offset+i];
@@ -400,6 +411,7 @@ public final class Vector extends ADenseArrayVector {
 	
 	public double dotProduct(Vector v) {
 		int len=checkSameLength(v);
+		if (Parallel.useParallel(len)) return Parallel.dotProduct(data, 0, v.data, 0, len);
 
 		double result=0.0;
 		for (int i=0; i<len; i++) {
@@ -491,6 +503,10 @@ public final class Vector extends ADenseArrayVector {
 	
 	@Override
 	public void multiply(double factor) {
+		if (Parallel.useParallel(length)) {
+			Parallel.multiply(data, 0, length, factor);
+			return;
+		}
 		DoubleArrays.multiply(data, factor);
 	}
 	
@@ -56,6 +56,12 @@ public final class Vector2 extends APrimitiveVector {
 		y-=v.y;
 	}
 	
+	@Override
+	public void multiply(double d) {
+		x*=d;
+		y*=d;
+	}
+	
 	public void addMultiple(Vector2 v, double factor) {
 		x+=v.x*factor;
 		y+=v.y*factor;
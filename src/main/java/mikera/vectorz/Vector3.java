@@ -267,6 +267,19 @@ public final class Vector3 extends APrimitiveVector {
 		z=tz;
 	}
 	
+	/**
+	 * Computes the cross product of this vector with a, storing the result in dest without 
+	 * modifying this vector. dest may be the same object as this or a.
+	 */
+	public void crossProductInto(Vector3 a, Vector3 dest) {
+		double tx=y*a.z-z*a.y;
+		double ty=z*a.x-x*a.z;
+		double tz=x*a.y-y*a.x;			
+		dest.x=tx;
+		dest.y=ty;
+		dest.z=tz;
+	}
+	
 	@Override
 	public void projectToPlane(AVector normal, double distance) {
 		if (normal instanceof Vector3) {projectToPlane((Vector3)normal,distance); return;}
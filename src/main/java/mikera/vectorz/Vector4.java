@@ -85,6 +85,26 @@ public final class Vector4 extends APrimitiveVector {
 		this.t+=a.t;
 	}
 	
+	public void sub(Vector4 a) {
+		this.x-=a.x;
+		this.y-=a.y;
+		this.z-=a.z;
+		this.t-=a.t;
+	}
+	
+	@Override
+	public void multiply(double d) {
+		x*=d;
+		y*=d;
+		z*=d;
+		t*=d;
+	}
+	
+	@Override
+	public double magnitudeSquared() {
+		return (x*x)+(y*y)+(z*z)+(t*t);
+	}
+	
 	public void set(Vector4 a) {
 		this.x=a.x;
 		this.y=a.y;
@@ -181,6 +201,16 @@ public final class Vector4 extends APrimitiveVector {
 		}
 	}
 
+	@Override
+	public double unsafeGet(int i) {
+		switch (i) {
+		case 0: return x;
+		case 1: return y;
+		case 2: return z;
+		default: return t;
+		}
+	}
+
 	@Override
 	public void set(int i, double value) {
 		switch (i) {
@@ -192,6 +222,16 @@ public final class Vector4 extends APrimitiveVector {
 		}
 	}
 	
+	@Override
+	public void unsafeSet(int i, double value) {
+		switch (i) {
+		case 0: x=value; return;
+		case 1: y=value; return;
+		case 2: z=value; return;
+		default: t=value; return;
+		}
+	}
+	
 	@Override
 	public void addAt(int i, double value) {
 		switch (i) {
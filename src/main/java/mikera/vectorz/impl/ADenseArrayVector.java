@@ -11,6 +11,7 @@ import mikera.vectorz.Vector;
 import mikera.vectorz.Vectorz;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.IntArrays;
+import mikera.vectorz.util.Parallel;
 import mikera.vectorz.util.VectorzException;
 
 /**
@@ -177,6 +178,10 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	@Override
 	public void addMultiple(AVector v, double factor) {
+		if (v instanceof ADenseArrayVector) {
+			addMultiple((ADenseArrayVector)v, factor);
+			return;
+		}
 		int length = checkSameLength(v);
 		v.addMultipleToArray(factor, 0, getArray(), getArrayOffset(), length);
 	}
@@ -321,6 +326,7 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	@Override
 	public double dotProduct(double[] data, int offset) {
+		if (Parallel.useParallel(length)) return Parallel.dotProduct(getArray(), getArrayOffset(), data, offset, length);
 		return DoubleArrays.dotProduct(getArray(), getArrayOffset(), data, offset, length());
 	}
 
@@ -330,6 +336,7 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 		
 		if (v instanceof ADenseArrayVector) {
 			ADenseArrayVector vv = (ADenseArrayVector) v;
+			if (Parallel.useParallel(length)) return Parallel.dotProduct(getArray(), getArrayOffset(), vv.getArray(), vv.getArrayOffset(), length);
 			return DoubleArrays.dotProduct(getArray(), getArrayOffset(),
 					vv.getArray(), vv.getArrayOffset(), length);
 		} else {
@@ -354,6 +361,10 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	@Override
 	public void applyOp(Op op) {
+		if (Parallel.useParallel(length)) {
+			Parallel.applyOp(op, getArray(), getArrayOffset(), length);
+			return;
+		}
 		op.applyTo(getArray(), getArrayOffset(), length());
 	}
 	
@@ -361,12 +372,61 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 	public ADenseArrayVector applyOpCopy(Op op) {
 		int len=length();
 		Vector v=Vector.createLength(len);
-		op.applyTo(v.getArray(), v.getArrayOffset(), len);
+		System.arraycopy(getArray(), getArrayOffset(), v.getArray(), 0, len);
+		op.applyTo(v.getArray(), 0, len);
 		return v;
 	}
 
+	@Override
+	public void addInto(AVector a, AVector dest) {
+		if ((a instanceof ADenseArrayVector)&&(dest instanceof ADenseArrayVector)) {
+			int len=checkSameLength(a,dest);
+			ADenseArrayVector av=(ADenseArrayVector)a;
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			DoubleArrays.addResult(d.getArray(), d.getArrayOffset(), getArray(), getArrayOffset(), av.getArray(), av.getArrayOffset(), len);
+			return;
+		}
+		super.addInto(a, dest);
+	}
+
+	@Override
+	public void subInto(AVector a, AVector dest) {
+		if ((a instanceof ADenseArrayVector)&&(dest instanceof ADenseArrayVector)) {
+			int len=checkSameLength(a,dest);
+			ADenseArrayVector av=(ADenseArrayVector)a;
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			DoubleArrays.subResult(d.getArray(), d.getArrayOffset(), getArray(), getArrayOffset(), av.getArray(), av.getArrayOffset(), len);
+			return;
+		}
+		super.subInto(a, dest);
+	}
+
+	@Override
+	public void multiplyInto(AVector a, AVector dest) {
+		if ((a instanceof ADenseArrayVector)&&(dest instanceof ADenseArrayVector)) {
+			int len=checkSameLength(a,dest);
+			ADenseArrayVector av=(ADenseArrayVector)a;
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			DoubleArrays.multiplyResult(d.getArray(), d.getArrayOffset(), getArray(), getArrayOffset(), av.getArray(), av.getArrayOffset(), len);
+			return;
+		}
+		super.multiplyInto(a, dest);
+	}
+
+	@Override
+	public void multiplyInto(double factor, AVector dest) {
+		if (dest instanceof ADenseArrayVector) {
+			int len=checkSameLength(dest);
+			ADenseArrayVector d=(ADenseArrayVector)dest;
+			DoubleArrays.scaleResult(d.getArray(), d.getArrayOffset(), getArray(), getArrayOffset(), len, factor);
+			return;
+		}
+		super.multiplyInto(factor, dest);
+	}
+
 	@Override
 	public double elementSum() {
+		if (Parallel.useParallel(length)) return Parallel.elementSum(getArray(), getArrayOffset(), length);
 		return DoubleArrays.elementSum(getArray(), getArrayOffset(), length());
 	}
 	
@@ -515,6 +575,10 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	public void addMultiple(ADenseArrayVector v, double factor) {
 		int length = checkSameLength(v);
+		if (Parallel.useParallel(length)) {
+			Parallel.addMultiple(getArray(), getArrayOffset(), v.getArray(), v.getArrayOffset(), length, factor);
+			return;
+		}
 		v.addMultipleToArray(factor, 0, getArray(), getArrayOffset(), length);
 	}
 	
@@ -529,6 +593,7 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	@Override
 	public double magnitudeSquared() {
+		if (Parallel.useParallel(length)) return Parallel.elementSquaredSum(data, getArrayOffset(), length);
 		return DoubleArrays.elementSquaredSum(data, getArrayOffset(), length);
 	}
 
@@ -563,6 +628,10 @@ public abstract class ADenseArrayVector extends AStridedVector implements IDense
 
 	@Override
 	public void multiply(double factor) {
+		if (Parallel.useParallel(length)) {
+			Parallel.multiply(getArray(), getArrayOffset(), length, factor);
+			return;
+		}
 		DoubleArrays.multiply(getArray(), getArrayOffset(), length(), factor);
 	}
 
@@ -6,6 +6,7 @@ import mikera.indexz.Index;
 import mikera.vectorz.AVector;
 import mikera.vectorz.util.DoubleArrays;
 import mikera.vectorz.util.IntArrays;
+import mikera.vectorz.util.Summation;
 import mikera.vectorz.util.VectorzException;
 
 
@@ -76,6 +77,7 @@ public abstract class ASparseIndexedVector extends ASparseVector {
 	@Override
 	public final double dotProduct(AVector v) {
 		if (v instanceof ADenseArrayVector) return dotProduct((ADenseArrayVector)v);
+		if (v instanceof ASparseIndexedVector) return dotProduct((ASparseIndexedVector)v);
 		double result=0.0;
 		double[] data=internalData();
 		int[] ixs=internalIndexArray();
@@ -85,6 +87,54 @@ public abstract class ASparseIndexedVector extends ASparseVector {
 		return result;
 	}
 	
+	@Override
+	public double dotProduct(AVector v, Summation mode) {
+		if (mode==Summation.NAIVE) return dotProduct(v);
+		checkSameLength(v);
+		double[] aData=internalData();
+		int[] aIx=internalIndexArray();
+		int na=aData.length;
+		if (v instanceof ASparseIndexedVector) {
+			ASparseIndexedVector sv=(ASparseIndexedVector)v;
+			double[] bData=sv.internalData();
+			int[] bIx=sv.internalIndexArray();
+			int nb=bData.length;
+			double[] products=new double[Math.min(na, nb)];
+			int n=0;
+			int i=0;
+			int j=0;
+			while ((i<na)&&(j<nb)) {
+				int ai=aIx[i];
+				int bj=bIx[j];
+				if (ai==bj) {
+					products[n++]=aData[i++]*bData[j++];
+				} else if (ai<bj) {
+					i=IntArrays.gallopSearch(aIx, i+1, na, bj);
+				} else {
+					j=IntArrays.gallopSearch(bIx, j+1, nb, ai);
+				}
+			}
+			return mode.sum(products, 0, n);
+		}
+		double[] products=new double[na];
+		for (int j=0; j<na; j++) {
+			products[j]=aData[j]*v.unsafeGet(aIx[j]);
+		}
+		return mode.sum(products, 0, na);
+	}
+	
+	@Override
+	protected double[] nonZeroValues() {
+		double[] data=internalData();
+		int n=(int)nonZeroCount();
+		double[] vs=new double[n];
+		int vi=0;
+		for (int i=0; i<data.length; i++) {
+			if (data[i]!=0.0) vs[vi++]=data[i];
+		}
+		return vs;
+	}
+	
 	@Override
 	public double dotProduct(ADenseArrayVector v) {
 		double[] array=v.getArray();
@@ -92,6 +142,78 @@ public abstract class ASparseIndexedVector extends ASparseVector {
 		return dotProduct(array,offset);
 	}
 	
+	/**
+	 * Computes the dot product with another sparse indexed vector by merging the two indexes.
+	 * Runs in linear time, or faster using galloping search when one vector has many more 
+	 * non-sparse elements than the other.
+	 */
+	public double dotProduct(ASparseIndexedVector v) {
+		checkSameLength(v);
+		double[] aData=internalData();
+		int[] aIx=internalIndexArray();
+		double[] bData=v.internalData();
+		int[] bIx=v.internalIndexArray();
+		int na=aData.length;
+		int nb=bData.length;
+		double result=0.0;
+		int i=0;
+		int j=0;
+		while ((i<na)&&(j<nb)) {
+			int ai=aIx[i];
+			int bj=bIx[j];
+			if (ai==bj) {
+				result+=aData[i++]*bData[j++];
+			} else if (ai<bj) {
+				i=IntArrays.gallopSearch(aIx, i+1, na, bj);
+			} else {
+				j=IntArrays.gallopSearch(bIx, j+1, nb, ai);
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public double distanceSquared(AVector v) {
+		if (v instanceof ASparseIndexedVector) return distanceSquared((ASparseIndexedVector)v);
+		return super.distanceSquared(v);
+	}
+	
+	/**
+	 * Computes the squared Euclidean distance to another sparse indexed vector by merging the
+	 * two indexes
+	 */
+	public double distanceSquared(ASparseIndexedVector v) {
+		checkSameLength(v);
+		double[] aData=internalData();
+		int[] aIx=internalIndexArray();
+		double[] bData=v.internalData();
+		int[] bIx=v.internalIndexArray();
+		int na=aData.length;
+		int nb=bData.length;
+		double result=0.0;
+		int i=0;
+		int j=0;
+		while ((i<na)&&(j<nb)) {
+			int ai=aIx[i];
+			int bj=bIx[j];
+			if (ai==bj) {
+				double d=aData[i++]-bData[j++];
+				result+=d*d;
+			} else if (ai<bj) {
+				int end=IntArrays.gallopSearch(aIx, i+1, na, bj);
+				result+=DoubleArrays.elementSquaredSum(aData, i, end-i);
+				i=end;
+			} else {
+				int end=IntArrays.gallopSearch(bIx, j+1, nb, ai);
+				result+=DoubleArrays.elementSquaredSum(bData, j, end-j);
+				j=end;
+			}
+		}
+		result+=DoubleArrays.elementSquaredSum(aData, i, na-i);
+		result+=DoubleArrays.elementSquaredSum(bData, j, nb-j);
+		return result;
+	}
+	
 	@Override
 	public int[] nonZeroIndices() {
 		int n=(int)nonZeroCount();
@@ -247,19 +369,15 @@ public abstract class ASparseIndexedVector extends ASparseVector {
 	 * Intended to allow fast subsequent modification
 	 */
 	public final SparseIndexedVector cloneIncludingIndices(int [] ixs) {
-		Index index=internalIndex();
-		int[] nixs = IntArrays.mergeSorted(index.data,ixs);
+		int[] oixs=internalIndexArray();
 		double[] data=internalData();
-		int nl=nixs.length;
-		double[] ndata=new double[nl];
-		int si=0;
-		for (int i=0; i<nl; i++) {
-			int z=index.data[si];
-			if (z==nixs[i]) {
-				ndata[i]=data[si];
-				si++; 
-				if (si>=data.length) break;
-			}
+		int n=oixs.length;
+		int[] nixs=new int[n+ixs.length-IntArrays.countMatches(oixs, n, ixs, ixs.length)];
+		int[] pos=new int[n];
+		IntArrays.unionSorted(oixs, n, ixs, ixs.length, nixs, pos, null);
+		double[] ndata=new double[nixs.length];
+		for (int i=0; i<n; i++) {
+			ndata[pos[i]]=data[i];
 		}
 		return SparseIndexedVector.wrap(length, nixs, ndata);
 	}
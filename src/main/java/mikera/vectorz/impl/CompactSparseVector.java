@@ -0,0 +1,582 @@
+package mikera.vectorz.impl;
+
+import java.util.Arrays;
+
+import mikera.indexz.Index;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Op;
+import mikera.vectorz.Vector;
+import mikera.vectorz.util.ErrorMessages;
+import mikera.vectorz.util.VectorzException;
+
+/**
+ * Compact immutable sparse vector, stored as an encoded record within a byte[] slab.
+ *
+ * Intended for long-lived stores of very many sparse vectors, where the per-vector objects and
+ * 12 bytes per non-zero of a SparseIndexedVector dominate memory use. Many vectors may share a
+ * single slab (see mikera.vectorz.util.SparseVectorStore), so that the store itself needs only
+ * an offset per vector and CompactSparseVector instances can be created as cheap views on demand.
+ *
+ * Each record consists of a format byte, the number of non-zero values and the size of the
+ * encoded indices (both as variable-length integers), the indices encoded as variable-length
+ * differences from the previous index, and finally the values in the chosen ValueFormat.
+ * Only non-zero values are stored.
+ *
+ * Element access by index requires a sequential scan of the encoded indices, so this class is
+ * best suited to whole-vector operations such as dotProduct with a dense vector.
+ *
+ * @author Mike
+ */
+public final class CompactSparseVector extends ASparseVector {
+	private static final long serialVersionUID = -2860335049213167422L;
+
+	/**
+	 * Encodings available for the stored values of a CompactSparseVector
+	 */
+	public enum ValueFormat {
+		/**
+		 * Exact values, 8 bytes per value
+		 */
+		DOUBLE,
+		/**
+		 * Values rounded to single precision, 4 bytes per value
+		 */
+		FLOAT,
+		/**
+		 * Values quantised to 8-bit signed integers with a single float scale per vector, 1 byte
+		 * per value. The error for each value is at most half of the largest absolute value / 127.
+		 */
+		QUANTIZED;
+
+		private static final ValueFormat[] VALUES=values();
+	}
+
+	private final byte[] slab;
+	private final int recordStart;
+	private final int indexStart;
+	private final int valueStart;
+	private final int nnz;
+	private final ValueFormat format;
+	private final double scale;
+
+	private CompactSparseVector(int length, byte[] slab, int offset) {
+		super(length);
+		this.slab=slab;
+		this.recordStart=offset;
+		this.format=ValueFormat.VALUES[slab[offset]];
+		int pos=offset+1;
+		int b=slab[pos++];
+		int n=b&0x7F;
+		for (int shift=7; b<0; shift+=7) {
+			b=slab[pos++];
+			n|=(b&0x7F)<<shift;
+		}
+		b=slab[pos++];
+		int indexBytes=b&0x7F;
+		for (int shift=7; b<0; shift+=7) {
+			b=slab[pos++];
+			indexBytes|=(b&0x7F)<<shift;
+		}
+		this.nnz=n;
+		this.indexStart=pos;
+		pos+=indexBytes;
+		if (format==ValueFormat.QUANTIZED) {
+			scale=Float.intBitsToFloat(readInt(slab,pos));
+			pos+=4;
+		} else {
+			scale=1.0;
+		}
+		this.valueStart=pos;
+	}
+
+	/**
+	 * Creates a CompactSparseVector view of an encoded record within a slab.
+	 *
+	 * WARNING: Performs no checking - the offset must be the start of a record written by encode
+	 * for a vector of the given length, and the record must not subsequently be modified.
+	 */
+	public static CompactSparseVector wrap(int length, byte[] slab, int offset) {
+		return new CompactSparseVector(length,slab,offset);
+	}
+
+	/**
+	 * Creates a CompactSparseVector containing the non-zero values of the source vector, using its
+	 * own slab
+	 */
+	public static CompactSparseVector create(AVector source, ValueFormat format) {
+		int[] ixs=source.nonZeroIndices();
+		byte[] slab=new byte[maxEncodedSize(ixs.length,format)];
+		int end=encode(source,ixs,format,slab,0);
+		return wrap(source.length(),Arrays.copyOf(slab, end),0);
+	}
+
+	/**
+	 * Creates a CompactSparseVector with exact double values containing the non-zero values of the
+	 * source vector
+	 */
+	public static CompactSparseVector create(AVector source) {
+		return create(source,ValueFormat.DOUBLE);
+	}
+
+	/**
+	 * Returns an upper bound on the number of bytes needed to encode a vector with the given
+	 * number of non-zero values
+	 */
+	public static int maxEncodedSize(int nonZeroCount, ValueFormat format) {
+		int valueBytes;
+		switch (format) {
+			case DOUBLE: valueBytes=8; break;
+			case FLOAT: valueBytes=4; break;
+			default: valueBytes=1; break;
+		}
+		return 15+nonZeroCount*(5+valueBytes);
+	}
+
+	/**
+	 * Encodes the elements of the source vector at the given sorted, distinct indices into dest,
+	 * starting at the given offset. Elements that are zero, or that become zero in the chosen
+	 * format, are omitted.
+	 *
+	 * dest must have at least maxEncodedSize(ixs.length,format) bytes available after offset.
+	 *
+	 * @return The offset immediately after the encoded record
+	 */
+	public static int encode(AVector source, int[] ixs, ValueFormat format, byte[] dest, int offset) {
+		int n=ixs.length;
+		double[] vals=new double[n];
+		double maxAbs=0.0;
+		for (int k=0; k<n; k++) {
+			double v=source.unsafeGet(ixs[k]);
+			vals[k]=v;
+			maxAbs=Math.max(maxAbs, Math.abs(v));
+		}
+		float fscale=(float)(maxAbs/127.0);
+		double invScale=(fscale==0.0f)?0.0:1.0/fscale;
+
+		// compact to the elements that remain non-zero after conversion
+		int[] cixs=new int[n];
+		int m=0;
+		for (int k=0; k<n; k++) {
+			double v=vals[k];
+			switch (format) {
+				case FLOAT: v=(float)v; break;
+				case QUANTIZED: v=Math.round(v*invScale); break;
+				default: break;
+			}
+			if (v==0.0) continue;
+			cixs[m]=ixs[k];
+			vals[m++]=v;
+		}
+
+		// encoded index size, so that the header can be written first
+		int indexBytes=0;
+		int last=0;
+		for (int k=0; k<m; k++) {
+			indexBytes+=varIntSize(cixs[k]-last);
+			last=cixs[k];
+		}
+
+		int pos=offset;
+		dest[pos++]=(byte)format.ordinal();
+		pos=writeVarInt(dest,pos,m);
+		pos=writeVarInt(dest,pos,indexBytes);
+		last=0;
+		for (int k=0; k<m; k++) {
+			pos=writeVarInt(dest,pos,cixs[k]-last);
+			last=cixs[k];
+		}
+		switch (format) {
+			case DOUBLE:
+				for (int k=0; k<m; k++) {
+					long bits=Double.doubleToRawLongBits(vals[k]);
+					writeInt(dest,pos,(int)bits);
+					writeInt(dest,pos+4,(int)(bits>>>32));
+					pos+=8;
+				}
+				break;
+			case FLOAT:
+				for (int k=0; k<m; k++) {
+					writeInt(dest,pos,Float.floatToRawIntBits((float)vals[k]));
+					pos+=4;
+				}
+				break;
+			case QUANTIZED:
+				writeInt(dest,pos,Float.floatToRawIntBits(fscale));
+				pos+=4;
+				for (int k=0; k<m; k++) {
+					dest[pos++]=(byte)vals[k];
+				}
+				break;
+		}
+		return pos;
+	}
+
+	private static int varIntSize(int v) {
+		int n=1;
+		while ((v&~0x7F)!=0) {
+			v>>>=7;
+			n++;
+		}
+		return n;
+	}
+
+	private static int writeVarInt(byte[] dest, int pos, int v) {
+		while ((v&~0x7F)!=0) {
+			dest[pos++]=(byte)((v&0x7F)|0x80);
+			v>>>=7;
+		}
+		dest[pos++]=(byte)v;
+		return pos;
+	}
+
+	private static void writeInt(byte[] dest, int pos, int v) {
+		dest[pos]=(byte)v;
+		dest[pos+1]=(byte)(v>>>8);
+		dest[pos+2]=(byte)(v>>>16);
+		dest[pos+3]=(byte)(v>>>24);
+	}
+
+	private static int readInt(byte[] src, int pos) {
+		return (src[pos]&0xFF)|((src[pos+1]&0xFF)<<8)|((src[pos+2]&0xFF)<<16)|((src[pos+3]&0xFF)<<24);
+	}
+
+	/**
+	 * Returns the k-th stored value
+	 */
+	private double value(int k) {
+		switch (format) {
+			case DOUBLE: {
+				int p=valueStart+(k<<3);
+				long bits=(readInt(slab,p)&0xFFFFFFFFL)|(((long)readInt(slab,p+4))<<32);
+				return Double.longBitsToDouble(bits);
+			}
+			case FLOAT:
+				return Float.intBitsToFloat(readInt(slab,valueStart+(k<<2)));
+			default:
+				return slab[valueStart+k]*scale;
+		}
+	}
+
+	/**
+	 * Returns the position of index i among the stored values, or -1 if not present
+	 */
+	private int position(int i) {
+		byte[] s=slab;
+		int pos=indexStart;
+		int ix=0;
+		for (int k=0; k<nnz; k++) {
+			int b=s[pos++];
+			int delta=b&0x7F;
+			for (int shift=7; b<0; shift+=7) {
+				b=s[pos++];
+				delta|=(b&0x7F)<<shift;
+			}
+			ix+=delta;
+			if (ix>=i) return (ix==i)?k:-1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Decodes the indices of all stored values
+	 */
+	private int[] decodeIndices() {
+		byte[] s=slab;
+		int[] result=new int[nnz];
+		int pos=indexStart;
+		int ix=0;
+		for (int k=0; k<nnz; k++) {
+			int b=s[pos++];
+			int delta=b&0x7F;
+			for (int shift=7; b<0; shift+=7) {
+				b=s[pos++];
+				delta|=(b&0x7F)<<shift;
+			}
+			ix+=delta;
+			result[k]=ix;
+		}
+		return result;
+	}
+
+	/**
+	 * Decodes all stored values
+	 */
+	private double[] decodeValues() {
+		double[] result=new double[nnz];
+		for (int k=0; k<nnz; k++) {
+			result[k]=value(k);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the format used for the values of this vector
+	 */
+	public ValueFormat getValueFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns the number of bytes used by the encoded record of this vector
+	 */
+	public int encodedSize() {
+		int valueBytes;
+		switch (format) {
+			case DOUBLE: valueBytes=nnz<<3; break;
+			case FLOAT: valueBytes=nnz<<2; break;
+			default: valueBytes=nnz; break;
+		}
+		return (valueStart+valueBytes)-recordStart;
+	}
+
+	@Override
+	public double get(int i) {
+		checkIndex(i);
+		return unsafeGet(i);
+	}
+
+	@Override
+	public double unsafeGet(int i) {
+		int k=position(i);
+		return (k<0)?0.0:value(k);
+	}
+
+	@Override
+	public void set(int i, double value) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void unsafeSet(int i, double value) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void addAt(int i, double value) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void add(ASparseVector v) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void set(AVector v) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void applyOp(Op op) {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void negate() {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public void abs() {
+		throw new UnsupportedOperationException(ErrorMessages.immutable(this));
+	}
+
+	@Override
+	public boolean isMutable() {
+		return false;
+	}
+
+	@Override
+	public boolean isFullyMutable() {
+		return false;
+	}
+
+	@Override
+	public boolean isZero() {
+		return nnz==0;
+	}
+
+	@Override
+	public int nonSparseElementCount() {
+		return nnz;
+	}
+
+	@Override
+	public long nonZeroCount() {
+		return nnz;
+	}
+
+	@Override
+	public int[] nonZeroIndices() {
+		return decodeIndices();
+	}
+
+	@Override
+	public Index nonSparseIndexes() {
+		return Index.wrap(decodeIndices());
+	}
+
+	@Override
+	public Vector nonSparseValues() {
+		return Vector.wrap(decodeValues());
+	}
+
+	@Override
+	public boolean includesIndex(int i) {
+		return position(i)>=0;
+	}
+
+	@Override
+	public double elementSum() {
+		double result=0.0;
+		for (int k=0; k<nnz; k++) {
+			result+=value(k);
+		}
+		return result;
+	}
+
+	@Override
+	public double magnitudeSquared() {
+		double result=0.0;
+		for (int k=0; k<nnz; k++) {
+			double v=value(k);
+			result+=v*v;
+		}
+		return result;
+	}
+
+	@Override
+	public double dotProduct(AVector v) {
+		checkSameLength(v);
+		if (v instanceof ADenseArrayVector) {
+			ADenseArrayVector av=(ADenseArrayVector)v;
+			return dotProduct(av.getArray(),av.getArrayOffset());
+		}
+		int[] ixs=decodeIndices();
+		double result=0.0;
+		for (int k=0; k<nnz; k++) {
+			result+=value(k)*v.unsafeGet(ixs[k]);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the dot product with dense data in a double[] array, decoding indices and values
+	 * in a single sequential pass over the encoded record
+	 */
+	@Override
+	public double dotProduct(double[] data, int offset) {
+		byte[] s=slab;
+		int pos=indexStart;
+		int vp=valueStart;
+		int ix=offset;
+		double result=0.0;
+		switch (format) {
+			case DOUBLE:
+				for (int k=0; k<nnz; k++) {
+					int b=s[pos++];
+					int delta=b&0x7F;
+					for (int shift=7; b<0; shift+=7) {
+						b=s[pos++];
+						delta|=(b&0x7F)<<shift;
+					}
+					ix+=delta;
+					long bits=(readInt(s,vp)&0xFFFFFFFFL)|(((long)readInt(s,vp+4))<<32);
+					vp+=8;
+					result+=Double.longBitsToDouble(bits)*data[ix];
+				}
+				return result;
+			case FLOAT:
+				for (int k=0; k<nnz; k++) {
+					int b=s[pos++];
+					int delta=b&0x7F;
+					for (int shift=7; b<0; shift+=7) {
+						b=s[pos++];
+						delta|=(b&0x7F)<<shift;
+					}
+					ix+=delta;
+					result+=Float.intBitsToFloat(readInt(s,vp))*data[ix];
+					vp+=4;
+				}
+				return result;
+			default:
+				for (int k=0; k<nnz; k++) {
+					int b=s[pos++];
+					int delta=b&0x7F;
+					for (int shift=7; b<0; shift+=7) {
+						b=s[pos++];
+						delta|=(b&0x7F)<<shift;
+					}
+					ix+=delta;
+					result+=s[vp++]*data[ix];
+				}
+				return result*scale;
+		}
+	}
+
+	@Override
+	public void addToArray(int offset, double[] destData, int destOffset, int length) {
+		addMultipleToArray(1.0,offset,destData,destOffset,length);
+	}
+
+	@Override
+	public void addMultipleToArray(double factor, int offset, double[] array, int arrayOffset, int length) {
+		byte[] s=slab;
+		int pos=indexStart;
+		int ix=0;
+		int end=offset+length;
+		for (int k=0; k<nnz; k++) {
+			int b=s[pos++];
+			int delta=b&0x7F;
+			for (int shift=7; b<0; shift+=7) {
+				b=s[pos++];
+				delta|=(b&0x7F)<<shift;
+			}
+			ix+=delta;
+			if (ix<offset) continue;
+			if (ix>=end) return;
+			array[arrayOffset+ix-offset]+=factor*value(k);
+		}
+	}
+
+	@Override
+	public Vector dense() {
+		Vector v=Vector.createLength(length);
+		addToArray(0,v.getArray(),0,length);
+		return v;
+	}
+
+	@Override
+	public SparseIndexedVector clone() {
+		return SparseIndexedVector.wrap(length, decodeIndices(), decodeValues());
+	}
+
+	@Override
+	public SparseIndexedVector sparseClone() {
+		return clone();
+	}
+
+	@Override
+	public SparseIndexedVector mutable() {
+		return clone();
+	}
+
+	/**
+	 * Returns a copy of this vector with its own slab, holding only the record for this vector
+	 */
+	@Override
+	public CompactSparseVector exactClone() {
+		return wrap(length,Arrays.copyOfRange(slab, recordStart, recordStart+encodedSize()),0);
+	}
+
+	@Override
+	public void validate() {
+		int[] ixs=decodeIndices();
+		for (int k=0; k<nnz; k++) {
+			if ((ixs[k]<0)||(ixs[k]>=length)) throw new VectorzException("Index out of range: "+ixs[k]);
+			if ((k>0)&&(ixs[k]<=ixs[k-1])) throw new VectorzException("Indices not sorted and distinct at position "+k);
+			if (value(k)==0.0) throw new VectorzException("Should be no zero values in encoded data!");
+		}
+		super.validate();
+	}
+}
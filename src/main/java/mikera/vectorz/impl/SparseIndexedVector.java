@@ -1,5 +1,6 @@
 package mikera.vectorz.impl;
 
+import mikera.indexz.AIndex;
 import mikera.indexz.Index;
 import mikera.matrixx.AMatrix;
 import mikera.matrixx.impl.AVectorMatrix;
@@ -18,6 +19,7 @@ import mikera.vectorz.util.VectorzException;
  * 
  * WARNING: individual updates of non-indexed elements are O(n) in the number of non-sparse elements. You should not normally
  * perform element-wise mutation on a SparseIndexedVector if performance is a concern
+ * - use SparseVectorBuilder to construct a vector from many individual elements instead.
  * 
  * Index must be distinct and sorted.
  * 
@@ -159,12 +161,91 @@ public class SparseIndexedVector extends ASparseIndexedVector {
 	
 	@Override
 	public void add(ASparseVector v) {
+		if (v instanceof ASparseIndexedVector) {
+			addMultiple((ASparseIndexedVector)v,1.0);
+			return;
+		}
 		includeIndices(v);	
 		for (int i=0; i<data.length; i++) {
 			data[i]+=v.unsafeGet(index.get(i));
 		}
 	}
 	
+	@Override
+	public void addMultiple(AVector v, double factor) {
+		if (v instanceof ASparseIndexedVector) {
+			addMultiple((ASparseIndexedVector)v,factor);
+			return;
+		}
+		super.addMultiple(v, factor);
+	}
+	
+	/**
+	 * Adds a multiple of another sparse indexed vector to this vector by merging the two indexes.
+	 * 
+	 * Updates values in place if the other index is a subset of this one, otherwise builds the
+	 * union of both indexes in a single pass. Runs of indexes present in only one vector are
+	 * located with galloping search, so the cost is low when one vector is much smaller.
+	 */
+	public void addMultiple(ASparseIndexedVector v, double factor) {
+		checkSameLength(v);
+		if (factor==0.0) return;
+		int[] aIx=index.data;
+		double[] aData=data;
+		int[] bIx=v.internalIndexArray();
+		double[] bData=v.internalData();
+		int na=aData.length;
+		int nb=bData.length;
+		if (nb==0) return;
+		
+		int common=IntArrays.countMatches(aIx,na,bIx,nb);
+		if (common==nb) {
+			int i=0;
+			for (int j=0; j<nb; j++) {
+				i=IntArrays.gallopSearch(aIx, i, na, bIx[j]);
+				aData[i]+=factor*bData[j];
+			}
+			return;
+		}
+		
+		int n=na+nb-common;
+		int[] nIx=new int[n];
+		double[] nData=new double[n];
+		int i=0;
+		int j=0;
+		int k=0;
+		while ((i<na)&&(j<nb)) {
+			int ai=aIx[i];
+			int bj=bIx[j];
+			if (ai==bj) {
+				nIx[k]=ai;
+				nData[k++]=aData[i++]+factor*bData[j++];
+			} else if (ai<bj) {
+				int end=IntArrays.gallopSearch(aIx, i+1, na, bj);
+				System.arraycopy(aIx, i, nIx, k, end-i);
+				System.arraycopy(aData, i, nData, k, end-i);
+				k+=end-i;
+				i=end;
+			} else {
+				int end=IntArrays.gallopSearch(bIx, j+1, nb, ai);
+				System.arraycopy(bIx, j, nIx, k, end-j);
+				for (; j<end; j++) {
+					nData[k++]=factor*bData[j];
+				}
+			}
+		}
+		System.arraycopy(aIx, i, nIx, k, na-i);
+		System.arraycopy(aData, i, nData, k, na-i);
+		k+=na-i;
+		System.arraycopy(bIx, j, nIx, k, nb-j);
+		for (; j<nb; j++) {
+			nData[k++]=factor*bData[j];
+		}
+		
+		index=Index.wrap(nIx);
+		data=nData;
+	}
+	
 	@Override
 	public void multiply (double d) {
 		if (d==0.0) {
@@ -181,6 +262,10 @@ public class SparseIndexedVector extends ASparseIndexedVector {
 			multiply((ADenseArrayVector)v);
 			return;
 		}
+		if (v instanceof ASparseIndexedVector) {
+			multiply((ASparseIndexedVector)v);
+			return;
+		}
 		checkSameLength(v);
 		double[] data=this.data;
 		int[] ixs=index.data;
@@ -189,6 +274,49 @@ public class SparseIndexedVector extends ASparseIndexedVector {
 		}
 	}
 	
+	/**
+	 * Multiplies element-wise by another sparse indexed vector. The index of this vector is 
+	 * reduced to the intersection of both indexes, found by merging with galloping search.
+	 */
+	public void multiply(ASparseIndexedVector v) {
+		checkSameLength(v);
+		int[] aIx=index.data;
+		double[] aData=data;
+		int[] bIx=v.internalIndexArray();
+		double[] bData=v.internalData();
+		int na=aData.length;
+		int nb=bData.length;
+		int common=IntArrays.countMatches(aIx,na,bIx,nb);
+		if (common==na) {
+			int j=0;
+			for (int i=0; i<na; i++) {
+				j=IntArrays.gallopSearch(bIx, j, nb, aIx[i]);
+				aData[i]*=bData[j];
+			}
+			return;
+		}
+		
+		int[] nIx=new int[common];
+		double[] nData=new double[common];
+		int i=0;
+		int j=0;
+		int k=0;
+		while (k<common) {
+			int ai=aIx[i];
+			int bj=bIx[j];
+			if (ai==bj) {
+				nIx[k]=ai;
+				nData[k++]=aData[i++]*bData[j++];
+			} else if (ai<bj) {
+				i=IntArrays.gallopSearch(aIx, i+1, na, bj);
+			} else {
+				j=IntArrays.gallopSearch(bIx, j+1, nb, ai);
+			}
+		}
+		index=Index.wrap(nIx);
+		data=nData;
+	}
+	
 	public void multiply(ADenseArrayVector v) {
 		multiply(v.getArray(),v.getArrayOffset());
 	}
@@ -468,19 +596,17 @@ public class SparseIndexedVector extends ASparseIndexedVector {
 	 * @param ixs
 	 */
 	public void includeIndices(int[] ixs) {
-		int[] nixs = IntArrays.mergeSorted(index.data,ixs);
-		if (nixs.length==index.length()) return;
-		int nl=nixs.length;
+		int[] oixs=index.data;
+		int n=oixs.length;
+		int nl=n+ixs.length-IntArrays.countMatches(oixs, n, ixs, ixs.length);
+		if (nl==n) return;
+		int[] nixs=new int[nl];
+		int[] pos=new int[n];
+		IntArrays.unionSorted(oixs, n, ixs, ixs.length, nixs, pos, null);
 		double[] data=this.data;
 		double[] ndata=new double[nl];
-		int si=0;
-		for (int i=0; i<nl; i++) {
-			int z=index.data[si];
-			if (z==nixs[i]) {
-				ndata[i]=data[si];
-				si++; 
-				if (si>=data.length) break;
-			}
+		for (int i=0; i<n; i++) {
+			ndata[pos[i]]=data[i];
 		}
 		this.data=ndata;
 		index=Index.wrap(nixs);
@@ -497,6 +623,21 @@ public class SparseIndexedVector extends ASparseIndexedVector {
 		includeIndices(ixs.data);
 	}
 	
+	/**
+	 * Include additional indices in the non-sparse index set of this vector.
+	 * 
+	 * Accepts any sorted and distinct AIndex, e.g. a CompressedIndex
+	 * 
+	 * @param ixs
+	 */
+	public void includeIndices(AIndex ixs) {
+		if (ixs instanceof Index) {
+			includeIndices(((Index)ixs).data);
+		} else {
+			includeIndices(ixs.toArray());
+		}
+	}
+	
 	/**
 	 * Include additional indices in the non-sparse index set of this vector.
 	 * 
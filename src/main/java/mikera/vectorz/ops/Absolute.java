@@ -3,6 +3,7 @@ package mikera.vectorz.ops;
 import mikera.arrayz.INDArray;
 import mikera.vectorz.AVector;
 import mikera.vectorz.Op;
+import mikera.vectorz.util.DoubleArrays;
 
 public class Absolute extends Op {
 
@@ -22,6 +23,11 @@ public class Absolute extends Op {
 	public void applyTo(INDArray v) {
 		v.abs();
 	}
+	
+	@Override
+	public void applyTo(double[] data, int start, int length) {
+		DoubleArrays.abs(data, start, length);
+	}
 
 
 	@Override
@@ -29,10 +29,17 @@ public class Composed extends Op {
 		return outer.apply(inner.apply(x));
 	}
 	
+	/**
+	 * Applies both component ops block by block, so that the data makes a single pass through
+	 * the cache rather than one full pass per component op.
+	 */
 	@Override
 	public void applyTo(double[] data, int start,int length) {
-		inner.applyTo(data, start, length);
-		outer.applyTo(data, start, length);
+		for (int i=0; i<length; i+=APPLY_BLOCK_SIZE) {
+			int n=Math.min(APPLY_BLOCK_SIZE, length-i);
+			inner.applyTo(data, start+i, n);
+			outer.applyTo(data, start+i, n);
+		}
 	}
 	
 	@Override
@@ -2,6 +2,8 @@ package mikera.vectorz.ops;
 
 import mikera.vectorz.Op;
 import mikera.vectorz.Ops;
+import mikera.vectorz.util.DoubleArrays;
+import mikera.vectorz.util.Workspace;
 
 public final class Division extends Op {
 	public final Op a;
@@ -40,6 +42,23 @@ public final class Division extends Op {
 	public double apply(double x) {
 		return a.apply(x)/b.apply(x);
 	}
+	
+	/**
+	 * Applies both component ops using their array kernels, one cache-sized block at a time,
+	 * then divides the results in place.
+	 * The temporary block is taken from the Workspace pool, so repeated calls do not allocate.
+	 */
+	@Override
+	public void applyTo(double[] data, int start, int length) {
+		double[] temp=Workspace.acquire(Math.min(APPLY_BLOCK_SIZE, length));
+		for (int i=0; i<length; i+=APPLY_BLOCK_SIZE) {
+			int n=Math.min(APPLY_BLOCK_SIZE, length-i);
+			b.applyTo(data, start+i, temp, 0, n);
+			a.applyTo(data, start+i, n);
+			DoubleArrays.arraydivide(temp, 0, data, start+i, n);
+		}
+		Workspace.release(temp);
+	}
 
 	@Override
 	public double averageValue() {
@@ -0,0 +1,73 @@
+package mikera.vectorz.ops;
+
+import mikera.vectorz.Op;
+
+/**
+ * Fast approximate exponential function.
+ * 
+ * Reduces the argument to x = k*ln(2) + r with |r| <= ln(2)/2, evaluates a degree 7
+ * polynomial for exp(r) and scales the result by 2^k. The maximum relative error is
+ * below 1e-8 for all inputs in [-708, 709.78]. Inputs below -708 return 0.0, where the exact
+ * result is less than 3.4e-308, and larger inputs return positive infinity.
+ * 
+ * @author Mike
+ *
+ */
+public final class FastExp extends AFunctionOp {
+	public static final FastExp INSTANCE=new FastExp();
+	
+	private static final double LOG2E=1.4426950408889634;
+	private static final double LN2_HI=0.6931471803691238;
+	private static final double LN2_LO=1.9082149292705877e-10;
+	
+	private static final double ROUND=6755399441055744.0;
+	
+	private static final double MAX_ARG=709.782712893384;
+	private static final double MIN_ARG=-708.0;
+	
+	public static double fastExp(double x) {
+		if (!(x<MAX_ARG)) return (x!=x)?x:Double.POSITIVE_INFINITY;
+		if (x<MIN_ARG) return 0.0;
+		// adding and subtracting 1.5*2^52 rounds to the nearest integer without a library call
+		double k=(x*LOG2E+ROUND)-ROUND;
+		double r=(x-k*LN2_HI)-k*LN2_LO;
+		double p=1.0+r*(1.0+r*(1.0/2+r*(1.0/6+r*(1.0/24+r*(1.0/120+r*(1.0/720+r*(1.0/5040)))))));
+		// scale in two steps so that k=1024 does not overflow the exponent field
+		double scale=Double.longBitsToDouble(((long)k+1022)<<52);
+		return (p*scale)*2.0;
+	}
+	
+	@Override
+	public double apply(double x) {
+		return fastExp(x);
+	}
+	
+	@Override
+	public void applyTo(double[] data, int start, int length) {
+		for (int i=0; i<length; i++) {
+			data[start+i]=fastExp(data[start+i]);
+		}
+	}
+
+	@Override
+	public double derivative(double x) {
+		return fastExp(x);
+	}
+
+	@Override
+	public double derivativeForOutput(double y) {
+		return y;
+	}
+	
+	@Override public double applyInverse(double y) {
+		return FastLog.fastLog(y);
+	}
+
+	@Override public boolean hasDerivative() {return true;}
+	@Override public boolean hasInverse() {return true;}
+	@Override public Op getInverse() {return FastLog.INSTANCE;}
+
+	@Override public double minValue() {return 0.0;}
+
+	@Override public Op getDerivativeOp() {return this;}
+}
@@ -0,0 +1,77 @@
+package mikera.vectorz.ops;
+
+import mikera.vectorz.Op;
+import mikera.vectorz.Ops;
+
+/**
+ * Fast approximate natural logarithm.
+ * 
+ * Splits the argument into a binary exponent and a mantissa m in [sqrt(0.5), sqrt(2)), then
+ * evaluates log(m) with a short odd series in s=(m-1)/(m+1). The maximum absolute and relative
+ * errors are below 1e-10 for all positive finite inputs.
+ * 
+ * @author Mike
+ *
+ */
+public final class FastLog extends AFunctionOp {
+	public static final FastLog INSTANCE=new FastLog();
+	
+	private static final double LN2=0.6931471805599453;
+	private static final double SQRT2=1.4142135623730951;
+	private static final double TWO_54=18014398509481984.0;
+	
+	public static double fastLog(double x) {
+		if (!(x>0.0)) return (x==0.0)?Double.NEGATIVE_INFINITY:Double.NaN;
+		if (x==Double.POSITIVE_INFINITY) return x;
+		int e=0;
+		if (x<Double.MIN_NORMAL) {
+			x*=TWO_54;
+			e=-54;
+		}
+		long bits=Double.doubleToRawLongBits(x);
+		e+=(int)(bits>>>52)-1023;
+		double m=Double.longBitsToDouble((bits&0x000FFFFFFFFFFFFFL)|0x3FF0000000000000L);
+		if (m>SQRT2) {
+			m*=0.5;
+			e++;
+		}
+		double s=(m-1.0)/(m+1.0);
+		double s2=s*s;
+		double lm=2.0*s*(1.0+s2*(1.0/3+s2*(1.0/5+s2*(1.0/7+s2*(1.0/9+s2*(1.0/11))))));
+		return (e*LN2)+lm;
+	}
+	
+	@Override
+	public double apply(double x) {
+		return fastLog(x);
+	}
+	
+	@Override
+	public void applyTo(double[] data, int start, int length) {
+		for (int i=0; i<length; i++) {
+			data[start+i]=fastLog(data[start+i]);
+		}
+	}
+
+	@Override
+	public double derivative(double x) {
+		return 1.0/x;
+	}
+
+	@Override
+	public double derivativeForOutput(double y) {
+		return 1/FastExp.fastExp(y);
+	}
+	
+	@Override public double applyInverse(double y) {
+		return FastExp.fastExp(y);
+	}
+
+	@Override public boolean hasDerivative() {return true;}
+	@Override public boolean hasInverse() {return true;}
+
+	@Override public double minDomain() {return Double.MIN_VALUE;}
+
+	@Override public Op getInverse() {return FastExp.INSTANCE;}
+	@Override public Op getDerivativeOp() {return Ops.RECIPROCAL;}
+}
@@ -0,0 +1,61 @@
+package mikera.vectorz.ops;
+
+/**
+ * Fast approximate logistic function, computed as 1/(1+exp(-x)) using FastExp.
+ * 
+ * The maximum absolute error is below 1e-8 for all inputs.
+ * 
+ * @author Mike
+ *
+ */
+public final class FastLogistic extends ABoundedOp {
+	
+	public static final FastLogistic INSTANCE=new FastLogistic();
+	
+	public static double fastLogistic(double x) {
+		return 1.0/(1.0+FastExp.fastExp(-x));
+	}
+	
+	@Override
+	public double apply(double x) {
+		return fastLogistic(x);
+	}
+	
+	@Override
+	public void applyTo(double[] data, int start,int length) {
+		for (int i=0; i<length; i++) {
+			data[start+i]=fastLogistic(data[start+i]);
+		}
+	}
+	
+	@Override
+	public boolean hasDerivative() {
+		return true;
+	}
+	
+	@Override
+	public double derivativeForOutput(double y) {
+		return y*(1.0-y);
+	}
+	
+	@Override
+	public double derivative(double x) {
+		double y=fastLogistic(x);
+		return y*(1.0-y);
+	}
+
+	@Override
+	public double minValue() {
+		return 0.0;
+	}
+
+	@Override
+	public double maxValue() {
+		return 1.0;
+	}
+	
+	@Override
+	public double averageValue() {
+		return 0.5;
+	}
+}
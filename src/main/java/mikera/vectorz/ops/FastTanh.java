@@ -0,0 +1,67 @@
+package mikera.vectorz.ops;
+
+/**
+ * Fast approximate hyperbolic tangent, computed from FastExp as (1-t)/(1+t) with t=exp(-2|x|).
+ * 
+ * The maximum absolute error is below 1e-8 for all inputs. Results are exactly -1.0 or 1.0
+ * for |x| > 20.
+ * 
+ * @author Mike
+ *
+ */
+public final class FastTanh extends ABoundedOp {
+	
+	public static final FastTanh INSTANCE=new FastTanh();
+	
+	private static final double LIMIT=20.0;
+	
+	public static double fastTanh(double x) {
+		if (x>LIMIT) return 1.0;
+		if (x<-LIMIT) return -1.0;
+		double t=FastExp.fastExp(-2.0*Math.abs(x));
+		return Math.copySign((1.0-t)/(1.0+t),x);
+	}
+	
+	@Override
+	public double apply(double x) {
+		return fastTanh(x);
+	}
+	
+	@Override
+	public void applyTo(double[] data, int start,int length) {
+		for (int i=0; i<length; i++) {
+			data[start+i]=fastTanh(data[start+i]);
+		}
+	}
+	
+	@Override
+	public boolean hasDerivative() {
+		return true;
+	}
+	
+	@Override
+	public double derivativeForOutput(double y) {
+		return 1.0-y*y;
+	}
+	
+	@Override
+	public double derivative(double x) {
+		double y=fastTanh(x);
+		return 1.0-y*y;
+	}
+
+	@Override
+	public double minValue() {
+		return -1.0;
+	}
+	
+	@Override
+	public double averageValue() {
+		return 0.0;
+	}
+
+	@Override
+	public double maxValue() {
+		return 1.0;
+	}
+}
@@ -3,6 +3,7 @@ package mikera.vectorz.ops;
 import java.io.ObjectStreamException;
 
 import mikera.vectorz.AVector;
+import mikera.vectorz.util.DoubleArrays;
 
 public final class Logistic extends ABoundedOp {
 	
@@ -34,9 +35,7 @@ public final class Logistic extends ABoundedOp {
 	
 	@Override
 	public void applyTo(double[] data, int start,int length) {
-		for (int i=0; i<length; i++) {
-			data[i+start]=logisticFunction(data[i+start]);
-		}	
+		DoubleArrays.logistic(data, start, length);
 	}
 	
 	@Override
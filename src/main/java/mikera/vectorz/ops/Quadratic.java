@@ -51,17 +51,15 @@ public final class Quadratic extends APolynomialOp {
 	
 	@Override
 	public void applyTo(double[] data) {
-		for (int i=0; i<data.length; i++) {
-			double x=data[i];
-			data[i]=apply(x);
-		}
+		applyTo(data,0,data.length);
 	}
 	
 	@Override
 	public void applyTo(double[] data, int start,int length) {
+		double a=this.a, b=this.b, c=this.c;
 		for (int i=0; i<length; i++) {
 			double x=data[i+start];
-			data[i+start]=apply(x);
+			data[i+start]=(a*x*x)+(b*x)+c;
 		}	
 	}
 	
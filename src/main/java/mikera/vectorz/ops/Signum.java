@@ -2,6 +2,7 @@ package mikera.vectorz.ops;
 
 import mikera.arrayz.INDArray;
 import mikera.vectorz.AVector;
+import mikera.vectorz.util.DoubleArrays;
 
 public class Signum extends ARoundingOp {
 	public static final Signum INSTANCE=new Signum();
@@ -20,4 +21,9 @@ public class Signum extends ARoundingOp {
 	public void applyTo(AVector v) {
 		v.signum();
 	}
+	
+	@Override
+	public void applyTo(double[] data, int start, int length) {
+		DoubleArrays.signum(data, start, length);
+	}
 }
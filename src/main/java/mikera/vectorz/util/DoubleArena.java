@@ -0,0 +1,127 @@
+package mikera.vectorz.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import mikera.matrixx.impl.StridedMatrix;
+import mikera.vectorz.impl.ArraySubVector;
+
+/**
+ * Arena allocator for large numbers of small, short-lived vectors and matrices.
+ *
+ * Vectors and matrices are created as ArraySubVector and StridedMatrix views carved out of large
+ * shared double[] slabs, rather than each allocating its own double[]. Calling reset() releases
+ * everything created so far in one step, and the slabs are reused by the next batch, so that a
+ * steady-state workload allocates only the small view objects.
+ *
+ * WARNING: Views created before a reset() must not be used afterwards, since their storage will
+ * be reused by subsequently created views.
+ *
+ * DoubleArena is not thread safe. Use a separate arena for each thread.
+ *
+ * @author Mike
+ */
+public class DoubleArena {
+	public static final int DEFAULT_SLAB_SIZE=65536;
+
+	private final int slabSize;
+	private final ArrayList<double[]> slabs=new ArrayList<double[]>();
+	private int slabIndex=0;
+	private double[] current;
+	private int position=0;
+
+	public DoubleArena() {
+		this(DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Creates an arena using slabs of the given number of doubles. Requests larger than the slab
+	 * size are allocated individually and are not reused.
+	 */
+	public DoubleArena(int slabSize) {
+		if (slabSize<=0) throw new IllegalArgumentException("Slab size must be positive: "+slabSize);
+		this.slabSize=slabSize;
+		current=new double[slabSize];
+		slabs.add(current);
+	}
+
+	/**
+	 * Reserves a zero-filled region of the given length
+	 *
+	 * @return The offset of the region in the current slab
+	 */
+	private int reserve(int length) {
+		if (position+length>slabSize) {
+			slabIndex++;
+			if (slabIndex==slabs.size()) {
+				slabs.add(new double[slabSize]);
+			}
+			current=slabs.get(slabIndex);
+			position=0;
+		}
+		int offset=position;
+		Arrays.fill(current, offset, offset+length, 0.0);
+		position=offset+length;
+		return offset;
+	}
+
+	/**
+	 * Creates a zero-filled vector of the given length, backed by this arena
+	 */
+	public ArraySubVector createVector(int length) {
+		if (length<0) throw new IllegalArgumentException("Negative length: "+length);
+		if (length>slabSize) return ArraySubVector.wrap(new double[length]);
+		int offset=reserve(length);
+		return ArraySubVector.wrap(current, offset, length);
+	}
+
+	/**
+	 * Creates a zero-filled row-major matrix of the given shape, backed by this arena
+	 */
+	public StridedMatrix createMatrix(int rows, int cols) {
+		if ((rows<0)||(cols<0)) throw new IllegalArgumentException("Invalid shape ["+rows+","+cols+"]");
+		long n=((long)rows)*cols;
+		if (n>slabSize) return StridedMatrix.create(rows, cols);
+		int offset=reserve((int)n);
+		return StridedMatrix.wrap(current, rows, cols, offset, cols, 1);
+	}
+
+	/**
+	 * Releases all vectors and matrices created by this arena, so that their storage can be reused
+	 */
+	public void reset() {
+		slabIndex=0;
+		current=slabs.get(0);
+		position=0;
+	}
+
+	/**
+	 * Releases all vectors and matrices created by this arena, and also frees all but the first
+	 * slab
+	 */
+	public void clear() {
+		reset();
+		while (slabs.size()>1) {
+			slabs.remove(slabs.size()-1);
+		}
+	}
+
+	/**
+	 * Returns the number of doubles currently in use by this arena, including any unused space
+	 * left at the end of filled slabs
+	 */
+	public long usedCount() {
+		return ((long)slabIndex)*slabSize+position;
+	}
+
+	/**
+	 * Returns the total number of doubles in all slabs held by this arena
+	 */
+	public long capacity() {
+		return ((long)slabs.size())*slabSize;
+	}
+
+	public int slabSize() {
+		return slabSize;
+	}
+}
@@ -132,6 +132,146 @@ public final class DoubleArrays {
 		return result;	
 	}
 
+	/**
+	 * Block size below which pairwise summation switches to a direct loop
+	 */
+	private static final int PAIRWISE_BLOCK=512;
+	
+	/**
+	 * Sums a range of elements by pairwise summation. Blocks of up to 512 elements are summed
+	 * with four independent accumulators and the block sums are combined recursively, so
+	 * rounding error grows with O(log n) rather than O(n).
+	 */
+	public static double pairwiseSum(double[] data, int offset, int length) {
+		if (length>PAIRWISE_BLOCK) {
+			int half=length>>1;
+			return pairwiseSum(data,offset,half)+pairwiseSum(data,offset+half,length-half);
+		}
+		double s0=0.0, s1=0.0, s2=0.0, s3=0.0;
+		int i=0;
+		for (; i+3<length; i+=4) {
+			int j=offset+i;
+			s0+=data[j];
+			s1+=data[j+1];
+			s2+=data[j+2];
+			s3+=data[j+3];
+		}
+		for (; i<length; i++) {
+			s0+=data[offset+i];
+		}
+		return (s0+s1)+(s2+s3);
+	}
+	
+	/**
+	 * Sums the squares of a range of elements by pairwise summation
+	 */
+	public static double pairwiseSquaredSum(double[] data, int offset, int length) {
+		if (length>PAIRWISE_BLOCK) {
+			int half=length>>1;
+			return pairwiseSquaredSum(data,offset,half)+pairwiseSquaredSum(data,offset+half,length-half);
+		}
+		double s0=0.0, s1=0.0, s2=0.0, s3=0.0;
+		int i=0;
+		for (; i+3<length; i+=4) {
+			int j=offset+i;
+			double x0=data[j], x1=data[j+1], x2=data[j+2], x3=data[j+3];
+			s0+=x0*x0;
+			s1+=x1*x1;
+			s2+=x2*x2;
+			s3+=x3*x3;
+		}
+		for (; i<length; i++) {
+			double x=data[offset+i];
+			s0+=x*x;
+		}
+		return (s0+s1)+(s2+s3);
+	}
+	
+	/**
+	 * Computes the dot product of two ranges of elements by pairwise summation
+	 */
+	public static double pairwiseDotProduct(double[] a, int aOffset, double[] b, int bOffset, int length) {
+		if (length>PAIRWISE_BLOCK) {
+			int half=length>>1;
+			return pairwiseDotProduct(a,aOffset,b,bOffset,half)+pairwiseDotProduct(a,aOffset+half,b,bOffset+half,length-half);
+		}
+		double s0=0.0, s1=0.0, s2=0.0, s3=0.0;
+		int i=0;
+		for (; i+3<length; i+=4) {
+			int ja=aOffset+i, jb=bOffset+i;
+			s0+=a[ja]*b[jb];
+			s1+=a[ja+1]*b[jb+1];
+			s2+=a[ja+2]*b[jb+2];
+			s3+=a[ja+3]*b[jb+3];
+		}
+		for (; i<length; i++) {
+			s0+=a[aOffset+i]*b[bOffset+i];
+		}
+		return (s0+s1)+(s2+s3);
+	}
+	
+	/**
+	 * Sums a range of elements with Kahan-Babuska (Neumaier) compensated summation. The result
+	 * is accurate to within a few ulps regardless of length, at the cost of a dependent chain of
+	 * additions per element.
+	 */
+	public static double kahanSum(double[] data, int offset, int length) {
+		double sum=0.0;
+		double c=0.0;
+		for (int i=0; i<length; i++) {
+			double x=data[offset+i];
+			double t=sum+x;
+			if (Math.abs(sum)>=Math.abs(x)) {
+				c+=(sum-t)+x;
+			} else {
+				c+=(x-t)+sum;
+			}
+			sum=t;
+		}
+		return sum+c;
+	}
+	
+	/**
+	 * Sums the squares of a range of elements with compensated summation. The rounding of each
+	 * square is not compensated.
+	 */
+	public static double kahanSquaredSum(double[] data, int offset, int length) {
+		double sum=0.0;
+		double c=0.0;
+		for (int i=0; i<length; i++) {
+			double v=data[offset+i];
+			double x=v*v;
+			double t=sum+x;
+			if (sum>=x) {
+				c+=(sum-t)+x;
+			} else {
+				c+=(x-t)+sum;
+			}
+			sum=t;
+		}
+		return sum+c;
+	}
+	
+	/**
+	 * Computes the dot product of two ranges of elements with compensated summation. The
+	 * rounding of each product is not compensated.
+	 */
+	public static double kahanDotProduct(double[] a, int aOffset, double[] b, int bOffset, int length) {
+		double sum=0.0;
+		double c=0.0;
+		for (int i=0; i<length; i++) {
+			double x=a[aOffset+i]*b[bOffset+i];
+			double t=sum+x;
+			if (Math.abs(sum)>=Math.abs(x)) {
+				c+=(sum-t)+x;
+			} else {
+				c+=(x-t)+sum;
+			}
+			sum=t;
+		}
+		return sum+c;
+	}
+
 	public static double elementPowSum(double[] data, int offset,
 			int length, double exponent) {
 		double result = 0.0;
@@ -304,6 +444,12 @@ public final class DoubleArrays {
 		}
 	}
 	
+	public static void sub(double[] src, int srcOffset, double[] dest, int destOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]-=src[srcOffset+i];
+		}
+	}
+	
 	public static void clamp(double[] data, double min,double max) {
 		for (int i=0; i<data.length; i++) {
 			double v=data[i];
@@ -576,4 +722,40 @@ public final class DoubleArrays {
 		}
 	}
 
+	/**
+	 * Performs addition of two double array ranges and stores the result in the destination array
+	 */
+	public static void addResult(double[] dest, int destOffset, double[] as, int aOffset, double[] bs, int bOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=as[aOffset+i]+bs[bOffset+i];
+		}
+	}
+
+	/**
+	 * Performs subtraction of two double array ranges and stores the result in the destination array
+	 */
+	public static void subResult(double[] dest, int destOffset, double[] as, int aOffset, double[] bs, int bOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=as[aOffset+i]-bs[bOffset+i];
+		}
+	}
+
+	/**
+	 * Performs elementwise multiplication of two double array ranges and stores the result in the
+	 * destination array
+	 */
+	public static void multiplyResult(double[] dest, int destOffset, double[] as, int aOffset, double[] bs, int bOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=as[aOffset+i]*bs[bOffset+i];
+		}
+	}
+
+	/**
+	 * Scales a double array range and stores the result in the destination array
+	 */
+	public static void scaleResult(double[] dest, int destOffset, double[] src, int srcOffset, int length, double factor) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=src[srcOffset+i]*factor;
+		}
+	}
 }
@@ -44,6 +44,10 @@ public class ErrorMessages {
 		return "Incompatible shapes: "+shape(a)+" vs. "+shape(b);
 	}
 	
+	public static String incompatibleShapes(int[] a, int[] b) {
+		return "Incompatible shapes: "+shape(a)+" vs. "+shape(b);
+	}
+	
 	public static String incompatibleShape(INDArray m) {
 		return "Incompatible shape: "+shape(m);
 	}
@@ -0,0 +1,115 @@
+package mikera.vectorz.util;
+
+/**
+ * Static kernels over ranges of float arrays, used by the single precision vector and matrix types.
+ *
+ * Values are stored as floats to halve memory traffic, but products and sums are computed in double
+ * precision so that long reductions do not lose accuracy.
+ *
+ * @author Mike
+ */
+public final class FloatArrays {
+	public static final float[] EMPTY = new float[0];
+
+	private FloatArrays() {}
+
+	public static double elementSum(float[] data, int offset, int length) {
+		double result=0.0;
+		for (int i=0; i<length; i++) {
+			result+=data[offset+i];
+		}
+		return result;
+	}
+
+	public static double elementSquaredSum(float[] data, int offset, int length) {
+		double result=0.0;
+		for (int i=0; i<length; i++) {
+			double x=data[offset+i];
+			result+=x*x;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the dot product of two ranges of float elements
+	 */
+	public static double dotProduct(float[] a, int aOffset, float[] b, int bOffset, int length) {
+		double r0=0.0, r1=0.0, r2=0.0, r3=0.0;
+		int i=0;
+		for (; i<=length-4; i+=4) {
+			r0+=(double)a[aOffset+i]*b[bOffset+i];
+			r1+=(double)a[aOffset+i+1]*b[bOffset+i+1];
+			r2+=(double)a[aOffset+i+2]*b[bOffset+i+2];
+			r3+=(double)a[aOffset+i+3]*b[bOffset+i+3];
+		}
+		for (; i<length; i++) {
+			r0+=(double)a[aOffset+i]*b[bOffset+i];
+		}
+		return (r0+r1)+(r2+r3);
+	}
+
+	/**
+	 * Computes the dot product of a range of float elements with a range of double elements
+	 */
+	public static double dotProduct(float[] a, int aOffset, double[] b, int bOffset, int length) {
+		double r0=0.0, r1=0.0;
+		int i=0;
+		for (; i<=length-2; i+=2) {
+			r0+=(double)a[aOffset+i]*b[bOffset+i];
+			r1+=(double)a[aOffset+i+1]*b[bOffset+i+1];
+		}
+		if (i<length) {
+			r0+=(double)a[aOffset+i]*b[bOffset+i];
+		}
+		return r0+r1;
+	}
+
+	public static void multiply(float[] data, int offset, int length, double factor) {
+		for (int i=0; i<length; i++) {
+			data[offset+i]=(float)(data[offset+i]*factor);
+		}
+	}
+
+	public static void add(float[] src, int srcOffset, float[] dest, int destOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]+=src[srcOffset+i];
+		}
+	}
+
+	public static void addMultiple(float[] dest, int destOffset, float[] src, int srcOffset, int length, double factor) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=(float)(dest[destOffset+i]+src[srcOffset+i]*factor);
+		}
+	}
+
+	public static void addMultiple(float[] dest, int destOffset, double[] src, int srcOffset, int length, double factor) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=(float)(dest[destOffset+i]+src[srcOffset+i]*factor);
+		}
+	}
+
+	/**
+	 * Copies a range of float elements into a double array
+	 */
+	public static void copy(float[] src, int srcOffset, double[] dest, int destOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=src[srcOffset+i];
+		}
+	}
+
+	/**
+	 * Copies a range of double elements into a float array, rounding to the nearest float
+	 */
+	public static void copy(double[] src, int srcOffset, float[] dest, int destOffset, int length) {
+		for (int i=0; i<length; i++) {
+			dest[destOffset+i]=(float)src[srcOffset+i];
+		}
+	}
+
+	public static boolean isZero(float[] data, int offset, int length) {
+		for (int i=0; i<length; i++) {
+			if (data[offset+i]!=0.0f) return false;
+		}
+		return true;
+	}
+}
@@ -191,6 +191,39 @@ public class IntArrays {
 		return min;
 	}
 
+	/**
+	 * Finds the first position in the sorted range [from,to) of an array with a value greater than
+	 * or equal to the key, or to if there is no such position.
+	 *
+	 * Uses a galloping (exponential) search forward from the start of the range, so the cost is
+	 * O(log d) where d is the distance moved. This makes it suitable for merging sorted arrays of
+	 * very different sizes.
+	 */
+	public static int gallopSearch(int[] data, int from, int to, int key) {
+		if ((from>=to)||(data[from]>=key)) return from;
+		int lo=from; // invariant: data[lo]<key
+		int step=1;
+		while (true) {
+			int hi=((to-lo)>step)?(lo+step):to;
+			if ((hi==to)||(data[hi]>=key)) {
+				// binary search in (lo,hi]
+				int min=lo+1;
+				int max=hi;
+				while (min<max) {
+					int mid=(min+max)>>>1;
+					if (data[mid]<key) {
+						min=mid+1;
+					} else {
+						max=mid;
+					}
+				}
+				return min;
+			}
+			lo=hi;
+			step<<=1;
+		}
+	}
+
 	public static int[] decrementAll(int[] xs) {
 		int len=xs.length;
 		int[] rs=new int[len];
@@ -235,11 +268,14 @@ public class IntArrays {
 		return nas;
 	}
 	
-	private static int countMatches(int[] xs, int[] ys) {
+	/**
+	 * Counts the values shared by two sorted arrays of distinct values
+	 */
+	public static int countMatches(int[] xs, int xn, int[] ys, int yn) {
 		int res=0;
 		int xi=0;
 		int yi=0;
-		while ((xi<xs.length)&&(yi<ys.length)) {
+		while ((xi<xn)&&(yi<yn)) {
 			int x=xs[xi];
 			int y=ys[yi];
 			if (x==y) {
@@ -247,37 +283,171 @@ public class IntArrays {
 				xi++;
 				yi++;
 			} else if (x<y) {
-				xi++;
+				xi=gallopSearch(xs, xi+1, xn, y);
 			} else {
-				yi++;
+				yi=gallopSearch(ys, yi+1, yn, x);
 			}
 		}
 		return res;
 	}
 
+	/**
+	 * Merges two sorted arrays of distinct values into their sorted union
+	 */
 	public static int[] mergeSorted(int[] xs, int[] ys) {
 		int xl=xs.length; if (xl==0) return ys.clone();
 		int yl=ys.length; if (yl==0) return xs.clone();
-		int ms = countMatches(xs,ys);
-		int[] rs=new int[xl+yl-ms];
+		int[] rs=new int[xl+yl-countMatches(xs,xl,ys,yl)];
+		unionSorted(xs,xl,ys,yl,rs,null,null);
+		return rs;
+	}
+
+	/**
+	 * Computes the sorted union of two sorted arrays of distinct values
+	 */
+	public static int[] unionSorted(int[] xs, int[] ys) {
+		return mergeSorted(xs,ys);
+	}
+
+	/**
+	 * Computes the sorted intersection of two sorted arrays of distinct values
+	 */
+	public static int[] intersectSorted(int[] xs, int[] ys) {
+		int[] rs=new int[Math.min(xs.length, ys.length)];
+		int n=intersectSorted(xs,xs.length,ys,ys.length,rs);
+		return (n==rs.length)?rs:Arrays.copyOf(rs, n);
+	}
+
+	/**
+	 * Computes the values of a sorted array of distinct values that are not present in a second
+	 * sorted array of distinct values
+	 */
+	public static int[] differenceSorted(int[] xs, int[] ys) {
+		int[] rs=new int[xs.length];
+		int n=differenceSorted(xs,xs.length,ys,ys.length,rs);
+		return (n==rs.length)?rs:Arrays.copyOf(rs, n);
+	}
+
+	/**
+	 * Writes the sorted union of the first xn values of xs and the first yn values of ys to dest,
+	 * where both inputs are sorted and distinct. Performs no allocation.
+	 *
+	 * If xPos or yPos are not null, they are filled with the position in dest of each input value,
+	 * which allows data associated with either input to be moved directly into place.
+	 *
+	 * Runs of values present in only one input are located by galloping search and copied in bulk.
+	 *
+	 * @return The number of values written to dest, which requires capacity of at least xn+yn in general
+	 */
+	public static int unionSorted(int[] xs, int xn, int[] ys, int yn, int[] dest, int[] xPos, int[] yPos) {
 		int xi=0;
 		int yi=0;
-		for (int i=0; i<rs.length; i++) {
-			int x=(xi<xl)?xs[xi]:Integer.MAX_VALUE;
-			int y=(yi<yl)?ys[yi]:Integer.MAX_VALUE;
+		int k=0;
+		while ((xi<xn)&&(yi<yn)) {
+			int x=xs[xi];
+			int y=ys[yi];
 			if (x==y) {
-				rs[i]=x;
+				if (xPos!=null) xPos[xi]=k;
+				if (yPos!=null) yPos[yi]=k;
+				dest[k++]=x;
 				xi++;
 				yi++;
 			} else if (x<y) {
-				rs[i]=x;
+				int end=gallopSearch(xs, xi+1, xn, y);
+				k=copyRun(xs,xi,end,dest,k,xPos);
+				xi=end;
+			} else {
+				int end=gallopSearch(ys, yi+1, yn, x);
+				k=copyRun(ys,yi,end,dest,k,yPos);
+				yi=end;
+			}
+		}
+		k=copyRun(xs,xi,xn,dest,k,xPos);
+		k=copyRun(ys,yi,yn,dest,k,yPos);
+		return k;
+	}
+
+	private static int copyRun(int[] src, int start, int end, int[] dest, int k, int[] pos) {
+		int n=end-start;
+		System.arraycopy(src, start, dest, k, n);
+		if (pos!=null) {
+			for (int i=start; i<end; i++) {
+				pos[i]=k++;
+			}
+			return k;
+		}
+		return k+n;
+	}
+
+	/**
+	 * Writes the sorted intersection of the first xn values of xs and the first yn values of ys to
+	 * dest, where both inputs are sorted and distinct. Performs no allocation.
+	 *
+	 * @return The number of values written to dest
+	 */
+	public static int intersectSorted(int[] xs, int xn, int[] ys, int yn, int[] dest) {
+		int xi=0;
+		int yi=0;
+		int k=0;
+		while ((xi<xn)&&(yi<yn)) {
+			int x=xs[xi];
+			int y=ys[yi];
+			if (x==y) {
+				dest[k++]=x;
 				xi++;
+				yi++;
+			} else if (x<y) {
+				xi=gallopSearch(xs, xi+1, xn, y);
 			} else {
-				rs[i]=y;
+				yi=gallopSearch(ys, yi+1, yn, x);
+			}
+		}
+		return k;
+	}
+
+	/**
+	 * Writes the values among the first xn values of xs that are not among the first yn values of
+	 * ys to dest, where both inputs are sorted and distinct. Performs no allocation.
+	 *
+	 * @return The number of values written to dest
+	 */
+	public static int differenceSorted(int[] xs, int xn, int[] ys, int yn, int[] dest) {
+		int xi=0;
+		int yi=0;
+		int k=0;
+		while ((xi<xn)&&(yi<yn)) {
+			int x=xs[xi];
+			int y=ys[yi];
+			if (x==y) {
+				xi++;
 				yi++;
+			} else if (x<y) {
+				int end=gallopSearch(xs, xi+1, xn, y);
+				System.arraycopy(xs, xi, dest, k, end-xi);
+				k+=end-xi;
+				xi=end;
+			} else {
+				yi=gallopSearch(ys, yi+1, yn, x);
 			}
 		}
-		return rs;
+		System.arraycopy(xs, xi, dest, k, xn-xi);
+		return k+(xn-xi);
+	}
+
+	/**
+	 * Sorts the first n values of an array in place and removes duplicates
+	 *
+	 * @return The number of distinct values, which are left at the start of the array
+	 */
+	public static int sortDistinct(int[] xs, int n) {
+		if (n==0) return 0;
+		Arrays.sort(xs, 0, n);
+		int k=1;
+		for (int i=1; i<n; i++) {
+			int x=xs[i];
+			if (x!=xs[k-1]) xs[k++]=x;
+		}
+		return k;
 	}
 
 	public static boolean validIndex(int[] as, int[] shape) {
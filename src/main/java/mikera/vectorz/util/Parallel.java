@@ -0,0 +1,357 @@
+package mikera.vectorz.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import mikera.arrayz.INDArray;
+import mikera.arrayz.impl.IDenseArray;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Op;
+import mikera.vectorz.impl.ADenseArrayVector;
+
+/**
+ * Opt-in parallel execution of elementwise operations and reductions over large dense arrays.
+ *
+ * Arrays are split into chunks of CHUNK_SIZE elements which are processed on a shared pool of
+ * daemon threads, with the calling thread taking a share of the work. Reductions compute one
+ * partial result per chunk and combine the partial results pairwise in a fixed order, so results
+ * depend only on the array length and are the same for any number of threads. Arrays shorter
+ * than the threshold are always processed sequentially.
+ *
+ * Parallel execution may be enabled globally with setEnabled(true), in which case the dense
+ * vector, matrix and array implementations use it automatically for large arrays. Alternatively
+ * the static methods of this class may be called directly, which parallelises large arrays
+ * regardless of the global setting.
+ *
+ * @author Mike
+ */
+public final class Parallel {
+	/**
+	 * Number of elements in each chunk of work
+	 */
+	public static final int CHUNK_SIZE=16384;
+
+	/**
+	 * Default minimum number of elements for parallel execution
+	 */
+	public static final int DEFAULT_THRESHOLD=262144;
+
+	private static final int THREAD_COUNT=Runtime.getRuntime().availableProcessors();
+
+	private static volatile boolean enabled=false;
+	private static volatile int threshold=DEFAULT_THRESHOLD;
+
+	private static ExecutorService executor=null;
+
+	private Parallel() {}
+
+	/**
+	 * Returns true if parallel execution is enabled globally
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables parallel execution globally for the dense vector, matrix and array
+	 * implementations. Disabled by default.
+	 */
+	public static void setEnabled(boolean value) {
+		enabled=value;
+	}
+
+	/**
+	 * Returns the minimum number of elements for which operations are run in parallel
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Sets the minimum number of elements for which operations are run in parallel
+	 */
+	public static void setThreshold(int value) {
+		if (value<0) throw new IllegalArgumentException("Negative threshold: "+value);
+		threshold=value;
+	}
+
+	/**
+	 * Returns true if an operation over the given number of elements should use parallel execution
+	 * under the global policy
+	 */
+	public static boolean useParallel(long elementCount) {
+		return enabled&&(elementCount>=threshold);
+	}
+
+	/**
+	 * Computes the sum of a range of elements
+	 */
+	public static double elementSum(final double[] data, final int offset, int length) {
+		if (length<threshold) return DoubleArrays.elementSum(data, offset, length);
+		return reduce(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				return DoubleArrays.elementSum(data, offset+start, n);
+			}
+		},length);
+	}
+
+	/**
+	 * Computes the sum of squares of a range of elements
+	 */
+	public static double elementSquaredSum(final double[] data, final int offset, int length) {
+		if (length<threshold) return DoubleArrays.elementSquaredSum(data, offset, length);
+		return reduce(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				return DoubleArrays.elementSquaredSum(data, offset+start, n);
+			}
+		},length);
+	}
+
+	/**
+	 * Computes the dot product of two ranges of elements
+	 */
+	public static double dotProduct(final double[] a, final int aOffset, final double[] b, final int bOffset, int length) {
+		if (length<threshold) return DoubleArrays.dotProduct(a, aOffset, b, bOffset, length);
+		return reduce(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				return DoubleArrays.dotProduct(a, aOffset+start, b, bOffset+start, n);
+			}
+		},length);
+	}
+
+	/**
+	 * Applies an Op in place to a range of elements
+	 */
+	public static void applyOp(final Op op, final double[] data, final int offset, int length) {
+		if (length<threshold) {
+			op.applyTo(data, offset, length);
+			return;
+		}
+		execute(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				op.applyTo(data, offset+start, n);
+				return 0.0;
+			}
+		},length);
+	}
+
+	/**
+	 * Adds a multiple of a range of source elements to a range of destination elements
+	 */
+	public static void addMultiple(final double[] dest, final int destOffset, final double[] src, final int srcOffset, int length, final double factor) {
+		if (length<threshold) {
+			DoubleArrays.addMultiple(dest, destOffset, src, srcOffset, length, factor);
+			return;
+		}
+		execute(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				DoubleArrays.addMultiple(dest, destOffset+start, src, srcOffset+start, n, factor);
+				return 0.0;
+			}
+		},length);
+	}
+
+	/**
+	 * Multiplies a range of elements in place by a constant factor
+	 */
+	public static void multiply(final double[] data, final int offset, int length, final double factor) {
+		if (length<threshold) {
+			DoubleArrays.multiply(data, offset, length, factor);
+			return;
+		}
+		execute(new ChunkTask() {
+			@Override
+			double run(int start, int n) {
+				DoubleArrays.multiply(data, offset+start, n, factor);
+				return 0.0;
+			}
+		},length);
+	}
+
+	/**
+	 * Computes the sum of all elements of an array, in parallel if the array is dense and large
+	 */
+	public static double elementSum(INDArray a) {
+		if (a instanceof IDenseArray) {
+			IDenseArray d=(IDenseArray)a;
+			return elementSum(d.getArray(), d.getArrayOffset(), (int)a.elementCount());
+		}
+		return a.elementSum();
+	}
+
+	/**
+	 * Computes the sum of squares of all elements of an array, in parallel if the array is dense
+	 * and large
+	 */
+	public static double elementSquaredSum(INDArray a) {
+		if (a instanceof IDenseArray) {
+			IDenseArray d=(IDenseArray)a;
+			return elementSquaredSum(d.getArray(), d.getArrayOffset(), (int)a.elementCount());
+		}
+		return a.elementSquaredSum();
+	}
+
+	/**
+	 * Computes the dot product of two vectors, in parallel if both are dense and large
+	 */
+	public static double dotProduct(AVector a, AVector b) {
+		int length=a.length();
+		if (b.length()!=length) throw new IllegalArgumentException(ErrorMessages.mismatch(a, b));
+		if ((a instanceof ADenseArrayVector)&&(b instanceof ADenseArrayVector)) {
+			ADenseArrayVector da=(ADenseArrayVector)a;
+			ADenseArrayVector db=(ADenseArrayVector)b;
+			return dotProduct(da.getArray(), da.getArrayOffset(), db.getArray(), db.getArrayOffset(), length);
+		}
+		return a.dotProduct(b);
+	}
+
+	/**
+	 * Applies an Op in place to all elements of an array, in parallel if the array is dense,
+	 * mutable and large
+	 */
+	public static void applyOp(INDArray a, Op op) {
+		if ((a instanceof IDenseArray)&&(a.isFullyMutable())) {
+			IDenseArray d=(IDenseArray)a;
+			applyOp(op, d.getArray(), d.getArrayOffset(), (int)a.elementCount());
+			return;
+		}
+		a.applyOp(op);
+	}
+
+	/**
+	 * Adds a multiple of the source vector to the destination vector, in parallel if both are
+	 * dense and large
+	 */
+	public static void addMultiple(AVector dest, AVector src, double factor) {
+		int length=dest.length();
+		if (src.length()!=length) throw new IllegalArgumentException(ErrorMessages.mismatch(dest, src));
+		if ((dest instanceof ADenseArrayVector)&&(src instanceof ADenseArrayVector)) {
+			ADenseArrayVector dd=(ADenseArrayVector)dest;
+			ADenseArrayVector ds=(ADenseArrayVector)src;
+			addMultiple(dd.getArray(), dd.getArrayOffset(), ds.getArray(), ds.getArrayOffset(), length, factor);
+			return;
+		}
+		dest.addMultiple(src, factor);
+	}
+
+	/**
+	 * A unit of work over a contiguous chunk of elements, identified relative to the start of the
+	 * range being processed
+	 */
+	private static abstract class ChunkTask {
+		/**
+		 * Processes a chunk, returning a partial result for reductions
+		 */
+		abstract double run(int start, int length);
+	}
+
+	private static double reduce(ChunkTask task, int length) {
+		double[] partials=execute(task,length);
+		return pairwiseSum(partials,0,partials.length);
+	}
+
+	/**
+	 * Sums values by recursive halving, so the order of combination depends only on the count
+	 */
+	private static double pairwiseSum(double[] values, int start, int n) {
+		if (n<=2) {
+			if (n==2) return values[start]+values[start+1];
+			return (n==1)?values[start]:0.0;
+		}
+		int half=n>>1;
+		return pairwiseSum(values,start,half)+pairwiseSum(values,start+half,n-half);
+	}
+
+	private static double[] execute(final ChunkTask task, final int length) {
+		final int chunks=(length+CHUNK_SIZE-1)/CHUNK_SIZE;
+		final double[] partials=new double[chunks];
+		int tasks=Math.min(THREAD_COUNT, chunks);
+		if ((tasks<=1)||(Thread.currentThread() instanceof WorkerThread)) {
+			runChunks(task,length,partials,0,chunks);
+			return partials;
+		}
+
+		ExecutorService ex=getExecutor();
+		ArrayList<Future<?>> futures=new ArrayList<Future<?>>(tasks-1);
+		for (int t=1; t<tasks; t++) {
+			final int c0=(int)(((long)chunks*t)/tasks);
+			final int c1=(int)(((long)chunks*(t+1))/tasks);
+			futures.add(ex.submit(new Runnable() {
+				@Override
+				public void run() {
+					runChunks(task,length,partials,c0,c1);
+				}
+			}));
+		}
+
+		Throwable error=null;
+		try {
+			runChunks(task,length,partials,0,chunks/tasks);
+		} catch (Throwable t) {
+			error=t;
+		}
+		// wait for all workers even after a failure, so no task still touches the arrays on return
+		boolean interrupted=false;
+		for (Future<?> f: futures) {
+			while (true) {
+				try {
+					f.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted=true;
+				} catch (ExecutionException e) {
+					if (error==null) error=e.getCause();
+					break;
+				}
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+		if (error!=null) {
+			if (error instanceof RuntimeException) throw (RuntimeException)error;
+			if (error instanceof Error) throw (Error)error;
+			throw new VectorzException("Parallel operation failed",error);
+		}
+		return partials;
+	}
+
+	private static void runChunks(ChunkTask task, int length, double[] partials, int c0, int c1) {
+		for (int c=c0; c<c1; c++) {
+			int start=c*CHUNK_SIZE;
+			partials[c]=task.run(start, Math.min(CHUNK_SIZE, length-start));
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor==null) {
+			executor=Executors.newFixedThreadPool(THREAD_COUNT, new ThreadFactory() {
+				private int count=0;
+
+				@Override
+				public synchronized Thread newThread(Runnable r) {
+					return new WorkerThread(r,"vectorz-parallel-"+(count++));
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Pool thread. Parallel operations started from a pool thread run sequentially, so nested
+	 * use cannot deadlock waiting for the pool.
+	 */
+	private static final class WorkerThread extends Thread {
+		WorkerThread(Runnable r, String name) {
+			super(r,name);
+			setDaemon(true);
+		}
+	}
+}
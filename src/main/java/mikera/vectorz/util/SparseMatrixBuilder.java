@@ -0,0 +1,151 @@
+package mikera.vectorz.util;
+
+import java.util.Arrays;
+
+import mikera.matrixx.impl.SparseColumnMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+/**
+ * Utility class for efficiently assembling sparse matrices from coordinate (row, column, value)
+ * triples, as in the COO sparse format.
+ *
+ * Triples may be appended in any order and the same position may be appended more than once.
+ * Assembly buckets the triples by row (or column) with a counting sort, then sorts and merges
+ * each line once, so the total cost is close to linear in the number of triples. Duplicate
+ * positions are summed, and entries that sum to zero are dropped. Lines with no non-zero
+ * entries are left empty in the resulting matrix.
+ *
+ * @author Mike
+ */
+public class SparseMatrixBuilder {
+	private final int rows;
+	private final int cols;
+	private int[] rowIndices;
+	private int[] colIndices;
+	private double[] values;
+	private int count=0;
+
+	public SparseMatrixBuilder(int rows, int cols) {
+		this(rows,cols,16);
+	}
+
+	public SparseMatrixBuilder(int rows, int cols, int initialCapacity) {
+		if ((rows<0)||(cols<0)) throw new IllegalArgumentException("Invalid shape ["+rows+","+cols+"]");
+		this.rows=rows;
+		this.cols=cols;
+		int capacity=Math.max(initialCapacity, 4);
+		rowIndices=new int[capacity];
+		colIndices=new int[capacity];
+		values=new double[capacity];
+	}
+
+	private void ensureCapacity(int newSize) {
+		if (newSize>values.length) {
+			int capacity=(int)Math.min(Integer.MAX_VALUE-8, Math.max(newSize, values.length*2L));
+			rowIndices=Arrays.copyOf(rowIndices, capacity);
+			colIndices=Arrays.copyOf(colIndices, capacity);
+			values=Arrays.copyOf(values, capacity);
+		}
+	}
+
+	/**
+	 * Appends a value at the given position. Values appended at the same position are summed.
+	 */
+	public void append(int row, int col, double value) {
+		if ((row<0)||(row>=rows)||(col<0)||(col>=cols)) {
+			throw new IndexOutOfBoundsException("Position ["+row+","+col+"] out of range for matrix of shape ["+rows+","+cols+"]");
+		}
+		int n=count;
+		if (n==values.length) ensureCapacity(n+1);
+		rowIndices[n]=row;
+		colIndices[n]=col;
+		values[n]=value;
+		count=n+1;
+	}
+
+	/**
+	 * Appends a set of coordinate triples taken from the given arrays
+	 */
+	public void append(int[] rowIxs, int[] colIxs, double[] vals) {
+		int n=vals.length;
+		if (rowIxs.length!=n) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(n, rowIxs.length));
+		if (colIxs.length!=n) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(n, colIxs.length));
+		ensureCapacity(count+n);
+		for (int k=0; k<n; k++) {
+			append(rowIxs[k],colIxs[k],vals[k]);
+		}
+	}
+
+	/**
+	 * Returns the number of triples currently buffered, including any duplicates
+	 */
+	public int count() {
+		return count;
+	}
+
+	public int rowCount() {
+		return rows;
+	}
+
+	public int columnCount() {
+		return cols;
+	}
+
+	/**
+	 * Removes all buffered triples, retaining the allocated capacity
+	 */
+	public void clear() {
+		count=0;
+	}
+
+	/**
+	 * Assembles a SparseRowMatrix containing the sum of all appended values
+	 */
+	public SparseRowMatrix toSparseRowMatrix() {
+		return SparseRowMatrix.wrap(buildLines(rowIndices,colIndices,rows,cols), rows, cols);
+	}
+
+	/**
+	 * Assembles a SparseColumnMatrix containing the sum of all appended values
+	 */
+	public SparseColumnMatrix toSparseColumnMatrix() {
+		return SparseColumnMatrix.wrap(buildLines(colIndices,rowIndices,cols,rows), rows, cols);
+	}
+
+	/**
+	 * Buckets the buffered triples by line, then sorts and merges each line into a
+	 * SparseIndexedVector. Empty lines are left as null.
+	 */
+	private AVector[] buildLines(int[] lineIxs, int[] posIxs, int lineCount, int lineLength) {
+		int n=count;
+		int[] starts=new int[lineCount+1];
+		for (int k=0; k<n; k++) {
+			starts[lineIxs[k]+1]++;
+		}
+		for (int i=0; i<lineCount; i++) {
+			starts[i+1]+=starts[i];
+		}
+
+		int[] ixs=new int[n];
+		double[] vals=new double[n];
+		int[] next=Arrays.copyOf(starts, lineCount);
+		for (int k=0; k<n; k++) {
+			int p=next[lineIxs[k]]++;
+			ixs[p]=posIxs[k];
+			vals[p]=values[k];
+		}
+
+		AVector[] lines=new AVector[lineCount];
+		for (int i=0; i<lineCount; i++) {
+			int start=starts[i];
+			int len=starts[i+1]-start;
+			if (len==0) continue;
+			int nz=SparseVectorBuilder.sortAndMerge(ixs, vals, start, len, lineLength-1);
+			if (nz==0) continue;
+			lines[i]=SparseIndexedVector.wrap(lineLength, Arrays.copyOfRange(ixs, start, start+nz), Arrays.copyOfRange(vals, start, start+nz));
+		}
+		return lines;
+	}
+}
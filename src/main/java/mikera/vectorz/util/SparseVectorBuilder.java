@@ -0,0 +1,198 @@
+package mikera.vectorz.util;
+
+import java.util.Arrays;
+
+import mikera.vectorz.impl.SparseIndexedVector;
+
+/**
+ * Utility class for efficiently building sparse vectors from (index, value) pairs.
+ *
+ * Pairs may be appended in any order and the same index may be appended more than once.
+ * Appending is amortised O(1): pairs are buffered in primitive arrays and are only sorted,
+ * merged and summed once when the vector is built. Duplicate indices are summed, and
+ * entries that sum to zero are dropped.
+ *
+ * This avoids the O(n) cost of inserting each new non-zero with SparseIndexedVector.set,
+ * which makes element-wise construction quadratic in the number of non-zeros.
+ *
+ * @author Mike
+ */
+public class SparseVectorBuilder {
+	private static final int INSERTION_SORT_THRESHOLD=32;
+	private static final int RADIX_BITS=8;
+	private static final int RADIX=1<<RADIX_BITS;
+
+	private final int length;
+	private int[] indices;
+	private double[] values;
+	private int count=0;
+
+	public SparseVectorBuilder(int length) {
+		this(length,16);
+	}
+
+	public SparseVectorBuilder(int length, int initialCapacity) {
+		if (length<0) throw new IllegalArgumentException("Negative length: "+length);
+		this.length=length;
+		indices=new int[Math.max(initialCapacity,4)];
+		values=new double[indices.length];
+	}
+
+	private void ensureCapacity(int newSize) {
+		if (newSize>indices.length) {
+			int capacity=(int)Math.min(Integer.MAX_VALUE-8, Math.max(newSize, indices.length*2L));
+			indices=Arrays.copyOf(indices, capacity);
+			values=Arrays.copyOf(values, capacity);
+		}
+	}
+
+	/**
+	 * Appends a value at the given index. Values appended at the same index are summed.
+	 */
+	public void append(int i, double value) {
+		if ((i<0)||(i>=length)) throw new IndexOutOfBoundsException("Index "+i+" out of range for sparse vector of length "+length);
+		int n=count;
+		if (n==indices.length) ensureCapacity(n+1);
+		indices[n]=i;
+		values[n]=value;
+		count=n+1;
+	}
+
+	/**
+	 * Appends a set of (index, value) pairs taken from the given arrays
+	 */
+	public void append(int[] ixs, double[] vals) {
+		int n=ixs.length;
+		if (vals.length!=n) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(n, vals.length));
+		ensureCapacity(count+n);
+		for (int k=0; k<n; k++) {
+			int i=ixs[k];
+			if ((i<0)||(i>=length)) throw new IndexOutOfBoundsException("Index "+i+" out of range for sparse vector of length "+length);
+		}
+		System.arraycopy(ixs, 0, indices, count, n);
+		System.arraycopy(vals, 0, values, count, n);
+		count+=n;
+	}
+
+	/**
+	 * Returns the number of pairs currently buffered, including any duplicates
+	 */
+	public int count() {
+		return count;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Removes all buffered pairs, retaining the allocated capacity
+	 */
+	public void clear() {
+		count=0;
+	}
+
+	/**
+	 * Builds a SparseIndexedVector containing the sum of all appended values.
+	 *
+	 * The builder remains usable afterwards, holding the merged pairs.
+	 */
+	public SparseIndexedVector toSparseIndexedVector() {
+		count=sortAndMerge(indices,values,0,count,length-1);
+		return SparseIndexedVector.wrap(length, Arrays.copyOf(indices, count), Arrays.copyOf(values, count));
+	}
+
+	/**
+	 * Sorts a range of (index, value) pairs by index, then sums values with equal indices and
+	 * removes zero values, compacting the result to the start of the range.
+	 *
+	 * @return The number of distinct non-zero entries remaining
+	 */
+	static int sortAndMerge(int[] ixs, double[] vals, int start, int n, int maxIndex) {
+		if (!isSorted(ixs,start,n)) {
+			sortPairs(ixs,vals,start,n,maxIndex);
+		}
+		int end=start+n;
+		int w=start;
+		int r=start;
+		while (r<end) {
+			int i=ixs[r];
+			double v=vals[r++];
+			while ((r<end)&&(ixs[r]==i)) {
+				v+=vals[r++];
+			}
+			if (v!=0.0) {
+				ixs[w]=i;
+				vals[w]=v;
+				w++;
+			}
+		}
+		return w-start;
+	}
+
+	private static boolean isSorted(int[] ixs, int start, int n) {
+		for (int k=start+1; k<start+n; k++) {
+			if (ixs[k]<ixs[k-1]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Sorts a range of pairs by index, using insertion sort for small ranges and a LSD radix sort
+	 * with as many 8-bit passes as the largest index requires otherwise
+	 */
+	static void sortPairs(int[] ixs, double[] vals, int start, int n, int maxIndex) {
+		if (n<=INSERTION_SORT_THRESHOLD) {
+			insertionSort(ixs,vals,start,n);
+			return;
+		}
+		int[] tmpIxs=new int[n];
+		double[] tmpVals=new double[n];
+		int[] counts=new int[RADIX];
+
+		int[] srcIxs=ixs; double[] srcVals=vals; int srcStart=start;
+		int[] dstIxs=tmpIxs; double[] dstVals=tmpVals; int dstStart=0;
+		for (int shift=0; (shift<32)&&((maxIndex>>>shift)!=0); shift+=RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for (int k=0; k<n; k++) {
+				counts[(srcIxs[srcStart+k]>>>shift)&(RADIX-1)]++;
+			}
+			int pos=0;
+			for (int b=0; b<RADIX; b++) {
+				int c=counts[b];
+				counts[b]=pos;
+				pos+=c;
+			}
+			for (int k=0; k<n; k++) {
+				int i=srcIxs[srcStart+k];
+				int p=dstStart+(counts[(i>>>shift)&(RADIX-1)]++);
+				dstIxs[p]=i;
+				dstVals[p]=srcVals[srcStart+k];
+			}
+
+			int[] ti=srcIxs; srcIxs=dstIxs; dstIxs=ti;
+			double[] tv=srcVals; srcVals=dstVals; dstVals=tv;
+			int ts=srcStart; srcStart=dstStart; dstStart=ts;
+		}
+		if (srcIxs!=ixs) {
+			System.arraycopy(srcIxs, srcStart, ixs, start, n);
+			System.arraycopy(srcVals, srcStart, vals, start, n);
+		}
+	}
+
+	private static void insertionSort(int[] ixs, double[] vals, int start, int n) {
+		int end=start+n;
+		for (int k=start+1; k<end; k++) {
+			int i=ixs[k];
+			double v=vals[k];
+			int p=k-1;
+			while ((p>=start)&&(ixs[p]>i)) {
+				ixs[p+1]=ixs[p];
+				vals[p+1]=vals[p];
+				p--;
+			}
+			ixs[p+1]=i;
+			vals[p+1]=v;
+		}
+	}
+}
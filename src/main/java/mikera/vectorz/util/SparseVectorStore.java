@@ -0,0 +1,136 @@
+package mikera.vectorz.util;
+
+import java.util.Arrays;
+
+import mikera.vectorz.AVector;
+import mikera.vectorz.impl.ADenseArrayVector;
+import mikera.vectorz.impl.CompactSparseVector;
+import mikera.vectorz.impl.CompactSparseVector.ValueFormat;
+
+/**
+ * Append-only store for large numbers of sparse vectors of the same length, encoded as
+ * CompactSparseVector records in a single shared byte[] slab.
+ *
+ * The store holds only the slab and one int offset per vector, so the memory used per vector is
+ * a few bytes of header plus the encoded indices and values. Vectors are returned as lightweight
+ * CompactSparseVector views which need not be retained by the caller. Views remain valid after
+ * further vectors are added, since existing records are never modified.
+ *
+ * The slab is limited to 2GB, so very large collections should be partitioned across several
+ * stores.
+ *
+ * @author Mike
+ */
+public class SparseVectorStore {
+	private final int length;
+	private final ValueFormat format;
+	private byte[] slab;
+	private int slabSize=0;
+	private int[] offsets;
+	private int count=0;
+
+	public SparseVectorStore(int length, ValueFormat format) {
+		this(length,format,16,1024);
+	}
+
+	public SparseVectorStore(int length, ValueFormat format, int initialVectors, int initialBytes) {
+		if (length<0) throw new IllegalArgumentException("Negative length: "+length);
+		this.length=length;
+		this.format=format;
+		offsets=new int[Math.max(initialVectors, 4)];
+		slab=new byte[Math.max(initialBytes, 64)];
+	}
+
+	private void ensureSlabCapacity(int newSize) {
+		if (newSize<0) throw new IllegalStateException("SparseVectorStore is full");
+		if (newSize>slab.length) {
+			long capacity=Math.max(newSize, slab.length*2L);
+			slab=Arrays.copyOf(slab, (int)Math.min(Integer.MAX_VALUE-8, capacity));
+		}
+	}
+
+	/**
+	 * Adds the non-zero elements of a vector to the store
+	 *
+	 * @return The id of the stored vector, which is the number of vectors previously added
+	 */
+	public int add(AVector v) {
+		if (v.length()!=length) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(length, v.length()));
+		int[] ixs=v.nonZeroIndices();
+		ensureSlabCapacity(slabSize+CompactSparseVector.maxEncodedSize(ixs.length, format));
+		if (count==offsets.length) offsets=Arrays.copyOf(offsets, offsets.length*2);
+		offsets[count]=slabSize;
+		slabSize=CompactSparseVector.encode(v, ixs, format, slab, slabSize);
+		return count++;
+	}
+
+	/**
+	 * Returns a view of the stored vector with the given id
+	 */
+	public CompactSparseVector get(int id) {
+		if ((id<0)||(id>=count)) throw new IndexOutOfBoundsException("Vector id "+id+" out of range for store of size "+count);
+		return CompactSparseVector.wrap(length, slab, offsets[id]);
+	}
+
+	/**
+	 * Computes the dot product of a stored vector with a dense vector
+	 */
+	public double dotProduct(int id, AVector v) {
+		return get(id).dotProduct(v);
+	}
+
+	/**
+	 * Computes the dot product of every stored vector with a dense vector, writing the results
+	 * to the dest array in order of id
+	 */
+	public void dotProductAll(AVector v, double[] dest, int destOffset) {
+		if (v.length()!=length) throw new IllegalArgumentException(ErrorMessages.incompatibleShapes(length, v.length()));
+		double[] data;
+		int offset;
+		if (v instanceof ADenseArrayVector) {
+			ADenseArrayVector dv=(ADenseArrayVector)v;
+			data=dv.getArray();
+			offset=dv.getArrayOffset();
+		} else {
+			data=v.toDoubleArray();
+			offset=0;
+		}
+		for (int i=0; i<count; i++) {
+			dest[destOffset+i]=CompactSparseVector.wrap(length, slab, offsets[i]).dotProduct(data, offset);
+		}
+	}
+
+	/**
+	 * Returns the number of vectors in the store
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * Returns the length of the vectors in the store
+	 */
+	public int length() {
+		return length;
+	}
+
+	public ValueFormat getValueFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns the number of bytes used by the encoded vectors and their offsets, excluding any
+	 * spare capacity
+	 */
+	public long byteSize() {
+		return slabSize+4L*count;
+	}
+
+	/**
+	 * Releases any spare capacity in the store
+	 */
+	public void trimToSize() {
+		slab=Arrays.copyOf(slab, slabSize);
+		offsets=Arrays.copyOf(offsets, count);
+	}
+}
@@ -0,0 +1,80 @@
+package mikera.vectorz.util;
+
+/**
+ * Summation algorithms available for reductions such as elementSum, elementSquaredSum and
+ * dotProduct.
+ * 
+ * NAIVE is a single accumulator loop, as used by the default reductions. PAIRWISE uses
+ * recursive pairwise summation with independent accumulators, which is typically at least as
+ * fast as NAIVE and has error growing with O(log n). KAHAN uses Neumaier compensated summation,
+ * which is accurate to a few ulps for any length but is slower.
+ * 
+ * @author Mike
+ */
+public enum Summation {
+	NAIVE {
+		@Override
+		public double sum(double[] data, int offset, int length) {
+			return DoubleArrays.elementSum(data, offset, length);
+		}
+
+		@Override
+		public double squaredSum(double[] data, int offset, int length) {
+			return DoubleArrays.elementSquaredSum(data, offset, length);
+		}
+
+		@Override
+		public double dotProduct(double[] a, int aOffset, double[] b, int bOffset, int length) {
+			return DoubleArrays.dotProduct(a, aOffset, b, bOffset, length);
+		}
+	},
+	
+	PAIRWISE {
+		@Override
+		public double sum(double[] data, int offset, int length) {
+			return DoubleArrays.pairwiseSum(data, offset, length);
+		}
+
+		@Override
+		public double squaredSum(double[] data, int offset, int length) {
+			return DoubleArrays.pairwiseSquaredSum(data, offset, length);
+		}
+
+		@Override
+		public double dotProduct(double[] a, int aOffset, double[] b, int bOffset, int length) {
+			return DoubleArrays.pairwiseDotProduct(a, aOffset, b, bOffset, length);
+		}
+	},
+	
+	KAHAN {
+		@Override
+		public double sum(double[] data, int offset, int length) {
+			return DoubleArrays.kahanSum(data, offset, length);
+		}
+
+		@Override
+		public double squaredSum(double[] data, int offset, int length) {
+			return DoubleArrays.kahanSquaredSum(data, offset, length);
+		}
+
+		@Override
+		public double dotProduct(double[] a, int aOffset, double[] b, int bOffset, int length) {
+			return DoubleArrays.kahanDotProduct(a, aOffset, b, bOffset, length);
+		}
+	};
+	
+	/**
+	 * Sums a range of elements
+	 */
+	public abstract double sum(double[] data, int offset, int length);
+	
+	/**
+	 * Sums the squares of a range of elements
+	 */
+	public abstract double squaredSum(double[] data, int offset, int length);
+	
+	/**
+	 * Computes the dot product of two ranges of elements
+	 */
+	public abstract double dotProduct(double[] a, int aOffset, double[] b, int bOffset, int length);
+}
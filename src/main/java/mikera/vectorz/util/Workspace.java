@@ -0,0 +1,161 @@
+package mikera.vectorz.util;
+
+import java.util.Arrays;
+
+/**
+ * Thread-local pool of reusable scratch arrays for temporary storage within algorithms.
+ *
+ * Arrays are pooled in size classes of powers of two, so an acquired array may be longer than
+ * requested. Each thread has its own pool, so no synchronisation is needed, and an algorithm that
+ * acquires and releases its buffers on every call allocates nothing once the pool is warm.
+ *
+ * Arrays obtained with acquire(...) contain arbitrary values left by previous users, and should
+ * be passed back with release(...) once no longer needed. An array must not be used after it has
+ * been released, and must be released at most once. Failing to release an array is harmless: it
+ * is simply left to the garbage collector.
+ *
+ * Requests larger than MAX_POOLED_LENGTH are allocated directly and are never retained. The
+ * arrays retained by each thread are also limited to MAX_POOLED_BYTES in total, so that a thread
+ * that has finished with its buffers keeps at most a small, bounded amount of memory alive.
+ *
+ * @author Mike
+ */
+public final class Workspace {
+	private static final int MIN_CLASS=4;
+	private static final int MAX_CLASS=17;
+	private static final int DEPTH=4;
+
+	/**
+	 * Largest array length that will be retained in the pool
+	 */
+	public static final int MAX_POOLED_LENGTH=1<<MAX_CLASS;
+
+	/**
+	 * Maximum total size in bytes of the arrays retained in the pool of each thread
+	 */
+	public static final long MAX_POOLED_BYTES=4L*1024*1024;
+
+	private static final ThreadLocal<Workspace> LOCAL=new ThreadLocal<Workspace>() {
+		@Override
+		protected Workspace initialValue() {
+			return new Workspace();
+		}
+	};
+
+	private final double[][][] doubles=new double[MAX_CLASS+1][DEPTH][];
+	private final int[] doubleCounts=new int[MAX_CLASS+1];
+	private final int[][][] ints=new int[MAX_CLASS+1][DEPTH][];
+	private final int[] intCounts=new int[MAX_CLASS+1];
+	private long pooledBytes=0;
+
+	private Workspace() {
+	}
+
+	/**
+	 * Returns the size class for arrays of at least the given length
+	 */
+	private static int sizeClass(int length) {
+		if (length<=(1<<MIN_CLASS)) return MIN_CLASS;
+		return 32-Integer.numberOfLeadingZeros(length-1);
+	}
+
+	/**
+	 * Returns the size class of an array of the given length if it can be pooled, or -1 otherwise
+	 */
+	private static int pooledClass(int length) {
+		if ((length&(length-1))!=0) return -1;
+		int c=Integer.numberOfTrailingZeros(length);
+		return ((c<MIN_CLASS)||(c>MAX_CLASS))?-1:c;
+	}
+
+	/**
+	 * Acquires a double[] array of at least the given length, with arbitrary contents
+	 */
+	public static double[] acquire(int length) {
+		if (length>MAX_POOLED_LENGTH) return new double[length];
+		return LOCAL.get().takeDoubles(sizeClass(length));
+	}
+
+	/**
+	 * Acquires a double[] array of at least the given length, with the first length elements set
+	 * to zero
+	 */
+	public static double[] acquireZeroed(int length) {
+		double[] result=acquire(length);
+		Arrays.fill(result, 0, length, 0.0);
+		return result;
+	}
+
+	/**
+	 * Acquires an int[] array of at least the given length, with arbitrary contents
+	 */
+	public static int[] acquireInts(int length) {
+		if (length>MAX_POOLED_LENGTH) return new int[length];
+		return LOCAL.get().takeInts(sizeClass(length));
+	}
+
+	/**
+	 * Returns a double[] array to the pool of the current thread
+	 */
+	public static void release(double[] array) {
+		int c=pooledClass(array.length);
+		if (c<0) return;
+		LOCAL.get().putDoubles(c,array);
+	}
+
+	/**
+	 * Returns an int[] array to the pool of the current thread
+	 */
+	public static void release(int[] array) {
+		int c=pooledClass(array.length);
+		if (c<0) return;
+		LOCAL.get().putInts(c,array);
+	}
+
+	/**
+	 * Discards all arrays pooled by the current thread
+	 */
+	public static void clear() {
+		LOCAL.remove();
+	}
+
+	private double[] takeDoubles(int c) {
+		int n=doubleCounts[c];
+		if (n==0) return new double[1<<c];
+		double[][] stack=doubles[c];
+		double[] result=stack[--n];
+		stack[n]=null;
+		doubleCounts[c]=n;
+		pooledBytes-=8L<<c;
+		return result;
+	}
+
+	private void putDoubles(int c, double[] array) {
+		int n=doubleCounts[c];
+		long bytes=8L<<c;
+		if ((n==DEPTH)||(pooledBytes+bytes>MAX_POOLED_BYTES)) return;
+		doubles[c][n]=array;
+		doubleCounts[c]=n+1;
+		pooledBytes+=bytes;
+	}
+
+	private int[] takeInts(int c) {
+		int n=intCounts[c];
+		if (n==0) return new int[1<<c];
+		int[][] stack=ints[c];
+		int[] result=stack[--n];
+		stack[n]=null;
+		intCounts[c]=n;
+		pooledBytes-=4L<<c;
+		return result;
+	}
+
+	private void putInts(int c, int[] array) {
+		int n=intCounts[c];
+		long bytes=4L<<c;
+		if ((n==DEPTH)||(pooledBytes+bytes>MAX_POOLED_BYTES)) return;
+		ints[c][n]=array;
+		intCounts[c]=n+1;
+		pooledBytes+=bytes;
+	}
+}
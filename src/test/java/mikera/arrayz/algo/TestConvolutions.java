@@ -0,0 +1,110 @@
+package mikera.arrayz.algo;
+
+import static org.junit.Assert.*;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.NDArray;
+
+import org.junit.Test;
+
+public class TestConvolutions {
+
+	private static INDArray randomArray(long seed, int... shape) {
+		INDArray a=Array.newArray(shape);
+		Arrayz.fillNormal(a, seed);
+		return a;
+	}
+
+	/**
+	 * Reference 2D correlation using direct element access
+	 */
+	private static INDArray naiveCorrelate2D(INDArray in, INDArray k, int stride, int pad, int dil) {
+		int n=in.getShape(0), c=in.getShape(1), h=in.getShape(2), w=in.getShape(3);
+		int o=k.getShape(0), kh=k.getShape(2), kw=k.getShape(3);
+		int oh=(h+2*pad-dil*(kh-1)-1)/stride+1;
+		int ow=(w+2*pad-dil*(kw-1)-1)/stride+1;
+		INDArray r=Array.newArray(n,o,oh,ow);
+		for (int b=0; b<n; b++) for (int oi=0; oi<o; oi++) for (int y=0; y<oh; y++) for (int x=0; x<ow; x++) {
+			double acc=0;
+			for (int ci=0; ci<c; ci++) for (int i=0; i<kh; i++) for (int j=0; j<kw; j++) {
+				int iy=y*stride-pad+i*dil;
+				int ix=x*stride-pad+j*dil;
+				if ((iy<0)||(iy>=h)||(ix<0)||(ix>=w)) continue;
+				acc+=in.get(b,ci,iy,ix)*k.get(oi,ci,i,j);
+			}
+			r.set(new int[] {b,oi,y,x},acc);
+		}
+		return r;
+	}
+
+	@Test public void testCorrelate2D() {
+		INDArray in=randomArray(1,2,3,9,8);
+		INDArray k=randomArray(2,4,3,3,2);
+		INDArray r=Convolutions.correlate(in, k);
+		assertArrayEquals(new int[] {2,4,7,7},r.getShape());
+		assertTrue(naiveCorrelate2D(in,k,1,0,1).epsilonEquals(r,1e-10));
+
+		int[] two={2,2};
+		int[] one={1,1};
+		r=Convolutions.correlate(in, k, two, one, two);
+		assertTrue(naiveCorrelate2D(in,k,2,1,2).epsilonEquals(r,1e-10));
+	}
+
+	@Test public void testFFTMatchesIm2col() {
+		INDArray in=randomArray(3,2,2,20,18);
+		INDArray k=randomArray(4,3,2,9,9);
+		int[] pad={2,1};
+		int[] one={1,1};
+		INDArray direct=Convolutions.correlateIm2col(in, k, one, pad, one, false);
+		INDArray fft=Convolutions.correlateFFT(in, k, pad);
+		assertTrue(direct.epsilonEquals(fft,1e-8));
+		assertTrue(direct.epsilonEquals(Convolutions.correlate(in, k, one, pad, one),1e-8));
+	}
+
+	@Test public void testConvolve1D() {
+		INDArray in=Array.wrap(new double[] {1,2,3,4}, new int[] {1,1,4});
+		INDArray k=Array.wrap(new double[] {1,0,-1}, new int[] {1,1,3});
+		assertEquals(Array.wrap(new double[] {-2,-2}, new int[] {1,1,2}),Convolutions.correlate(in, k));
+		assertEquals(Array.wrap(new double[] {2,2}, new int[] {1,1,2}),Convolutions.convolve(in, k));
+	}
+
+	@Test public void testConvolve3D() {
+		INDArray in=randomArray(5,1,2,5,5,5);
+		INDArray k=randomArray(6,2,2,2,2,2);
+		INDArray r=Convolutions.convolve(in, k);
+		assertArrayEquals(new int[] {1,2,4,4,4},r.getShape());
+		double acc=0;
+		for (int ci=0; ci<2; ci++) for (int i=0; i<2; i++) for (int j=0; j<2; j++) for (int l=0; l<2; l++) {
+			acc+=in.get(0,ci,1+i,2+j,3+l)*k.get(1,ci,1-i,1-j,1-l);
+		}
+		assertEquals(acc,r.get(0,1,1,2,3),1e-10);
+	}
+
+	@Test public void testNonDenseInput() {
+		INDArray in=randomArray(7,2,3,6,6);
+		INDArray k=randomArray(8,2,3,3,3);
+		INDArray nd=NDArray.newArray(2,3,6,6);
+		nd.set(in);
+		assertTrue(Convolutions.correlate(in, k).epsilonEquals(Convolutions.correlate(nd, k),1e-12));
+	}
+
+	@Test public void testPooling() {
+		INDArray in=Array.wrap(new double[] {1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16}, new int[] {1,1,4,4});
+		int[] two={2,2};
+		assertEquals(Array.wrap(new double[] {6,8,14,16}, new int[] {1,1,2,2}),Pooling.maxPool(in, two));
+		assertEquals(Array.wrap(new double[] {3.5,5.5,11.5,13.5}, new int[] {1,1,2,2}),Pooling.averagePool(in, two));
+
+		int[] one={1,1};
+		INDArray p=Pooling.averagePool(in, two, two, one);
+		assertArrayEquals(new int[] {1,1,3,3},p.getShape());
+		assertEquals(1.0,p.get(0,0,0,0),0.0);
+		assertEquals(16.0,Pooling.maxPool(in, two, two, one).get(0,0,2,2),0.0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testChannelMismatch() {
+		Convolutions.correlate(Array.newArray(1,2,5), Array.newArray(1,3,2));
+	}
+}
@@ -0,0 +1,81 @@
+package mikera.arrayz.expr;
+
+import static org.junit.Assert.*;
+import mikera.arrayz.Array;
+import mikera.arrayz.INDArray;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Ops;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestExpressions {
+
+	@Test public void testVectorChain() {
+		int n=2000; // spans several blocks
+		AVector a=Vectorz.createUniformRandomVector(n);
+		AVector b=Vectorz.createUniformRandomVector(n);
+		AVector c=Vectorz.createUniformRandomVector(n);
+
+		AVector expected=a.addCopy(b).multiplyCopy(c).applyOpCopy(Ops.TANH);
+		INDArray result=Expressions.wrap(a).add(b).multiply(c).applyOp(Ops.TANH).evaluate();
+		assertTrue(result instanceof AVector);
+		assertTrue(expected.epsilonEquals(result));
+	}
+
+	@Test public void testNonDenseOperands() {
+		AMatrix m=Matrixx.createRandomMatrix(30, 40);
+		AMatrix t=Matrixx.createRandomMatrix(40, 30).getTranspose();
+
+		AMatrix expected=m.clone();
+		expected.add(t);
+		expected.multiply(2.0);
+
+		Matrix dest=Matrix.create(30, 40);
+		Expressions.wrap(m).add(t).multiply(2.0).evaluateInto(dest);
+		assertTrue(expected.epsilonEquals(dest));
+
+		// non-dense destination
+		AMatrix tdest=Matrix.create(40, 30).getTranspose();
+		Expressions.wrap(m).add(t).multiply(2.0).evaluateInto(tdest);
+		assertTrue(expected.epsilonEquals(tdest));
+	}
+
+	@Test public void testConstants() {
+		AVector a=Vector.of(1,2,3);
+		assertEquals(Vector.of(0.5,0,-0.5),Expressions.constant(1.0).sub(a).divide(2.0).add(0.5).evaluate());
+		assertEquals(Vector.of(2,3,4),Expressions.constant(1.0).add(a).evaluate());
+	}
+
+	@Test public void testNDArray() {
+		INDArray a=Array.newArray(3,4,5);
+		a.fill(2.0);
+		INDArray b=a.clone();
+		b.fill(3.0);
+		INDArray r=Expressions.multiply(a, b).sub(1.0).evaluate();
+		assertEquals(3,r.dimensionality());
+		assertTrue(r.elementsEqual(5.0));
+	}
+
+	@Test public void testAliasedDestination() {
+		Vector a=Vector.of(1,2,3);
+		Vector b=Vector.of(10,20,30);
+		Expressions.wrap(b).sub(a).evaluateInto(a);
+		assertEquals(Vector.of(9,18,27),a);
+
+		Vector v=Vector.of(1,2,3,4,5);
+		AVector head=v.subVector(0, 4);
+		AVector tail=v.subVector(1, 4);
+		Expressions.wrap(head).add(1.0).evaluateInto(tail);
+		assertEquals(Vector.of(1,2,3,4,5),v);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testShapeMismatch() {
+		Expressions.add(Vector.of(1,2), Vector.of(1,2,3));
+	}
+}
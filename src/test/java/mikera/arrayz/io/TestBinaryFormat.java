@@ -0,0 +1,92 @@
+package mikera.arrayz.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.arrayz.NDArray;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.matrixx.impl.SparseColumnMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Scalar;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+import org.junit.Test;
+
+public class TestBinaryFormat {
+
+	private static INDArray roundTrip(INDArray a) throws IOException {
+		ByteArrayOutputStream bos=new ByteArrayOutputStream();
+		BinaryFormat.write(a, bos);
+		INDArray r=BinaryFormat.read(new ByteArrayInputStream(bos.toByteArray()));
+		assertEquals(a,r);
+		return r;
+	}
+
+	@Test public void testDense() throws IOException {
+		assertTrue(roundTrip(Vector.of(1,2,3)) instanceof Vector);
+		assertTrue(roundTrip(Matrixx.createRandomMatrix(3, 4)) instanceof Matrix);
+		INDArray a=Array.newArray(2,3,4);
+		Arrayz.fillNormal(a, 1);
+		assertTrue(roundTrip(a) instanceof Array);
+		assertEquals(3.0,roundTrip(Scalar.create(3.0)).get(),0.0);
+		roundTrip(Vector.createLength(0));
+	}
+
+	@Test public void testNonDense() throws IOException {
+		roundTrip(Matrixx.createRandomMatrix(5, 3).getTranspose());
+		INDArray nd=NDArray.newArray(2,3,4);
+		Arrayz.fillNormal(nd, 2);
+		roundTrip(nd);
+		roundTrip(Vectorz.createUniformRandomVector(50000).subVector(5, 20000));
+	}
+
+	@Test public void testLargeVector() throws IOException {
+		// larger than the transfer buffer
+		Vector v=Vector.createLength(100001);
+		Arrayz.fillNormal(v, 3);
+		roundTrip(v);
+	}
+
+	@Test public void testSparse() throws IOException {
+		SparseIndexedVector sv=SparseIndexedVector.wrap(1000, new int[] {3,70,999}, new double[] {1,2,3});
+		assertTrue(roundTrip(sv) instanceof SparseIndexedVector);
+
+		SparseRowMatrix srm=SparseRowMatrix.create(4, 1000);
+		srm.replaceRow(1, sv);
+		AMatrix r=(AMatrix)roundTrip(srm);
+		assertTrue(r instanceof SparseRowMatrix);
+		assertEquals(3,r.nonZeroCount());
+
+		SparseColumnMatrix scm=SparseColumnMatrix.create(1000, 3);
+		scm.replaceColumn(2, sv);
+		assertTrue(roundTrip(scm) instanceof SparseColumnMatrix);
+	}
+
+	@Test public void testMultipleArrays() throws IOException {
+		ByteArrayOutputStream bos=new ByteArrayOutputStream();
+		AVector a=Vector.of(1,2);
+		AMatrix b=Matrixx.createRandomMatrix(2, 2);
+		BinaryFormat.write(a, bos);
+		BinaryFormat.write(b, bos);
+		ByteArrayInputStream bis=new ByteArrayInputStream(bos.toByteArray());
+		assertEquals(a,BinaryFormat.read(bis));
+		assertEquals(b,BinaryFormat.read(bis));
+		assertEquals(0,bis.available());
+	}
+
+	@Test(expected=IOException.class)
+	public void testBadHeader() throws IOException {
+		BinaryFormat.read(new ByteArrayInputStream(new byte[] {1,2,3,4,5,6,7,8}));
+	}
+}
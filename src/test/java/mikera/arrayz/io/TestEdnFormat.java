@@ -0,0 +1,83 @@
+package mikera.arrayz.io;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.vectorz.Scalar;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestEdnFormat {
+
+	private static INDArray read(String s) {
+		return EdnFormat.read(new StringReader(s));
+	}
+
+	@Test public void testShapes() {
+		assertEquals(Scalar.create(1.5),read("1.5"));
+		assertEquals(Vector.of(1,2,3),read("[1 2 3]"));
+		assertEquals(Vector.of(1,2,3),read("(1, 2, 3)"));
+		assertEquals(Matrix.create(new double[][] {{1,2},{3,4}}),read("[[1 2] [3 4]]"));
+		assertArrayEquals(new int[] {2,2,1},read("[[[1] [2]] [[3] [4]]]").getShape());
+		assertArrayEquals(new int[] {0},read("[]").getShape());
+		assertArrayEquals(new int[] {2,0},read("[[] []]").getShape());
+	}
+
+	@Test public void testNumbers() {
+		INDArray a=read("[0 -0.0 +7 1N 2.5M 1e3 -1.5E-3 0.1 123456789012345678901 1e-320 NaN Infinity -Infinity]");
+		double[] expected=new double[] {0,-0.0,7,1,2.5,1000,-0.0015,0.1,123456789012345678901.0,1e-320,Double.NaN,Double.POSITIVE_INFINITY,Double.NEGATIVE_INFINITY};
+		assertArrayEquals(expected,a.toDoubleArray(),0.0);
+		assertEquals(Double.doubleToLongBits(-0.0),Double.doubleToLongBits(a.get(1)));
+	}
+
+	@Test public void testWhitespaceAndComments() {
+		assertEquals(Vector.of(1,2),read(" ; comment\n[1 ; inner comment\n ,,2]\n"));
+	}
+
+	@Test public void testInconsistentShape() {
+		try {
+			read("[[1 2] [3]]");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+		try {
+			read("[[1 2] 3]");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
+
+	@Test public void testFallback() {
+		// discard form is handled by the general edn parser after a numeric prefix
+		assertEquals(Matrix.create(new double[][] {{1,2},{3,4}}),read("[[1 2] [3 #_ 100 4]]"));
+		assertEquals(Vector.of(1,2),read("#_ [5] [1 2]"));
+	}
+
+	@Test public void testRoundTrip() {
+		INDArray a=Array.newArray(3,4,5);
+		Arrayz.fillNormal(a, 1);
+		assertEquals(a,read(EdnFormat.toString(a)));
+		assertEquals(a.toString(),EdnFormat.toString(a));
+
+		AMatrix m=Matrixx.createRandomMatrix(20, 30);
+		assertEquals(m,read(EdnFormat.toString(m)));
+		assertEquals(m.toString(),EdnFormat.toString(m.getTranspose().getTranspose()));
+
+		Vector v=Vector.create(Vectorz.createUniformRandomVector(10000));
+		assertEquals(v,read(EdnFormat.toString(v)));
+		assertEquals(v.toString(),EdnFormat.toString(v));
+
+		assertEquals(Scalar.create(2.0),read(EdnFormat.toString(Scalar.create(2.0))));
+	}
+}
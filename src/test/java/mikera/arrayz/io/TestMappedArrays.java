@@ -0,0 +1,120 @@
+package mikera.arrayz.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import mikera.arrayz.Array;
+import mikera.arrayz.Arrayz;
+import mikera.arrayz.INDArray;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrixx;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+import org.junit.Test;
+
+public class TestMappedArrays {
+
+	private static File save(INDArray a) throws IOException {
+		File f=File.createTempFile("vectorz-mapped", ".vzba");
+		f.deleteOnExit();
+		FileOutputStream out=new FileOutputStream(f);
+		try {
+			BinaryFormat.write(a, out);
+		} finally {
+			out.close();
+		}
+		return f;
+	}
+
+	@Test public void testMapVector() throws IOException {
+		Vector v=Vector.createLength(1000);
+		Arrayz.fillNormal(v, 1);
+		File f=save(v);
+		MappedVector mv=MappedArrays.mapVector(f, false);
+		assertEquals(v,mv);
+		assertFalse(mv.isMutable());
+		assertEquals(v.dotProduct(v),mv.dotProduct(v),0.000001);
+		assertEquals(v.subVector(10, 100),mv.subVector(10, 100));
+		try {
+			mv.set(0, 1.0);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// OK
+		}
+
+		MappedVector clone=mv.exactClone();
+		assertTrue(clone.isFullyMutable());
+		clone.set(0, 10.0);
+		assertEquals(10.0,clone.get(0),0.0);
+		assertEquals(v.get(0),mv.get(0),0.0);
+	}
+
+	@Test public void testMapMatrix() throws IOException {
+		AMatrix m=Matrixx.createRandomMatrix(7, 5);
+		File f=save(m);
+		MappedMatrix mm=MappedArrays.mapMatrix(f, false);
+		assertEquals(m,mm);
+		assertEquals(m.getRow(3),mm.getRow(3));
+		AVector x=Vector.of(1,2,3,4,5);
+		assertEquals(m.transform(x),mm.transform(x));
+		assertEquals(m,mm.exactClone());
+	}
+
+	@Test public void testCopyOnWrite() throws IOException {
+		AMatrix m=Matrixx.createRandomMatrix(4, 4);
+		File f=save(m);
+		MappedMatrix mm=MappedArrays.mapMatrix(f, true);
+		assertTrue(mm.isFullyMutable());
+		mm.set(1, 2, 100.0);
+		mm.getRowView(3).fill(2.0);
+		assertEquals(100.0,mm.get(1, 2),0.0);
+		assertEquals(2.0,mm.get(3, 0),0.0);
+
+		// file contents are unchanged
+		assertEquals(m,MappedArrays.map(f));
+	}
+
+	@Test public void testHigherDimensions() throws IOException {
+		INDArray a=Array.newArray(3,4,5);
+		Arrayz.fillNormal(a, 2);
+		INDArray ma=MappedArrays.map(save(a));
+		assertEquals(a,ma);
+		assertTrue(ma.slice(1) instanceof MappedMatrix);
+	}
+
+	@Test public void testChunkBoundaries() throws IOException {
+		Vector v=Vector.createLength(100);
+		Arrayz.fillNormal(v, 3);
+		AMatrix m=Matrixx.createRandomMatrix(9, 7);
+		// 16 elements per chunk, so rows and sub-vectors span chunks
+		INDArray mv=MappedArrays.map(save(v),false,4);
+		assertEquals(v,mv);
+		assertEquals(v.subVector(13, 40),((AVector)mv).subVector(13, 40));
+		assertEquals(v.dotProduct(v),((AVector)mv).dotProduct(v),0.000001);
+		MappedMatrix mm=(MappedMatrix)MappedArrays.map(save(m),true,4);
+		assertEquals(m,mm);
+		assertEquals(m,mm.exactClone());
+		mm.getRowView(2).fill(1.0);
+		assertEquals(Vector.of(1,1,1,1,1,1,1),mm.getRow(2));
+	}
+
+	@Test public void testNotMappable() throws IOException {
+		try {
+			MappedArrays.map(save(SparseIndexedVector.create(Vector.of(0,1,0))));
+			fail();
+		} catch (IOException e) {
+			// OK
+		}
+		try {
+			MappedArrays.mapMatrix(save(Vector.of(1,2)),false);
+			fail();
+		} catch (IOException e) {
+			// OK
+		}
+	}
+}
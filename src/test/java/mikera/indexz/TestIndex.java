@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.util.HashSet;
 
+import mikera.indexz.impl.CompressedIndex;
 import mikera.indexz.impl.ComputedIndex;
 
 import org.junit.Test;
@@ -132,6 +133,52 @@ public class TestIndex {
 			}	
 		};
 		doTests(ci);
+		
+		doTests(CompressedIndex.create(Index.of(1,5,200,70000)));
+		doTests(CompressedIndex.create(Index.of()));
+	}
+	
+	@Test public void testCompressedIndex() {
+		int n=1000;
+		int[] values=new int[n];
+		java.util.Random r=new java.util.Random(17);
+		int v=r.nextInt(10);
+		for (int i=0; i<n; i++) {
+			values[i]=v;
+			v+=1+((i%100==0)?r.nextInt(1000000):r.nextInt(20));
+		}
+		CompressedIndex ci=CompressedIndex.create(values);
+		assertEquals(n,ci.length());
+		assertTrue(ci.isDistinctSorted());
+		for (int i=0; i<n; i++) {
+			assertEquals(values[i],ci.get(i));
+			assertEquals(i,ci.indexPosition(values[i]));
+			assertTrue(ci.containsSorted(values[i]));
+			assertEquals((i<n-1)&&(values[i+1]==values[i]+1),ci.containsSorted(values[i]+1));
+		}
+		assertEquals(-1,ci.indexPosition(values[0]-1));
+		assertEquals(-1,ci.indexPosition(values[n-1]+1));
+		assertEquals(values[0],ci.minIndex());
+		assertEquals(values[n-1],ci.maxIndex());
+		assertEquals(Index.of(values),ci.toIndex());
+		assertTrue(ci.byteSize()<4L*n);
+	}
+	
+	@Test(expected=IllegalArgumentException.class) 
+	public void testCompressedIndexUnsorted() {
+		CompressedIndex.create(Index.of(1,3,2));
+	}
+	
+	@Test public void testSortedOperations() {
+		Index a=Index.of(1,3,5,7);
+		Index b=Index.of(0,3,7,8);
+		
+		assertEquals(Index.of(0,1,3,5,7,8),a.includeSorted(b));
+		assertEquals(Index.of(3,7),a.intersectSorted(b));
+		assertEquals(Index.of(1,5),a.excludeSorted(b));
+		assertEquals(Index.of(0,1,3,5,7,8),Index.of(7,1,3,5).includeSorted(b));
+		assertEquals(Index.of(0,1,3,5,7,8),a.includeSorted(b.toSet()));
+		assertEquals(Index.of(1,3,5),Index.createSorted(new HashSet<Integer>(Index.of(5,1,3).toList())));
 	}
 	
 	@Test
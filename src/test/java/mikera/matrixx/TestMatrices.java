@@ -15,9 +15,11 @@ import mikera.matrixx.impl.SubsetMatrix;
 import mikera.matrixx.impl.VectorMatrixMN;
 import mikera.matrixx.impl.ZeroMatrix;
 import mikera.transformz.ATransform;
+import mikera.transformz.Affine34;
 import mikera.transformz.MatrixTransform;
 import mikera.vectorz.AVector;
 import mikera.vectorz.Vector;
+import mikera.vectorz.Vector2;
 import mikera.vectorz.Vector3;
 import mikera.vectorz.Vectorz;
 import mikera.vectorz.impl.SparseIndexedVector;
@@ -386,4 +388,101 @@ public class TestMatrices {
 			// OK
 		}
 	}
+
+	@Test
+	public void testMatrix33IntoKernels() {
+		Matrix33 a = new Matrix33(Matrixx.createRandomSquareMatrix(3));
+		Matrix33 b = new Matrix33(Matrixx.createRandomSquareMatrix(3));
+		AMatrix expected = a.toMatrix().innerProduct(b.toMatrix());
+
+		Matrix33 r = new Matrix33();
+		a.innerProductInto(b, r);
+		assertTrue(expected.epsilonEquals(r));
+		Matrix33 c = a.clone();
+		c.innerProductInto(b, c);
+		assertTrue(expected.epsilonEquals(c));
+		AMatrix general = a.innerProduct(b.toMatrix());
+		assertTrue(general instanceof Matrix33);
+		assertEquals(r, general);
+		assertEquals(a.innerProduct(new Matrix33(b.getTranspose())), a.innerProduct(b.toMatrix().getTranspose()));
+
+		a.transposeInnerProductInto(b, r);
+		assertTrue(a.getTranspose().innerProduct(b).epsilonEquals(r));
+
+		Vector3 v = Vector3.of(1, -2, 0.5);
+		Vector3 tv = new Vector3();
+		a.transposeTransform(v, tv);
+		assertTrue(a.getTranspose().transform(v).epsilonEquals(tv));
+
+		Matrix33 inv = new Matrix33();
+		assertTrue(a.inverseInto(inv));
+		assertTrue(a.innerProduct(inv).epsilonEquals(Matrix33.createIdentityMatrix()));
+		assertFalse(new Matrix33(1, 2, 3, 2, 4, 6, 0, 0, 1).inverseInto(inv));
+
+		Matrix33 t = a.clone();
+		t.transposeInPlace();
+		assertEquals(a.getTranspose(), t);
+
+		// non-Vector3 arguments take the same fast path
+		AVector dv = Vector.createLength(3);
+		a.transform(Vector.of(1, -2, 0.5), dv);
+		assertTrue(a.transform(v).epsilonEquals(dv));
+	}
+
+	@Test
+	public void testMatrix22IntoKernels() {
+		Matrix22 a = new Matrix22(1, 2, 3, 4);
+		Matrix22 b = new Matrix22(-1, 0.5, 2, 3);
+		Matrix22 r = new Matrix22();
+		a.innerProductInto(b, r);
+		assertEquals(a.toMatrix().innerProduct(b.toMatrix()), r);
+		a.transposeInnerProductInto(b, r);
+		assertEquals(a.getTranspose().innerProduct(b), r);
+
+		Vector2 v = Vector2.of(3, -1);
+		Vector2 tv = new Vector2();
+		a.transposeTransform(v, tv);
+		assertEquals(a.getTranspose().transform(v), tv);
+
+		Matrix22 inv = new Matrix22();
+		assertTrue(a.inverseInto(inv));
+		assertTrue(a.innerProduct(inv).epsilonEquals(Matrix22.createIdentity()));
+		assertFalse(new Matrix22(1, 2, 2, 4).inverseInto(inv));
+	}
+
+	@Test
+	public void testAffine34IntoKernels() {
+		Affine34 a = new Affine34(Matrixx.createRandomSquareMatrix(3), Vector3.of(1, 2, 3));
+		Affine34 b = new Affine34(Matrixx.createRandomSquareMatrix(3), Vector3.of(-1, 0, 4));
+		Vector3 v = Vector3.of(0.5, 1, -2);
+
+		Affine34 ab = new Affine34();
+		a.composeInto(b, ab);
+		Vector3 expected = v.clone();
+		b.transformInPlace(expected);
+		a.transformInPlace(expected);
+		assertTrue(expected.epsilonEquals(ab.transform(v)));
+
+		assertEquals(a.copyOfMatrix().determinant(), a.determinant(), 1e-12);
+		Affine34 inv = new Affine34();
+		assertTrue(a.inverseInto(inv));
+		Vector3 w = v.clone();
+		a.transformInPlace(w);
+		inv.transformInPlace(w);
+		assertTrue(v.epsilonEquals(w));
+	}
+
+	@Test
+	public void testCrossProductInto() {
+		Vector3 a = Vector3.of(1, 2, 3);
+		Vector3 b = Vector3.of(-2, 0.5, 4);
+		Vector3 expected = a.clone();
+		expected.crossProduct(b);
+		Vector3 r = new Vector3();
+		a.crossProductInto(b, r);
+		assertEquals(expected, r);
+		assertEquals(Vector3.of(1, 2, 3), a);
+		a.crossProductInto(b, a);
+		assertEquals(expected, a);
+	}
 }
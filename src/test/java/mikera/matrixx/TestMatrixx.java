@@ -12,8 +12,10 @@ import mikera.arrayz.TestArrays;
 import mikera.indexz.Index;
 import mikera.indexz.Indexz;
 import mikera.matrixx.impl.BandedMatrix;
+import mikera.matrixx.impl.BitMatrix;
 import mikera.matrixx.impl.BlockDiagonalMatrix;
 import mikera.matrixx.impl.ColumnMatrix;
+import mikera.matrixx.impl.FloatMatrix;
 import mikera.matrixx.impl.IdentityMatrix;
 import mikera.matrixx.impl.ImmutableMatrix;
 import mikera.matrixx.impl.LowerTriangularMatrix;
@@ -33,6 +35,8 @@ import mikera.matrixx.impl.ZeroMatrix;
 import mikera.transformz.MatrixTransform;
 import mikera.transformz.TestTransformz;
 import mikera.vectorz.AVector;
+import mikera.vectorz.PointCloud3;
+import mikera.vectorz.Ops;
 import mikera.vectorz.Vector;
 import mikera.vectorz.Vector3;
 import mikera.vectorz.Vectorz;
@@ -358,6 +362,62 @@ public class TestMatrixx {
 		assertTrue(d.epsilonEquals(c));
 	}
 	
+	private void testIntoOperations(AMatrix m) {
+		int rc=m.rowCount();
+		int cc=m.columnCount();
+		AMatrix a=Matrixx.createRandomMatrix(rc, cc);
+		AMatrix[] dests=new AMatrix[] {Matrix.create(rc, cc), Matrixx.createSparse(rc, cc)};
+		for (AMatrix d: dests) {
+			Matrix e=Matrix.create(m);
+			e.add(a);
+			m.addInto(a, d);
+			assertTrue(e.epsilonEquals(d));
+			
+			e=Matrix.create(m);
+			e.sub(a);
+			m.subInto(a, d);
+			assertTrue(e.epsilonEquals(d));
+			
+			m.multiplyInto(3.0, d);
+			assertTrue(m.multiplyCopy(3.0).epsilonEquals(d));
+			
+			e=Matrix.create(m);
+			e.applyOp(Ops.ABS);
+			m.applyOpInto(Ops.ABS, d);
+			assertTrue(e.epsilonEquals(d));
+		}
+		
+		AMatrix[] tdests=new AMatrix[] {Matrix.create(cc, rc), Matrixx.createSparse(cc, rc)};
+		for (AMatrix d: tdests) {
+			m.transposeInto(d);
+			assertTrue(m.getTranspose().epsilonEquals(d));
+		}
+		
+		AMatrix b=Matrixx.createRandomMatrix(cc, 3);
+		AMatrix[] pdests=new AMatrix[] {Matrix.create(rc, 3), Matrixx.createSparse(rc, 3)};
+		for (AMatrix d: pdests) {
+			m.innerProductInto(b, d);
+			assertTrue(m.innerProduct(b).epsilonEquals(d));
+		}
+		
+		try {
+			m.addInto(a, Matrix.create(rc+1, cc));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+		
+		if (m.isFullyMutable()&&(rc==cc)) {
+			AMatrix c=m.exactClone();
+			c.transposeInto(c);
+			assertTrue(m.getTranspose().epsilonEquals(c));
+			
+			c=m.exactClone();
+			c.innerProductInto(a, c);
+			assertTrue(m.innerProduct(a).epsilonEquals(c));
+		}
+	}
+	
 	private void testExactClone(AMatrix m) {
 		AMatrix c=m.exactClone();
 		AMatrix d=m.clone();
@@ -451,6 +511,7 @@ public class TestMatrixx {
 		testApplyOp(m);
 		testExactClone(m);
 		testSparseClone(m);
+		testIntoOperations(m);
 		
 		doTransposeTest(m);
 		doTriangularTests(m);
@@ -647,4 +708,20 @@ public class TestMatrixx {
 	@Test public void g_BlockDiagonalMatrix() {	
 		doGenericTests(BlockDiagonalMatrix.create(IdentityMatrix.create(2),Matrixx.createRandomSquareMatrix(2)));
 	}
+
+	@Test public void g_PointCloud3() {	
+		doGenericTests(PointCloud3.create(Matrixx.createRandomMatrix(4, 3)));
+		doGenericTests(PointCloud3.create(1));
+	}
+
+	@Test public void g_FloatMatrix() {	
+		doGenericTests(FloatMatrix.create(3, 4));
+		doGenericTests(FloatMatrix.wrap(2, 2, new float[] {1,2,3,4}));
+		doGenericTests(FloatMatrix.create(Matrixx.createRandomMatrix(3, 3)));
+	}
+
+	@Test public void g_BitMatrix() {	
+		doGenericTests(BitMatrix.create(3, 70));
+		doGenericTests(BitMatrix.create(Matrix.create(new double[][] {{1,0,1},{0,1,1}})));
+	}
 }
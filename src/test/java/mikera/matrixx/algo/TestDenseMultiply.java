@@ -1,9 +1,13 @@
 package mikera.matrixx.algo;
 
 import static org.junit.Assert.*;
+import mikera.matrixx.AMatrix;
 import mikera.matrixx.Matrix;
 import mikera.matrixx.Matrixx;
 import mikera.matrixx.algo.Multiplications;
+import mikera.matrixx.impl.DiagonalMatrix;
+import mikera.matrixx.impl.StridedMatrix;
+import mikera.vectorz.Vectorz;
 
 import org.junit.Test;
 
@@ -44,4 +48,48 @@ public class TestDenseMultiply {
 		assertEquals(ip,Multiplications.blockedMultiply(mt, m));
 		assertEquals(ip,Multiplications.naiveMultiply(mt, m));
 	}
+	
+	@Test public void testDistinctOperands() {
+		Matrix a=(Matrix)Matrixx.createRandomMatrix(40, 30);
+		Matrix b=(Matrix)Matrixx.createRandomMatrix(30, 20);
+		AMatrix ip=Multiplications.naiveMultiply(a, b);
+		assertTrue(ip.epsilonEquals(Multiplications.doubleBlockedMultiply(a, b)));
+		assertTrue(ip.epsilonEquals(Multiplications.blockedMultiply(a, b)));
+		assertTrue(ip.epsilonEquals(Multiplications.directMultiply(a, b)));
+		
+		// repeated calls reuse workspace buffers
+		assertTrue(ip.epsilonEquals(Multiplications.blockedMultiply(a, b)));
+	}
+	
+	@Test public void testMultiplyInto() {
+		Matrix a=(Matrix)Matrixx.createRandomMatrix(40, 30);
+		AMatrix b=StridedMatrix.create(Matrixx.createRandomMatrix(30, 20));
+		AMatrix ip=Multiplications.naiveMultiply(a, b);
+		
+		Matrix dest=Matrix.create(40, 20);
+		Multiplications.multiplyInto(a, b, dest);
+		assertTrue(ip.epsilonEquals(dest));
+		
+		AMatrix strided=StridedMatrix.create(40, 20);
+		Multiplications.multiplyInto(StridedMatrix.create(a), b, strided);
+		assertTrue(ip.epsilonEquals(strided));
+		
+		// structured operand
+		AMatrix d=DiagonalMatrix.create(Vectorz.createUniformRandomVector(30));
+		Matrix ad=Matrix.create(40, 30);
+		Multiplications.multiplyInto(a, d, ad);
+		assertTrue(Multiplications.naiveMultiply(a, d).epsilonEquals(ad));
+		
+		// zero inner dimension overwrites previous contents
+		dest.fill(1.0);
+		Multiplications.multiplyInto(Matrix.create(40, 0), Matrix.create(0, 20), dest);
+		assertTrue(dest.isZero());
+		
+		try {
+			Multiplications.multiplyInto(a, b, Matrix.create(20, 40));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
 }
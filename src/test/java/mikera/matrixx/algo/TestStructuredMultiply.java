@@ -0,0 +1,104 @@
+package mikera.matrixx.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.matrixx.impl.BandedMatrix;
+import mikera.matrixx.impl.BlockDiagonalMatrix;
+import mikera.matrixx.impl.DiagonalMatrix;
+import mikera.matrixx.impl.IdentityMatrix;
+import mikera.matrixx.impl.LowerTriangularMatrix;
+import mikera.matrixx.impl.PermutationMatrix;
+import mikera.matrixx.impl.UpperTriangularMatrix;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestStructuredMultiply {
+
+	private static List<AMatrix> structuredMatrices(int n) {
+		List<AMatrix> ms=new ArrayList<AMatrix>();
+		ms.add(Matrixx.createRandomMatrix(n, n));
+		ms.add(DiagonalMatrix.create(Vectorz.createUniformRandomVector(n)));
+		ms.add(IdentityMatrix.create(n));
+		ms.add(PermutationMatrix.createRandomPermutation(n));
+		ms.add(UpperTriangularMatrix.createFrom(Matrixx.createRandomMatrix(n, n)));
+		ms.add(LowerTriangularMatrix.createFrom(Matrixx.createRandomMatrix(n, n)));
+		BandedMatrix b=BandedMatrix.create(n, n, -1, 2);
+		for (int i=-1; i<=2; i++) {
+			b.getBand(i).set(Vectorz.createUniformRandomVector(b.bandLength(i)));
+		}
+		ms.add(b);
+		ms.add(BlockDiagonalMatrix.create(Matrixx.createRandomMatrix(2, 2),Matrixx.createRandomMatrix(n-3, n-3),Matrixx.createRandomMatrix(1, 1)));
+		return ms;
+	}
+
+	@Test public void testAllPairs() {
+		List<AMatrix> ms=structuredMatrices(7);
+		for (AMatrix a: ms) {
+			for (AMatrix b: ms) {
+				AMatrix expected=Multiplications.naiveMultiply(a, b);
+				Matrix r=Multiplications.multiply(a, b);
+				assertTrue(a.getClass()+" x "+b.getClass(),expected.epsilonEquals(r));
+				assertTrue(expected.epsilonEquals(Multiplications.multiply(a.toMatrix(), b)));
+				assertTrue(expected.epsilonEquals(a.innerProduct(b)));
+			}
+		}
+	}
+
+	@Test public void testRectangularBanded() {
+		BandedMatrix b=BandedMatrix.create(5, 8, -2, 1);
+		for (int i=-2; i<=1; i++) {
+			b.getBand(i).fill(i+3);
+		}
+		AMatrix m=Matrixx.createRandomMatrix(8, 3);
+		AMatrix n=Matrixx.createRandomMatrix(4, 5);
+		assertTrue(Multiplications.naiveMultiply(b, m).epsilonEquals(Multiplications.bandedMultiply(b, m)));
+		assertTrue(Multiplications.naiveMultiply(n, b).epsilonEquals(Multiplications.bandedMultiply(n, b)));
+		assertTrue(Multiplications.naiveMultiply(b, b.getTranspose()).epsilonEquals(Multiplications.multiply(b, b.getTranspose())));
+	}
+
+	@Test public void testNaNPropagation() {
+		// explicit zeros inside the band must still propagate NaN and Inf from the other operand
+		BandedMatrix b=BandedMatrix.create(3, 3, -1, 1);
+		b.getBand(0).fill(1.0);
+		AMatrix u=UpperTriangularMatrix.createFrom(Matrixx.createRandomMatrix(3, 3));
+		u.set(0, 1, 0.0);
+		Matrix m=Matrix.create(new double[][] {{1,2,3},{Double.NaN,1,Double.POSITIVE_INFINITY},{4,5,6}});
+		for (AMatrix a: new AMatrix[] {b,u}) {
+			Matrix expected=Multiplications.blockedMultiply(a.toMatrix(), m);
+			assertTrue(Double.isNaN(expected.get(0, 0)));
+			assertTrue(Double.isNaN(expected.get(0, 2)));
+			Matrix r=Multiplications.multiply(a, m);
+			Matrix banded=Multiplications.bandedMultiply(a, m);
+			// row 0 only has in-band elements of a, including the explicit zero at (0,1)
+			for (int j=0; j<3; j++) {
+				assertEquals(expected.get(0, j),r.get(0, j),1e-12);
+				assertEquals(expected.get(0, j),banded.get(0, j),1e-12);
+			}
+		}
+		
+		// every element of the tridiagonal matrix is within its band
+		Matrix expected=Multiplications.blockedMultiply(b.toMatrix(), m);
+		Matrix r=Multiplications.multiply(b, m);
+		for (int i=0; i<3; i++) {
+			for (int j=0; j<3; j++) {
+				assertEquals(expected.get(i, j),r.get(i, j),1e-12);
+			}
+		}
+	}
+
+	@Test public void testShapeMismatch() {
+		try {
+			Multiplications.multiply(DiagonalMatrix.create(1,2,3), Matrixx.createRandomMatrix(2, 2));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
+}
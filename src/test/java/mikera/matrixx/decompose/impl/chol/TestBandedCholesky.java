@@ -0,0 +1,39 @@
+package mikera.matrixx.decompose.impl.chol;
+
+import static org.junit.Assert.*;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.decompose.Cholesky;
+import mikera.matrixx.decompose.ICholeskyResult;
+import mikera.matrixx.impl.BandedMatrix;
+
+import org.junit.Test;
+
+public class TestBandedCholesky {
+
+	@Test public void testDecompose() {
+		int n=12;
+		BandedMatrix A=BandedMatrix.create(n, n, -2, 2);
+		A.getBand(0).fill(6);
+		A.getBand(1).fill(-2);
+		A.getBand(-1).fill(-2);
+		A.getBand(2).fill(1);
+		A.getBand(-2).fill(1);
+
+		ICholeskyResult r=Cholesky.decompose(A);
+		assertNotNull(r);
+		AMatrix L=r.getL();
+		assertTrue(L instanceof BandedMatrix);
+		assertTrue(L.isLowerTriangular());
+		assertEquals(2, L.lowerBandwidth());
+		assertTrue(A.epsilonEquals(L.innerProduct(L.getTranspose())));
+		assertTrue(L.epsilonEquals(Cholesky.decompose(A.toMatrix()).getL()));
+	}
+
+	@Test public void testNotPositiveDefinite() {
+		BandedMatrix A=BandedMatrix.create(3, 3, -1, 1);
+		A.getBand(0).fill(1);
+		A.getBand(1).fill(2);
+		A.getBand(-1).fill(2);
+		assertNull(BandedCholesky.decompose(A));
+	}
+}
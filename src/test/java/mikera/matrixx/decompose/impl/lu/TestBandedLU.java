@@ -0,0 +1,95 @@
+package mikera.matrixx.decompose.impl.lu;
+
+import static org.junit.Assert.*;
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.decompose.ILUPResult;
+import mikera.matrixx.decompose.LUP;
+import mikera.matrixx.impl.BandedMatrix;
+import mikera.matrixx.solve.Linear;
+import mikera.matrixx.solve.impl.BandedSolver;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestBandedLU {
+
+	private static BandedMatrix createRandomBanded(int n, int kl, int ku) {
+		BandedMatrix m=BandedMatrix.create(n, n, -kl, ku);
+		for (int b=-kl; b<=ku; b++) {
+			m.getBand(b).set(Vectorz.createUniformRandomVector(m.bandLength(b)));
+		}
+		return m;
+	}
+
+	@Test public void testDecompose() {
+		int[][] bands={{0,0},{1,1},{2,1},{1,3},{3,0},{0,2}};
+		for (int[] kb: bands) {
+			BandedMatrix A=createRandomBanded(9, kb[0], kb[1]);
+			BandedLU lu=BandedLU.decompose(A);
+			AMatrix L=lu.getL();
+			AMatrix U=lu.getU();
+			assertTrue(L.isLowerTriangular());
+			assertTrue(U.isUpperTriangular());
+			assertTrue(U.upperBandwidth()<=kb[0]+kb[1]);
+			assertTrue(lu.getP().innerProduct(A).epsilonEquals(L.innerProduct(U)));
+			assertEquals(AltLU.decompose(A.toMatrix()).computeDeterminant(), lu.computeDeterminant(), 1e-8);
+		}
+	}
+
+	@Test public void testPivoting() {
+		// zero leading diagonal forces row interchanges
+		BandedMatrix A=BandedMatrix.create(4, 4, -1, 1);
+		A.getBand(-1).set(Vector.of(2,3,4));
+		A.getBand(0).set(Vector.of(0,1,0,1));
+		A.getBand(1).set(Vector.of(1,1,1));
+		ILUPResult lu=LUP.decompose(A);
+		assertTrue(lu instanceof BandedLU);
+		assertTrue(lu.getP().innerProduct(A).epsilonEquals(lu.getL().innerProduct(lu.getU())));
+
+		AVector b=Vector.of(1,2,3,4);
+		AVector x=Linear.solve(A, b);
+		assertTrue(b.epsilonEquals(A.innerProduct(x)));
+	}
+
+	@Test public void testSolve() {
+		BandedMatrix A=createRandomBanded(20, 2, 3);
+		AVector b=Vectorz.createUniformRandomVector(20);
+		AVector x=BandedSolver.solve(A, b);
+		assertTrue(b.epsilonEquals(A.innerProduct(x)));
+		assertTrue(x.epsilonEquals(Linear.solve(A.toMatrix(), b)));
+
+		AMatrix B=Matrix.createRandom(20, 3);
+		AMatrix X=Linear.solve(A, B);
+		assertTrue(B.epsilonEquals(A.innerProduct(X)));
+	}
+
+	@Test public void testTridiagonal() {
+		int n=50;
+		BandedMatrix A=BandedMatrix.create(n, n, -1, 1);
+		A.getBand(-1).fill(-1);
+		A.getBand(0).fill(4);
+		A.getBand(1).fill(-1);
+		AVector b=Vectorz.createUniformRandomVector(n);
+		AVector x=BandedSolver.solve(A, b);
+		assertTrue(b.epsilonEquals(A.innerProduct(x)));
+
+		double[] diag={2,2,2};
+		double[] x2={1,0,1};
+		assertTrue(BandedSolver.solveTridiagonal(new double[] {1,1}, diag, new double[] {1,1}, x2));
+		assertArrayEquals(new double[] {1,-1,1}, x2, 1e-12);
+	}
+
+	@Test public void testSingular() {
+		BandedMatrix A=BandedMatrix.create(3, 3, -1, 1);
+		// rows 0 and 1 are identical
+		A.getBand(-1).set(Vector.of(1,1));
+		A.getBand(0).set(Vector.of(1,1,1));
+		A.getBand(1).set(Vector.of(1,0));
+		assertNull(BandedLU.decompose(A).solve(Vector.of(1,2,3)));
+		assertEquals(0.0, BandedLU.decompose(A).computeDeterminant(), 0.0);
+		assertNull(Linear.solve(A, Vector.of(1,2,3)));
+	}
+}
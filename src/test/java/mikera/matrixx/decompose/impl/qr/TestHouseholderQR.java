@@ -155,6 +155,16 @@ public class TestHouseholderQR extends GenericQrCheck {
 		validateQR(A, result);
 	}
 
+	@Test
+	public void testRepeatedDecompose() {
+		HouseholderQR alg = new HouseholderQR(false);
+		AMatrix a = Matrix.create(new double[][] { { 0, 3, 1 }, { 0, 4, -2 }, { 2, 1, 1 } });
+		AMatrix b = Matrix.create(new double[][] { { 1, 2 }, { 3, 4 }, { 5, 7 } });
+		validateQR(a, alg.decompose(a));
+		validateQR(b, alg.decompose(b));
+		validateQR(a, alg.decompose(a));
+	}
+
 	@Test
 	public void testZeroDecompose() {
 		AMatrix a = ZeroMatrix.create(4, 3);
@@ -0,0 +1,63 @@
+package mikera.matrixx.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.vectorz.BitVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestBitMatrix {
+
+	private static BitMatrix randomBits(Random r, int rows, int cols, double density) {
+		BitMatrix m=BitMatrix.create(rows, cols);
+		for (int i=0; i<rows; i++) {
+			for (int j=0; j<cols; j++) {
+				if (r.nextDouble()<density) m.set(i, j, 1.0);
+			}
+		}
+		return m;
+	}
+
+	@Test
+	public void testSetGet() {
+		BitMatrix m=BitMatrix.create(2, 100);
+		m.set(1, 99, 0.5);
+		m.set(0, 63, 1.0);
+		m.set(0, 64, -1.0);
+		assertEquals(1.0, m.get(1, 99), 0.0);
+		assertEquals(1.0, m.get(0, 63), 0.0);
+		assertEquals(0.0, m.get(0, 64), 0.0);
+		assertEquals(2, m.nonZeroCount());
+		assertEquals(2.0, m.elementSum(), 0.0);
+
+		BitVector row=m.getRow(1);
+		assertEquals(1.0, row.get(99), 0.0);
+		assertEquals(1, row.nonZeroCount());
+	}
+
+	@Test
+	public void testProducts() {
+		Random r=new Random(99);
+		BitMatrix a=randomBits(r, 7, 130, 0.1);
+		BitMatrix b=randomBits(r, 130, 90, 0.1);
+		Matrix da=Matrix.create(a);
+		Matrix db=Matrix.create(b);
+
+		AMatrix counts=da.innerProduct(db);
+		assertEquals(counts, a.innerProduct(b));
+		assertEquals(counts, a.innerProduct((AMatrix)b));
+		assertEquals(BitMatrix.create(counts), a.booleanProduct(b));
+
+		assertEquals(da.getTranspose(), a.getTranspose());
+
+		Vector v=Vector.create(Vectorz.createUniformRandomVector(130));
+		assertTrue(da.transform(v).epsilonEquals(a.transform(v), 1e-10));
+		assertTrue(da.transform(v).epsilonEquals(a.transform(v.subVector(0, 130)), 1e-10));
+	}
+}
@@ -0,0 +1,89 @@
+package mikera.matrixx.impl;
+
+import static org.junit.Assert.*;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.vectorz.AVector;
+import mikera.vectorz.FloatVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+import mikera.vectorz.util.FloatArrays;
+
+import org.junit.Test;
+
+public class TestFloatMatrix {
+
+	@Test
+	public void testTransform() {
+		AMatrix m=Matrixx.createRandomMatrix(7, 5);
+		FloatMatrix fm=FloatMatrix.create(m);
+		Matrix dm=Matrix.create(fm);
+		AVector v=Vectorz.createUniformRandomVector(5);
+
+		AVector expected=dm.transform(v);
+		assertTrue(expected.epsilonEquals(fm.transform(v), 1e-12));
+		assertTrue(expected.epsilonEquals(fm.transform(Vector.create(v)), 1e-12));
+
+		FloatVector fv=FloatVector.create(v);
+		AVector dest=FloatVector.createLength(7);
+		fm.transform(fv, dest);
+		assertTrue(dm.transform(Vector.create(fv)).epsilonEquals(dest, 1e-6));
+	}
+
+	@Test
+	public void testInnerProduct() {
+		FloatMatrix a=FloatMatrix.create(Matrixx.createRandomMatrix(6, 4));
+		FloatMatrix b=FloatMatrix.create(Matrixx.createRandomMatrix(4, 3));
+		AMatrix expected=Matrix.create(a).innerProduct(Matrix.create(b));
+		AMatrix r=a.innerProduct((AMatrix)b);
+		assertTrue(r instanceof FloatMatrix);
+		assertTrue(expected.epsilonEquals(r, 1e-6));
+		assertTrue(expected.epsilonEquals(a.innerProduct(Matrix.create(b)), 1e-12));
+	}
+
+	@Test
+	public void testInnerProductNaN() {
+		FloatMatrix a=FloatMatrix.wrap(1, 2, new float[] {0,1});
+		FloatMatrix b=FloatMatrix.wrap(2, 2, new float[] {Float.NaN,Float.POSITIVE_INFINITY,2,3});
+		FloatMatrix r=a.innerProduct(b);
+		assertTrue(Double.isNaN(r.get(0, 0)));
+		assertTrue(Double.isNaN(r.get(0, 1)));
+	}
+
+	@Test
+	public void testDoublePrecisionKernels() {
+		int n=50;
+		AVector v=Vectorz.createUniformRandomVector(n);
+		float[] src=new float[n];
+		double[] dsrc=new double[n];
+		float[] d1=new float[n];
+		float[] d2=new float[n];
+		float[] d3=new float[n];
+		for (int i=0; i<n; i++) {
+			src[i]=(float)v.get(i);
+			dsrc[i]=src[i];
+			d1[i]=d2[i]=d3[i]=(float)(i*0.1);
+		}
+		double factor=1.0/3.0;
+		FloatArrays.addMultiple(d1, 0, src, 0, n, factor);
+		FloatArrays.addMultiple(d2, 0, dsrc, 0, n, factor);
+		FloatArrays.multiply(d3, 0, n, factor);
+		for (int i=0; i<n; i++) {
+			float x=(float)(i*0.1);
+			assertEquals((float)(x+src[i]*factor), d1[i], 0.0f);
+			assertEquals(d1[i], d2[i], 0.0f);
+			assertEquals((float)(x*factor), d3[i], 0.0f);
+		}
+	}
+
+	@Test
+	public void testRowViews() {
+		FloatMatrix m=FloatMatrix.wrap(2, 2, new float[] {1,2,3,4});
+		FloatVector row=m.getRowView(1);
+		row.set(0, 10);
+		assertEquals(10.0, m.get(1, 0), 0.0);
+		assertEquals(17.0, m.elementSum(), 0.0);
+	}
+}
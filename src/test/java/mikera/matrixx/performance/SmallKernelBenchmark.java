@@ -0,0 +1,144 @@
+package mikera.matrixx.performance;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.matrixx.Matrix22;
+import mikera.matrixx.Matrix33;
+import mikera.transformz.Affine34;
+import mikera.vectorz.Vector2;
+import mikera.vectorz.Vector3;
+
+/**
+ * Caliper based benchmarks for the allocation-free fixed size kernels.
+ *
+ * Running main first reports the bytes allocated per operation for each kernel, measured with
+ * the per-thread allocation counter where the JVM supports it, then runs the timing benchmarks.
+ *
+ * @author Mike
+ */
+public class SmallKernelBenchmark extends SimpleBenchmark {
+	private static final Vector3 delta=Vector3.of(0.00001,0.00001,0.00001);
+
+	public volatile double output=0.0;
+
+	public void timeMatrix33InnerProductInto(int runs) {
+		Matrix33 a=new Matrix33(1,2,3,4,5,6,7,8,10);
+		Matrix33 b=new Matrix33(0.5,0,0,0,0.5,0,0,0,0.5);
+		Matrix33 r=new Matrix33();
+		for (int i=0; i<runs; i++) {
+			b.m00+=0.00001;
+			a.innerProductInto(b, r);
+		}
+		output=r.m00;
+	}
+
+	public void timeMatrix33InverseInto(int runs) {
+		Matrix33 a=new Matrix33(1,2,3,4,5,6,7,8,10);
+		Matrix33 r=new Matrix33();
+		for (int i=0; i<runs; i++) {
+			a.m00+=0.00001;
+			a.inverseInto(r);
+		}
+		output=r.m00;
+	}
+
+	public void timeMatrix33TransposeTransform(int runs) {
+		Matrix33 a=new Matrix33(1,2,3,4,5,6,7,8,10);
+		Vector3 v=Vector3.of(1,2,3);
+		Vector3 r=new Vector3();
+		for (int i=0; i<runs; i++) {
+			v.add(delta);
+			a.transposeTransform(v, r);
+		}
+		output=r.x;
+	}
+
+	public void timeMatrix22InverseInto(int runs) {
+		Matrix22 a=new Matrix22(1,2,3,4);
+		Matrix22 r=new Matrix22();
+		for (int i=0; i<runs; i++) {
+			a.m00+=0.00001;
+			a.inverseInto(r);
+		}
+		output=r.m00;
+	}
+
+	public void timeMatrix22TransposeTransform(int runs) {
+		Matrix22 a=new Matrix22(1,2,3,4);
+		Vector2 v=Vector2.of(1,2);
+		Vector2 r=new Vector2();
+		for (int i=0; i<runs; i++) {
+			v.x+=0.00001;
+			a.transposeTransform(v, r);
+		}
+		output=r.x;
+	}
+
+	public void timeAffine34ComposeInto(int runs) {
+		Affine34 a=new Affine34(1,0,0,1, 0,1,0,2, 0,0,1,3);
+		Affine34 b=new Affine34(0,1,0,0, -1,0,0,0, 0,0,1,0);
+		Affine34 r=new Affine34();
+		for (int i=0; i<runs; i++) {
+			b.tr0+=0.00001;
+			a.composeInto(b, r);
+		}
+		output=r.tr0;
+	}
+
+	public void timeAffine34InverseInto(int runs) {
+		Affine34 a=new Affine34(1,2,3,1, 4,5,6,2, 7,8,10,3);
+		Affine34 r=new Affine34();
+		for (int i=0; i<runs; i++) {
+			a.tr0+=0.00001;
+			a.inverseInto(r);
+		}
+		output=r.tr0;
+	}
+
+	public void timeVector3CrossProductInto(int runs) {
+		Vector3 a=Vector3.of(1,2,3);
+		Vector3 b=Vector3.of(3,-1,2);
+		Vector3 r=new Vector3();
+		for (int i=0; i<runs; i++) {
+			a.add(delta);
+			a.crossProductInto(b, r);
+		}
+		output=r.x;
+	}
+
+	/**
+	 * Reports allocated bytes per operation for each timing method, after warming up
+	 */
+	private void reportAllocation() throws Exception {
+		ThreadMXBean bean=ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			System.out.println("Per-thread allocation counter not available");
+			return;
+		}
+		com.sun.management.ThreadMXBean tb=(com.sun.management.ThreadMXBean)bean;
+		long tid=Thread.currentThread().getId();
+		int runs=1000000;
+		for (java.lang.reflect.Method m: getClass().getMethods()) {
+			if (!m.getName().startsWith("time")) continue;
+			m.invoke(this, runs);
+			long before=tb.getThreadAllocatedBytes(tid);
+			m.invoke(this, runs);
+			long after=tb.getThreadAllocatedBytes(tid);
+			System.out.println(String.format("%-32s %.4f bytes/op",m.getName().substring(4),(after-before)/(double)runs));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new SmallKernelBenchmark().reportAllocation();
+		new SmallKernelBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
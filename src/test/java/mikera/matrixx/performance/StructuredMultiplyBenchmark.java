@@ -0,0 +1,73 @@
+package mikera.matrixx.performance;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.algo.Multiplications;
+import mikera.matrixx.impl.BandedMatrix;
+import mikera.matrixx.impl.BlockDiagonalMatrix;
+import mikera.matrixx.impl.DiagonalMatrix;
+import mikera.matrixx.impl.PermutationMatrix;
+import mikera.matrixx.impl.UpperTriangularMatrix;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+/**
+ * Compares structure-aware multiplication against dense blocked multiplication
+ * for each combination of operand types.
+ *
+ * @author Mike
+ */
+public class StructuredMultiplyBenchmark {
+	public static final int SIZE=400;
+	public static final int RUNS=10;
+
+	private static AMatrix[] createMatrices(int n) {
+		BandedMatrix banded=BandedMatrix.create(n, n, -2, 2);
+		for (int i=-2; i<=2; i++) {
+			banded.getBand(i).set(Vectorz.createUniformRandomVector(banded.bandLength(i)));
+		}
+		int half=n/2;
+		return new AMatrix[] {
+			Matrix.createRandom(n, n),
+			DiagonalMatrix.create(Vector.create(Vectorz.createUniformRandomVector(n))),
+			PermutationMatrix.createRandomPermutation(n),
+			UpperTriangularMatrix.createFrom(Matrix.createRandom(n, n)),
+			banded,
+			BlockDiagonalMatrix.create(Matrix.createRandom(half, half),Matrix.createRandom(n-half, n-half))
+		};
+	}
+
+	private static double time(AMatrix a, AMatrix b, boolean structured) {
+		long start=System.nanoTime();
+		for (int i=0; i<RUNS; i++) {
+			if (structured) {
+				Multiplications.multiply(a, b);
+			} else {
+				Multiplications.blockedMultiply(a.toMatrix(), b.toMatrix());
+			}
+		}
+		return (System.nanoTime()-start)*0.000001/RUNS;
+	}
+
+	public static void main(String[] args) {
+		AMatrix[] ms=createMatrices(SIZE);
+
+		// warm up
+		for (AMatrix a: ms) {
+			for (AMatrix b: ms) {
+				time(a,b,true);
+				time(a,b,false);
+			}
+		}
+
+		System.out.println("Size: "+SIZE+", times in ms (structured / dense)");
+		for (AMatrix a: ms) {
+			for (AMatrix b: ms) {
+				double st=time(a,b,true);
+				double dt=time(a,b,false);
+				System.out.println(String.format("%-24s x %-24s %10.3f / %10.3f",
+						a.getClass().getSimpleName(),b.getClass().getSimpleName(),st,dt));
+			}
+		}
+	}
+}
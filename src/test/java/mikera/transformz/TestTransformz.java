@@ -3,10 +3,16 @@ package mikera.transformz;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.util.List;
+
 import mikera.indexz.Index;
 import mikera.indexz.Indexz;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.transformz.impl.CompoundTransform;
 import mikera.transformz.impl.SubsetTransform;
 import mikera.vectorz.AVector;
+import mikera.vectorz.Ops;
 import mikera.vectorz.Vector;
 import mikera.vectorz.Vector2;
 import mikera.vectorz.Vector3;
@@ -91,6 +97,32 @@ public class TestTransformz {
 		}
 	}
 	
+	private static void doTransformAllTest(ATransform t) {
+		int n=TRANSFORM_COUNT;
+		Matrix sources=Matrix.createRandom(n, t.inputDimensions());
+		Matrix dest=t.transformAll(sources);
+		assertEquals(n,dest.rowCount());
+		List<AVector> streamed=t.transformAll(sources.getSlices());
+		assertEquals(n,streamed.size());
+		for (int i=0; i<n; i++) {
+			AVector expected=t.transform(sources.getRow(i));
+			for (int j=0; j<t.outputDimensions(); j++) {
+				assertEquals(expected.get(j),dest.get(i,j),1e-10);
+				assertEquals(expected.get(j),streamed.get(i).get(j),1e-10);
+			}
+		}
+		
+		try {
+			t.transformAll(sources, Matrix.create(n+1, t.outputDimensions()));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
+	
+	// exceeds one streaming batch
+	private static final int TRANSFORM_COUNT=70;
+	
 	public static void doITransformTests(ITransform t) {
 		doApplyTest(t);
 	}
@@ -102,6 +134,7 @@ public class TestTransformz {
 		doComponentTest(t);
 		doHashTest(t);
 		doComponentTests(t);
+		doTransformAllTest(t);
 	}
 	
 	@Test public void genericTransformTests() {
@@ -111,4 +144,51 @@ public class TestTransformz {
 		doTransformTests(Transformz.identityTransform(10));
 		doTransformTests(SubsetTransform.create(Transformz.identityTransform(10), Index.of(0,3,9)));
 	}
+	
+	@Test public void testCompoundTransformAll() {
+		ATransform a=new AffineMN(Matrixx.createRandomMatrix(4, 3),Vector.of(1,2,3,4));
+		ATransform b=new MatrixTransform(Matrixx.createRandomMatrix(2, 4));
+		ATransform op=Ops.TANH.getTransform(4);
+		doTransformTests(new CompoundTransform(b,a));
+		doTransformTests(new CompoundTransform(b,new CompoundTransform(op,a)));
+	}
+	
+	@Test public void testCompoundCollapse() {
+		Affine34 a=new Affine34(Matrixx.createRandomSquareMatrix(3),Vector3.of(1,2,3));
+		ATransform t=new Translation3(-1,0,2);
+		ATransform op=Ops.TANH.getTransform(3);
+		ATransform m=new MatrixTransform(Matrixx.createRandomMatrix(2, 3));
+		
+		// m(op(t(a(x)))) built without any compose-time folding
+		CompoundTransform c=new CompoundTransform(m,new CompoundTransform(op,new CompoundTransform(t,a)));
+		ATransform[] stages=c.getStages();
+		assertEquals(3,stages.length);
+		assertTrue(stages[0] instanceof Affine34);
+		assertTrue(stages[1]==op);
+		assertTrue(stages[2]==m);
+		
+		AVector x=Vector3.of(0.5,-0.25,2);
+		AVector expected=m.transform(op.transform(t.transform(a.transform(x))));
+		assertTrue(expected.epsilonEquals(c.transform(x)));
+		doTransformTests(c);
+		
+		ATransform pc=c.precompute();
+		assertTrue(expected.epsilonEquals(pc.transform(x)));
+		doTransformTests(pc);
+		
+		// the compound transform sees in-place changes to its components immediately
+		a.tr0+=10;
+		AVector before=expected;
+		expected=m.transform(op.transform(t.transform(a.transform(x))));
+		assertTrue(expected.epsilonEquals(c.transform(x)));
+		assertTrue(expected.epsilonEquals(c.transformAll(Matrix.create(new double[][] {x.toDoubleArray(), x.toDoubleArray()})).getRow(1)));
+		
+		// while a precomputed snapshot does not
+		assertTrue(before.epsilonEquals(pc.transform(x)));
+		
+		c.composeWith(new MatrixTransform(Transformz.scale3D(2.0)));
+		assertEquals(3,c.getStages().length);
+		expected=m.transform(op.transform(t.transform(a.transform(x.multiplyCopy(2.0)))));
+		assertTrue(expected.epsilonEquals(c.transform(x)));
+	}
 }
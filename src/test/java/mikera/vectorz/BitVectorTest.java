@@ -65,4 +65,60 @@ public class BitVectorTest {
 		
 		assertEquals(b.dotProduct(b),b.elementSquaredSum(),0.0);
 	}
+	
+	@Test
+	public void testSetOperations() {
+		BitVector a=BitVector.of(1,1,0,0,1);
+		BitVector b=BitVector.of(1,0,1,0,1);
+		
+		assertEquals(2,a.intersectionCount(b));
+		assertEquals(4,a.unionCount(b));
+		assertEquals(2,a.hammingDistance(b));
+		assertEquals(0.5,a.jaccardSimilarity(b),0.0);
+		assertEquals(0.5,a.jaccardDistance(b),0.0);
+		assertEquals(2.0,a.dotProduct(b),0.0);
+		assertEquals(2.0,a.distanceSquared(b),0.0);
+		assertEquals(1.0,BitVector.of(0,0).jaccardSimilarity(BitVector.of(0,0)),0.0);
+		
+		BitVector t=a.exactClone();
+		t.and(b);
+		assertEquals(BitVector.of(1,0,0,0,1),t);
+		t=a.exactClone();
+		t.or(b);
+		assertEquals(BitVector.of(1,1,1,0,1),t);
+		t=a.exactClone();
+		t.xor(b);
+		assertEquals(BitVector.of(0,1,1,0,0),t);
+		t=a.exactClone();
+		t.andNot(b);
+		assertEquals(BitVector.of(0,1,0,0,0),t);
+	}
+	
+	@Test
+	public void testWordKernels() {
+		AVector rv=Vectorz.createUniformRandomVector(300);
+		rv.sub(0.5);
+		BitVector a=BitVector.create(rv);
+		AVector rv2=Vectorz.createUniformRandomVector(300);
+		rv2.sub(0.5);
+		BitVector b=BitVector.create(rv2);
+		Vector da=Vector.create(a);
+		Vector db=Vector.create(b);
+		
+		AVector dense=Vectorz.createUniformRandomVector(300);
+		assertEquals(da.dotProduct(dense),a.dotProduct(dense),1e-10);
+		assertEquals(da.dotProduct(dense),a.dotProduct(Vector.create(dense)),1e-10);
+		assertEquals(da.dotProduct(db),a.dotProduct(b),0.0);
+		assertEquals(da.distanceSquared(db),a.distanceSquared(b),0.0);
+		assertArrayEquals(da.nonZeroIndices(),a.nonZeroIndices());
+		
+		BitVector w=BitVector.wrap(new long[] {5L}, 3);
+		assertEquals(BitVector.of(1,0,1),w);
+		try {
+			BitVector.wrap(new long[] {8L}, 3);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
 }
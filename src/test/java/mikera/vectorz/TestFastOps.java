@@ -0,0 +1,94 @@
+package mikera.vectorz;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import mikera.vectorz.ops.FastExp;
+import mikera.vectorz.ops.FastLog;
+import mikera.vectorz.ops.FastLogistic;
+import mikera.vectorz.ops.FastSoftPlus;
+import mikera.vectorz.ops.FastTanh;
+
+import org.junit.Test;
+
+public class TestFastOps {
+	private static final int SAMPLES=200000;
+	
+	private static double softplus(double x) {
+		return Math.max(x,0.0)+Math.log1p(Math.exp(-Math.abs(x)));
+	}
+	
+	@Test public void testExpAccuracy() {
+		Random r=new Random(1);
+		for (int i=0; i<SAMPLES; i++) {
+			double x=(r.nextDouble()*2-1)*(((i&1)==0)?20:708);
+			double e=Math.exp(x);
+			assertEquals(0.0,(FastExp.fastExp(x)-e)/e,1e-8);
+		}
+	}
+	
+	@Test public void testLogAccuracy() {
+		Random r=new Random(2);
+		for (int i=0; i<SAMPLES; i++) {
+			double x=Math.exp(r.nextGaussian()*100);
+			if ((x==0.0)||(x==Double.POSITIVE_INFINITY)) continue;
+			assertEquals(Math.log(x),FastLog.fastLog(x),1e-10);
+		}
+		assertEquals(Math.log(Double.MIN_VALUE),FastLog.fastLog(Double.MIN_VALUE),1e-10);
+		assertEquals(Math.log(Double.MAX_VALUE),FastLog.fastLog(Double.MAX_VALUE),1e-10);
+		assertEquals(0.0,FastLog.fastLog(1.0),0.0);
+	}
+	
+	@Test public void testSigmoidAccuracy() {
+		Random r=new Random(3);
+		for (int i=0; i<SAMPLES; i++) {
+			double x=(r.nextDouble()*2-1)*(((i&1)==0)?5:50);
+			assertEquals(Math.tanh(x),FastTanh.fastTanh(x),1e-8);
+			assertEquals(1.0/(1.0+Math.exp(-x)),FastLogistic.fastLogistic(x),1e-8);
+			assertEquals(softplus(x),FastSoftPlus.fastSoftPlus(x),1e-8);
+		}
+	}
+	
+	@Test public void testSpecialValues() {
+		assertEquals(1.0,FastExp.fastExp(0.0),0.0);
+		assertEquals(Double.POSITIVE_INFINITY,FastExp.fastExp(1000.0),0.0);
+		assertEquals(0.0,FastExp.fastExp(-1000.0),0.0);
+		assertTrue(FastExp.fastExp(709.78)<Double.POSITIVE_INFINITY);
+		assertTrue(Double.isNaN(FastExp.fastExp(Double.NaN)));
+		
+		assertEquals(Double.NEGATIVE_INFINITY,FastLog.fastLog(0.0),0.0);
+		assertEquals(Double.POSITIVE_INFINITY,FastLog.fastLog(Double.POSITIVE_INFINITY),0.0);
+		assertTrue(Double.isNaN(FastLog.fastLog(-1.0)));
+		assertTrue(Double.isNaN(FastLog.fastLog(Double.NaN)));
+		
+		assertEquals(1.0,FastTanh.fastTanh(1000.0),0.0);
+		assertEquals(-1.0,FastTanh.fastTanh(-1000.0),0.0);
+		assertEquals(0.0,FastTanh.fastTanh(0.0),0.0);
+		
+		assertEquals(1.0,FastLogistic.fastLogistic(1000.0),0.0);
+		assertEquals(0.0,FastLogistic.fastLogistic(-1000.0),0.0);
+		assertEquals(0.5,FastLogistic.fastLogistic(0.0),0.0);
+		
+		assertEquals(1000.0,FastSoftPlus.fastSoftPlus(1000.0),0.0);
+		assertEquals(0.0,FastSoftPlus.fastSoftPlus(-1000.0),0.0);
+		assertEquals(Math.log(2.0),FastSoftPlus.fastSoftPlus(0.0),1e-8);
+	}
+	
+	@Test public void testMatchesExactOps() {
+		Op[] exact={Ops.EXP,Ops.LOG,Ops.TANH,Ops.LOGISTIC,Ops.SOFTPLUS};
+		Op[] fast={Ops.FAST_EXP,Ops.FAST_LOG,Ops.FAST_TANH,Ops.FAST_LOGISTIC,Ops.FAST_SOFTPLUS};
+		for (int j=0; j<exact.length; j++) {
+			AVector v=Vectorz.createUniformRandomVector(1000);
+			v.multiply(10.0);
+			AVector a=v.clone();
+			AVector b=v.clone();
+			exact[j].applyTo(a);
+			fast[j].applyTo(b);
+			for (int i=0; i<a.length(); i++) {
+				double y=a.get(i);
+				assertEquals(y,b.get(i),1e-8*Math.max(1.0,Math.abs(y)));
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package mikera.vectorz;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestFloatVector {
+
+	@Test
+	public void testRounding() {
+		FloatVector v=FloatVector.createLength(2);
+		v.set(0, 0.1);
+		v.set(1, 2.5);
+		assertEquals((float)0.1, v.get(0), 0.0);
+		assertEquals(2.5, v.get(1), 0.0);
+	}
+
+	@Test
+	public void testDotProduct() {
+		AVector a=Vectorz.createUniformRandomVector(1000);
+		AVector b=Vectorz.createUniformRandomVector(1000);
+		FloatVector fa=FloatVector.create(a);
+		FloatVector fb=FloatVector.create(b);
+
+		double exact=Vector.create(fa).dotProduct(Vector.create(fb));
+		assertEquals(exact, fa.dotProduct(fb), 1e-10);
+		assertEquals(exact, fa.dotProduct(Vector.create(fb)), 1e-10);
+		assertEquals(exact, fa.dotProduct(fb.subVector(0, 1000)), 1e-10);
+		assertEquals(a.dotProduct(b), fa.dotProduct(fb), 1e-4);
+	}
+
+	@Test
+	public void testWrap() {
+		float[] data=new float[] {1,2,3,4,5};
+		FloatVector v=FloatVector.wrap(data, 1, 3);
+		assertEquals(Vector.of(2,3,4),v);
+		assertTrue(v.isView());
+		v.set(0, 10);
+		assertEquals(10.0f, data[1], 0.0f);
+
+		try {
+			FloatVector.wrap(data, 3, 3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// OK
+		}
+	}
+
+	@Test
+	public void testAddMultiple() {
+		FloatVector v=FloatVector.of(1,2,3);
+		v.addMultiple(FloatVector.of(1,1,1), 2);
+		assertEquals(Vector.of(3,4,5),v);
+		v.addMultiple(Vector.of(1,0,-1), -1);
+		assertEquals(Vector.of(2,4,6),v);
+		v.add(FloatVector.of(1,1,1));
+		assertEquals(Vector.of(3,5,7),v);
+		assertEquals(15.0,v.elementSum(),0.0);
+		assertEquals(83.0,v.magnitudeSquared(),0.0);
+	}
+
+	@Test
+	public void testGenericTests() {
+		new TestVectors().doGenericTests(FloatVector.of(1,2,3,4));
+		new TestVectors().doGenericTests(FloatVector.createLength(10));
+		new TestVectors().doGenericTests(FloatVector.of(1,2,3,4,5).subVector(1, 3));
+	}
+}
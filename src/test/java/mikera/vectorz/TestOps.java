@@ -160,6 +160,30 @@ public class TestOps {
 		assertTrue(v1.equalsArray(d1));	
 	}
 	
+	private void testArrayApply(Op op) {
+		if (op.isStochastic()) return;
+		
+		// long enough to span several blocks of any compound op
+		int n=600;
+		int offset=3;
+		double[] src=new double[n+offset+2];
+		for (int i=0; i<src.length; i++) {
+			src[i]=Rand.nextGaussian()*10;
+		}
+		double[] data=src.clone();
+		op.applyTo(data, offset, n);
+		for (int i=0; i<src.length; i++) {
+			double expected=((i<offset)||(i>=offset+n))?src[i]:op.apply(src[i]);
+			assertEquals(expected,data[i],0.0);
+		}
+		
+		double[] dest=new double[n];
+		op.applyTo(src, offset, dest, 0, n);
+		for (int i=0; i<n; i++) {
+			assertEquals(data[offset+i],dest[i],0.0);
+		}
+	}
+	
 	private void testTransforms(Op op) {
 		if (op.isStochastic()) return;
 		TestTransformz.doTransformTests(op.getTransform(1));
@@ -265,6 +289,7 @@ public class TestOps {
 		testInverse(op);
 		testStochastic(op);
 		testVectorApply(op);
+		testArrayApply(op);
 		testTransforms(op);
 		testBounds(op);
 		testDerivative(op);
@@ -329,6 +354,12 @@ public class TestOps {
 		doOpTest(Ops.LOG);
 		doOpTest(Ops.LOG10);
 
+		doOpTest(Ops.FAST_EXP);
+		doOpTest(Ops.FAST_LOG);
+		doOpTest(Ops.FAST_TANH);
+		doOpTest(Ops.FAST_LOGISTIC);
+		doOpTest(Ops.FAST_SOFTPLUS);
+
 		doOpTest(Ops.TANH);
 		doOpTest(Ops.COSH);
 		doOpTest(Ops.SINH);
@@ -353,6 +384,9 @@ public class TestOps {
 		
 		doOpTest(Ops.LINEAR.product(Quadratic.create(0, 3, 4)));	
 		doOpTest(Ops.LINEAR.divide(Quadratic.create(0, 3, 4)));
+		doOpTest(Ops.TANH.product(Ops.LOGISTIC));
+		doOpTest(Ops.TANH.sum(Ops.SQUARE).product(Ops.EXP.compose(Ops.NEGATE)));
+		doOpTest(Ops.SOFTPLUS.compose(Quadratic.create(0.5, 1, -1)).divide(Ops.LOGISTIC));
 
 		
 		doComposeTest(Linear.create(0.31, 0.12),Linear.create(-100, 11.0));
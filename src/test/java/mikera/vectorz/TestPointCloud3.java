@@ -0,0 +1,116 @@
+package mikera.vectorz;
+
+import static org.junit.Assert.*;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrix33;
+import mikera.matrixx.Matrixx;
+import mikera.transformz.Affine34;
+
+import org.junit.Test;
+
+public class TestPointCloud3 {
+
+	private static PointCloud3 createRandom(int n) {
+		return PointCloud3.create(Matrix.createRandom(n, 3));
+	}
+
+	@Test public void testMatrixView() {
+		PointCloud3 p=PointCloud3.create(Vector3.of(1,2,3),Vector3.of(4,5,6));
+		assertEquals(2,p.pointCount());
+		assertEquals(Matrix.create(new double[][] {{1,2,3},{4,5,6}}),p);
+		assertEquals(Vector.of(2,5),p.getColumn(1));
+		assertEquals(Vector3.of(4,5,6),p.getPoint(1));
+		p.set(0, 2, 10);
+		assertEquals(10.0,p.getZArray()[0],0.0);
+		assertEquals(p,p.exactClone());
+	}
+
+	@Test public void testAffineTransform() {
+		PointCloud3 p=createRandom(20);
+		Affine34 t=new Affine34(Matrixx.createRandomSquareMatrix(3),Vector3.of(1,-2,3));
+		PointCloud3 dest=PointCloud3.create(20);
+		p.transform(t, dest);
+		for (int i=0; i<20; i++) {
+			Vector3 v=p.getPoint(i);
+			t.transformInPlace(v);
+			assertTrue(v.epsilonEquals(dest.getPoint(i)));
+		}
+
+		PointCloud3 q=p.exactClone();
+		q.transform(t, 5, 10);
+		assertEquals(p.getPoint(4),q.getPoint(4));
+		assertTrue(dest.getPoint(5).epsilonEquals(q.getPoint(5)));
+		assertTrue(dest.getPoint(14).epsilonEquals(q.getPoint(14)));
+		assertEquals(p.getPoint(15),q.getPoint(15));
+
+		t.transformInPlace(p);
+		assertTrue(dest.epsilonEquals(p));
+	}
+
+	@Test public void testMatrixTransform() {
+		PointCloud3 p=createRandom(10);
+		Matrix33 m=new Matrix33(Matrixx.createRandomSquareMatrix(3));
+		PointCloud3 expected=PointCloud3.create(p.innerProduct(m.getTranspose()));
+		m.transformInPlace(p);
+		assertTrue(expected.epsilonEquals(p));
+	}
+
+	@Test public void testNormals() {
+		PointCloud3 p=createRandom(10);
+		Affine34 t=new Affine34(Matrixx.createRandomSquareMatrix(3),Vector3.of(1,-2,3));
+		PointCloud3 q=p.exactClone();
+		q.transformNormals(t);
+		for (int i=0; i<10; i++) {
+			Vector3 v=p.getPoint(i);
+			t.transformNormal(v, v);
+			assertTrue(v.epsilonEquals(q.getPoint(i)));
+		}
+	}
+
+	@Test public void testRotate() {
+		PointCloud3 p=createRandom(10);
+		Vector3 axis=Vector3.of(0,0,1);
+		Vector4 q=Vector4.of(0,0,Math.sin(0.25*Math.PI),Math.cos(0.25*Math.PI));
+		PointCloud3 r=p.exactClone();
+		Quaternions.rotate(q, r);
+		PointCloud3 expected=p.exactClone();
+		expected.transform(Matrixx.createRotationMatrix(axis, 0.5*Math.PI));
+		assertTrue(expected.epsilonEquals(r));
+		assertEquals(-p.getYArray()[3],r.getXArray()[3],1e-12);
+	}
+
+	@Test public void testStatistics() {
+		PointCloud3 p=PointCloud3.create(Vector3.of(0,0,0),Vector3.of(2,-4,1),Vector3.of(1,1,-1));
+		assertEquals(Vector3.of(1,-1,0),p.centroid());
+
+		Vector3 min=new Vector3();
+		Vector3 max=new Vector3();
+		p.getBounds(min, max);
+		assertEquals(Vector3.of(0,-4,-1),min);
+		assertEquals(Vector3.of(2,1,1),max);
+
+		Vector3 target=Vector3.of(1,1,0);
+		Vector d=p.distances(target);
+		for (int i=0; i<3; i++) {
+			assertEquals(p.getPoint(i).distance(target),d.get(i),1e-12);
+		}
+		assertEquals(2,p.nearestIndex(target));
+		assertEquals(-1,PointCloud3.create(0).nearestIndex(target));
+	}
+
+	@Test public void testErrors() {
+		PointCloud3 p=createRandom(4);
+		try {
+			p.transform(new Affine34(), 2, 3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// OK
+		}
+		try {
+			p.transform(new Affine34(), PointCloud3.create(3));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package mikera.vectorz;
+
+import static org.junit.Assert.*;
+import mikera.matrixx.Matrix33;
+import mikera.matrixx.Matrixx;
+import mikera.transformz.Affine34;
+
+import org.junit.Test;
+
+public class TestQuaternion {
+
+	@Test public void testMultiply() {
+		Quaternion a=Quaternion.of(1,2,3,4);
+		Quaternion b=Quaternion.of(-2,0.5,1,3);
+		Vector4 expected=Quaternions.mul(a.toVector4(), b.toVector4());
+
+		Quaternion r=a.clone();
+		r.mul(b);
+		assertTrue(expected.epsilonEquals(r));
+
+		r=b.clone();
+		r.preMul(a);
+		assertTrue(expected.epsilonEquals(r));
+
+		r=a.clone();
+		r.setProduct(r, r);
+		assertTrue(Quaternions.mul(a.toVector4(), a.toVector4()).epsilonEquals(r));
+	}
+
+	@Test public void testInvert() {
+		Quaternion a=Quaternion.of(1,2,3,4);
+		Quaternion b=a.clone();
+		b.invert();
+		b.mul(a);
+		assertTrue(new Quaternion().epsilonEquals(b));
+
+		Quaternion c=a.clone();
+		c.conjugate();
+		assertEquals(Vector4.of(-1,-2,-3,4),c.toVector4());
+
+		assertEquals(Math.sqrt(30),a.normalise(),1e-12);
+		assertEquals(1.0,a.magnitude(),1e-12);
+	}
+
+	@Test public void testConventions() {
+		Vector3 axis=Vector3.of(1,-2,0.5);
+		Quaternion q=Quaternion.createAxisAngle(axis, 1.1);
+		assertTrue(q.epsilonEquals(Quaternions.axisAngle(axis, 1.1)));
+		assertTrue(q.toRotationMatrix().epsilonEquals(Quaternions.toRotationMatrix(q.toVector4())));
+		
+		Affine34 a=new Affine34();
+		q.toRotationMatrix(a);
+		assertTrue(a.copyOfMatrix().epsilonEquals(q.toRotationMatrix()));
+		
+		// zero quaternion acts as the identity rotation
+		Quaternion z=Quaternion.of(0,0,0,0);
+		assertTrue(z.toRotationMatrix().isIdentity());
+		Vector3 v=Vector3.of(0.3,2,-1);
+		Vector3 r=new Vector3();
+		z.rotate(v, r);
+		assertEquals(v,r);
+	}
+
+	@Test public void testAffineConversion() {
+		Quaternion[] qs={Quaternion.of(0.3,-1.2,0.7,2.0),Quaternion.of(0,0,0,0),
+				Quaternion.createAxisAngle(Vector3.of(0,1,1), -2.5)};
+		for (Quaternion q: qs) {
+			Matrix33 m=q.toRotationMatrix();
+			Affine34 a=new Affine34(Matrix33.createIdentityMatrix(),Vector3.of(1,2,3));
+			q.toRotationMatrix(a);
+			assertEquals(m,a.copyOfMatrix());
+			assertEquals(Vector3.of(1,2,3),a.copyOfTranslationVector());
+			
+			PointCloud3 points=PointCloud3.create(Vector3.of(1,0,0),Vector3.of(0.3,2,-1));
+			q.rotate(points);
+			assertEquals(m.transform(Vector3.of(1,0,0)),points.getPoint(0));
+			assertEquals(m.transform(Vector3.of(0.3,2,-1)),points.getPoint(1));
+		}
+	}
+
+	@Test public void testRotate() {
+		Vector3 axis=Vector3.of(1,-2,0.5);
+		double angle=1.1;
+		Matrix33 m=Matrixx.createRotationMatrix(axis, angle);
+		Quaternion q=Quaternion.createAxisAngle(axis, angle);
+		assertEquals(1.0,q.magnitude(),1e-12);
+		assertTrue(m.epsilonEquals(q.toRotationMatrix()));
+
+		Vector3 v=Vector3.of(0.3,2,-1);
+		Vector3 r=new Vector3();
+		q.rotate(v, r);
+		assertTrue(m.transform(v).epsilonEquals(r));
+
+		// scaling the quaternion should not affect the rotation
+		q.multiply(3.0);
+		q.rotateInPlace(v);
+		assertTrue(r.epsilonEquals(v));
+	}
+
+	@Test public void testMatrixConversion() {
+		Vector3[] axes={Vector3.of(1,0,0),Vector3.of(0,1,0),Vector3.of(0,0,1),Vector3.of(1,1,-1)};
+		double[] angles={0.1,2.0,3.1,-2.9};
+		for (Vector3 axis: axes) {
+			for (double angle: angles) {
+				Quaternion q=Quaternion.createAxisAngle(axis, angle);
+				Matrix33 m=q.toRotationMatrix();
+				Quaternion q2=Quaternion.create(m);
+
+				Affine34 a=new Affine34();
+				a.tr0=5;
+				q.toRotationMatrix(a);
+				assertEquals(5.0,a.tr0,0.0);
+				assertTrue(m.epsilonEquals(a.copyOfMatrix()));
+				Quaternion q3=new Quaternion();
+				q3.setRotation(a);
+				assertTrue(q2.epsilonEquals(q3));
+
+				// q and -q represent the same rotation
+				if (q2.dotProduct(q)<0) q2.multiply(-1.0);
+				assertTrue(q.epsilonEquals(q2));
+			}
+		}
+	}
+
+	@Test public void testSlerp() {
+		Vector3 axis=Vector3.of(0,0,1);
+		Quaternion a=Quaternion.createAxisAngle(axis, 0.2);
+		Quaternion b=Quaternion.createAxisAngle(axis, 1.4);
+		Quaternion r=new Quaternion();
+		r.slerp(a, b, 0.25);
+		assertTrue(Quaternion.createAxisAngle(axis, 0.5).epsilonEquals(r));
+		r.slerp(a, b, 0.0);
+		assertTrue(a.epsilonEquals(r));
+		r.slerp(a, b, 1.0);
+		assertTrue(b.epsilonEquals(r));
+
+		// shortest path is taken when b is negated
+		Quaternion nb=b.clone();
+		nb.multiply(-1.0);
+		r.slerp(a, nb, 0.25);
+		assertTrue(Quaternion.createAxisAngle(axis, 0.5).epsilonEquals(r));
+
+		// nearly identical quaternions use nlerp
+		r.slerp(a, a, 0.5);
+		assertTrue(a.epsilonEquals(r));
+		r.nlerp(a, b, 0.5);
+		assertTrue(Quaternion.createAxisAngle(axis, 0.8).epsilonEquals(r));
+	}
+
+	@Test public void testBatchSlerp() {
+		int n=5;
+		double[] as=new double[n*4+1];
+		double[] bs=new double[n*4];
+		Quaternion[] qa=new Quaternion[n];
+		Quaternion[] qb=new Quaternion[n];
+		for (int i=0; i<n; i++) {
+			qa[i]=Quaternion.createAxisAngle(Vector3.of(i,1,2), 0.3*i);
+			qb[i]=Quaternion.createAxisAngle(Vector3.of(1,i,-1), 2.0-0.5*i);
+			qa[i].getElements(as, 1+i*4);
+			qb[i].getElements(bs, i*4);
+		}
+		double[] dest=new double[n*4];
+		Quaternions.slerp(as, 1, bs, 0, dest, 0, n, 0.3);
+		Quaternion r=new Quaternion();
+		for (int i=0; i<n; i++) {
+			r.slerp(qa[i], qb[i], 0.3);
+			assertTrue(r.epsilonEquals(Vector.wrap(dest).subVector(i*4, 4)));
+		}
+
+		// in place over the start array
+		Quaternions.nlerp(bs, 0, bs, 0, bs, 0, n, 0.7);
+		for (int i=0; i<n; i++) {
+			assertTrue(qb[i].epsilonEquals(Vector.wrap(bs).subVector(i*4, 4)));
+		}
+
+		try {
+			Quaternions.slerp(bs, 4, bs, 0, dest, 0, n, 0.5);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// OK
+		}
+	}
+}
@@ -33,7 +33,36 @@ public class TestQuaternions {
 		Vector3 mv=rotM.innerProduct(v);
 		Vector3 qv=Quaternions.rotate(rotQ, v);
 		
-		assertEquals(mv,qv);
 		assertTrue(mv.epsilonEquals(qv));
 	}
+	
+	@Test public void testRotateConsistency() {
+		Vector4 q=Quaternions.axisAngle(Vector3.of(0,0,1), 0.5*Math.PI);
+		assertTrue(Quaternions.rotate(q, Vector3.of(1,0,0)).epsilonEquals(Vector3.of(0,1,0)));
+		
+		// single vector and bulk rotation must agree, including for unnormalised quaternions
+		Vector4 u=Vector4.of(0.3,-1.2,0.7,2.0);
+		Vector3[] vs=new Vector3[] {Vector3.of(1,0,0),Vector3.of(0,0,1),Vector3.of(1,2,-3)};
+		PointCloud3 p=PointCloud3.create(vs);
+		Quaternions.rotate(u, p);
+		for (int i=0; i<vs.length; i++) {
+			Vector3 r=Quaternions.rotate(u, vs[i]);
+			assertTrue(r.epsilonEquals(p.getPoint(i)));
+			assertTrue(r.epsilonEquals(Quaternions.toRotationMatrix(u).innerProduct(vs[i])));
+			assertEquals(vs[i].magnitude(),r.magnitude(),1e-12);
+		}
+	}
+	
+	@Test public void testRotationMatrix() {
+		Vector3 axis=new Vector3(1,2,-0.5);
+		double angle=0.7;
+		double ha=0.5*angle;
+		Vector3 n=axis.toNormal();
+		// unnormalised quaternion should give the same rotation
+		Vector4 q=Vector4.of(n.x*Math.sin(ha)*3,n.y*Math.sin(ha)*3,n.z*Math.sin(ha)*3,Math.cos(ha)*3);
+		
+		Matrix33 m=Quaternions.toRotationMatrix(q);
+		assertTrue(m.epsilonEquals(Matrixx.createRotationMatrix(axis, angle)));
+		assertTrue(Quaternions.toRotationMatrix(Vector4.of(0,0,0,1)).isIdentity());
+	}
 }
@@ -1,6 +1,11 @@
 package mikera.vectorz;
 
 import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import mikera.indexz.Index;
+import mikera.indexz.impl.CompressedIndex;
 import mikera.vectorz.impl.SparseHashedVector;
 import mikera.vectorz.impl.SparseIndexedVector;
 
@@ -30,4 +35,81 @@ public class TestSparseVectors {
 		assertEquals(1,v.nonZeroCount());
 		
 	}
+	
+	private static SparseIndexedVector randomSparse(Random r, int length, int count) {
+		SparseIndexedVector v=SparseIndexedVector.createLength(length);
+		for (int i=0; i<count; i++) {
+			v.set(r.nextInt(length), r.nextInt(19)-9);
+		}
+		return v;
+	}
+	
+	@Test 
+	public void testSparseMergeKernels() {
+		Random r=new Random(4321);
+		int[][] sizes={{0,0},{0,10},{10,0},{50,50},{200,200},{3,400},{400,3},{1000,1000}};
+		for (int[] sz: sizes) {
+			SparseIndexedVector a=randomSparse(r,1000,sz[0]);
+			SparseIndexedVector b=randomSparse(r,1000,sz[1]);
+			Vector da=a.toVector();
+			Vector db=b.toVector();
+			
+			assertEquals(da.dotProduct(db),a.dotProduct(b),0.0);
+			assertEquals(da.dotProduct(db),a.dotProduct((AVector)b),0.0);
+			assertEquals(da.distanceSquared(db),a.distanceSquared(b),0.0);
+			
+			SparseIndexedVector t=a.exactClone();
+			t.add(b);
+			t.validate();
+			assertEquals(da.addCopy(db),t);
+			
+			t=a.exactClone();
+			t.addMultiple(b,2.5);
+			t.validate();
+			assertEquals(da.addMultipleCopy(db,2.5),t);
+			
+			t=a.exactClone();
+			t.sub(b);
+			t.validate();
+			assertEquals(da.subCopy(db),t);
+			
+			t=a.exactClone();
+			t.multiply(b);
+			t.validate();
+			assertEquals(da.multiplyCopy(db),t);
+		}
+	}
+	
+	@Test 
+	public void testSparseMergeSubset() {
+		SparseIndexedVector a=SparseIndexedVector.wrap(10, new int[] {1,3,5,7}, new double[] {1,2,3,4});
+		SparseIndexedVector b=SparseIndexedVector.wrap(10, new int[] {3,7}, new double[] {10,20});
+		a.add(b);
+		assertEquals(Vector.of(0,1,0,12,0,3,0,24,0,0),a);
+		assertEquals(4,a.nonSparseIndexes().length());
+		
+		b.multiply(a);
+		assertEquals(Vector.of(0,0,0,120,0,0,0,480,0,0),b);
+		
+		a.addMultiple(a, -1.0);
+		assertTrue(a.isZero());
+	}
+	
+	@Test 
+	public void testIncludeIndices() {
+		SparseIndexedVector v=SparseIndexedVector.createLength(10);
+		v.includeIndices(Index.of(2,5));
+		assertEquals(2,v.nonSparseIndexes().length());
+		assertTrue(v.isZero());
+		
+		v.set(5,3.0);
+		v.includeIndices(CompressedIndex.create(Index.of(1,5,9)));
+		v.validate();
+		assertEquals(Index.of(1,2,5,9),v.nonSparseIndexes());
+		assertEquals(Vector.of(0,0,0,0,0,3,0,0,0,0),v);
+		
+		SparseIndexedVector w=SparseIndexedVector.createLength(10);
+		w.includeIndices(v);
+		assertEquals(4,w.nonSparseIndexes().length());
+	}
 }
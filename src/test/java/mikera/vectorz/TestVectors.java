@@ -11,6 +11,7 @@ import mikera.arrayz.TestArrays;
 import mikera.indexz.Index;
 import mikera.indexz.Indexz;
 import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
 import mikera.matrixx.Matrixx;
 import mikera.matrixx.impl.MatrixAsVector;
 import mikera.util.Rand;
@@ -26,6 +27,7 @@ import mikera.vectorz.impl.IndexedSubVector;
 import mikera.vectorz.impl.JoinedArrayVector;
 import mikera.vectorz.impl.SingleElementVector;
 import mikera.vectorz.impl.SparseHashedVector;
+import mikera.vectorz.impl.CompactSparseVector;
 import mikera.vectorz.impl.SparseImmutableVector;
 import mikera.vectorz.impl.SparseIndexedVector;
 import mikera.vectorz.impl.StridedVector;
@@ -73,6 +75,28 @@ public class TestVectors {
 		assertEquals(vc,v);
 	}
 	
+	@Test public void testInnerProductInto() {
+		Matrix m=Matrix.create(new double[][] {{1,2},{Double.NaN,Double.POSITIVE_INFINITY}});
+		AVector r=Vector.of(3,0).innerProduct(m);
+		assertTrue(Double.isNaN(r.get(0)));
+		assertTrue(Double.isNaN(r.get(1)));
+		
+		Matrix a=Matrix.create(new double[][] {{1,2},{3,4}});
+		Vector v=Vector.of(1,10);
+		AVector expected=v.innerProduct(a);
+		v.innerProductInto(a, v);
+		assertEquals(Vector.of(31,42),expected);
+		assertEquals(expected,v);
+		
+		AVector w=ArraySubVector.wrap(new double[] {0,1,10}, 1, 2);
+		w.innerProductInto(a, w);
+		assertEquals(expected,w);
+		
+		AVector row=a.getRowView(0);
+		Vector.of(1,10).innerProductInto(a, row);
+		assertEquals(expected,row);
+	}
+	
 	@Test public void testCross() {
 		Vector3 v=Vector3.of(1,2,3);
 		v.crossProduct(Vector.of(1,1,1));
@@ -743,6 +767,53 @@ public class TestVectors {
 	
 
 	
+	private void testIntoOperations(AVector v) {
+		int len=v.length();
+		AVector a=Vectorz.createUniformRandomVector(len);
+		AVector[] dests=new AVector[] {Vector.createLength(len), Vector.createLength(len+2).subVector(1, len), Vectorz.createSparseMutable(len)};
+		for (AVector d: dests) {
+			v.addInto(a, d);
+			assertTrue(v.addCopy(a).epsilonEquals(d));
+			v.subInto(a, d);
+			assertTrue(v.subCopy(a).epsilonEquals(d));
+			v.multiplyInto(a, d);
+			assertTrue(v.multiplyCopy(a).epsilonEquals(d));
+			v.multiplyInto(3.0, d);
+			assertTrue(v.multiplyCopy(3.0).epsilonEquals(d));
+			v.applyOpInto(Ops.ABS, d);
+			assertTrue(v.applyOpCopy(Ops.ABS).epsilonEquals(d));
+		}
+		
+		// destination may be the same as an operand
+		AVector b=a.clone();
+		v.subInto(b, b);
+		assertTrue(v.subCopy(a).epsilonEquals(b));
+		if (v.isFullyMutable()) {
+			AVector c=v.exactClone();
+			c.addInto(a, c);
+			assertTrue(v.addCopy(a).epsilonEquals(c));
+			c=v.exactClone();
+			a.subInto(c, c);
+			assertTrue(a.subCopy(v).epsilonEquals(c));
+		}
+		
+		try {
+			v.addInto(a, Vector.createLength(len+1));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+		
+		if (len>20) return;
+		AMatrix m=Matrixx.createRandomMatrix(len, len+1);
+		AVector r=Vector.createLength(len+1);
+		v.innerProductInto(m, r);
+		assertTrue(v.innerProduct(m).epsilonEquals(r));
+		AMatrix o=Matrixx.createSparse(len, len+1);
+		v.outerProductInto(r, o);
+		assertTrue(v.outerProduct(r).epsilonEquals(o));
+	}
+	
 	private void testDivide(AVector v) {
 		if (!v.isFullyMutable()) return;
 
@@ -828,6 +899,7 @@ public class TestVectors {
 		testInnerProducts(v);
 		testMultiply(v);
 		testDivide(v);
+		testIntoOperations(v);
 		testSet(v);
 		testSparseOps(v);
 		testSquare(v);
@@ -856,6 +928,7 @@ public class TestVectors {
 		doGenericTests(new Vector3(1.0,2.0,3.0));
 		doGenericTests(new Vector4(1.0,2.0,3.0,4.0));
 		doGenericTests(new Vector4(1.0,2.0,3.0,4.0).subVector(1, 2));
+		doGenericTests(new Quaternion(1.0,2.0,3.0,4.0));
 	}
 	
 	@Test public void g_BitVector() {
@@ -1005,6 +1078,13 @@ public class TestVectors {
 		doGenericTests(SparseIndexedVector.create(Vector.of(-1,-2,-3))); // fully dense!
 	}
 
+	@Test public void g_CompactSparseVector() {	
+		doGenericTests(CompactSparseVector.create(SparseIndexedVector.create(10,Index.of(1,3,6),Vector.of(1.0,2.0,3.0))));
+		doGenericTests(CompactSparseVector.create(Vector.of(0,0,0,0)));
+		doGenericTests(CompactSparseVector.create(Vector.of(1,2,0,4,5),CompactSparseVector.ValueFormat.FLOAT));
+		doGenericTests(CompactSparseVector.create(Vector.of(-1,0,300,0.5),CompactSparseVector.ValueFormat.QUANTIZED));
+	}
+	
 	@Test public void g_SparseImmutableVector() {	
 		doGenericTests(SparseImmutableVector.create(10,Index.of(1,3,6),Vector.of(1.0,2.0,3.0)));
 		doGenericTests(SparseImmutableVector.create(Vector.of(1,2,3,4,5))); // fully dense!
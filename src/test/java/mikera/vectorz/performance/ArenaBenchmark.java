@@ -0,0 +1,132 @@
+package mikera.vectorz.performance;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.util.DoubleArena;
+
+/**
+ * Compares creating batches of small vectors and matrix tiles with Vector.createLength and
+ * Matrix.create against views carved out of a DoubleArena that is reset between batches.
+ *
+ * Reports time, GC count and GC time for each approach, together with the allocated bytes
+ * where the JVM supports per-thread allocation counters.
+ *
+ * @author Mike
+ */
+public class ArenaBenchmark {
+	private static final int BATCHES=500;
+	private static final int BATCH_SIZE=10000;
+	private static final int VECTOR_LENGTH=32;
+	private static final int TILE_SIZE=8;
+
+	private static double sink=0.0;
+
+	private interface Factory {
+		AVector createVector(int length);
+		AMatrix createMatrix(int rows, int cols);
+		void endBatch();
+	}
+
+	private static long gcCount() {
+		long result=0;
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+			result+=Math.max(0, gc.getCollectionCount());
+		}
+		return result;
+	}
+
+	private static long gcTime() {
+		long result=0;
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+			result+=Math.max(0, gc.getCollectionTime());
+		}
+		return result;
+	}
+
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean=ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static void runBatches(Factory f, int batches) {
+		AVector[] vs=new AVector[BATCH_SIZE];
+		AMatrix[] ms=new AMatrix[BATCH_SIZE];
+		for (int b=0; b<batches; b++) {
+			for (int i=0; i<BATCH_SIZE; i++) {
+				AVector v=f.createVector(VECTOR_LENGTH);
+				v.unsafeSet(i%VECTOR_LENGTH, i);
+				vs[i]=v;
+				AMatrix m=f.createMatrix(TILE_SIZE, TILE_SIZE);
+				m.unsafeSet(i%TILE_SIZE, 0, 1.0);
+				ms[i]=m;
+			}
+			double t=0.0;
+			for (int i=0; i<BATCH_SIZE; i++) {
+				t+=vs[i].elementSum()+ms[i].unsafeGet(i%TILE_SIZE, 0);
+			}
+			sink+=t;
+			f.endBatch();
+		}
+	}
+
+	private static void measure(String name, Factory f) {
+		runBatches(f,BATCHES/10);
+		System.gc();
+		long gcs=gcCount();
+		long gct=gcTime();
+		long bytes=allocatedBytes();
+		long start=System.nanoTime();
+		runBatches(f,BATCHES);
+		long elapsed=System.nanoTime()-start;
+		long allocated=allocatedBytes()-bytes;
+		System.out.println(String.format("%-24s %9.1f ms  %5d GCs  %6d ms GC  %8.1f MB allocated",name,
+				elapsed/1000000.0,gcCount()-gcs,gcTime()-gct,(bytes<0)?-1.0:allocated/(1024.0*1024.0)));
+	}
+
+	public static void main(String[] args) {
+		for (int run=0; run<3; run++) {
+			measure("createLength / create",new Factory() {
+				@Override
+				public AVector createVector(int length) {
+					return Vector.createLength(length);
+				}
+
+				@Override
+				public AMatrix createMatrix(int rows, int cols) {
+					return Matrix.create(rows, cols);
+				}
+
+				@Override
+				public void endBatch() {
+				}
+			});
+
+			final DoubleArena arena=new DoubleArena();
+			measure("DoubleArena",new Factory() {
+				@Override
+				public AVector createVector(int length) {
+					return arena.createVector(length);
+				}
+
+				@Override
+				public AMatrix createMatrix(int rows, int cols) {
+					return arena.createMatrix(rows, cols);
+				}
+
+				@Override
+				public void endBatch() {
+					arena.reset();
+				}
+			});
+		}
+		if (sink==0.0) System.out.println("Unexpected zero result");
+	}
+}
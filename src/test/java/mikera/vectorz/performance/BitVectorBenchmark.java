@@ -0,0 +1,130 @@
+package mikera.vectorz.performance;
+
+import java.util.Random;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.BitMatrix;
+import mikera.vectorz.BitVector;
+import mikera.vectorz.Vector;
+
+/**
+ * Caliper based benchmarks for the word-level BitVector and BitMatrix kernels, compared to the
+ * same operations on dense double storage
+ *
+ * @author Mike
+ */
+public class BitVectorBenchmark extends SimpleBenchmark {
+	private static final int LENGTH=100000;
+	private static final int MATRIX_SIZE=256;
+
+	private final BitVector a;
+	private final BitVector b;
+	private final Vector da;
+	private final Vector db;
+	private final Vector dense;
+
+	private final BitMatrix m;
+	private final Matrix dm;
+
+	public volatile double output=0.0;
+
+	public BitVectorBenchmark() {
+		Random r=new Random(1);
+		a=BitVector.createLength(LENGTH);
+		b=BitVector.createLength(LENGTH);
+		dense=Vector.createLength(LENGTH);
+		for (int i=0; i<LENGTH; i++) {
+			if (r.nextDouble()<0.1) a.set(i, 1.0);
+			if (r.nextDouble()<0.1) b.set(i, 1.0);
+			dense.set(i, r.nextDouble());
+		}
+		da=Vector.create(a);
+		db=Vector.create(b);
+
+		m=BitMatrix.create(MATRIX_SIZE, MATRIX_SIZE);
+		for (int i=0; i<MATRIX_SIZE; i++) {
+			for (int j=0; j<MATRIX_SIZE; j++) {
+				if (r.nextDouble()<0.05) m.set(i, j, 1.0);
+			}
+		}
+		dm=Matrix.create(m);
+	}
+
+	public void timeBitDotDense(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=a.dotProduct(dense);
+		}
+		output=result;
+	}
+
+	public void timeDoubleDotDense(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=da.dotProduct(dense);
+		}
+		output=result;
+	}
+
+	public void timeBitJaccard(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=a.jaccardSimilarity(b);
+		}
+		output=result;
+	}
+
+	public void timeDoubleJaccard(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			double intersection=da.dotProduct(db);
+			result+=intersection/(da.elementSum()+db.elementSum()-intersection);
+		}
+		output=result;
+	}
+
+	public void timeBitHamming(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=a.hammingDistance(b);
+		}
+		output=result;
+	}
+
+	public void timeBitMatrixBooleanProduct(int runs) {
+		BitMatrix r=null;
+		for (int i=0; i<runs; i++) {
+			r=m.booleanProduct(m);
+		}
+		output=r.nonZeroCount();
+	}
+
+	public void timeBitMatrixCountProduct(int runs) {
+		AMatrix r=null;
+		for (int i=0; i<runs; i++) {
+			r=m.innerProduct(m);
+		}
+		output=r.get(0, 0);
+	}
+
+	public void timeDoubleMatrixProduct(int runs) {
+		AMatrix r=null;
+		for (int i=0; i<runs; i++) {
+			r=dm.innerProduct(dm);
+		}
+		output=r.get(0, 0);
+	}
+
+	public static void main(String[] args) {
+		new BitVectorBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
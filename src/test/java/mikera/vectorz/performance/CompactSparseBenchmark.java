@@ -0,0 +1,82 @@
+package mikera.vectorz.performance;
+
+import java.util.Random;
+
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.CompactSparseVector.ValueFormat;
+import mikera.vectorz.impl.SparseIndexedVector;
+import mikera.vectorz.util.SparseVectorBuilder;
+import mikera.vectorz.util.SparseVectorStore;
+
+/**
+ * Compares the memory use and dense dot product speed of a collection of SparseIndexedVectors
+ * with the same vectors held in a SparseVectorStore in each value format.
+ *
+ * SparseIndexedVector memory is estimated from object layouts with compressed references: the
+ * vector, its Index and two arrays (16 bytes of header each) plus 12 bytes per non-zero.
+ *
+ * @author Mike
+ */
+public class CompactSparseBenchmark {
+	private static final int LENGTH=100000;
+	private static final int VECTORS=100000;
+	private static final int NON_ZEROS=40;
+	private static final int RUNS=20;
+
+	private static double sink=0.0;
+
+	private static void time(String name, Runnable r) {
+		for (int i=0; i<RUNS/2; i++) r.run();
+		long start=System.nanoTime();
+		for (int i=0; i<RUNS; i++) r.run();
+		long elapsed=System.nanoTime()-start;
+		System.out.println(String.format("%-44s %9.3f ms",name,elapsed/(RUNS*1000000.0)));
+	}
+
+	public static void main(String[] args) {
+		Random r=new Random(1);
+		final SparseIndexedVector[] vs=new SparseIndexedVector[VECTORS];
+		SparseVectorBuilder b=new SparseVectorBuilder(LENGTH);
+		long plainBytes=0;
+		for (int i=0; i<VECTORS; i++) {
+			b.clear();
+			for (int k=0; k<NON_ZEROS; k++) {
+				b.append(r.nextInt(LENGTH), r.nextGaussian());
+			}
+			vs[i]=b.toSparseIndexedVector();
+			plainBytes+=4*16+24+12L*vs[i].nonSparseElementCount();
+		}
+		final Vector d=Vector.createLength(LENGTH);
+		for (int i=0; i<LENGTH; i++) d.unsafeSet(i, r.nextDouble());
+		final double[] results=new double[VECTORS];
+
+		System.out.println(String.format("%-44s %9d bytes","SparseIndexedVector (estimated)",plainBytes));
+		time("SparseIndexedVector dotProduct",new Runnable() {
+			@Override
+			public void run() {
+				for (int i=0; i<VECTORS; i++) {
+					results[i]=vs[i].dotProduct(d);
+				}
+				sink+=results[0];
+			}
+		});
+
+		for (ValueFormat format: ValueFormat.values()) {
+			final SparseVectorStore store=new SparseVectorStore(LENGTH,format);
+			for (int i=0; i<VECTORS; i++) {
+				store.add(vs[i]);
+			}
+			store.trimToSize();
+			System.out.println(String.format("%-44s %9d bytes (%.1fx smaller)","SparseVectorStore "+format,
+					store.byteSize(),((double)plainBytes)/store.byteSize()));
+			time("SparseVectorStore "+format+" dotProductAll",new Runnable() {
+				@Override
+				public void run() {
+					store.dotProductAll(d, results, 0);
+					sink+=results[0];
+				}
+			});
+		}
+		if (sink==0.0) System.out.println("Unexpected zero result");
+	}
+}
@@ -0,0 +1,72 @@
+package mikera.vectorz.performance;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.arrayz.expr.AExpression;
+import mikera.arrayz.expr.Expressions;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Ops;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+/**
+ * Caliper based benchmarks comparing chained copying operations with
+ * fused lazy expression evaluation
+ * 
+ * @author Mike
+ */
+
+public class ExpressionBenchmark extends SimpleBenchmark {
+	private static final int VECTOR_SIZE = 1000000;
+	
+	private static final AVector a=Vector.create(Vectorz.createUniformRandomVector(VECTOR_SIZE));
+	private static final AVector b=Vector.create(Vectorz.createUniformRandomVector(VECTOR_SIZE));
+	private static final AVector c=Vector.create(Vectorz.createUniformRandomVector(VECTOR_SIZE));
+	private static final Vector dest=Vector.createLength(VECTOR_SIZE);
+	
+	public volatile double output=0.0;
+	
+	public void timeChain3Copy(int runs) {
+		for (int i=0; i<runs; i++) {
+			AVector r=a.addCopy(b).multiplyCopy(c).applyOpCopy(Ops.TANH);
+			output=r.unsafeGet(0);
+		}
+	}
+	
+	public void timeChain3Fused(int runs) {
+		AExpression e=Expressions.wrap(a).add(b).multiply(c).applyOp(Ops.TANH);
+		for (int i=0; i<runs; i++) {
+			e.evaluateInto(dest);
+			output=dest.unsafeGet(0);
+		}
+	}
+	
+	public void timeChain5Copy(int runs) {
+		for (int i=0; i<runs; i++) {
+			AVector r=a.addCopy(b).multiplyCopy(c).subCopy(a).applyOpCopy(Ops.LOGISTIC).multiplyCopy(b);
+			output=r.unsafeGet(0);
+		}
+	}
+	
+	public void timeChain5Fused(int runs) {
+		AExpression e=Expressions.wrap(a).add(b).multiply(c).sub(a).applyOp(Ops.LOGISTIC).multiply(b);
+		for (int i=0; i<runs; i++) {
+			e.evaluateInto(dest);
+			output=dest.unsafeGet(0);
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		new ExpressionBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+
+}
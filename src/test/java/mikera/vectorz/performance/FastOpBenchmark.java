@@ -0,0 +1,85 @@
+package mikera.vectorz.performance;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.vectorz.Op;
+import mikera.vectorz.Ops;
+
+/**
+ * Caliper based benchmarks comparing the fast approximate Ops against the exact Ops
+ *
+ * @author Mike
+ */
+public class FastOpBenchmark extends SimpleBenchmark {
+	private static final int SIZE=100000;
+
+	private final double[] data=new double[SIZE];
+
+	public volatile double output=0.0;
+
+	@Override
+	protected void setUp() {
+		for (int i=0; i<SIZE; i++) {
+			data[i]=(i%200)*0.05-4.99;
+		}
+	}
+
+	private void apply(Op op, int runs) {
+		double[] d=data;
+		for (int r=0; r<runs; r++) {
+			setUp();
+			op.applyTo(d, 0, SIZE);
+		}
+		output=d[0];
+	}
+
+	public void timeExp(int runs) {
+		apply(Ops.EXP,runs);
+	}
+
+	public void timeFastExp(int runs) {
+		apply(Ops.FAST_EXP,runs);
+	}
+
+	public void timeLog(int runs) {
+		apply(Ops.ABS.compose(Ops.LOG),runs);
+	}
+
+	public void timeFastLog(int runs) {
+		apply(Ops.ABS.compose(Ops.FAST_LOG),runs);
+	}
+
+	public void timeTanh(int runs) {
+		apply(Ops.TANH,runs);
+	}
+
+	public void timeFastTanh(int runs) {
+		apply(Ops.FAST_TANH,runs);
+	}
+
+	public void timeLogistic(int runs) {
+		apply(Ops.LOGISTIC,runs);
+	}
+
+	public void timeFastLogistic(int runs) {
+		apply(Ops.FAST_LOGISTIC,runs);
+	}
+
+	public void timeSoftPlus(int runs) {
+		apply(Ops.SOFTPLUS,runs);
+	}
+
+	public void timeFastSoftPlus(int runs) {
+		apply(Ops.FAST_SOFTPLUS,runs);
+	}
+
+	public static void main(String[] args) {
+		new FastOpBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
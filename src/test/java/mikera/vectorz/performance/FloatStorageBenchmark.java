@@ -0,0 +1,95 @@
+package mikera.vectorz.performance;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.matrixx.AMatrix;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.matrixx.impl.FloatMatrix;
+import mikera.vectorz.FloatVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+/**
+ * Caliper based benchmarks comparing float and double storage for memory-bound dot products,
+ * matrix-vector products over a large embedding table, and matrix-matrix products
+ *
+ * @author Mike
+ */
+public class FloatStorageBenchmark extends SimpleBenchmark {
+	private static final int VECTOR_SIZE=1000000;
+	private static final int TABLE_ROWS=20000;
+	private static final int TABLE_COLS=256;
+	private static final int MATRIX_SIZE=128;
+
+	private final Vector da=Vector.create(Vectorz.createUniformRandomVector(VECTOR_SIZE));
+	private final Vector db=Vector.create(Vectorz.createUniformRandomVector(VECTOR_SIZE));
+	private final FloatVector fa=FloatVector.create(da);
+	private final FloatVector fb=FloatVector.create(db);
+
+	private final Matrix dtable=Matrix.create(Matrixx.createRandomMatrix(TABLE_ROWS, TABLE_COLS));
+	private final FloatMatrix ftable=FloatMatrix.create(dtable);
+	private final Vector query=Vector.create(Vectorz.createUniformRandomVector(TABLE_COLS));
+	private final Vector scores=Vector.createLength(TABLE_ROWS);
+
+	private final Matrix dm=Matrix.create(Matrixx.createRandomMatrix(MATRIX_SIZE, MATRIX_SIZE));
+	private final FloatMatrix fm=FloatMatrix.create(dm);
+
+	public volatile double output=0.0;
+
+	public void timeDoubleDotProduct(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=da.dotProduct(db);
+		}
+		output=result;
+	}
+
+	public void timeFloatDotProduct(int runs) {
+		double result=0.0;
+		for (int i=0; i<runs; i++) {
+			result+=fa.dotProduct(fb);
+		}
+		output=result;
+	}
+
+	public void timeDoubleMatrixVector(int runs) {
+		for (int i=0; i<runs; i++) {
+			dtable.transform(query, scores);
+		}
+		output=scores.get(0);
+	}
+
+	public void timeFloatMatrixVector(int runs) {
+		for (int i=0; i<runs; i++) {
+			ftable.transform(query, scores);
+		}
+		output=scores.get(0);
+	}
+
+	public void timeDoubleMatrixMatrix(int runs) {
+		AMatrix r=null;
+		for (int i=0; i<runs; i++) {
+			r=dm.innerProduct(dm);
+		}
+		output=r.get(0,0);
+	}
+
+	public void timeFloatMatrixMatrix(int runs) {
+		AMatrix r=null;
+		for (int i=0; i<runs; i++) {
+			r=fm.innerProduct(fm);
+		}
+		output=r.get(0,0);
+	}
+
+	public static void main(String[] args) {
+		new FloatStorageBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
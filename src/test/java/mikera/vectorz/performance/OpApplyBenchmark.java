@@ -0,0 +1,93 @@
+package mikera.vectorz.performance;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.vectorz.Op;
+import mikera.vectorz.Ops;
+import mikera.vectorz.ops.Linear;
+import mikera.vectorz.ops.Quadratic;
+
+/**
+ * Caliper based benchmarks comparing the array kernels of Ops against per-element dispatch
+ * through Op.apply(double)
+ *
+ * @author Mike
+ */
+public class OpApplyBenchmark extends SimpleBenchmark {
+	private static final int SIZE=100000;
+
+	private static final Op COMPOUND=Ops.TANH.compose(Linear.create(0.5, 0.1)).sum(Ops.LOGISTIC.product(Quadratic.create(0.1, 0.2, 0.3)));
+
+	private final double[] data=new double[SIZE];
+
+	public volatile double output=0.0;
+
+	@Override
+	protected void setUp() {
+		for (int i=0; i<SIZE; i++) {
+			data[i]=(i%200)*0.01-1.0;
+		}
+	}
+
+	private void perElement(Op op, int runs) {
+		double[] d=data;
+		for (int r=0; r<runs; r++) {
+			for (int i=0; i<SIZE; i++) {
+				d[i]=op.apply(d[i]);
+			}
+			setUp();
+		}
+		output=d[0];
+	}
+
+	private void kernel(Op op, int runs) {
+		double[] d=data;
+		for (int r=0; r<runs; r++) {
+			op.applyTo(d, 0, SIZE);
+			setUp();
+		}
+		output=d[0];
+	}
+
+	public void timeTanhPerElement(int runs) {
+		perElement(Ops.TANH,runs);
+	}
+
+	public void timeTanhKernel(int runs) {
+		kernel(Ops.TANH,runs);
+	}
+
+	public void timeLogisticPerElement(int runs) {
+		perElement(Ops.LOGISTIC,runs);
+	}
+
+	public void timeLogisticKernel(int runs) {
+		kernel(Ops.LOGISTIC,runs);
+	}
+
+	public void timeQuadraticPerElement(int runs) {
+		perElement(Quadratic.create(0.1, 0.2, 0.3),runs);
+	}
+
+	public void timeQuadraticKernel(int runs) {
+		kernel(Quadratic.create(0.1, 0.2, 0.3),runs);
+	}
+
+	public void timeCompoundPerElement(int runs) {
+		perElement(COMPOUND,runs);
+	}
+
+	public void timeCompoundKernel(int runs) {
+		kernel(COMPOUND,runs);
+	}
+
+	public static void main(String[] args) {
+		new OpApplyBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
@@ -0,0 +1,74 @@
+package mikera.vectorz.performance;
+
+import mikera.vectorz.Ops;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+import mikera.vectorz.util.Parallel;
+
+/**
+ * Compares sequential and parallel execution of reductions and elementwise operations on
+ * large dense vectors
+ *
+ * @author Mike
+ */
+public class ParallelBenchmark {
+	private static final int SIZE=20000000;
+	private static final int RUNS=20;
+
+	private static double sink=0.0;
+
+	private static void time(String name, Runnable r) {
+		for (int i=0; i<RUNS/2; i++) r.run();
+		long start=System.nanoTime();
+		for (int i=0; i<RUNS; i++) r.run();
+		long elapsed=System.nanoTime()-start;
+		System.out.println(String.format("%-32s %8.3f ms",name,elapsed/(RUNS*1000000.0)));
+	}
+
+	private static void runAll(String mode, final Vector a, final Vector b) {
+		time(mode+" elementSum",new Runnable() {
+			@Override
+			public void run() {
+				sink+=a.elementSum();
+			}
+		});
+		time(mode+" dotProduct",new Runnable() {
+			@Override
+			public void run() {
+				sink+=a.dotProduct(b);
+			}
+		});
+		time(mode+" magnitudeSquared",new Runnable() {
+			@Override
+			public void run() {
+				sink+=a.magnitudeSquared();
+			}
+		});
+		time(mode+" addMultiple",new Runnable() {
+			@Override
+			public void run() {
+				a.addMultiple(b, 0.0001);
+			}
+		});
+		time(mode+" applyOp(TANH)",new Runnable() {
+			@Override
+			public void run() {
+				b.applyOp(Ops.TANH);
+			}
+		});
+	}
+
+	public static void main(String[] args) {
+		Vector a=Vector.createLength(SIZE);
+		Vector b=Vector.createLength(SIZE);
+		Vectorz.fillGaussian(a);
+		Vectorz.fillGaussian(b);
+
+		Parallel.setEnabled(false);
+		runAll("sequential",a,b);
+		Parallel.setEnabled(true);
+		runAll("parallel",a,b);
+		Parallel.setEnabled(false);
+		System.out.println(sink);
+	}
+}
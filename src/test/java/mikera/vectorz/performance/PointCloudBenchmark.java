@@ -0,0 +1,44 @@
+package mikera.vectorz.performance;
+
+import mikera.matrixx.Matrixx;
+import mikera.transformz.Affine34;
+import mikera.vectorz.PointCloud3;
+import mikera.vectorz.Vector3;
+
+/**
+ * Compares transforming an array of Vector3 objects against a packed PointCloud3
+ *
+ * @author Mike
+ */
+public class PointCloudBenchmark {
+	public static final int POINTS=1000000;
+	public static final int RUNS=20;
+
+	public static void main(String[] args) {
+		Affine34 t=new Affine34(Matrixx.createRotationMatrix(Vector3.of(1,2,3), 0.01),Vector3.of(0.1,0.2,0.3));
+		Vector3[] vs=new Vector3[POINTS];
+		PointCloud3 cloud=PointCloud3.create(POINTS);
+		for (int i=0; i<POINTS; i++) {
+			vs[i]=Vector3.of(Math.random(),Math.random(),Math.random());
+			cloud.setPoint(i, vs[i]);
+		}
+
+		for (int pass=0; pass<3; pass++) {
+			long start=System.nanoTime();
+			for (int r=0; r<RUNS; r++) {
+				for (int i=0; i<POINTS; i++) {
+					t.transformInPlace(vs[i]);
+				}
+			}
+			double objectTime=(System.nanoTime()-start)*0.000001/RUNS;
+
+			start=System.nanoTime();
+			for (int r=0; r<RUNS; r++) {
+				cloud.transform(t);
+			}
+			double packedTime=(System.nanoTime()-start)*0.000001/RUNS;
+
+			System.out.println(String.format("%d points: Vector3[] %.3f ms, PointCloud3 %.3f ms",POINTS,objectTime,packedTime));
+		}
+	}
+}
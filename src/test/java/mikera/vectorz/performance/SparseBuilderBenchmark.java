@@ -0,0 +1,78 @@
+package mikera.vectorz.performance;
+
+import java.util.Random;
+
+import mikera.vectorz.impl.SparseIndexedVector;
+import mikera.vectorz.util.SparseMatrixBuilder;
+import mikera.vectorz.util.SparseVectorBuilder;
+
+/**
+ * Measures the throughput of building sparse vectors and matrices from unsorted (index, value)
+ * pairs with the bulk builders, compared to element-wise SparseIndexedVector.set
+ *
+ * @author Mike
+ */
+public class SparseBuilderBenchmark {
+	private static final int[] SIZES={10000,100000,1000000,10000000};
+
+	// element-wise set is quadratic, so is only measured for small sizes
+	private static final int MAX_SET_SIZE=100000;
+
+	private static double sink=0.0;
+
+	private static void report(String name, int nonZeros, long nanos) {
+		double seconds=nanos*1e-9;
+		System.out.println(String.format("%-28s %9d nnz %10.3f ms %8.2f M nnz/s",name,nonZeros,seconds*1000.0,nonZeros/(seconds*1e6)));
+	}
+
+	public static void main(String[] args) {
+		Random r=new Random(1);
+		for (int nnz: SIZES) {
+			int length=nnz*10;
+			int[] ixs=new int[nnz];
+			double[] vals=new double[nnz];
+			for (int k=0; k<nnz; k++) {
+				ixs[k]=r.nextInt(length);
+				vals[k]=r.nextDouble();
+			}
+
+			for (int warm=0; warm<3; warm++) {
+				long start=System.nanoTime();
+				SparseVectorBuilder b=new SparseVectorBuilder(length);
+				for (int k=0; k<nnz; k++) {
+					b.append(ixs[k], vals[k]);
+				}
+				SparseIndexedVector v=b.toSparseIndexedVector();
+				sink+=v.elementSum();
+				if (warm==2) report("SparseVectorBuilder",nnz,System.nanoTime()-start);
+			}
+
+			if (nnz<=MAX_SET_SIZE) {
+				long start=System.nanoTime();
+				SparseIndexedVector v=SparseIndexedVector.createLength(length);
+				for (int k=0; k<nnz; k++) {
+					v.addAt(ixs[k], vals[k]);
+				}
+				sink+=v.elementSum();
+				report("SparseIndexedVector.addAt",nnz,System.nanoTime()-start);
+			}
+
+			int rows=Math.max(1, nnz/100);
+			int cols=10000;
+			int[] rowIxs=new int[nnz];
+			int[] colIxs=new int[nnz];
+			for (int k=0; k<nnz; k++) {
+				rowIxs[k]=r.nextInt(rows);
+				colIxs[k]=r.nextInt(cols);
+			}
+			for (int warm=0; warm<3; warm++) {
+				long start=System.nanoTime();
+				SparseMatrixBuilder mb=new SparseMatrixBuilder(rows,cols,nnz);
+				mb.append(rowIxs, colIxs, vals);
+				sink+=mb.toSparseRowMatrix().elementSum();
+				if (warm==2) report("SparseMatrixBuilder (COO)",nnz,System.nanoTime()-start);
+			}
+		}
+		System.out.println(sink);
+	}
+}
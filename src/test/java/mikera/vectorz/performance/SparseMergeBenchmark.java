@@ -0,0 +1,103 @@
+package mikera.vectorz.performance;
+
+import java.util.Random;
+
+import mikera.vectorz.impl.SparseIndexedVector;
+import mikera.vectorz.util.SparseVectorBuilder;
+
+/**
+ * Measures the merge-based sparse-sparse kernels of SparseIndexedVector over varying overlap
+ * ratios between the two indexes, and for very unequal numbers of non-zeros where galloping
+ * search applies. The per-element lookup dot product is included as a baseline.
+ *
+ * @author Mike
+ */
+public class SparseMergeBenchmark {
+	private static final int LENGTH=10000000;
+	private static final int NON_ZEROS=100000;
+	private static final int RUNS=50;
+
+	private static double sink=0.0;
+
+	private static void time(String name, Runnable r) {
+		for (int i=0; i<RUNS/2; i++) r.run();
+		long start=System.nanoTime();
+		for (int i=0; i<RUNS; i++) r.run();
+		long elapsed=System.nanoTime()-start;
+		System.out.println(String.format("%-44s %9.3f ms",name,elapsed/(RUNS*1000000.0)));
+	}
+
+	/**
+	 * Creates a pair of sparse vectors with the given numbers of non-zeros, where approximately
+	 * the given fraction of the smaller vector's indexes are shared with the larger
+	 */
+	private static SparseIndexedVector[] createPair(Random r, int na, int nb, double overlap) {
+		SparseVectorBuilder ab=new SparseVectorBuilder(LENGTH);
+		SparseVectorBuilder bb=new SparseVectorBuilder(LENGTH);
+		int[] aixs=new int[na];
+		for (int k=0; k<na; k++) {
+			aixs[k]=r.nextInt(LENGTH);
+			ab.append(aixs[k], 1.0+r.nextDouble());
+		}
+		for (int k=0; k<nb; k++) {
+			int i=(r.nextDouble()<overlap)?aixs[r.nextInt(na)]:r.nextInt(LENGTH);
+			bb.append(i, 1.0+r.nextDouble());
+		}
+		return new SparseIndexedVector[] {ab.toSparseIndexedVector(),bb.toSparseIndexedVector()};
+	}
+
+	private static void runAll(String label, final SparseIndexedVector a, final SparseIndexedVector b) {
+		time(label+" dotProduct (merge)",new Runnable() {
+			@Override
+			public void run() {
+				sink+=a.dotProduct(b);
+			}
+		});
+		time(label+" dotProduct (lookup)",new Runnable() {
+			@Override
+			public void run() {
+				double result=0.0;
+				int[] ixs=a.nonSparseIndexes().getData();
+				double[] data=a.nonSparseValues().getArray();
+				for (int j=0; j<ixs.length; j++) {
+					result+=data[j]*b.unsafeGet(ixs[j]);
+				}
+				sink+=result;
+			}
+		});
+		time(label+" distanceSquared",new Runnable() {
+			@Override
+			public void run() {
+				sink+=a.distanceSquared(b);
+			}
+		});
+		time(label+" addMultiple",new Runnable() {
+			@Override
+			public void run() {
+				SparseIndexedVector t=a.exactClone();
+				t.addMultiple(b, 0.5);
+				sink+=t.nonSparseElementCount();
+			}
+		});
+		time(label+" multiply",new Runnable() {
+			@Override
+			public void run() {
+				SparseIndexedVector t=a.exactClone();
+				t.multiply(b);
+				sink+=t.nonSparseElementCount();
+			}
+		});
+	}
+
+	public static void main(String[] args) {
+		Random r=new Random(1);
+		for (double overlap: new double[] {0.0,0.1,0.5,1.0}) {
+			SparseIndexedVector[] p=createPair(r,NON_ZEROS,NON_ZEROS,overlap);
+			runAll(String.format("equal, overlap %.0f%%",overlap*100),p[0],p[1]);
+		}
+		SparseIndexedVector[] p=createPair(r,NON_ZEROS,100,0.5);
+		runAll("large x small",p[0],p[1]);
+		runAll("small x large",p[1],p[0]);
+		System.out.println(sink);
+	}
+}
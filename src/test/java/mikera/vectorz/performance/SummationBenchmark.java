@@ -0,0 +1,85 @@
+package mikera.vectorz.performance;
+
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import mikera.vectorz.util.DoubleArrays;
+
+/**
+ * Caliper based benchmarks comparing naive, pairwise and compensated summation
+ *
+ * @author Mike
+ */
+public class SummationBenchmark extends SimpleBenchmark {
+	private static final int SIZE=1000000;
+
+	private final double[] a=new double[SIZE];
+	private final double[] b=new double[SIZE];
+
+	public volatile double output=0.0;
+
+	@Override
+	protected void setUp() {
+		for (int i=0; i<SIZE; i++) {
+			a[i]=Math.sin(i);
+			b[i]=Math.cos(i);
+		}
+	}
+
+	public void timeNaiveSum(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.elementSum(a, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public void timePairwiseSum(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.pairwiseSum(a, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public void timeKahanSum(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.kahanSum(a, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public void timeNaiveDotProduct(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.dotProduct(a, 0, b, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public void timePairwiseDotProduct(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.pairwiseDotProduct(a, 0, b, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public void timeKahanDotProduct(int runs) {
+		double t=0.0;
+		for (int i=0; i<runs; i++) {
+			t+=DoubleArrays.kahanDotProduct(a, 0, b, 0, SIZE);
+		}
+		output=t;
+	}
+
+	public static void main(String[] args) {
+		new SummationBenchmark().run();
+	}
+
+	private void run() {
+		Runner runner=new Runner();
+		runner.run(new String[] {this.getClass().getCanonicalName()});
+	}
+}
@@ -0,0 +1,101 @@
+package mikera.vectorz.performance;
+
+import java.lang.management.ManagementFactory;
+
+import mikera.matrixx.Matrix;
+import mikera.matrixx.Matrixx;
+import mikera.matrixx.algo.Multiplications;
+import mikera.matrixx.decompose.impl.lu.AltLU;
+import mikera.matrixx.decompose.impl.qr.HouseholderQR;
+import mikera.vectorz.util.Workspace;
+
+/**
+ * Measures time and allocated bytes per call for algorithms that take their scratch buffers
+ * from the thread-local Workspace pool.
+ *
+ * Once the pool is warm, the remaining allocation per call should be accounted for by the
+ * result objects alone, and multiplyInto should not allocate at all. Allocated bytes are
+ * reported where the JVM supports per-thread allocation counters.
+ *
+ * @author Mike
+ */
+public class WorkspaceBenchmark {
+	private static final int CALLS=2000;
+	private static final int SIZE=64;
+
+	private static double sink=0.0;
+
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean=ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static void measure(String name, Runnable r) {
+		for (int i=0; i<CALLS/10; i++) r.run();
+		long bytes=allocatedBytes();
+		long start=System.nanoTime();
+		for (int i=0; i<CALLS; i++) r.run();
+		long elapsed=System.nanoTime()-start;
+		long allocated=allocatedBytes()-bytes;
+		System.out.println(String.format("%-24s %9.1f us/call  %10.0f bytes/call",name,
+				elapsed/(1000.0*CALLS),(bytes<0)?-1.0:((double)allocated)/CALLS));
+	}
+
+	public static void main(String[] args) {
+		final Matrix a=(Matrix)Matrixx.createRandomMatrix(SIZE, SIZE);
+		final Matrix b=(Matrix)Matrixx.createRandomMatrix(SIZE, SIZE);
+		final Matrix dest=Matrix.create(SIZE, SIZE);
+		final HouseholderQR qr=new HouseholderQR(false);
+		System.out.println("Result matrix size: "+(8L*SIZE*SIZE)+" bytes");
+
+		for (int run=0; run<3; run++) {
+			measure("blockedMultiply",new Runnable() {
+				@Override
+				public void run() {
+					sink+=Multiplications.blockedMultiply(a, b).unsafeGet(0, 0);
+				}
+			});
+
+			measure("doubleBlockedMultiply",new Runnable() {
+				@Override
+				public void run() {
+					sink+=Multiplications.doubleBlockedMultiply(a, b).unsafeGet(0, 0);
+				}
+			});
+
+			measure("directMultiply",new Runnable() {
+				@Override
+				public void run() {
+					sink+=Multiplications.directMultiply(a, b).unsafeGet(0, 0);
+				}
+			});
+
+			measure("multiplyInto",new Runnable() {
+				@Override
+				public void run() {
+					Multiplications.multiplyInto(a, b, dest);
+					sink+=dest.unsafeGet(0, 0);
+				}
+			});
+
+			measure("AltLU.decompose",new Runnable() {
+				@Override
+				public void run() {
+					sink+=AltLU.decompose(a).getU().unsafeGet(0, 0);
+				}
+			});
+
+			measure("HouseholderQR.decompose",new Runnable() {
+				@Override
+				public void run() {
+					sink+=qr.decompose(a).getR().unsafeGet(0, 0);
+				}
+			});
+		}
+		Workspace.clear();
+		if (sink==0.0) System.out.println("Unexpected zero result");
+	}
+}
@@ -0,0 +1,60 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.StridedMatrix;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.ArraySubVector;
+
+import org.junit.Test;
+
+public class TestDoubleArena {
+	@Test public void testCreate() {
+		DoubleArena arena=new DoubleArena(100);
+		ArraySubVector a=arena.createVector(30);
+		ArraySubVector b=arena.createVector(30);
+		StridedMatrix m=arena.createMatrix(5, 6);
+		
+		a.fill(1.0);
+		b.fill(2.0);
+		m.fill(3.0);
+		assertEquals(30.0,a.elementSum(),0.0);
+		assertEquals(60.0,b.elementSum(),0.0);
+		assertEquals(90.0,m.elementSum(),0.0);
+		assertTrue(a.getArray()==m.getArray());
+		assertEquals(90,arena.usedCount());
+		
+		// doesn't fit in the remaining space of the first slab
+		ArraySubVector c=arena.createVector(20);
+		assertTrue(c.isZero());
+		assertFalse(c.getArray()==a.getArray());
+		assertEquals(200,arena.capacity());
+		
+		// larger than a slab
+		ArraySubVector big=arena.createVector(150);
+		assertEquals(150,big.length());
+		assertEquals(200,arena.capacity());
+	}
+	
+	@Test public void testReset() {
+		DoubleArena arena=new DoubleArena(64);
+		for (int i=0; i<10; i++) {
+			arena.createVector(40).fill(i);
+		}
+		long capacity=arena.capacity();
+		arena.reset();
+		assertEquals(0,arena.usedCount());
+		for (int i=0; i<10; i++) {
+			ArraySubVector v=arena.createVector(40);
+			assertTrue(v.isZero());
+			v.fill(i);
+		}
+		StridedMatrix m=arena.createMatrix(2, 3);
+		m.set(Matrix.create(new double[][] {{1,2,3},{4,5,6}}));
+		assertEquals(Vector.of(4,5,6),m.getRow(1));
+		assertEquals(capacity,arena.capacity());
+		
+		arena.clear();
+		assertEquals(64,arena.capacity());
+	}
+}
@@ -29,4 +29,48 @@ public class TestIntArrays {
 		assertFalse(IntArrays.equals(xs,zs));
 		assertFalse(IntArrays.equals(zs,xs));
 	}
+
+	@Test public void testSortedSetOperations() {
+		int[] xs=IntArrays.of(1,3,5,7,9,11);
+		int[] ys=IntArrays.of(0,3,4,5,12);
+		
+		assertTrue(IntArrays.equals(IntArrays.of(0,1,3,4,5,7,9,11,12),IntArrays.unionSorted(xs, ys)));
+		assertTrue(IntArrays.equals(IntArrays.of(3,5),IntArrays.intersectSorted(xs, ys)));
+		assertTrue(IntArrays.equals(IntArrays.of(1,7,9,11),IntArrays.differenceSorted(xs, ys)));
+		assertTrue(IntArrays.equals(IntArrays.of(0,4,12),IntArrays.differenceSorted(ys, xs)));
+		assertEquals(2,IntArrays.countMatches(xs, xs.length, ys, ys.length));
+		
+		int[] empty=IntArrays.EMPTY_INT_ARRAY;
+		assertTrue(IntArrays.equals(xs,IntArrays.unionSorted(xs, empty)));
+		assertEquals(0,IntArrays.intersectSorted(empty, ys).length);
+		assertTrue(IntArrays.equals(xs,IntArrays.differenceSorted(xs, empty)));
+	}
+	
+	@Test public void testUnionPositions() {
+		int[] xs=IntArrays.of(2,4,6,8,10,12,14);
+		int[] ys=IntArrays.of(1,4,13,20);
+		int[] dest=new int[xs.length+ys.length];
+		int[] xPos=new int[xs.length];
+		int[] yPos=new int[ys.length];
+		
+		int n=IntArrays.unionSorted(xs, xs.length, ys, ys.length, dest, xPos, yPos);
+		assertEquals(10,n);
+		for (int i=0; i<xs.length; i++) {
+			assertEquals(xs[i],dest[xPos[i]]);
+		}
+		for (int i=0; i<ys.length; i++) {
+			assertEquals(ys[i],dest[yPos[i]]);
+		}
+		for (int i=1; i<n; i++) {
+			assertTrue(dest[i-1]<dest[i]);
+		}
+	}
+	
+	@Test public void testSortDistinct() {
+		int[] xs=IntArrays.of(5,3,5,1,3,9,0);
+		int n=IntArrays.sortDistinct(xs, 6);
+		assertEquals(4,n);
+		assertTrue(IntArrays.equals(IntArrays.of(1,3,5,9),java.util.Arrays.copyOf(xs, n)));
+		assertEquals(0,IntArrays.sortDistinct(xs, 0));
+	}
 }
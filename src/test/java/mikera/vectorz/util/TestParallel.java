@@ -0,0 +1,109 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+
+import mikera.arrayz.Array;
+import mikera.matrixx.Matrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Ops;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+
+import org.junit.Test;
+
+public class TestParallel {
+	private static final int N=Parallel.CHUNK_SIZE*10+123;
+	
+	private static Vector randomVector(int n) {
+		Vector v=Vector.createLength(n);
+		Vectorz.fillGaussian(v);
+		return v;
+	}
+	
+	@Test public void testReductions() {
+		Vector a=randomVector(N);
+		Vector b=randomVector(N);
+		double[] da=a.getArray();
+		
+		assertEquals(DoubleArrays.elementSum(da,0,N),Parallel.elementSum(da,0,N),1e-8);
+		assertEquals(DoubleArrays.elementSquaredSum(da,0,N),Parallel.elementSquaredSum(da,0,N),1e-8);
+		assertEquals(DoubleArrays.dotProduct(da,0,b.getArray(),0,N),Parallel.dotProduct(a,b),1e-8);
+		
+		// reproducible across calls
+		assertEquals(Parallel.elementSum(a),Parallel.elementSum(a),0.0);
+		assertEquals(Parallel.dotProduct(a,b),Parallel.dotProduct(a,b),0.0);
+	}
+	
+	@Test public void testOffsetRange() {
+		Vector a=randomVector(N+10);
+		AVector sub=a.subVector(7, N);
+		assertEquals(sub.elementSum(),Parallel.elementSum(a.getArray(),7,N),1e-8);
+		assertEquals(sub.magnitudeSquared(),Parallel.elementSquaredSum(sub),1e-8);
+	}
+	
+	@Test public void testElementwise() {
+		Vector a=randomVector(N);
+		Vector b=randomVector(N);
+		
+		Vector e=a.clone();
+		e.addMultiple(b, 2.5);
+		e.applyOp(Ops.TANH);
+		e.multiply(3.0);
+		
+		Vector p=a.clone();
+		Parallel.addMultiple(p, b, 2.5);
+		Parallel.applyOp(p, Ops.TANH);
+		Parallel.multiply(p.getArray(), 0, N, 3.0);
+		assertEquals(e,p);
+	}
+	
+	@Test public void testGlobalPolicy() {
+		boolean enabled=Parallel.isEnabled();
+		int threshold=Parallel.getThreshold();
+		try {
+			Vector a=randomVector(N);
+			Vector b=randomVector(N);
+			Matrix m=Matrix.create(N/100,100);
+			Array arr=Array.newArray(N/100,10,10);
+			m.asVector().set(a.subVector(0, m.rowCount()*100));
+			arr.asVector().set(a.subVector(0, (int)arr.elementCount()));
+			
+			double sum=a.elementSum();
+			double dot=a.dotProduct(b);
+			double msum=m.elementSquaredSum();
+			double asum=arr.elementSum();
+			Vector c=a.clone();
+			c.applyOp(Ops.LOGISTIC);
+			
+			Parallel.setEnabled(true);
+			Parallel.setThreshold(1000);
+			assertTrue(Parallel.useParallel(N));
+			assertFalse(Parallel.useParallel(999));
+			
+			assertEquals(sum,a.elementSum(),1e-8);
+			assertEquals(dot,a.dotProduct(b),1e-8);
+			assertEquals(dot,a.dotProduct((AVector)b),1e-8);
+			assertEquals(msum,m.elementSquaredSum(),1e-8);
+			assertEquals(asum,arr.elementSum(),1e-8);
+			Vector d=a.clone();
+			d.applyOp(Ops.LOGISTIC);
+			assertEquals(c,d);
+		} finally {
+			Parallel.setEnabled(enabled);
+			Parallel.setThreshold(threshold);
+		}
+	}
+	
+	@Test public void testSmall() {
+		Vector a=Vector.of(1,2,3);
+		assertEquals(6.0,Parallel.elementSum(a),0.0);
+		assertEquals(14.0,Parallel.dotProduct(a,a),0.0);
+		
+		try {
+			Parallel.dotProduct(a,Vector.of(1,2));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+	}
+}
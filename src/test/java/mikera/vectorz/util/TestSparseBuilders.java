@@ -0,0 +1,107 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.SparseColumnMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+import org.junit.Test;
+
+public class TestSparseBuilders {
+
+	@Test public void testVectorBuild() {
+		SparseVectorBuilder b=new SparseVectorBuilder(10);
+		b.append(7, 1.0);
+		b.append(2, 2.0);
+		b.append(7, 3.0);
+		b.append(4, 5.0);
+		b.append(4, -5.0);
+		assertEquals(5,b.count());
+
+		SparseIndexedVector v=b.toSparseIndexedVector();
+		v.validate();
+		assertEquals(Vector.of(0,0,2,0,0,0,0,4,0,0),v);
+		assertEquals(2,v.nonSparseIndexes().length());
+
+		// builder remains usable after building
+		b.append(0, 1.0);
+		assertEquals(Vector.of(1,0,2,0,0,0,0,4,0,0),b.toSparseIndexedVector());
+
+		b.clear();
+		assertEquals(0,b.count());
+		assertTrue(b.toSparseIndexedVector().isZero());
+	}
+
+	@Test public void testVectorRandom() {
+		Random r=new Random(1234);
+		int length=100000;
+		double[] expected=new double[length];
+		SparseVectorBuilder b=new SparseVectorBuilder(length);
+		for (int k=0; k<20000; k++) {
+			int i=r.nextInt(length);
+			double v=r.nextInt(10)-4;
+			expected[i]+=v;
+			b.append(i, v);
+		}
+		SparseIndexedVector sv=b.toSparseIndexedVector();
+		sv.validate();
+		assertEquals(Vector.wrap(expected),sv);
+		assertEquals(Vector.wrap(expected).nonZeroCount(),sv.nonSparseIndexes().length());
+	}
+
+	@Test public void testVectorBulkAppend() {
+		SparseVectorBuilder b=new SparseVectorBuilder(5);
+		b.append(new int[] {4,1,4}, new double[] {1,2,3});
+		assertEquals(Vector.of(0,2,0,0,4),b.toSparseIndexedVector());
+	}
+
+	@Test public void testVectorOutOfRange() {
+		SparseVectorBuilder b=new SparseVectorBuilder(5);
+		try {
+			b.append(5, 1.0);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// OK
+		}
+	}
+
+	@Test public void testMatrixBuild() {
+		SparseMatrixBuilder b=new SparseMatrixBuilder(3,4);
+		b.append(2, 3, 1.0);
+		b.append(0, 1, 2.0);
+		b.append(2, 0, 3.0);
+		b.append(2, 3, 1.0);
+		b.append(1, 1, 0.0);
+
+		Matrix expected=Matrix.create(new double[][] {{0,2,0,0},{0,0,0,0},{3,0,0,2}});
+		SparseRowMatrix rm=b.toSparseRowMatrix();
+		rm.validate();
+		assertEquals(expected,rm);
+
+		SparseColumnMatrix cm=b.toSparseColumnMatrix();
+		cm.validate();
+		assertEquals(expected,cm);
+	}
+
+	@Test public void testMatrixRandom() {
+		Random r=new Random(5678);
+		int rows=50;
+		int cols=300;
+		Matrix expected=Matrix.create(rows, cols);
+		SparseMatrixBuilder b=new SparseMatrixBuilder(rows,cols);
+		for (int k=0; k<5000; k++) {
+			int i=r.nextInt(rows);
+			int j=r.nextInt(cols);
+			double v=r.nextGaussian();
+			expected.addAt(i, j, v);
+			b.append(i, j, v);
+		}
+		assertTrue(expected.epsilonEquals(b.toSparseRowMatrix(),1e-12));
+		assertTrue(expected.epsilonEquals(b.toSparseColumnMatrix(),1e-12));
+	}
+}
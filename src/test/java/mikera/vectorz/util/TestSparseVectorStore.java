@@ -0,0 +1,93 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.impl.CompactSparseVector;
+import mikera.vectorz.impl.CompactSparseVector.ValueFormat;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+import org.junit.Test;
+
+public class TestSparseVectorStore {
+	
+	private static SparseIndexedVector randomSparse(Random r, int length, int count) {
+		SparseVectorBuilder b=new SparseVectorBuilder(length);
+		for (int i=0; i<count; i++) {
+			b.append(r.nextInt(length), r.nextGaussian());
+		}
+		return b.toSparseIndexedVector();
+	}
+	
+	@Test public void testStoreExact() {
+		Random r=new Random(3);
+		int n=1000;
+		SparseVectorStore store=new SparseVectorStore(n,ValueFormat.DOUBLE);
+		SparseIndexedVector[] vs=new SparseIndexedVector[50];
+		for (int i=0; i<vs.length; i++) {
+			vs[i]=randomSparse(r,n,i*3);
+			assertEquals(i,store.add(vs[i]));
+		}
+		SparseIndexedVector extra=vs[7].exactClone();
+		extra.set(n-1, 2.0);
+		store.add(extra);
+		
+		Vector d=Vector.createLength(n);
+		for (int i=0; i<n; i++) d.unsafeSet(i, r.nextDouble());
+		double[] dots=new double[store.count()];
+		store.dotProductAll(d, dots, 0);
+		
+		for (int i=0; i<vs.length; i++) {
+			CompactSparseVector c=store.get(i);
+			c.validate();
+			assertEquals(vs[i],c);
+			assertEquals(vs[i].nonZeroCount(),c.nonZeroCount());
+			assertEquals(vs[i].dotProduct(d),c.dotProduct(d),1e-12);
+			assertEquals(vs[i].dotProduct(d),dots[i],1e-12);
+			assertEquals(vs[i].magnitudeSquared(),c.magnitudeSquared(),1e-12);
+			assertEquals(c,c.exactClone());
+		}
+		assertEquals(extra,store.get(vs.length));
+		assertEquals(2.0,store.get(vs.length).get(n-1),0.0);
+		
+		store.trimToSize();
+		assertEquals(vs[3],store.get(3));
+	}
+	
+	@Test public void testCompressedFormats() {
+		Random r=new Random(5);
+		int n=100000;
+		SparseIndexedVector v=randomSparse(r,n,500);
+		Vector d=Vector.createLength(n);
+		for (int i=0; i<n; i++) d.unsafeSet(i, r.nextDouble());
+		double maxAbs=v.maxAbsElement();
+		
+		CompactSparseVector f=CompactSparseVector.create(v,ValueFormat.FLOAT);
+		CompactSparseVector q=CompactSparseVector.create(v,ValueFormat.QUANTIZED);
+		f.validate();
+		q.validate();
+		
+		assertEquals(v.dotProduct(d),f.dotProduct(d),1e-4);
+		AVector diff=v.subCopy(q);
+		assertTrue(diff.maxAbsElement()<=0.5*maxAbs/127+1e-9);
+		
+		// at least 3x smaller than index array plus double array for float, more for quantised
+		long plainBytes=12L*v.nonSparseElementCount();
+		assertTrue(f.encodedSize()*2<plainBytes);
+		assertTrue(q.encodedSize()*4<plainBytes);
+	}
+	
+	@Test public void testWrongLength() {
+		SparseVectorStore store=new SparseVectorStore(10,ValueFormat.FLOAT);
+		try {
+			store.add(Vector.createLength(5));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// OK
+		}
+		assertEquals(0,store.count());
+	}
+}
@@ -0,0 +1,137 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import mikera.arrayz.Array;
+import mikera.matrixx.Matrix;
+import mikera.matrixx.impl.SparseColumnMatrix;
+import mikera.matrixx.impl.SparseRowMatrix;
+import mikera.vectorz.AVector;
+import mikera.vectorz.Vector;
+import mikera.vectorz.Vectorz;
+import mikera.vectorz.impl.SparseHashedVector;
+import mikera.vectorz.impl.SparseIndexedVector;
+
+import org.junit.Test;
+
+public class TestSummation {
+	private static double exactSum(double[] data) {
+		BigDecimal total=BigDecimal.ZERO;
+		for (double d: data) {
+			total=total.add(new BigDecimal(d));
+		}
+		return total.doubleValue();
+	}
+	
+	@Test public void testCancellation() {
+		double[] data={1e16, 1.0, -1e16};
+		assertEquals(1.0,DoubleArrays.kahanSum(data, 0, 3),0.0);
+		assertEquals(1.0,Summation.KAHAN.dotProduct(data, 0, new double[] {1,1,1}, 0, 3),0.0);
+		assertEquals(1.0,Vector.wrap(data).elementSum(Summation.KAHAN),0.0);
+	}
+	
+	@Test public void testAccuracy() {
+		Random r=new Random(7);
+		int n=100003;
+		double[] data=new double[n];
+		for (int i=0; i<n; i++) {
+			data[i]=r.nextDouble()*((i%3==0)?1e8:1e-3)+0.1;
+		}
+		double exact=exactSum(data);
+		double eps=Math.ulp(exact);
+		
+		assertEquals(exact,DoubleArrays.kahanSum(data, 0, n),2*eps);
+		assertEquals(exact,DoubleArrays.pairwiseSum(data, 0, n),64*eps);
+		
+		double naiveError=Math.abs(DoubleArrays.elementSum(data, 0, n)-exact);
+		double pairwiseError=Math.abs(DoubleArrays.pairwiseSum(data, 0, n)-exact);
+		assertTrue(pairwiseError<=naiveError);
+	}
+	
+	@Test public void testModesAgree() {
+		for (int n: new int[] {0,1,3,4,5,511,512,513,1000,4099}) {
+			AVector a=Vectorz.createUniformRandomVector(n);
+			AVector b=Vectorz.createUniformRandomVector(n);
+			double sum=a.elementSum();
+			double sq=a.elementSquaredSum();
+			double dot=a.dotProduct(b);
+			for (Summation mode: Summation.values()) {
+				assertEquals(sum,a.elementSum(mode),1e-10);
+				assertEquals(sq,a.elementSquaredSum(mode),1e-10);
+				assertEquals(dot,a.dotProduct(b,mode),1e-10);
+			}
+		}
+	}
+	
+	@Test public void testOffsets() {
+		double[] data=new double[300];
+		for (int i=0; i<data.length; i++) data[i]=i;
+		Vector v=Vector.wrap(data);
+		AVector sub=v.subVector(10, 250);
+		double expected=sub.elementSum();
+		for (Summation mode: Summation.values()) {
+			assertEquals(expected,sub.elementSum(mode),0.0);
+			assertEquals(expected,mode.sum(data, 10, 250),0.0);
+			assertEquals(sub.dotProduct(sub),sub.dotProduct(sub,mode),0.0);
+			assertEquals(sub.elementSquaredSum(),mode.squaredSum(data, 10, 250),0.0);
+		}
+	}
+	
+	@Test public void testArrays() {
+		Matrix m=Matrix.create(new double[][] {{1,2},{3,4}});
+		Array a=Array.newArray(2,2,2);
+		a.fill(0.5);
+		AVector sparse=Vectorz.createSparseMutable(1000);
+		sparse.set(3, 2.0);
+		sparse.set(700, 3.0);
+		for (Summation mode: Summation.values()) {
+			assertEquals(10.0,m.elementSum(mode),0.0);
+			assertEquals(30.0,m.elementSquaredSum(mode),0.0);
+			assertEquals(4.0,a.elementSum(mode),0.0);
+			assertEquals(10.0,m.getTranspose().elementSum(mode),0.0);
+			assertEquals(5.0,sparse.elementSum(mode),0.0);
+			assertEquals(13.0,sparse.elementSquaredSum(mode),0.0);
+		}
+	}
+	
+	@Test public void testSparse() {
+		int n=100000;
+		SparseRowMatrix rm=SparseRowMatrix.create(n, n);
+		SparseColumnMatrix cm=SparseColumnMatrix.create(n, n);
+		rm.set(3, 5, 1e16);
+		rm.set(7, 9, 1.0);
+		rm.set(n-1, n-1, -1e16);
+		cm.set(3, 5, 1e16);
+		cm.set(7, 9, 1.0);
+		cm.set(n-1, n-1, -1e16);
+		
+		AVector a=SparseIndexedVector.createLength(n);
+		a.set(2, 2.0);
+		a.set(10, 3.0);
+		a.set(500, 4.0);
+		AVector b=SparseIndexedVector.createLength(n);
+		b.set(10, 5.0);
+		b.set(500, 0.5);
+		b.set(9000, 7.0);
+		AVector h=SparseHashedVector.create(b);
+		AVector d=Vector.createLength(n);
+		d.set(b);
+		
+		for (Summation mode: Summation.values()) {
+			double tolerance=(mode==Summation.KAHAN)?0.0:2.0;
+			assertEquals(1.0,rm.elementSum(mode),tolerance);
+			assertEquals(1.0,cm.elementSum(mode),tolerance);
+			assertEquals(2e32+1.0,rm.elementSquaredSum(mode),1e17);
+			assertEquals(2e32+1.0,cm.elementSquaredSum(mode),1e17);
+			
+			assertEquals(17.0,a.dotProduct(b,mode),0.0);
+			assertEquals(17.0,a.dotProduct(h,mode),0.0);
+			assertEquals(17.0,a.dotProduct(d,mode),0.0);
+			assertEquals(17.0,d.dotProduct(a,mode),0.0);
+			assertEquals(17.0,h.dotProduct(a,mode),0.0);
+		}
+	}
+}
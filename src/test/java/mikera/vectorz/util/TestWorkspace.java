@@ -0,0 +1,89 @@
+package mikera.vectorz.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestWorkspace {
+	@Test public void testReuse() {
+		double[] a=Workspace.acquire(100);
+		assertEquals(128,a.length);
+		Workspace.release(a);
+		assertTrue(a==Workspace.acquire(65));
+		
+		double[] b=Workspace.acquire(100);
+		assertFalse(a==b);
+		Workspace.release(a);
+		Workspace.release(b);
+		
+		int[] is=Workspace.acquireInts(3);
+		assertTrue(is.length>=3);
+		Workspace.release(is);
+		assertTrue(is==Workspace.acquireInts(10));
+	}
+	
+	@Test public void testZeroed() {
+		double[] a=Workspace.acquire(10);
+		java.util.Arrays.fill(a, 1.0);
+		Workspace.release(a);
+		double[] b=Workspace.acquireZeroed(10);
+		assertTrue(DoubleArrays.isZero(b, 0, 10));
+		Workspace.release(b);
+	}
+	
+	@Test public void testUnpooled() {
+		Workspace.clear();
+		double[] big=Workspace.acquire(Workspace.MAX_POOLED_LENGTH+1);
+		assertEquals(Workspace.MAX_POOLED_LENGTH+1,big.length);
+		Workspace.release(big);
+		
+		// arrays of other lengths are ignored
+		double[] odd=new double[17];
+		Workspace.release(odd);
+		assertFalse(odd==Workspace.acquire(17));
+	}
+	
+	@Test public void testBudget() {
+		Workspace.clear();
+		assertTrue(Workspace.MAX_POOLED_LENGTH<=(1<<18));
+		int n=(int)(Workspace.MAX_POOLED_BYTES/(8L*Workspace.MAX_POOLED_LENGTH));
+		double[][] arrays=new double[n+1][];
+		for (int i=0; i<=n; i++) {
+			arrays[i]=Workspace.acquire(Workspace.MAX_POOLED_LENGTH);
+		}
+		for (int i=0; i<=n; i++) {
+			Workspace.release(arrays[i]);
+		}
+		
+		// only arrays within the byte budget are retained
+		for (int i=0; i<n; i++) {
+			assertTrue(arrays[n-1-i]==Workspace.acquire(Workspace.MAX_POOLED_LENGTH));
+		}
+		double[] extra=Workspace.acquire(Workspace.MAX_POOLED_LENGTH);
+		assertFalse(extra==arrays[n]);
+		
+		// the budget applies across size classes
+		for (int i=0; i<n; i++) {
+			Workspace.release(arrays[i]);
+		}
+		double[] half=new double[Workspace.MAX_POOLED_LENGTH/2];
+		Workspace.release(half);
+		assertFalse(half==Workspace.acquire(Workspace.MAX_POOLED_LENGTH/2));
+		Workspace.clear();
+	}
+	
+	@Test public void testThreadLocal() throws InterruptedException {
+		final double[] a=Workspace.acquire(32);
+		Workspace.release(a);
+		final boolean[] same=new boolean[1];
+		Thread t=new Thread(new Runnable() {
+			@Override
+			public void run() {
+				same[0]=(a==Workspace.acquire(32));
+			}
+		});
+		t.start();
+		t.join();
+		assertFalse(same[0]);
+	}
+}